@@ -0,0 +1,50 @@
+package org.docx4j.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks with the GC/allocation profiler, writing
+ * results to jmh-result.json (for comparison with a baseline).
+ *
+ * Usage:
+ *
+ * <pre>
+ *   java -cp target/benchmarks.jar org.docx4j.benchmarks.BenchmarkRunner [regexp]
+ * </pre>
+ *
+ * where regexp selects benchmarks (eg "PackageBenchmark.save"); default is all.
+ *
+ * System properties:
+ * <ul>
+ * <li>docx4j.benchmarks.size: comma separated document sizes (default: as per each benchmark's @Param)</li>
+ * <li>docx4j.benchmarks.result: result file (default jmh-result.json)</li>
+ * </ul>
+ *
+ * For other options (eg other profilers), use org.openjdk.jmh.Main, the
+ * main class of benchmarks.jar, instead.
+ *
+ * @since 8.2.2
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.include(args.length > 0 ? args[0] : "org.docx4j.benchmarks.*")
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty("docx4j.benchmarks.result", "jmh-result.json"));
+
+		String sizes = System.getProperty("docx4j.benchmarks.size");
+		if (sizes != null) {
+			options.param("size", sizes.split(","));
+		}
+
+		new Runner(options.build()).run();
+	}
+
+}
@@ -0,0 +1,83 @@
+package org.docx4j.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.docx4j.Docx4J;
+import org.docx4j.model.fields.merge.MailMerger;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Docx4J.bind and MailMerger.performMerge.  
+ * 
+ * Both modify the document, so each invocation gets a freshly loaded
+ * copy (Level.Invocation is OK here, since the operations themselves
+ * take milliseconds). 
+ *
+ * @since 8.2.2
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindBenchmark {
+
+	/**
+	 * Number of sections in the synthetic document
+	 */
+	@Param({"100", "1000"})
+	public int size;
+
+	private byte[] bindable;
+	private String data;
+	private WordprocessingMLPackage toBind;
+
+	private byte[] template;
+	private WordprocessingMLPackage toMerge;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() throws Exception {
+
+		bindable = SyntheticDocuments.toBytes(SyntheticDocuments.createBindable(size));
+		data = SyntheticDocuments.bindingData(size);
+		template = SyntheticDocuments.toBytes(SyntheticDocuments.create(size));
+
+		MailMerger.setMERGEFIELDInOutput(MailMerger.OutputField.REMOVED);
+	}
+
+	@Setup(Level.Invocation)
+	public void setUpInvocation() throws Exception {
+
+		toBind = WordprocessingMLPackage.load(new ByteArrayInputStream(bindable));
+		toMerge = WordprocessingMLPackage.load(new ByteArrayInputStream(template));
+	}
+
+	@Benchmark
+	public WordprocessingMLPackage bind() throws Exception {
+
+		Docx4J.bind(toBind, data, Docx4J.FLAG_BIND_INSERT_XML | Docx4J.FLAG_BIND_BIND_XML);
+		return toBind;
+	}
+
+	@Benchmark
+	public WordprocessingMLPackage mailMerge() throws Exception {
+
+		MailMerger.performMerge(toMerge, SyntheticDocuments.mergeData(), false);
+		return toMerge;
+	}
+
+}
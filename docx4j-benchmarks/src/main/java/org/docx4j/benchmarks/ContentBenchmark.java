@@ -0,0 +1,131 @@
+package org.docx4j.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.TraversalUtil.CallbackImpl;
+import org.docx4j.XmlUtils;
+import org.docx4j.model.PropertyResolver;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Operations on the content tree: XmlUtils.deepCopy, TraversalUtil,
+ * and PropertyResolver.
+ *
+ * @since 8.2.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentBenchmark {
+
+	/**
+	 * Number of sections in the synthetic document
+	 */
+	@Param({"100", "1000"})
+	public int size;
+
+	private WordprocessingMLPackage wordMLPackage;
+
+	private Body body;
+
+	private List<P> paragraphs;
+	private List<R> runs;
+	private List<Object> all;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		wordMLPackage = SyntheticDocuments.create(size);
+		body = wordMLPackage.getMainDocumentPart().getJaxbElement().getBody();
+
+		paragraphs = new ArrayList<P>();
+		runs = new ArrayList<R>();
+		all = new ArrayList<Object>();
+		new TraversalUtil(body, new CallbackImpl() {
+
+			@Override
+			public List<Object> apply(Object o) {
+				all.add(o);
+				if (o instanceof P) {
+					paragraphs.add((P)o);
+				} else if (o instanceof R) {
+					runs.add((R)o);
+				}
+				return null;
+			}
+		});
+	}
+
+	@Benchmark
+	public Body deepCopy() {
+
+		return XmlUtils.deepCopy(body);
+	}
+
+	@Benchmark
+	public int traverse() {
+
+		final int[] count = new int[1];
+		new TraversalUtil(body, new CallbackImpl() {
+
+			@Override
+			public List<Object> apply(Object o) {
+				count[0]++;
+				return null;
+			}
+		});
+		return count[0];
+	}
+
+	/**
+	 * TraversalUtil.getChildrenImpl on every object in the body, 
+	 * without the callback overhead.
+	 */
+	@Benchmark
+	public void getChildren(Blackhole bh) {
+
+		for (Object o : all) {
+			bh.consume(TraversalUtil.getChildrenImpl(o));
+		}
+	}
+
+	/**
+	 * Effective paragraph and run properties, for every paragraph and run,
+	 * using a new PropertyResolver (as each conversion does).
+	 */
+	@Benchmark
+	public void propertyResolver(Blackhole bh) throws Exception {
+
+		PropertyResolver propertyResolver = new PropertyResolver(wordMLPackage);
+		for (P p : paragraphs) {
+			bh.consume(propertyResolver.getEffectivePPr(p.getPPr()));
+		}
+		for (R r : runs) {
+			P p = (r.getParent() instanceof P) ? (P)r.getParent() : null;
+			bh.consume(propertyResolver.getEffectiveRPr(r.getRPr(), p==null ? null : p.getPPr()));
+		}
+	}
+
+}
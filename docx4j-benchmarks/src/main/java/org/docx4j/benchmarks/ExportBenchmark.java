@@ -0,0 +1,75 @@
+package org.docx4j.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.docx4j.Docx4J;
+import org.docx4j.convert.out.FOSettings;
+import org.docx4j.convert.out.HTMLSettings;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * HTML (HtmlExporterNonXSLT) and XSL FO (FOExporterVisitor) generation.
+ * FO is output as is, so Apache FOP's rendering time isn't included.
+ *
+ * @since 8.2.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExportBenchmark {
+
+	/**
+	 * Number of sections in the synthetic document
+	 */
+	@Param({"100", "1000"})
+	public int size;
+
+	private WordprocessingMLPackage wordMLPackage;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		wordMLPackage = SyntheticDocuments.create(size);
+	}
+
+	@Benchmark
+	public int html() throws Exception {
+
+		HTMLSettings settings = Docx4J.createHTMLSettings();
+		settings.setWmlPackage(wordMLPackage);
+		settings.setImageDirPath(System.getProperty("java.io.tmpdir"));
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Docx4J.toHTML(settings, baos, Docx4J.FLAG_EXPORT_PREFER_NONXSL);
+		return baos.size();
+	}
+
+	@Benchmark
+	public int fo() throws Exception {
+
+		FOSettings settings = Docx4J.createFOSettings();
+		settings.setWmlPackage(wordMLPackage);
+		settings.setApacheFopMime(FOSettings.INTERNAL_FO_MIME);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Docx4J.toFO(settings, baos, Docx4J.FLAG_EXPORT_PREFER_NONXSL);
+		return baos.size();
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.docx4j.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.docx4j.Docx4J;
+import org.docx4j.openpackaging.io3.Load3;
+import org.docx4j.openpackaging.io3.Save;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading (Load3 from a ZipPartStore) and saving a docx.
+ *
+ * @since 8.2.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageBenchmark {
+
+	/**
+	 * Number of sections in the synthetic document
+	 */
+	@Param({"100", "1000"})
+	public int size;
+
+	private byte[] docx;
+
+	private WordprocessingMLPackage wordMLPackage;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		docx = SyntheticDocuments.toBytes(SyntheticDocuments.create(size));
+		wordMLPackage = (WordprocessingMLPackage)new Load3(new ZipPartStore(new ByteArrayInputStream(docx))).get();
+	}
+
+	@Benchmark
+	public Object load() throws Exception {
+
+		return new Load3(new ZipPartStore(new ByteArrayInputStream(docx))).get();
+	}
+
+	/**
+	 * Load, then touch the main document part, so it is unmarshalled
+	 * even if parts are loaded lazily.
+	 */
+	@Benchmark
+	public int loadAndUnmarshal() throws Exception {
+
+		WordprocessingMLPackage loaded
+			= (WordprocessingMLPackage)new Load3(new ZipPartStore(new ByteArrayInputStream(docx))).get();
+		return loaded.getMainDocumentPart().getContent().size();
+	}
+
+	@Benchmark
+	public int save() throws Exception {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(docx.length * 2);
+		Docx4J.save(wordMLPackage, baos);
+		return baos.size();
+	}
+
+	/**
+	 * Save, marshalling and compressing parts on one thread per processor.
+	 */
+	@Benchmark
+	public int saveParallel() throws Exception {
+
+		ZipPartStore zipPartStore = new ZipPartStore();
+		zipPartStore.setParallelism(0);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream(docx.length * 2);
+		new Save(wordMLPackage, zipPartStore).save(baos);
+		return baos.size();
+	}
+
+}
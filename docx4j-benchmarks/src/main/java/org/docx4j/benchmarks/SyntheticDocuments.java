@@ -0,0 +1,179 @@
+package org.docx4j.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.docx4j.Docx4J;
+import org.docx4j.XmlUtils;
+import org.docx4j.customXmlProperties.DatastoreItem;
+import org.docx4j.model.datastorage.CustomXmlDataStorage;
+import org.docx4j.model.datastorage.CustomXmlDataStorageImpl;
+import org.docx4j.model.fields.merge.DataFieldName;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePropertiesPart;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart.AddPartBehaviour;
+import org.docx4j.wml.Body;
+
+/**
+ * Generates documents of a given size for the benchmarks, so that
+ * results don't depend on sample files which may change.
+ *
+ * A document of size n has n "sections", each of which is a Heading1
+ * paragraph (with a bookmark), and a body paragraph containing formatted
+ * runs, a MERGEFIELD and a PAGEREF field.  Every 5th section also has
+ * a content control (data bound, in a bindable document), and every
+ * 10th a 3x3 table.
+ *
+ * @since 8.2.2
+ */
+public class SyntheticDocuments {
+
+	private static final String W_NS = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+
+	private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, "
+			+ "sed do eiusmod tempor incididunt ut labore et dolore magna aliqua. ";
+
+	private SyntheticDocuments() {}
+
+	/**
+	 * @param size number of sections
+	 */
+	public static WordprocessingMLPackage create(int size) throws Docx4JException {
+		return create(size, null);
+	}
+
+	/**
+	 * A document whose content controls are bound to a custom XML part,
+	 * for use with bindingData(size).
+	 *
+	 * @param size number of sections
+	 */
+	public static WordprocessingMLPackage createBindable(int size) throws Exception {
+
+		String storeItemID = "{" + UUID.randomUUID().toString().toUpperCase() + "}";
+		WordprocessingMLPackage wordMLPackage = create(size, storeItemID);
+
+		CustomXmlDataStoragePart customXmlDataStoragePart = new CustomXmlDataStoragePart();
+		CustomXmlDataStorage data = new CustomXmlDataStorageImpl();
+		data.setDocument(XmlUtils.getNewDocumentBuilder().parse(
+				new java.io.ByteArrayInputStream(bindingData(size).getBytes("UTF-8"))));
+		customXmlDataStoragePart.setData(data);
+		wordMLPackage.getMainDocumentPart().addTargetPart(customXmlDataStoragePart, AddPartBehaviour.RENAME_IF_NAME_EXISTS);
+
+		CustomXmlDataStoragePropertiesPart propertiesPart = new CustomXmlDataStoragePropertiesPart();
+		DatastoreItem dsi = new org.docx4j.customXmlProperties.ObjectFactory().createDatastoreItem();
+		dsi.setItemID(storeItemID);
+		propertiesPart.setJaxbElement(dsi);
+		customXmlDataStoragePart.addTargetPart(propertiesPart);
+
+		return wordMLPackage;
+	}
+
+	private static WordprocessingMLPackage create(int size, String storeItemID) throws Docx4JException {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		try {
+			wordMLPackage.getMainDocumentPart().getJaxbElement().setBody(
+					(Body)XmlUtils.unwrap(XmlUtils.unmarshalString(bodyXml(size, storeItemID))));
+		} catch (javax.xml.bind.JAXBException e) {
+			throw new Docx4JException(e.getMessage(), e);
+		}
+		return wordMLPackage;
+	}
+
+	private static String bodyXml(int size, String storeItemID) {
+
+		StringBuilder sb = new StringBuilder(size * 1500);
+		sb.append("<w:body ").append(W_NS).append(">");
+		for (int i = 1; i <= size; i++) {
+
+			// Heading, with a bookmark
+			sb.append("<w:p><w:pPr><w:pStyle w:val=\"Heading1\"/></w:pPr>")
+				.append("<w:bookmarkStart w:id=\"").append(i).append("\" w:name=\"section").append(i).append("\"/>")
+				.append("<w:r><w:t>Section ").append(i).append("</w:t></w:r>")
+				.append("<w:bookmarkEnd w:id=\"").append(i).append("\"/>")
+				.append("</w:p>");
+
+			// Body paragraph, with formatting and fields
+			sb.append("<w:p><w:pPr><w:jc w:val=\"both\"/></w:pPr>")
+				.append("<w:r><w:t xml:space=\"preserve\">Dear </w:t></w:r>")
+				.append("<w:fldSimple w:instr=\" MERGEFIELD  Name  \\* MERGEFORMAT \"><w:r><w:t>\u00ABName\u00BB</w:t></w:r></w:fldSimple>")
+				.append("<w:r><w:rPr><w:b/></w:rPr><w:t xml:space=\"preserve\">, </w:t></w:r>")
+				.append("<w:r><w:rPr><w:i/><w:color w:val=\"365F91\"/></w:rPr><w:t xml:space=\"preserve\">").append(LOREM).append("</w:t></w:r>")
+				.append("<w:r><w:t xml:space=\"preserve\">See page </w:t></w:r>")
+				.append("<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>")
+				.append("<w:r><w:instrText xml:space=\"preserve\"> PAGEREF section").append(i).append(" \\h </w:instrText></w:r>")
+				.append("<w:r><w:fldChar w:fldCharType=\"separate\"/></w:r>")
+				.append("<w:r><w:t>1</w:t></w:r>")
+				.append("<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>")
+				.append("<w:r><w:rPr><w:sz w:val=\"28\"/></w:rPr><w:t xml:space=\"preserve\"> ").append(LOREM).append("</w:t></w:r>")
+				.append("</w:p>");
+
+			if (i % 5 == 0) {
+				sb.append("<w:sdt><w:sdtPr><w:tag w:val=\"item").append(i).append("\"/>")
+					.append("<w:id w:val=\"").append(i).append("\"/>");
+				if (storeItemID!=null) {
+					sb.append("<w:dataBinding w:xpath=\"/data[1]/item[").append(i / 5).append("]\" w:storeItemID=\"")
+						.append(storeItemID).append("\"/>");
+				}
+				sb.append("<w:text/></w:sdtPr>")
+					.append("<w:sdtContent><w:p><w:r><w:t>Placeholder ").append(i).append("</w:t></w:r></w:p></w:sdtContent>")
+					.append("</w:sdt>");
+			}
+
+			if (i % 10 == 0) {
+				sb.append("<w:tbl><w:tblPr><w:tblStyle w:val=\"TableGrid\"/><w:tblW w:w=\"0\" w:type=\"auto\"/></w:tblPr>")
+					.append("<w:tblGrid><w:gridCol w:w=\"3000\"/><w:gridCol w:w=\"3000\"/><w:gridCol w:w=\"3000\"/></w:tblGrid>");
+				for (int row = 0; row < 3; row++) {
+					sb.append("<w:tr>");
+					for (int col = 0; col < 3; col++) {
+						sb.append("<w:tc><w:tcPr><w:tcW w:w=\"3000\" w:type=\"dxa\"/></w:tcPr>")
+							.append("<w:p><w:r><w:t>").append(row).append(",").append(col).append("</w:t></w:r></w:p></w:tc>");
+					}
+					sb.append("</w:tr>");
+				}
+				sb.append("</w:tbl>");
+			}
+		}
+		sb.append("<w:sectPr><w:pgSz w:w=\"11906\" w:h=\"16838\"/>")
+			.append("<w:pgMar w:top=\"1440\" w:right=\"1440\" w:bottom=\"1440\" w:left=\"1440\" w:header=\"708\" w:footer=\"708\" w:gutter=\"0\"/>")
+			.append("</w:sectPr>");
+		sb.append("</w:body>");
+		return sb.toString();
+	}
+
+	/**
+	 * XML data for a document created with createBindable(size)
+	 */
+	public static String bindingData(int size) {
+
+		StringBuilder sb = new StringBuilder("<data>");
+		for (int i = 1; i <= size / 5; i++) {
+			sb.append("<item>Bound value ").append(i).append("</item>");
+		}
+		sb.append("</data>");
+		return sb.toString();
+	}
+
+	/**
+	 * Data for the MERGEFIELDs in the document
+	 */
+	public static Map<DataFieldName, String> mergeData() {
+
+		Map<DataFieldName, String> data = new HashMap<DataFieldName, String>();
+		data.put(new DataFieldName("Name"), "Jane Citizen");
+		return data;
+	}
+
+	public static byte[] toBytes(WordprocessingMLPackage wordMLPackage) throws Docx4JException {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Docx4J.save(wordMLPackage, baos);
+		return baos.toByteArray();
+	}
+
+}
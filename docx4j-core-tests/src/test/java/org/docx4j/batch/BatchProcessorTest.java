@@ -0,0 +1,145 @@
+package org.docx4j.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.docx4j.Docx4J;
+import org.docx4j.TextUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.Test;
+
+public class BatchProcessorTest {
+
+	@Test
+	public void testBatch() throws Exception {
+
+		List<BatchInput> inputs = new ArrayList<BatchInput>();
+		for (int i = 0; i < 20; i++) {
+			WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+			wordMLPackage.getMainDocumentPart().addParagraphOfText("Document " + i);
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			wordMLPackage.save(baos);
+			inputs.add(BatchInput.of("doc" + i, baos.toByteArray()));
+		}
+		inputs.add(BatchInput.of("not a docx", "hello".getBytes()));
+
+		final AtomicInteger resourcesCreated = new AtomicInteger();
+		final AtomicInteger notified = new AtomicInteger();
+
+		BatchSettings settings = Docx4J.createBatchSettings();
+		settings.setParallelism(3);
+		settings.setListener(new BatchListener() {
+			public void documentProcessed(BatchResult result) {
+				notified.incrementAndGet();
+			}
+		});
+
+		BatchStats stats = Docx4J.batch(inputs.iterator(), new BatchPipeline() {
+			public void process(BatchContext context, WordprocessingMLPackage wmlPackage) throws Exception {
+
+				StringBuilder sb = context.getResource("sb", new Callable<StringBuilder>() {
+					public StringBuilder call() {
+						resourcesCreated.incrementAndGet();
+						return new StringBuilder();
+					}
+				});
+				sb.setLength(0);
+				sb.append(TextUtils.getText(wmlPackage.getMainDocumentPart().getContent().get(0)));
+
+				assertEquals(context.getInput().getName().replace("doc", "Document "), sb.toString());
+				if (context.getInput().getName().equals("doc7")) {
+					throw new IllegalStateException("failing doc7");
+				}
+			}
+		}, settings);
+
+		assertEquals(21, stats.getCount());
+		assertEquals(19, stats.getSucceeded());
+		assertEquals(2, stats.getFailed());
+		assertEquals(21, notified.get());
+		assertTrue(resourcesCreated.get() <= 3);
+		assertEquals(21, stats.getTotalMetrics().getCount());
+		assertTrue(stats.getThroughput() > 0);
+
+		List<String> failed = new ArrayList<String>();
+		for (BatchResult result : stats.getFailures()) {
+			failed.add(result.getInput().getName());
+		}
+		assertTrue(failed.contains("doc7"));
+		assertTrue(failed.contains("not a docx"));
+	}
+
+	@Test
+	public void testContextsClosedAfterWorkersWhenInputsFail() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+		final BatchInput docx = BatchInput.of("doc", baos.toByteArray());
+
+		Iterator<BatchInput> inputs = new Iterator<BatchInput>() {
+
+			int count = 0;
+
+			public boolean hasNext() {
+				if (count==2) {
+					throw new IllegalStateException("failing inputs");
+				}
+				return true;
+			}
+
+			public BatchInput next() {
+				count++;
+				return docx;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		final AtomicInteger processed = new AtomicInteger();
+		final List<Integer> processedWhenClosed = Collections.synchronizedList(new ArrayList<Integer>());
+
+		BatchSettings settings = Docx4J.createBatchSettings();
+		settings.setParallelism(2);
+		try {
+			Docx4J.batch(inputs, new BatchPipeline() {
+				public void process(BatchContext context, WordprocessingMLPackage wmlPackage) throws Exception {
+
+					context.getResource("closeable", new Callable<Closeable>() {
+						public Closeable call() {
+							return new Closeable() {
+								public void close() {
+									processedWhenClosed.add(processed.get());
+								}
+							};
+						}
+					});
+					Thread.sleep(200);
+					processed.incrementAndGet();
+				}
+			}, settings);
+			fail("expected the inputs' exception");
+		} catch (IllegalStateException e) {
+			assertEquals("failing inputs", e.getMessage());
+		}
+
+		assertEquals(2, processed.get());
+		assertEquals(2, processedWhenClosed.size());
+		for (Integer i : processedWhenClosed) {
+			assertEquals(2, i.intValue());
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package org.docx4j.convert.in;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+
+import org.apache.commons.io.IOUtils;
+import org.docx4j.TextUtils;
+import org.docx4j.convert.out.flatOpcXml.FlatOpcXmlCreator;
+import org.docx4j.dml.wordprocessingDrawing.Inline;
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.contenttype.CTDefault;
+import org.docx4j.openpackaging.contenttype.ContentTypes;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPartAbstractImage;
+import org.docx4j.wml.Drawing;
+import org.docx4j.wml.ObjectFactory;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.junit.Test;
+
+public class FlatOpcXmlStreamImporterTest {
+
+	private static final String TEXT = "Hello <Flat> & \u00e9l\u00e8ve";
+	private static final String ASCII_TEXT = "Hello <Flat> & friends";
+
+	private static byte[] image() throws Exception {
+		InputStream is = FlatOpcXmlStreamImporterTest.class.getClassLoader()
+				.getResourceAsStream("images/greentick.png");
+		try {
+			return IOUtils.toByteArray(is);
+		} finally {
+			is.close();
+		}
+	}
+
+	private static WordprocessingMLPackage createPackage(String text, byte[] image) throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText(text);
+		BinaryPartAbstractImage imagePart = BinaryPartAbstractImage.createImagePart(wordMLPackage, image);
+		Inline inline = imagePart.createImageInline(null, null, 0, 1, false);
+
+		ObjectFactory factory = Context.getWmlObjectFactory();
+		P p = factory.createP();
+		R r = factory.createR();
+		Drawing drawing = factory.createDrawing();
+		drawing.getAnchorOrInline().add(inline);
+		r.getContent().add(drawing);
+		p.getContent().add(r);
+		wordMLPackage.getMainDocumentPart().addObject(p);
+		return wordMLPackage;
+	}
+
+	private static void assertContent(WordprocessingMLPackage pkg, String expected, byte[] image) throws Exception {
+
+		String text = TextUtils.getText(pkg.getMainDocumentPart().getJaxbElement());
+		assertTrue(text, text.contains(expected));
+
+		BinaryPartAbstractImage imagePart = null;
+		for (Part part : pkg.getParts().getParts().values()) {
+			if (part instanceof BinaryPartAbstractImage) {
+				imagePart = (BinaryPartAbstractImage)part;
+			}
+		}
+		assertArrayEquals(image, imagePart.getBytes());
+	}
+
+	@Test
+	public void testStreamRoundTrip() throws Exception {
+
+		byte[] image = image();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new FlatOpcXmlCreator(createPackage(TEXT, image)).stream(baos);
+
+		WordprocessingMLPackage loaded = (WordprocessingMLPackage)new FlatOpcXmlStreamImporter(
+				new ByteArrayInputStream(baos.toByteArray())).get();
+		assertContent(loaded, TEXT, image);
+
+		// the image has a Default, as it would in a docx
+		CTDefault png = loaded.getContentTypeManager().getDefaultContentType().get("png");
+		assertNotNull(png);
+		assertEquals(ContentTypes.IMAGE_PNG, png.getContentType());
+
+		// and save the loaded package again, with parts not yet unmarshalled
+		ByteArrayOutputStream baos2 = new ByteArrayOutputStream();
+		new FlatOpcXmlCreator(loaded).stream(baos2);
+		assertContent(WordprocessingMLPackage.load(new ByteArrayInputStream(baos2.toByteArray())), TEXT, image);
+	}
+
+	@Test
+	public void testStreamedReadableByFlatOpcXmlImporter() throws Exception {
+
+		byte[] image = image();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new FlatOpcXmlCreator(createPackage(TEXT, image)).stream(baos);
+
+		WordprocessingMLPackage loaded = (WordprocessingMLPackage)new FlatOpcXmlImporter(
+				new ByteArrayInputStream(baos.toByteArray())).get();
+		assertContent(loaded, TEXT, image);
+	}
+
+	@Test
+	public void testReadsFlatOpcXmlCreatorOutput() throws Exception {
+
+		byte[] image = image();
+		WordprocessingMLPackage wordMLPackage = createPackage(ASCII_TEXT, image);
+
+		// (that path loses non-ASCII characters, independently of the importer)
+		// save, so parts have a source part store, as FlatOpcXmlCreator.get expects
+		ByteArrayOutputStream docx = new ByteArrayOutputStream();
+		wordMLPackage.save(docx);
+		wordMLPackage = WordprocessingMLPackage.load(new ByteArrayInputStream(docx.toByteArray()));
+
+		org.docx4j.xmlPackage.Package pkg = new FlatOpcXmlCreator(wordMLPackage).get();
+		JAXBContext jc = Context.jcXmlPackage;
+		Marshaller marshaller = jc.createMarshaller();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		marshaller.marshal(pkg, baos);
+
+		WordprocessingMLPackage loaded = (WordprocessingMLPackage)new FlatOpcXmlStreamImporter(
+				new ByteArrayInputStream(baos.toByteArray())).get();
+		assertContent(loaded, ASCII_TEXT, image);
+		assertEquals(wordMLPackage.getParts().getParts().size(), loaded.getParts().getParts().size());
+	}
+
+}
@@ -0,0 +1,221 @@
+package org.docx4j.convert.out.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.XmlUtils;
+import org.docx4j.convert.out.ConversionFeatures;
+import org.docx4j.convert.out.common.preprocess.BookmarkMover;
+import org.docx4j.convert.out.common.preprocess.FieldsCombiner;
+import org.docx4j.convert.out.common.preprocess.PageBreak;
+import org.docx4j.events.Docx4jEvent;
+import org.docx4j.events.WellKnownJobTypes;
+import org.docx4j.events.WellKnownProcessSteps;
+import org.docx4j.events.metrics.InMemoryMetricsRegistry;
+import org.docx4j.events.metrics.MetricsListener;
+import org.docx4j.events.metrics.StepKey;
+import org.docx4j.events.metrics.StepMetrics;
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.HeaderPart;
+import org.docx4j.wml.ArrayListWml;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.Hdr;
+import org.junit.After;
+import org.junit.Test;
+
+public class PreprocessTest {
+
+	private static final String NS = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+
+	private static final String BODY =
+			"<w:body " + NS + ">"
+			// page break in a formatted run
+			+ "<w:p><w:r><w:rPr><w:b/></w:rPr><w:t>a</w:t><w:br w:type=\"page\"/><w:t>b</w:t></w:r></w:p>"
+			// complex field, then a page break
+			+ "<w:p>"
+				+ "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>"
+				+ "<w:r><w:instrText xml:space=\"preserve\"> PAGE </w:instrText></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"separate\"/></w:r>"
+				+ "<w:r><w:t>1</w:t></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>"
+				+ "<w:r><w:rPr><w:i/></w:rPr><w:br w:type=\"page\"/></w:r>"
+			+ "</w:p>"
+			// body level bookmark
+			+ "<w:bookmarkStart w:id=\"0\" w:name=\"here\"/>"
+			+ "<w:p><w:r><w:t>c</w:t></w:r></w:p>"
+			+ "<w:bookmarkEnd w:id=\"0\"/>"
+			// not body level
+			+ "<w:tbl><w:tr><w:tc><w:p>"
+				+ "<w:r><w:rPr><w:b/></w:rPr><w:br w:type=\"page\"/><w:t>d</w:t></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>"
+				+ "<w:r><w:instrText xml:space=\"preserve\"> DATE </w:instrText></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>"
+			+ "</w:p></w:tc></w:tr></w:tbl>"
+			+ "</w:body>";
+
+	private static final String HEADER_P =
+			"<w:p " + NS + ">"
+				+ "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>"
+				+ "<w:r><w:instrText xml:space=\"preserve\"> PAGE </w:instrText></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>"
+				+ "<w:r><w:rPr><w:b/></w:rPr><w:br w:type=\"page\"/></w:r>"
+			+ "</w:p>";
+
+	@After
+	public void tearDown() {
+		Docx4jEvent.setEventNotifier(null);
+	}
+
+	private static WordprocessingMLPackage createPackage() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().getJaxbElement().setBody(
+				(Body)XmlUtils.unwrap(XmlUtils.unmarshalString(BODY)));
+
+		HeaderPart headerPart = new HeaderPart();
+		Hdr hdr = Context.getWmlObjectFactory().createHdr();
+		hdr.getContent().add(XmlUtils.unmarshalString(HEADER_P));
+		headerPart.setJaxbElement(hdr);
+		wordMLPackage.getMainDocumentPart().addTargetPart(headerPart);
+		return wordMLPackage;
+	}
+
+	private static String marshal(WordprocessingMLPackage wordMLPackage) throws Exception {
+
+		HeaderPart headerPart = (HeaderPart)wordMLPackage.getParts().get(new PartName("/word/header.xml"));
+		return XmlUtils.marshaltoString(wordMLPackage.getMainDocumentPart().getJaxbElement(), true, false)
+				+ XmlUtils.marshaltoString(headerPart.getJaxbElement(), true, false);
+	}
+
+	private static Set<String> features(String... features) {
+
+		Set<String> set = new HashSet<String>();
+		for (String feature : features) {
+			set.add(feature);
+		}
+		return set;
+	}
+
+	@Test
+	public void testCombinedTraversalMatchesSequentialSteps() throws Exception {
+
+		WordprocessingMLPackage sequential = createPackage();
+		FieldsCombiner.process(sequential);
+		PageBreak.process(sequential);
+
+		WordprocessingMLPackage fused = Preprocess.process(createPackage(), features(
+				ConversionFeatures.PP_COMMON_COMBINE_FIELDS,
+				ConversionFeatures.PP_COMMON_MOVE_PAGEBREAK));
+
+		assertEquals(marshal(sequential), marshal(fused));
+		assertNotEquals(marshal(createPackage()), marshal(fused));
+	}
+
+	@Test
+	public void testCombinedTraversalWithBookmarksMatchesSequentialSteps() throws Exception {
+
+		// as Preprocess used to run them
+		WordprocessingMLPackage sequential = createPackage();
+		FieldsCombiner.process(sequential);
+		BookmarkMover.process(sequential);
+		PageBreak.process(sequential);
+
+		WordprocessingMLPackage fused = Preprocess.process(createPackage(), features(
+				ConversionFeatures.PP_COMMON_COMBINE_FIELDS,
+				ConversionFeatures.PP_COMMON_MOVE_BOOKMARKS,
+				ConversionFeatures.PP_COMMON_MOVE_PAGEBREAK));
+
+		assertEquals(marshal(sequential), marshal(fused));
+	}
+
+	@Test
+	public void testContainerizationLeavesSharedHeaderAlone() throws Exception {
+
+		WordprocessingMLPackage source = createPackage();
+		HeaderPart headerPart = (HeaderPart)source.getParts().get(new PartName("/word/header.xml"));
+		List<Object> before = new ArrayList<Object>(headerPart.getJaxbElement().getContent());
+
+		final List<ArrayListWml<?>> changed = new ArrayList<ArrayListWml<?>>();
+		TraversalUtil.addChangeListener(headerPart.getJaxbElement(), new ArrayListWml.ChangeListener() {
+			@Override
+			public void contentChanged(ArrayListWml<?> list) {
+				changed.add(list);
+			}
+		});
+
+		// the header has nothing to group, so it is shared rather than copied
+		OpcPackage converted = Preprocess.process((OpcPackage)source, features(
+				ConversionFeatures.PP_COMMON_DEEP_COPY,
+				ConversionFeatures.PP_COMMON_CONTAINERIZATION));
+		HeaderPart convertedHeader = (HeaderPart)converted.getParts().get(new PartName("/word/header.xml"));
+		assertSame(headerPart.getJaxbElement(), convertedHeader.getJaxbElement());
+
+		Preprocess.process((WordprocessingMLPackage)converted, features(
+				ConversionFeatures.PP_COMMON_CONTAINERIZATION));
+
+		assertEquals(0, changed.size());
+		assertEquals(before, headerPart.getJaxbElement().getContent());
+	}
+
+	@Test
+	public void testStepEvents() throws Exception {
+
+		InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+		MetricsListener.install(registry);
+
+		Preprocess.process(createPackage(), features(
+				ConversionFeatures.PP_PDF_COVERPAGE_MOVE_SECTPR,
+				ConversionFeatures.PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH));
+
+		assertEquals(1, count(registry, WellKnownProcessSteps.CONVERT_PREPROCESS));
+		assertEquals(1, count(registry, WellKnownProcessSteps.CONVERT_PREPROCESS_CoverPageSectPrMover));
+		assertEquals(1, count(registry,
+				WellKnownProcessSteps.CONVERT_PREPROCESS_FopWorkaroundDisablePageBreakOnFirstParagraph));
+	}
+
+	@Test
+	public void testEventsFinishedWhenStepFails() throws Exception {
+
+		InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+		MetricsListener.install(registry);
+
+		WordprocessingMLPackage wordMLPackage = createPackage();
+		wordMLPackage.getMainDocumentPart().getJaxbElement().setBody(new Body() {
+			@Override
+			public List<Object> getContent() {
+				throw new IllegalStateException("failing step");
+			}
+		});
+		try {
+			Preprocess.process(wordMLPackage, features(
+					ConversionFeatures.PP_COMMON_MOVE_PAGEBREAK));
+			fail("expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertEquals("failing step", e.getMessage());
+		}
+
+		assertEquals(1, count(registry, WellKnownProcessSteps.CONVERT_PREPROCESS));
+		assertEquals(1, count(registry, WellKnownProcessSteps.CONVERT_PREPROCESS_PageBreak));
+	}
+
+	private static long count(InMemoryMetricsRegistry registry, WellKnownProcessSteps step) {
+
+		StepMetrics metrics = registry.getStepMetrics(
+				new StepKey(WellKnownJobTypes.ANONYMOUS.name(), step.name(), null));
+		assertNotNull(step.name(), metrics);
+		return metrics.getCount();
+	}
+
+}
@@ -0,0 +1,97 @@
+package org.docx4j.convert.out.html;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+
+import org.docx4j.Docx4J;
+import org.docx4j.convert.out.HTMLSettings;
+import org.docx4j.jaxb.Context;
+import org.docx4j.model.table.TblFactory;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.NumberingDefinitionsPart;
+import org.docx4j.wml.P;
+import org.docx4j.wml.PPr;
+import org.docx4j.wml.PPrBase;
+import org.docx4j.wml.SectPr;
+import org.junit.Test;
+
+/**
+ * Converting sections in chunks, in parallel, should give the
+ * same HTML as converting them sequentially.
+ */
+public class ParallelHTMLExportTest {
+
+	private static org.docx4j.wml.ObjectFactory wmlObjectFactory = Context.getWmlObjectFactory();
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+
+		String sequential = toHTML(createPkg(), 1);
+		String parallel = toHTML(createPkg(), 4);
+
+		assertTrue(sequential.contains("Item 399"));
+		assertEquals(sequential, parallel);
+	}
+
+	private String toHTML(WordprocessingMLPackage wordMLPackage, int parallelism) throws Exception {
+
+		HTMLSettings htmlSettings = Docx4J.createHTMLSettings();
+		htmlSettings.setOpcPackage(wordMLPackage);
+		htmlSettings.setParallelism(parallelism);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		Docx4J.toHTML(htmlSettings, os, Docx4J.FLAG_EXPORT_PREFER_NONXSL);
+		return os.toString("UTF-8");
+	}
+
+	private WordprocessingMLPackage createPkg() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+
+		NumberingDefinitionsPart ndp = new NumberingDefinitionsPart();
+		ndp.unmarshalDefaultNumbering();
+		mdp.addTargetPart(ndp);
+
+		for (int i = 0; i < 400; i++) {
+
+			P p = mdp.createParagraphOfText("Item " + i);
+			if (i % 3 != 0) {
+				setNumbering(p, i % 2);
+			}
+			mdp.getContent().add(p);
+
+			if (i % 25 == 0) {
+				mdp.getContent().add(TblFactory.createTable(2, 2, 2000));
+			}
+			if (i == 150) {
+				// end of the first section
+				SectPr sectPr = wmlObjectFactory.createSectPr();
+				if (p.getPPr() == null) {
+					p.setPPr(wmlObjectFactory.createPPr());
+				}
+				p.getPPr().setSectPr(sectPr);
+			}
+		}
+		return wordMLPackage;
+	}
+
+	private void setNumbering(P p, int ilvl) {
+
+		PPr ppr = wmlObjectFactory.createPPr();
+		p.setPPr(ppr);
+		PPrBase.NumPr numPr = wmlObjectFactory.createPPrBaseNumPr();
+		ppr.setNumPr(numPr);
+		PPrBase.NumPr.Ilvl ilvlElement = wmlObjectFactory.createPPrBaseNumPrIlvl();
+		ilvlElement.setVal(BigInteger.valueOf(ilvl));
+		numPr.setIlvl(ilvlElement);
+		PPrBase.NumPr.NumId numId = wmlObjectFactory.createPPrBaseNumPrNumId();
+		numId.setVal(BigInteger.ONE);
+		numPr.setNumId(numId);
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.docx4j.events.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+
+import org.docx4j.events.Docx4jEvent;
+import org.docx4j.events.WellKnownJobTypes;
+import org.docx4j.events.WellKnownProcessSteps;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsListenerTest {
+
+	@After
+	public void tearDown() {
+		Docx4jEvent.setEventNotifier(null);
+	}
+
+	@Test
+	public void testLoadSaveUnmarshal() throws Exception {
+
+		InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+		MetricsListener.install(registry);
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("hello");
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+
+		WordprocessingMLPackage loaded = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		loaded.getMainDocumentPart().getContent();
+
+		String job = WellKnownJobTypes.ANONYMOUS.name();
+
+		StepMetrics save = registry.getStepMetrics(new StepKey(job, WellKnownProcessSteps.PKG_SAVE.name(), null));
+		assertNotNull(save);
+		assertEquals(1, save.getCount());
+		assertEquals(baos.size(), save.getTotalBytes());
+
+		StepMetrics load = registry.getStepMetrics(new StepKey(job, WellKnownProcessSteps.PKG_LOAD.name(), null));
+		assertNotNull(load);
+		assertEquals(baos.size(), load.getTotalBytes());
+
+		StepMetrics unmarshal = registry.getStepMetrics(
+				new StepKey(job, WellKnownProcessSteps.PART_UNMARSHAL.name(), "MainDocumentPart"));
+		assertNotNull(unmarshal);
+		assertEquals(1, unmarshal.getCount());
+		assertTrue(unmarshal.getTotalBytes()>0);
+	}
+
+	@Test
+	public void testJmx() throws Exception {
+
+		JmxMetricsRegistry registry = new JmxMetricsRegistry();
+		try {
+			StepKey key = new StepKey("MERGE", "PKG_SAVE", null);
+			registry.record(key, 2000000, 10);
+			assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(registry.objectName(key), "Count"));
+		} finally {
+			registry.unregister();
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+
+		StepMetrics metrics = new StepMetrics();
+		for (int i=1; i<=1000; i++) {
+			metrics.record(i * 1000000L, -1);
+		}
+		assertEquals(1000, metrics.getCount());
+		assertEquals(1000d, metrics.getMaxMillis(), 0);
+
+		// buckets are 4 per power of 2, so within 25% above
+		double p50 = metrics.getP50Millis();
+		assertTrue(p50 >= 500 && p50 <= 625);
+		double p99 = metrics.getP99Millis();
+		assertTrue(p99 >= 990 && p99 <= 1000);
+
+		for (long v=0; v<100000; v+=7) {
+			long ub = StepMetrics.upperBound(StepMetrics.bucket(v));
+			assertTrue(ub >= v && ub <= v + v/4 + 1);
+		}
+	}
+
+}
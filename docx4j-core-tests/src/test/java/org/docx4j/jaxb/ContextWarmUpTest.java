@@ -0,0 +1,30 @@
+package org.docx4j.jaxb;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ContextWarmUpTest {
+
+	@Test
+	public void testWarmUp() throws Exception {
+
+		ContextWarmUp.start().get(5, TimeUnit.MINUTES);
+
+		assertNotNull(Context.jc);
+		assertNotNull(Context.jcRelationships);
+		assertNotNull(Context.jcContentTypes);
+		assertNotNull(Context.jcDocPropsCore);
+		assertNotNull(Context.jcMCE);
+		assertNotNull(org.pptx4j.jaxb.Context.jcPML);
+		assertNotNull(org.xlsx4j.jaxb.Context.jcSML);
+
+		if (!Context.isSlim()) {
+			assertSame(Context.jc, Context.getFullContext());
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.docx4j.jaxb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.util.JAXBResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.mce.AlternateContent;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.Document;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.docx4j.wml.SectPr;
+import org.docx4j.wml.Tbl;
+import org.junit.Test;
+
+public class McPreprocessingStreamReaderTest {
+
+	private static final String DOCUMENT_START = 
+			"<w:document xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\" "
+			+ "xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\" "
+			+ "xmlns:w99=\"urn:example:w99\" mc:Ignorable=\"w99\"><w:body>";
+	
+	private static final String CONTENT = 
+			"<mc:AlternateContent><mc:Choice Requires=\"w99\"><w99:para/></mc:Choice>"
+			+ "<mc:Fallback><w:p><w:r><w:t>fallback</w:t></w:r></w:p></mc:Fallback></mc:AlternateContent>"
+			+ "<w:p><w:r><mc:AlternateContent><mc:Choice Requires=\"w99\"><w:t>choice</w:t></mc:Choice>"
+			+ "<mc:Fallback><w:t>fb</w:t></mc:Fallback></mc:AlternateContent></w:r></w:p>"
+			+ "<w:tbl><w:tblPr><w:tblW w:w=\"10206.0\" w:type=\"dxa\"/></w:tblPr>"
+			+ "<w:tblGrid><w:gridCol w:w=\"5000.5\"/></w:tblGrid></w:tbl>"
+			+ "<w:sectPr w:rsidR=\"\"><w:pgSz w:w=\"11907.0\" w:h=\"16839.0\"/>"
+			+ "<w:pgMar w:top=\"1133\" w:right=\"1133\" w:bottom=\"1133\" w:left=\"1133\" w:header=\"\" w:footer=\"\" w:gutter=\"\"/>"
+			+ "</w:sectPr>";
+	
+	private static final String DOCUMENT_END = "</w:body></w:document>";
+
+	@Test
+	public void testSameAsXslt() throws Exception {
+		
+		String xml = DOCUMENT_START + CONTENT + DOCUMENT_END;
+		
+		Unmarshaller u = Context.jc.createUnmarshaller();  // fails on unexpected content
+		Document streamed = (Document)XmlUtils.unwrap(u.unmarshal(
+				new McPreprocessingStreamReader(
+						XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)))));
+
+		JAXBResult result = XmlUtils.prepareJAXBResult(Context.jc);
+		XmlUtils.transform(new StreamSource(new StringReader(xml)), 
+				JaxbValidationEventHandler.getMcPreprocessor(), null, result);
+		Document transformed = (Document)XmlUtils.unwrap(result.getResult());
+		
+		assertEquals(XmlUtils.marshaltoString(transformed), XmlUtils.marshaltoString(streamed));
+		
+		Body body = streamed.getBody();
+		assertEquals(3, body.getContent().size());
+		assertEquals("fallback", XmlUtils.marshaltoString(body.getContent().get(0)).replaceAll("<[^>]*>", "").trim());
+		
+		// retained in w:r
+		R r = (R)((P)body.getContent().get(1)).getContent().get(0);
+		assertTrue(XmlUtils.unwrap(r.getContent().get(0)) instanceof AlternateContent);
+		
+		Tbl tbl = (Tbl)XmlUtils.unwrap(body.getContent().get(2));
+		assertEquals(BigInteger.valueOf(10206), tbl.getTblPr().getTblW().getW());
+		assertEquals(BigInteger.valueOf(5000), tbl.getTblGrid().getGridCol().get(0).getW());
+		
+		SectPr sectPr = body.getSectPr();
+		assertEquals(BigInteger.valueOf(16839), sectPr.getPgSz().getH());
+		assertEquals(BigInteger.ZERO, sectPr.getPgMar().getHeader());
+		assertNull(sectPr.getPgMar().getGutter());
+	}
+	
+	@Test
+	public void testIgnorablePassedThrough() throws Exception {
+		
+		// as without the reader, so it survives where the content model allows it (xsd:any)
+		String xml = DOCUMENT_START 
+				+ "<w99:unknown><w:p/></w99:unknown>"
+				+ "<w:p><w:r><w:t>kept</w:t></w:r></w:p>"
+				+ DOCUMENT_END;
+		
+		XMLStreamReader xsr = new McPreprocessingStreamReader(
+				XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+		List<String> elements = new ArrayList<String>();
+		while (xsr.hasNext()) {
+			if (xsr.next()==XMLStreamConstants.START_ELEMENT) {
+				elements.add(xsr.getPrefix() + ":" + xsr.getLocalName());
+			}
+		}
+		assertEquals(Arrays.asList("w:document", "w:body", "w99:unknown", "w:p", "w:p", "w:r", "w:t"), elements);
+	}
+	
+}
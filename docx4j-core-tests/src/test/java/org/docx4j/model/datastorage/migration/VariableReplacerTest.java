@@ -0,0 +1,70 @@
+package org.docx4j.model.datastorage.migration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+
+import org.docx4j.TextUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.P;
+import org.junit.Test;
+
+public class VariableReplacerTest {
+
+	@Test
+	public void testReplace() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+		P p = mdp.addParagraphOfText("Dear ${title} ${surname}, & welcome");
+
+		HashMap<String, String> mappings = new HashMap<String, String>();
+		mappings.put("title", "Ms");
+		mappings.put("surname", "O'Brien <Jr>");
+
+		VariableReplacer.replace(mdp, mappings);
+
+		assertEquals("Dear Ms O'Brien <Jr>, & welcome", TextUtils.getText(p));
+	}
+
+	@Test
+	public void testCompiledReusable() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+		P p1 = mdp.addParagraphOfText("${a}");
+		P p2 = mdp.addParagraphOfText("no placeholder");
+		P p3 = mdp.addParagraphOfText("x${b}y${a}");
+
+		VariableReplacer.Compiled compiled = VariableReplacer.compile(mdp.getJaxbElement());
+		assertEquals(2, compiled.size());
+
+		HashMap<String, String> mappings = new HashMap<String, String>();
+		mappings.put("a", "1");
+		mappings.put("b", "2");
+		compiled.replace(mappings);
+		assertEquals("1", TextUtils.getText(p1));
+		assertEquals("x2y1", TextUtils.getText(p3));
+
+		mappings.put("a", " 3");
+		compiled.replace(mappings);
+		assertEquals(" 3", TextUtils.getText(p1));
+		assertEquals("x2y 3", TextUtils.getText(p3));
+		assertEquals("no placeholder", TextUtils.getText(p2));
+	}
+
+	@Test
+	public void testMissingKey() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+		P p = mdp.addParagraphOfText("${missing} and ${unterminated");
+
+		VariableReplacer.replace(mdp, new HashMap<String, String>());
+
+		// same as XmlUtils.unmarshallFromTemplate
+		assertEquals("missing and ${unterminated", TextUtils.getText(p));
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.docx4j.model.fields;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.docx4j.Docx4jProperties;
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.Body;
+import org.junit.After;
+import org.junit.Test;
+
+public class ComplexifyFieldsTest {
+	
+	private static final String BODY = 
+			"<w:body xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+			+ "<w:p>"
+				+ "<w:r><w:t>Dear </w:t></w:r>"
+				+ "<w:fldSimple w:instr=\" MERGEFIELD  Name  \\* MERGEFORMAT \">"
+					+ "<w:r><w:rPr><w:b/></w:rPr><w:t>«Name»</w:t></w:r>"
+				+ "</w:fldSimple>"
+				+ "<w:hyperlink w:anchor=\"x\">"
+					+ "<w:fldSimple w:instr=\" PAGE \"><w:r><w:instrText>1</w:instrText></w:r></w:fldSimple>"
+				+ "</w:hyperlink>"
+			+ "</w:p>"
+			+ "</w:body>";
+
+	@After
+	public void tearDown() {
+		Docx4jProperties.getProperties().remove("docx4j.Fields.FieldsPreprocessor.XSLT");
+	}
+
+	@Test
+	public void testInPlaceMatchesXSLT() throws Exception {
+		
+		Docx4jProperties.setProperty("docx4j.Fields.FieldsPreprocessor.XSLT", true);
+		String viaXSLT = complexify();
+
+		Docx4jProperties.setProperty("docx4j.Fields.FieldsPreprocessor.XSLT", false);
+		String inPlace = complexify();
+		
+		assertFalse(inPlace.contains("fldSimple"));
+		assertEquals(viaXSLT, inPlace);
+	}
+	
+	private String complexify() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+		mdp.getJaxbElement().setBody((Body)XmlUtils.unwrap(XmlUtils.unmarshalString(BODY)));
+		
+		FieldsPreprocessor.complexifyFields(mdp);
+		
+		return XmlUtils.marshaltoString(mdp.getJaxbElement().getBody(), true, false);
+	}
+
+}
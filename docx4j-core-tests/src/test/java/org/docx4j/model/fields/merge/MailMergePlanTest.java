@@ -0,0 +1,144 @@
+package org.docx4j.model.fields.merge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.Context;
+import org.docx4j.model.fields.FieldsPreprocessor;
+import org.docx4j.model.fields.merge.MailMerger.FormTextFieldNames;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.wml.Body;
+import org.junit.Test;
+
+public class MailMergePlanTest {
+
+	private static final String BODY =
+			"<w:body xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+			+ "<w:p>"
+				+ "<w:r><w:t>Dear </w:t></w:r>"
+				+ "<w:fldSimple w:instr=\" MERGEFIELD  Name  \\* Upper \">"
+					+ "<w:r><w:rPr><w:b/></w:rPr><w:t>«Name»</w:t></w:r>"
+				+ "</w:fldSimple>"
+			+ "</w:p>"
+			+ "<w:tbl><w:tr><w:tc><w:p>"
+				+ "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>"
+				+ "<w:r><w:instrText xml:space=\"preserve\"> MERGEFIELD  City </w:instrText></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"separate\"/></w:r>"
+				+ "<w:r><w:t>«City»</w:t></w:r>"
+				+ "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>"
+			+ "</w:p></w:tc></w:tr></w:tbl>"
+			+ "<w:p><w:fldSimple w:instr=\" MERGEFIELD  Missing \"><w:r><w:t>«Missing»</w:t></w:r></w:fldSimple></w:p>"
+			+ "</w:body>";
+
+	private static List<Map<DataFieldName, String>> data() {
+
+		List<Map<DataFieldName, String>> data = new ArrayList<Map<DataFieldName, String>>();
+		for (int i=0; i<20; i++) {
+			Map<DataFieldName, String> map = new HashMap<DataFieldName, String>();
+			map.put(new DataFieldName("Name"), "name" + i);
+			map.put(new DataFieldName("City"), "city" + i);
+			data.add(map);
+		}
+		return data;
+	}
+
+	private static WordprocessingMLPackage template() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().getJaxbElement().setBody(
+				(Body)XmlUtils.unwrap(XmlUtils.unmarshalString(BODY)));
+		return wordMLPackage;
+	}
+
+	@Test
+	public void testRenderMatchesPerInstanceMerge() throws Exception {
+
+		MailMergePlan plan = MailMergePlan.compile(template(), false);
+		assertEquals(3, plan.getMergeFieldCount());
+
+		WordprocessingMLPackage input = template();
+		FieldsPreprocessor.complexifyFields(input.getMainDocumentPart() );
+
+		for (Map<DataFieldName, String> datamap : data()) {
+
+			String expected = marshal(MailMerger.performOnInstance(input,
+					input.getMainDocumentPart().getContent(), datamap, new FormTextFieldNames()));
+			String actual = marshal(plan.render(datamap));
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testConsolidatedResultInParallel() throws Exception {
+
+		List<Map<DataFieldName, String>> data = data();
+		String expected = XmlUtils.marshaltoString(
+				MailMerger.getConsolidatedResultCrude(template(), data).getMainDocumentPart().getJaxbElement(),
+				true, false);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			String actual = XmlUtils.marshaltoString(
+					MailMergePlan.compile(template(), false).getConsolidatedResult(data, executor)
+						.getMainDocumentPart().getJaxbElement(),
+					true, false);
+			assertEquals(expected, actual);
+			assertTrue(actual.contains("NAME19"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testRenderEachInParallel() throws Exception {
+
+		final List<Map<DataFieldName, String>> data = data();
+		final MailMergePlan plan = MailMergePlan.compile(template(), false);
+		plan.setMaxInFlight(2);
+
+		final String[] results = new String[data.size()];
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			plan.renderEach(data, executor, new MailMergePlan.RecordCallback() {
+
+				@Override
+				public void handle(int index, WordprocessingMLPackage result) throws Docx4JException {
+
+					// each result is a complete docx of its own
+					ByteArrayOutputStream baos = new ByteArrayOutputStream();
+					result.save(baos);
+					WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(
+							new ByteArrayInputStream(baos.toByteArray()));
+					results[index] = marshal(reloaded.getMainDocumentPart().getContent());
+				}
+			});
+		} finally {
+			executor.shutdown();
+		}
+
+		for (int i=0; i<data.size(); i++) {
+			assertEquals(marshal(plan.render(data.get(i))), results[i]);
+			assertTrue(results[i].contains("NAME" + i + "<"));
+			assertTrue(results[i].contains("city" + i + "<"));
+		}
+	}
+
+	private static String marshal(List<Object> content) {
+
+		Body body = Context.getWmlObjectFactory().createBody();
+		body.getContent().addAll(content);
+		return XmlUtils.marshaltoString(body, true, false);
+	}
+
+}
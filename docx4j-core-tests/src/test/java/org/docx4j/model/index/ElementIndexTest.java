@@ -0,0 +1,145 @@
+package org.docx4j.model.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.CTSimpleField;
+import org.docx4j.wml.FldChar;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.docx4j.wml.STFldCharType;
+import org.docx4j.wml.SdtBlock;
+import org.docx4j.wml.SdtElement;
+import org.docx4j.wml.Text;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ElementIndexTest {
+	
+	private static final String W = "xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\"";
+	
+	private static final String BODY = 
+			"<w:body " + W + ">"
+			+ "<w:p><w:pPr><w:pStyle w:val=\"Heading1\"/></w:pPr>"
+				+ "<w:bookmarkStart w:id=\"1\" w:name=\"intro\"/>"
+				+ "<w:r><w:t>Introduction</w:t></w:r>"
+				+ "<w:bookmarkEnd w:id=\"1\"/>"
+			+ "</w:p>"
+			+ "<w:sdt><w:sdtPr><w:tag w:val=\"t1\"/><w:id w:val=\"42\"/></w:sdtPr>"
+				+ "<w:sdtContent><w:p>"
+					+ "<w:r><w:t>See page </w:t></w:r>"
+					+ "<w:r><w:fldChar w:fldCharType=\"begin\"/></w:r>"
+					+ "<w:r><w:instrText xml:space=\"preserve\"> PAGEREF </w:instrText></w:r>"
+					+ "<w:r><w:instrText>intro \\h</w:instrText></w:r>"
+					+ "<w:r><w:fldChar w:fldCharType=\"separate\"/></w:r>"
+					+ "<w:r><w:t>1</w:t></w:r>"
+					+ "<w:r><w:fldChar w:fldCharType=\"end\"/></w:r>"
+				+ "</w:p></w:sdtContent>"
+			+ "</w:sdt>"
+			+ "<w:tbl><w:tr><w:tc><w:p/></w:tc></w:tr></w:tbl>"
+			+ "</w:body>";
+
+	private MainDocumentPart mdp;
+	private ElementIndex index;
+	
+	@Before
+	public void setUp() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		mdp = wordMLPackage.getMainDocumentPart();
+		mdp.getJaxbElement().setBody((Body)XmlUtils.unwrap(XmlUtils.unmarshalString(BODY)));
+		index = mdp.getElementIndex();
+	}
+
+	@Test
+	public void testLookups() throws Exception {
+		
+		assertEquals("intro", index.getBookmarkStart(BigInteger.ONE).getName());
+		assertNotNull(index.getBookmarkEnd("intro"));
+		
+		SdtElement sdt = index.getSdtsByTag("t1").get(0);
+		assertSame(sdt, index.getSdtById(BigInteger.valueOf(42)));
+		
+		assertEquals(1, index.getFields("pageref").size());
+		assertEquals(1, index.getTables().size());
+		assertEquals(1, index.getParagraphsByStyle("Heading1").size());
+		assertEquals(2, index.getParagraphsByStyle(null).size());
+	}
+
+	@Test
+	public void testEditsAreTracked() throws Exception {
+		
+		assertEquals(1, index.getParagraphsByStyle("Heading1").size());
+		
+		// top-level addition
+		P p = (P)XmlUtils.unmarshalString("<w:p " + W + "><w:pPr><w:pStyle w:val=\"Heading1\"/></w:pPr>"
+				+ "<w:bookmarkStart w:id=\"2\" w:name=\"more\"/><w:bookmarkEnd w:id=\"2\"/></w:p>");
+		mdp.getContent().add(0, p);
+		assertEquals(2, index.getParagraphsByStyle("Heading1").size());
+		assertSame(p, index.getParagraphsByStyle("Heading1").get(0));
+		assertNotNull(index.getBookmarkStart("more"));
+		
+		// nested addition
+		P first = (P)mdp.getContent().get(1);
+		CTSimpleField fldSimple = (CTSimpleField)XmlUtils.unwrap(
+				XmlUtils.unmarshalString("<w:fldSimple " + W + " w:instr=\" PAGEREF more \"/>"));
+		first.getContent().add(Context.getWmlObjectFactory().createPFldSimple(fldSimple));
+		assertEquals(2, index.getFields("PAGEREF").size());
+		assertSame(fldSimple, index.getFields("PAGEREF").get(0)); // document order
+		
+		// removal
+		SdtBlock sdt = (SdtBlock)index.getSdtsByTag("t1").get(0);
+		mdp.getContent().remove(sdt);
+		assertTrue(index.getSdtsByTag("t1").isEmpty());
+		assertEquals(1, index.getFields("PAGEREF").size());
+		
+		// changes which aren't via a content list need refresh
+		mdp.getContent().add(sdt);
+		sdt.getSdtPr().getTag().setVal("t2");
+		index.refresh(sdt.getSdtPr());
+		assertTrue(index.getSdtsByTag("t1").isEmpty());
+		assertSame(sdt, index.getSdtsByTag("t2").get(0));
+		
+		// changes inside content added since the index was built
+		P added = (P)XmlUtils.unmarshalString("<w:p " + W + "><w:r><w:t>x</w:t></w:r></w:p>");
+		mdp.getContent().add(added);
+		assertEquals(3, index.getParagraphsByStyle(null).size());
+		R r = (R)added.getContent().get(0);
+		r.getContent().add(Context.getWmlObjectFactory().createRFldChar(fldChar(STFldCharType.BEGIN)));
+		r.getContent().add(Context.getWmlObjectFactory().createRInstrText(instrText(" TOC ")));
+		r.getContent().add(Context.getWmlObjectFactory().createRFldChar(fldChar(STFldCharType.END)));
+		assertEquals(1, index.getFields("TOC").size());
+		
+		// closing it stops tracking; using it again rebuilds it
+		index.close();
+		assertEquals(1, index.getFields("TOC").size()); // rebuilt
+		
+		// replacing the body
+		mdp.getJaxbElement().setBody(Context.getWmlObjectFactory().createBody());
+		assertNull(index.getBookmarkStart("intro"));
+		assertTrue(index.getTables().isEmpty());
+	}
+	
+	private static FldChar fldChar(STFldCharType type) {
+		FldChar fldChar = Context.getWmlObjectFactory().createFldChar();
+		fldChar.setFldCharType(type);
+		return fldChar;
+	}
+	
+	private static Text instrText(String instr) {
+		Text text = Context.getWmlObjectFactory().createText();
+		text.setValue(instr);
+		return text;
+	}
+	
+}
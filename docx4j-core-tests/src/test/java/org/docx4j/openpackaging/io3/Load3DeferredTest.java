@@ -0,0 +1,107 @@
+package org.docx4j.openpackaging.io3;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.contenttype.ContentType;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.CommentsPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.EmbeddedPackagePart;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.docx4j.relationships.Relationship;
+import org.docx4j.wml.Comments;
+import org.junit.Test;
+
+public class Load3DeferredTest {
+
+	private static final byte[] EMBEDDED = new byte[] {1, 2, 3, 4};
+
+	/**
+	 * A docx whose comments part has an embedded package.
+	 */
+	private byte[] createDocx() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("Hello");
+
+		CommentsPart commentsPart = new CommentsPart();
+		Comments comments = Context.getWmlObjectFactory().createComments();
+		Comments.Comment comment = Context.getWmlObjectFactory().createCommentsComment();
+		comment.getContent().add(wordMLPackage.getMainDocumentPart().createParagraphOfText("A comment"));
+		comments.getComment().add(comment);
+		commentsPart.setJaxbElement(comments);
+		wordMLPackage.getMainDocumentPart().addTargetPart(commentsPart);
+
+		EmbeddedPackagePart embedded = new EmbeddedPackagePart(new PartName("/word/embeddings/data.bin"));
+		embedded.setContentType(new ContentType("application/octet-stream"));
+		embedded.setBinaryData(EMBEDDED);
+		commentsPart.addTargetPart(embedded);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+		return baos.toByteArray();
+	}
+
+	private WordprocessingMLPackage loadLazily(byte[] docx) throws Exception {
+
+		Load3 loader = new Load3(new ZipPartStore(new ByteArrayInputStream(docx)));
+		loader.setDeferredRelationshipTypes(Load3.DEFAULT_DEFERRED_RELATIONSHIP_TYPES);
+		return (WordprocessingMLPackage)loader.get();
+	}
+
+	@Test
+	public void testLoadedOnAccess() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = loadLazily(createDocx());
+
+		assertNull(wordMLPackage.getParts().get(new PartName("/word/comments.xml")));
+		assertEquals(1, wordMLPackage.getDeferredPartLoader().getDeferredCount());
+
+		// the shortcut loads it
+		CommentsPart commentsPart = wordMLPackage.getMainDocumentPart().getCommentsPart();
+		assertNotNull(commentsPart);
+		assertEquals(1, commentsPart.getContents().getComment().size());
+
+		// but not the embedding, which is deferred in turn
+		assertNull(wordMLPackage.getParts().get(new PartName("/word/embeddings/data.bin")));
+		Relationship r = commentsPart.getRelationshipsPart().getRelationshipByType(Namespaces.EMBEDDED_PKG);
+		assertTrue(wordMLPackage.getDeferredPartLoader().isDeferred(r));
+
+		BinaryPart embedded = (BinaryPart)commentsPart.getRelationshipsPart().getPart(r);
+		assertArrayEquals(EMBEDDED, embedded.getBytes());
+		assertFalse(wordMLPackage.getDeferredPartLoader().isDeferred(r));
+		assertEquals(0, wordMLPackage.getDeferredPartLoader().getDeferredCount());
+	}
+
+	@Test
+	public void testSaveCopiesDeferred() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = loadLazily(createDocx());
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("World");
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+
+		// still not loaded
+		assertNull(wordMLPackage.getParts().get(new PartName("/word/comments.xml")));
+
+		WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(2, reloaded.getMainDocumentPart().getContent().size());
+		CommentsPart commentsPart = reloaded.getMainDocumentPart().getCommentsPart();
+		assertEquals(1, commentsPart.getContents().getComment().size());
+		BinaryPart embedded = (BinaryPart)reloaded.getParts().get(new PartName("/word/embeddings/data.bin"));
+		assertArrayEquals(EMBEDDED, embedded.getBytes());
+	}
+
+}
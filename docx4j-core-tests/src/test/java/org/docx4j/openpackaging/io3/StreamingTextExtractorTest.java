@@ -0,0 +1,77 @@
+package org.docx4j.openpackaging.io3;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.io3.StreamingTextExtractor.TextOffset;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.HeaderPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.relationships.Relationship;
+import org.docx4j.wml.HdrFtrRef;
+import org.docx4j.wml.HeaderReference;
+import org.docx4j.wml.P;
+import org.docx4j.wml.SectPr;
+import org.junit.Test;
+
+public class StreamingTextExtractorTest {
+
+	private static org.docx4j.wml.ObjectFactory wmlObjectFactory = Context.getWmlObjectFactory();
+
+	@Test
+	public void testDocx() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+
+		mdp.addParagraphOfText("Hello");
+		mdp.getContent().add(XmlUtils.unmarshalString(
+				"<w:p xmlns:w=\"http://schemas.openxmlformats.org/wordprocessingml/2006/main\">"
+				+ "<w:pPr><w:tabs><w:tab w:val=\"left\" w:pos=\"720\"/></w:tabs></w:pPr>"
+				+ "<w:r><w:t>a</w:t><w:tab/><w:t xml:space=\"preserve\">b </w:t></w:r>"
+				+ "<w:r><w:delText>deleted</w:delText></w:r><w:r><w:t>c</w:t></w:r></w:p>"));
+		mdp.addParagraphOfText("");
+
+		HeaderPart headerPart = new HeaderPart();
+		headerPart.setJaxbElement(wmlObjectFactory.createHdr());
+		P p = mdp.createParagraphOfText("Header");
+		headerPart.getContent().add(p);
+		Relationship rel = mdp.addTargetPart(headerPart);
+
+		SectPr sectPr = wmlObjectFactory.createSectPr();
+		HeaderReference headerReference = wmlObjectFactory.createHeaderReference();
+		headerReference.setId(rel.getId());
+		headerReference.setType(HdrFtrRef.DEFAULT);
+		sectPr.getEGHdrFtrReferences().add(headerReference);
+		mdp.getJaxbElement().getBody().setSectPr(sectPr);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+
+		StreamingTextExtractor extractor = new StreamingTextExtractor(
+				new ZipPartStore(new ByteArrayInputStream(baos.toByteArray())));
+		StringWriter out = new StringWriter();
+		List<TextOffset> offsets = new ArrayList<TextOffset>();
+		extractor.extractText(out, offsets);
+
+		assertEquals("Hello\na\tb c\n\nHeader\n", out.toString());
+
+		assertEquals(4, offsets.size());
+		assertEquals("word/document.xml", offsets.get(1).getPartName());
+		assertEquals(1, offsets.get(1).getParagraphIndex());
+		assertEquals(6, offsets.get(1).getOffset());
+		assertEquals(5, offsets.get(1).getLength());
+		assertEquals(headerPart.getPartName().getName().substring(1), offsets.get(3).getPartName());
+		assertEquals(0, offsets.get(3).getParagraphIndex());
+		assertEquals(13, offsets.get(3).getOffset());
+	}
+
+}
@@ -0,0 +1,114 @@
+package org.docx4j.openpackaging.io3.stores;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.docx4j.openpackaging.contenttype.ContentType;
+import org.docx4j.openpackaging.contenttype.ContentTypes;
+import org.docx4j.openpackaging.io3.Save;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.OleObjectBinaryPart;
+import org.junit.Test;
+
+public class PartStoreBufferTest {
+
+	private static final byte[] DATA = "some binary data".getBytes();
+
+	private WordprocessingMLPackage loadWithBinaryPart() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		OleObjectBinaryPart binaryPart = new OleObjectBinaryPart(new PartName("/word/embeddings/oleObject1.bin"));
+		binaryPart.setContentType(new ContentType(ContentTypes.OFFICEDOCUMENT_OLE_OBJECT));
+		binaryPart.setBinaryData(DATA);
+		wordMLPackage.getMainDocumentPart().addTargetPart(binaryPart);
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+		return WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+	}
+
+	@Test
+	public void testZipPartStore() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = loadWithBinaryPart();
+		ZipPartStore partStore = (ZipPartStore)wordMLPackage.getSourcePartStore();
+
+		// the buffer is over the store's bytes, so read-only
+		ByteBuffer bb = partStore.loadPartBuffer("word/embeddings/oleObject1.bin");
+		assertTrue(bb.isReadOnly());
+		assertEquals(DATA.length, bb.remaining());
+		try {
+			bb.put(0, (byte)0);
+			fail("expected ReadOnlyBufferException");
+		} catch (ReadOnlyBufferException e) {}
+
+		ReadableByteChannel channel = partStore.loadPartChannel("word/embeddings/oleObject1.bin");
+		assertArrayEquals(DATA, IOUtils.toByteArray(Channels.newInputStream(channel)));
+		channel.close();
+
+		assertNull(partStore.loadPartBuffer("word/embeddings/missing.bin"));
+
+		// a lazily loaded binary part shares them too
+		BinaryPart binaryPart = (BinaryPart)wordMLPackage.getParts().get(new PartName("/word/embeddings/oleObject1.bin"));
+		assertTrue(binaryPart.getBuffer().isReadOnly());
+		assertTrue(binaryPart.isContentsClean());
+		assertArrayEquals(DATA, binaryPart.getBytes());
+
+		// as does a snapshot of the package
+		SnapshotPartStore snapshot = new SnapshotPartStore();
+		new Save(wordMLPackage, snapshot).save(null);
+		assertSame(partStore.getByteArray("word/embeddings/oleObject1.bin").getBytes(),
+				snapshot.getPartByteArrays().get("word/embeddings/oleObject1.bin").getBytes());
+
+		// until the contents are replaced
+		binaryPart.setBinaryData(DATA);
+		assertFalse(binaryPart.isContentsClean());
+	}
+
+	@Test
+	public void testUnzippedPartStore() throws Exception {
+
+		File dir = new File(System.getProperty("java.io.tmpdir"), "PartStoreBufferTest" + System.nanoTime());
+		try {
+			new File(dir, "word/embeddings").mkdirs();
+			FileOutputStream fos = new FileOutputStream(new File(dir, "word/embeddings/oleObject1.bin"));
+			fos.write(DATA);
+			fos.close();
+
+			UnzippedPartStore partStore = new UnzippedPartStore(dir);
+
+			ByteBuffer bb = partStore.loadPartBuffer("word/embeddings/oleObject1.bin");
+			byte[] bytes = new byte[bb.remaining()];
+			bb.get(bytes);
+			assertArrayEquals(DATA, bytes);
+
+			ReadableByteChannel channel = partStore.loadPartChannel("word/embeddings/oleObject1.bin");
+			assertArrayEquals(DATA, IOUtils.toByteArray(Channels.newInputStream(channel)));
+			channel.close();
+
+			assertNull(partStore.loadPartBuffer("word/embeddings/missing.bin"));
+			assertNull(partStore.loadPartChannel("word/embeddings/missing.bin"));
+		} finally {
+			FileUtils.deleteQuietly(dir);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package org.docx4j.openpackaging.io3.stores;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.commons.io.IOUtils;
+import org.docx4j.jaxb.Context;
+import org.docx4j.openpackaging.contenttype.ContentType;
+import org.docx4j.openpackaging.contenttype.ContentTypes;
+import org.docx4j.openpackaging.io3.Save;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.HeaderPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.OleObjectBinaryPart;
+import org.junit.Test;
+
+public class ZipPartStoreParallelTest {
+
+	private WordprocessingMLPackage createPackage() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		for (int i = 0; i < 50; i++) {
+			wordMLPackage.getMainDocumentPart().addParagraphOfText("Paragraph " + i);
+		}
+		for (int i = 0; i < 10; i++) {
+			HeaderPart headerPart = new HeaderPart(new PartName("/word/header" + i + ".xml"));
+			headerPart.setJaxbElement(Context.getWmlObjectFactory().createHdr());
+			headerPart.getContent().add(wordMLPackage.getMainDocumentPart().createParagraphOfText("Header " + i));
+			wordMLPackage.getMainDocumentPart().addTargetPart(headerPart);
+		}
+		OleObjectBinaryPart olePart = new OleObjectBinaryPart(new PartName("/word/embeddings/oleObject1.bin"));
+		olePart.setContentType(new ContentType(ContentTypes.OFFICEDOCUMENT_OLE_OBJECT));
+		olePart.setBinaryData(new byte[] {1, 2, 3, 4, 5});
+		wordMLPackage.getMainDocumentPart().addTargetPart(olePart);
+		return wordMLPackage;
+	}
+
+	private byte[] save(WordprocessingMLPackage wordMLPackage, int parallelism) throws Exception {
+
+		ZipPartStore zipPartStore = new ZipPartStore();
+		zipPartStore.setParallelism(parallelism);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		new Save(wordMLPackage, zipPartStore).save(baos);
+		return baos.toByteArray();
+	}
+
+	private List<ZipArchiveEntry> entries(ZipFile zf) {
+
+		List<ZipArchiveEntry> entries = new ArrayList<ZipArchiveEntry>();
+		Enumeration<ZipArchiveEntry> e = zf.getEntries();
+		while (e.hasMoreElements()) {
+			entries.add(e.nextElement());
+		}
+		return entries;
+	}
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = createPackage();
+		byte[] sequential = save(wordMLPackage, 1);
+		byte[] parallel = save(wordMLPackage, 4);
+
+		ZipFile expectedZip = new ZipFile(new SeekableInMemoryByteChannel(sequential));
+		ZipFile actualZip = new ZipFile(new SeekableInMemoryByteChannel(parallel));
+		List<ZipArchiveEntry> expected = entries(expectedZip);
+		List<ZipArchiveEntry> actual = entries(actualZip);
+
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getName(), actual.get(i).getName());
+			assertEquals(expected.get(i).getMethod(), actual.get(i).getMethod());
+			assertArrayEquals(expected.get(i).getName(),
+					IOUtils.toByteArray(expectedZip.getInputStream(expected.get(i))),
+					IOUtils.toByteArray(actualZip.getInputStream(actual.get(i))));
+		}
+		assertEquals(ZipArchiveEntry.STORED, actualZip.getEntry("word/embeddings/oleObject1.bin").getMethod());
+		expectedZip.close();
+		actualZip.close();
+
+		// and it loads
+		WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(new ByteArrayInputStream(parallel));
+		assertEquals(50, reloaded.getMainDocumentPart().getContent().size());
+
+		// parts which weren't unmarshalled are copied from the source part store
+		((ZipPartStore)reloaded.getSourcePartStore()).setParallelism(4);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		reloaded.save(baos);
+		WordprocessingMLPackage resaved = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(50, resaved.getMainDocumentPart().getContent().size());
+		assertEquals(1, ((HeaderPart)resaved.getParts().get(new PartName("/word/header9.xml"))).getContent().size());
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.docx4j.openpackaging.packages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+
+import org.docx4j.Docx4J;
+import org.docx4j.TextUtils;
+import org.docx4j.events.Docx4jEvent;
+import org.docx4j.events.WellKnownJobTypes;
+import org.docx4j.events.WellKnownProcessSteps;
+import org.docx4j.events.metrics.InMemoryMetricsRegistry;
+import org.docx4j.events.metrics.MetricsListener;
+import org.docx4j.events.metrics.StepKey;
+import org.docx4j.events.metrics.StepMetrics;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.org.apache.poi.poifs.crypt.PasswordHashCache;
+import org.junit.Test;
+
+public class EncryptedPackageTest {
+
+	@Test
+	public void testFileRoundTrip() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("secret");
+
+		File file = File.createTempFile("encrypted", ".docx");
+		file.deleteOnExit();
+		wordMLPackage.save(file, Docx4J.FLAG_SAVE_ENCRYPTED_AGILE, "pw");
+
+		int maxSize = PasswordHashCache.getMaxSize();
+		PasswordHashCache.setMaxSize(4);
+		try {
+			for (int i=0; i<2; i++) {
+				WordprocessingMLPackage loaded = (WordprocessingMLPackage)OpcPackage.load(file, "pw");
+				assertEquals("secret", TextUtils.getText(loaded.getMainDocumentPart().getContent().get(0)));
+			}
+
+			// the stream based load reads the same container
+			FileInputStream fis = new FileInputStream(file);
+			try {
+				OpcPackage.load(fis, "pw");
+			} finally {
+				fis.close();
+			}
+
+			try {
+				OpcPackage.load(file, "wrong");
+				fail("expected wrong password");
+			} catch (Docx4JException e) {
+				// expected
+			}
+		} finally {
+			PasswordHashCache.setMaxSize(maxSize);
+		}
+	}
+
+	@Test
+	public void testSaveEventFinishedOnFailure() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+
+		InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+		MetricsListener.install(registry);
+		try {
+			File file = new File(System.getProperty("java.io.tmpdir"), 
+					"missing" + System.nanoTime() + "/encrypted.docx");
+			try {
+				wordMLPackage.save(file, Docx4J.FLAG_SAVE_ENCRYPTED_AGILE, "pw");
+				fail("expected Docx4JException");
+			} catch (Docx4JException e) {
+				// expected
+			}
+
+			StepMetrics metrics = registry.getStepMetrics(
+					new StepKey(WellKnownJobTypes.ANONYMOUS.name(), WellKnownProcessSteps.PKG_SAVE.name(), null));
+			assertNotNull(metrics);
+			assertEquals(1, metrics.getCount());
+		} finally {
+			Docx4jEvent.setEventNotifier(null);
+		}
+	}
+
+	@Test
+	public void testStreamSaveMatchesFileLoad() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("secret");
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos, Docx4J.FLAG_SAVE_ENCRYPTED_STANDARD, "pw");
+
+		File file = File.createTempFile("encrypted", ".docx");
+		file.deleteOnExit();
+		Files.write(file.toPath(), baos.toByteArray());
+
+		OpcPackage loaded = OpcPackage.load(file, Filetype.Compound, "pw");
+		assertEquals(WordprocessingMLPackage.class, loaded.getClass());
+	}
+
+}
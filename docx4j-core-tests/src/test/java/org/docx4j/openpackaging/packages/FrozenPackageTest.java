@@ -0,0 +1,124 @@
+package org.docx4j.openpackaging.packages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.docx4j.Docx4J;
+import org.docx4j.convert.out.HTMLSettings;
+import org.docx4j.jaxb.Context;
+import org.docx4j.model.PropertyResolver;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.NumberingDefinitionsPart;
+import org.docx4j.wml.P;
+import org.docx4j.wml.PPr;
+import org.docx4j.wml.PPrBase;
+import org.junit.Test;
+
+/**
+ * Several threads exporting the same frozen package should each
+ * get the same HTML (including list numbers) as a single thread.
+ */
+public class FrozenPackageTest {
+
+	private static org.docx4j.wml.ObjectFactory wmlObjectFactory = Context.getWmlObjectFactory();
+
+	@Test
+	public void testConcurrentExport() throws Exception {
+
+		byte[] docx = createDocx();
+
+		final String expected = toHTML(WordprocessingMLPackage.load(new ByteArrayInputStream(docx)));
+		assertTrue(expected.contains("Item 99"));
+
+		final WordprocessingMLPackage frozen = WordprocessingMLPackage.load(new ByteArrayInputStream(docx));
+		frozen.freeze();
+		assertTrue(frozen.isFrozen());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(new Callable<String>() {
+					public String call() throws Exception {
+						return toHTML(frozen);
+					}
+				}));
+			}
+			for (Future<String> result : results) {
+				assertEquals(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testActivateStyleWhenFrozen() throws Exception {
+
+		WordprocessingMLPackage frozen = WordprocessingMLPackage.load(new ByteArrayInputStream(createDocx()));
+		frozen.freeze();
+
+		PropertyResolver propertyResolver = frozen.getMainDocumentPart().getPropertyResolver();
+		int styles = frozen.getMainDocumentPart().getStyleDefinitionsPart().getContents().getStyle().size();
+		assertNull(propertyResolver.getStyle("BlockText"));
+
+		// a known style, but other threads may be reading the styles part
+		assertFalse(propertyResolver.activateStyle("BlockText"));
+		assertNull(propertyResolver.getStyle("BlockText"));
+		assertEquals(styles, frozen.getMainDocumentPart().getStyleDefinitionsPart().getContents().getStyle().size());
+	}
+
+	private String toHTML(WordprocessingMLPackage wordMLPackage) throws Exception {
+
+		HTMLSettings htmlSettings = Docx4J.createHTMLSettings();
+		htmlSettings.setOpcPackage(wordMLPackage);
+
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		Docx4J.toHTML(htmlSettings, os, Docx4J.FLAG_EXPORT_PREFER_NONXSL);
+		return os.toString("UTF-8");
+	}
+
+	private byte[] createDocx() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		MainDocumentPart mdp = wordMLPackage.getMainDocumentPart();
+
+		NumberingDefinitionsPart ndp = new NumberingDefinitionsPart();
+		ndp.unmarshalDefaultNumbering();
+		mdp.addTargetPart(ndp);
+
+		for (int i = 0; i < 100; i++) {
+			P p = mdp.createParagraphOfText("Item " + i);
+			if (i % 3 != 0) {
+				PPr ppr = wmlObjectFactory.createPPr();
+				p.setPPr(ppr);
+				PPrBase.NumPr numPr = wmlObjectFactory.createPPrBaseNumPr();
+				ppr.setNumPr(numPr);
+				PPrBase.NumPr.Ilvl ilvl = wmlObjectFactory.createPPrBaseNumPrIlvl();
+				ilvl.setVal(BigInteger.valueOf(i % 2));
+				numPr.setIlvl(ilvl);
+				PPrBase.NumPr.NumId numId = wmlObjectFactory.createPPrBaseNumPrNumId();
+				numId.setVal(BigInteger.ONE);
+				numPr.setNumId(numId);
+			}
+			mdp.getContent().add(p);
+		}
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+		return baos.toByteArray();
+	}
+
+}
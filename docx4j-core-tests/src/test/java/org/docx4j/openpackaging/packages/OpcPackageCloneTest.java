@@ -0,0 +1,61 @@
+package org.docx4j.openpackaging.packages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.junit.Test;
+
+public class OpcPackageCloneTest {
+
+	private WordprocessingMLPackage loadNew() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("Hello");
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		wordMLPackage.save(baos);
+		return WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+	}
+
+	@Test
+	public void testUnchangedPartsShared() throws Exception {
+
+		WordprocessingMLPackage master = loadNew();
+		WordprocessingMLPackage clone = (WordprocessingMLPackage)master.clone();
+
+		// not unmarshalled in either package, nor copied
+		assertFalse(clone.getMainDocumentPart().isUnmarshalled());
+		assertSame(((ZipPartStore)master.getSourcePartStore()).getByteArray("word/document.xml").getBytes(),
+				((ZipPartStore)clone.getSourcePartStore()).getByteArray("word/document.xml").getBytes());
+
+		// changes to the clone don't affect the master
+		clone.getMainDocumentPart().addParagraphOfText("World");
+		assertEquals(2, clone.getMainDocumentPart().getContent().size());
+		assertEquals(1, master.getMainDocumentPart().getContent().size());
+	}
+
+	@Test
+	public void testChangesCloned() throws Exception {
+
+		WordprocessingMLPackage master = loadNew();
+		master.getMainDocumentPart().addParagraphOfText("World");
+
+		WordprocessingMLPackage clone = (WordprocessingMLPackage)master.clone();
+		assertEquals(2, clone.getMainDocumentPart().getContent().size());
+		assertTrue(clone.getMainDocumentPart().getContent().get(0)
+				!= master.getMainDocumentPart().getContent().get(0));
+
+		// the clone saves and loads
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		clone.save(baos);
+		WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(2, reloaded.getMainDocumentPart().getContent().size());
+	}
+
+}
@@ -0,0 +1,159 @@
+package org.docx4j.openpackaging.parts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+
+import org.docx4j.Docx4jProperties;
+import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.NamespacePrefixMapperUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * With docx4j.jaxb.marshal.canonicalize, JaxbXmlPart.marshal trims namespaces
+ * as it goes (NamespaceTrimmingXMLStreamWriter).  Check it declares the same
+ * namespaces, on the same elements, as the previous approach (marshal to a DOM,
+ * declare the mc:Ignorable and mc:Choice namespaces, then exclusive c14n).
+ */
+public class JaxbXmlPartCanonicalizeTest {
+
+	private static final String CANONICALIZE = "docx4j.jaxb.marshal.canonicalize";
+
+	private String previous;
+
+	@Before
+	public void setUp() {
+		previous = Docx4jProperties.getProperty(CANONICALIZE);
+		Docx4jProperties.setProperty(CANONICALIZE, true);
+	}
+
+	@After
+	public void tearDown() {
+		if (previous==null) {
+			Docx4jProperties.getProperties().remove(CANONICALIZE);
+		} else {
+			Docx4jProperties.setProperty(CANONICALIZE, previous);
+		}
+	}
+
+	@Test
+	public void testMcIgnorableInOtherParts() throws Exception {
+		compareParts("w14_mcIgnorable-in-other-parts.docx");
+	}
+
+	@Test
+	public void testMcChoice() throws Exception {
+		compareParts("DrawingML_GraphicData_wps.docx");
+	}
+
+	private void compareParts(String filename) throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.load(
+				new File(System.getProperty("user.dir") + "/src/test/resources/2010/" + filename));
+
+		int compared = 0;
+		for (Part part : wordMLPackage.getParts().getParts().values()) {
+
+			if (!(part instanceof JaxbXmlPart)) continue;
+			JaxbXmlPart<?> jaxbXmlPart = (JaxbXmlPart<?>)part;
+
+			// as trimmed while marshalling; parsing checks it is well formed
+			Document actual = parse(marshal(jaxbXmlPart));
+
+			// as previously canonicalized
+			String ignorables = jaxbXmlPart.getMceIgnorable() + jaxbXmlPart.getMcChoiceNamespaces();
+			Document doc = XmlUtils.marshaltoW3CDomDocument(jaxbXmlPart.getJaxbElement(), jaxbXmlPart.getJAXBContext());
+			NamespacePrefixMapperUtils.declareNamespaces(ignorables, doc);
+			Document expected = parse(XmlUtils.trimNamespaces(doc, ignorables));
+
+			String name = part.getPartName().getName();
+			compare(name, expected.getDocumentElement(), actual.getDocumentElement());
+
+			// Word requires these on the root element
+			StringTokenizer st = new StringTokenizer(ignorables, " ");
+			while (st.hasMoreTokens()) {
+				String prefix = st.nextToken();
+				if (expected.getDocumentElement().hasAttribute("xmlns:" + prefix)) {
+					assertTrue(name + " missing xmlns:" + prefix,
+							actual.getDocumentElement().hasAttribute("xmlns:" + prefix));
+				}
+			}
+			compared++;
+		}
+		assertTrue(compared > 0);
+
+		// and something was trimmed
+		Element trimmed = parse(marshal(wordMLPackage.getMainDocumentPart())).getDocumentElement();
+		Docx4jProperties.setProperty(CANONICALIZE, false);
+		Element untrimmed = parse(marshal(wordMLPackage.getMainDocumentPart())).getDocumentElement();
+		assertTrue(declarations(trimmed).size() < declarations(untrimmed).size());
+	}
+
+	private static byte[] marshal(JaxbXmlPart<?> part) throws Exception {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		part.marshal(baos);
+		return baos.toByteArray();
+	}
+
+	private static Document parse(byte[] bytes) throws Exception {
+
+		Document doc = XmlUtils.getNewDocumentBuilder().parse(new ByteArrayInputStream(bytes));
+		assertNotNull(doc.getDocumentElement());
+		return doc;
+	}
+
+	private static void compare(String partName, Element expected, Element actual) {
+
+		String path = partName + ":" + expected.getNodeName();
+		assertEquals(path, expected.getNamespaceURI(), actual.getNamespaceURI());
+		assertEquals(path, expected.getLocalName(), actual.getLocalName());
+		assertEquals(path, declarations(expected), declarations(actual));
+
+		Node e = firstElement(expected.getFirstChild());
+		Node a = firstElement(actual.getFirstChild());
+		while (e!=null && a!=null) {
+			compare(partName, (Element)e, (Element)a);
+			e = firstElement(e.getNextSibling());
+			a = firstElement(a.getNextSibling());
+		}
+		assertEquals(path + " child elements", e==null, a==null);
+	}
+
+	private static Node firstElement(Node node) {
+		while (node!=null && node.getNodeType()!=Node.ELEMENT_NODE) {
+			node = node.getNextSibling();
+		}
+		return node;
+	}
+
+	private static Map<String, String> declarations(Element element) {
+
+		Map<String, String> declarations = new TreeMap<String, String>();
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i=0; i<attributes.getLength(); i++) {
+			Attr attr = (Attr)attributes.item(i);
+			if (attr.getName().equals("xmlns")
+					|| attr.getName().startsWith("xmlns:")) {
+				declarations.put(attr.getName(), attr.getValue());
+			}
+		}
+		return declarations;
+	}
+
+}
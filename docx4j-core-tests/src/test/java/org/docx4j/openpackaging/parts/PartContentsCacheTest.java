@@ -0,0 +1,164 @@
+package org.docx4j.openpackaging.parts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.docx4j.Docx4J;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.DocumentSettingsPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.StyleDefinitionsPart;
+import org.docx4j.wml.Document;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartContentsCacheTest {
+	
+	private WordprocessingMLPackage wordMLPackage;
+	private PartContentsCache cache;
+	private MainDocumentPart mdp;
+	private StyleDefinitionsPart styles;
+	
+	@Before
+	public void setUp() throws Exception {
+		
+		WordprocessingMLPackage created = WordprocessingMLPackage.createPackage();
+		created.getMainDocumentPart().addParagraphOfText("Hello world");
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Docx4J.save(created, baos);
+		
+		wordMLPackage = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		cache = new PartContentsCache(1); // only ever keep the most recent
+		wordMLPackage.setPartContentsCache(cache);
+		mdp = wordMLPackage.getMainDocumentPart();
+		styles = mdp.getStyleDefinitionsPart();
+	}
+
+	@Test
+	public void testEvictAndReload() throws Exception {
+		
+		assertEquals(1, mdp.getContent().size());
+		assertTrue(mdp.isContentsClean());
+		
+		styles.getContents();
+		assertFalse(mdp.isUnmarshalled());
+		assertEquals(1, cache.getEvictions());
+		
+		assertEquals(1, mdp.getContent().size());
+		assertEquals(1, cache.getReloads());
+		assertFalse(styles.isUnmarshalled());
+	}
+
+	@Test
+	public void testModifiedPartsAreKept() throws Exception {
+		
+		mdp.addParagraphOfText("Added");
+		assertFalse(mdp.isContentsClean());
+		
+		cache.evictAll();
+		assertTrue(mdp.isUnmarshalled());
+		
+		// and is saved with the change
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		Docx4J.save(wordMLPackage, baos);
+		WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(2, reloaded.getMainDocumentPart().getContent().size());
+	}
+
+	@Test
+	public void testEvictAll() throws Exception {
+		
+		styles.getContents();
+		assertEquals(1, cache.evictAll());
+		assertFalse(styles.isUnmarshalled());
+		
+		styles.getContents().getStyle().clear();
+		styles.setContentsModified();
+		assertFalse(styles.evict());
+	}
+
+	@Test
+	public void testNotEvictable() throws Exception {
+		
+		DocumentSettingsPart settings = mdp.getDocumentSettingsPart();
+		settings.getContents();
+		assertTrue(settings.isContentsClean());
+		assertFalse(settings.evict());
+		
+		// and it isn't tracked, so doesn't cause others to be evicted
+		styles.getContents();
+		settings.getContents();
+		assertTrue(styles.isUnmarshalled());
+		assertEquals(0, cache.getEvictions());
+	}
+	
+	@Test
+	public void testNotEvictedWhileMarshalling() throws Exception {
+		
+		final boolean[] evicted = new boolean[1];
+		styles.marshal(new ByteArrayOutputStream() {
+			
+			@Override
+			public synchronized void write(byte[] b, int off, int len) {
+				// eg another thread loading a part, while a ParallelEntryWriter worker marshals this one
+				evicted[0] |= styles.evict();
+				super.write(b, off, len);
+			}
+		});
+		assertFalse(evicted[0]);
+		assertTrue(styles.evict());
+	}
+	
+	@Test
+	public void testConcurrentGetContentsAndEvict() throws Exception {
+		
+		final AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(5);
+		try {
+			Future<?> evictor = executor.submit(new Runnable() {
+				public void run() {
+					while (!done.get()) {
+						mdp.evict();
+					}
+				}
+			});
+			
+			List<Future<Integer>> readers = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 4; i++) {
+				readers.add(executor.submit(new Callable<Integer>() {
+					public Integer call() throws Exception {
+						int loaded = 0;
+						for (int j = 0; j < 200; j++) {
+							Document document = mdp.getContents();
+							assertNotNull(document);
+							assertEquals(1, document.getContent().size());
+							loaded++;
+						}
+						return loaded;
+					}
+				}));
+			}
+			for (Future<Integer> reader : readers) {
+				assertEquals(200, reader.get().intValue());
+			}
+			done.set(true);
+			evictor.get();
+		} finally {
+			done.set(true);
+			executor.shutdown();
+		}
+	}
+	
+}
@@ -0,0 +1,184 @@
+package org.docx4j.services.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.docx4j.TextUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the converter clients against a local stub endpoint, which
+ * responds with "converted:" followed by the first 2 bytes of the request.
+ */
+public class ConverterHttpAsyncTest {
+
+	private HttpServer server;
+	private String url;
+
+	private final List<Integer> remotePorts = new CopyOnWriteArrayList<Integer>();
+	private final List<String> transferEncodings = new CopyOnWriteArrayList<String>();
+	private final AtomicInteger rateLimitResponses = new AtomicInteger();
+	private volatile CountDownLatch block = null;
+
+	@Before
+	public void startServer() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/convert", new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+
+				remotePorts.add(exchange.getRemoteAddress().getPort());
+				transferEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding")));
+				byte[] in = IOUtils.toByteArray(exchange.getRequestBody());
+
+				if (block!=null) {
+					try {
+						block.await(10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {}
+				}
+
+				if (rateLimitResponses.getAndDecrement() > 0) {
+					exchange.getResponseHeaders().add("Retry-After", "0");
+					exchange.sendResponseHeaders(429, -1);
+					exchange.close();
+					return;
+				}
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				out.write("converted:".getBytes("UTF-8"));
+				out.write(in, 0, Math.min(2, in.length));
+				exchange.sendResponseHeaders(200, out.size());
+				OutputStream os = exchange.getResponseBody();
+				out.writeTo(os);
+				os.close();
+			}
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/convert";
+	}
+
+	@After
+	public void stopServer() {
+		if (block!=null) block.countDown();
+		server.stop(0);
+		ConverterHttp.closeSharedClient();
+	}
+
+	@Test
+	public void testConnectionReused() throws Exception {
+
+		ConverterHttp converter = new ConverterHttp(url);
+		for (int i=0; i<3; i++) {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, baos);
+			assertEquals("converted:ab", baos.toString("UTF-8"));
+		}
+		assertEquals(3, remotePorts.size());
+		assertEquals(remotePorts.get(0), remotePorts.get(2));
+	}
+
+	@Test
+	public void testPackageStreamed() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("Hello");
+
+		ConverterHttpAsync converter = new ConverterHttpAsync(url);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		converter.convert(wordMLPackage, Format.PDF, baos).get(10, TimeUnit.SECONDS);
+		converter.close();
+
+		// a zip, sent chunked
+		assertEquals("converted:PK", baos.toString("UTF-8"));
+		assertEquals("chunked", transferEncodings.get(0));
+	}
+
+	@Test
+	public void testPackageEntityContent() throws Exception {
+
+		WordprocessingMLPackage wordMLPackage = WordprocessingMLPackage.createPackage();
+		wordMLPackage.getMainDocumentPart().addParagraphOfText("Hello");
+
+		ConverterHttp.PackageEntity entity = new ConverterHttp.PackageEntity(wordMLPackage,
+				org.apache.http.entity.ContentType.APPLICATION_OCTET_STREAM);
+
+		// a docx, each time it is asked for
+		for (int i=0; i<2; i++) {
+			WordprocessingMLPackage reloaded = WordprocessingMLPackage.load(entity.getContent());
+			assertEquals("Hello", TextUtils.getText(reloaded.getMainDocumentPart().getContent().get(0)));
+		}
+	}
+
+	@Test
+	public void testRateLimitRetried() throws Exception {
+
+		rateLimitResponses.set(2);
+
+		ConverterHttpAsync converter = new ConverterHttpAsync(new ConverterHttp(url), 2, 2, 2);
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, baos).get(10, TimeUnit.SECONDS);
+		assertArrayEquals("converted:ab".getBytes("UTF-8"), baos.toByteArray());
+		assertEquals(3, remotePorts.size());
+
+		// once retries are exhausted
+		rateLimitResponses.set(3);
+		try {
+			converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, new ByteArrayOutputStream()).get(10, TimeUnit.SECONDS);
+			fail("Expected ConversionRateLimitException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ConversionRateLimitException);
+		}
+		converter.close();
+	}
+
+	@Test
+	public void testTooManyPending() throws Exception {
+
+		block = new CountDownLatch(1);
+
+		ConverterHttpAsync converter = new ConverterHttpAsync(new ConverterHttp(url), 1, 2, 0);
+		CompletableFuture<Void> first = converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, new ByteArrayOutputStream());
+		CompletableFuture<Void> second = converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, new ByteArrayOutputStream());
+		CompletableFuture<Void> third = converter.convert("ab".getBytes("UTF-8"), Format.DOCX, Format.PDF, new ByteArrayOutputStream());
+		assertEquals(2, converter.getPending());
+
+		// rejected without waiting
+		assertTrue(third.isCompletedExceptionally());
+		try {
+			third.get();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ConversionRateLimitException);
+		}
+
+		block.countDown();
+		first.get(10, TimeUnit.SECONDS);
+		second.get(10, TimeUnit.SECONDS);
+		assertEquals(0, converter.getPending());
+		converter.close();
+	}
+
+}
@@ -1,6 +1,9 @@
 package org.docx4j.toc;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.Assert;
 
@@ -8,6 +11,7 @@ import org.docx4j.Docx4J;
 import org.docx4j.TraversalUtil;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.ArrayListWml;
 import org.docx4j.wml.Body;
 import org.docx4j.wml.Document;
 import org.docx4j.wml.SdtBlock;
@@ -158,6 +162,33 @@ public class TocGenerateTest {
 //        Docx4J.save(wordMLPackage, new File("testToCHeadingSet.docx"));
 //	}
 	
+	@Test
+	public void testFingerprintIncludesToc() throws TocException, Exception {
+		
+		WordprocessingMLPackage wordMLPackage = createPkg();
+		
+        TocGenerator tocGenerator = new TocGenerator(wordMLPackage);
+        tocGenerator.generateToc( 0, "TOC \\o \"1-3\"", true);
+        SdtBlock sdt = getTocSDT(wordMLPackage);
+        
+        // fingerprinting doesn't touch the document
+        final List<ArrayListWml<?>> changed = new ArrayList<ArrayListWml<?>>();
+        TraversalUtil.addChangeListener(wordMLPackage.getMainDocumentPart().getJaxbElement(), 
+        		new ArrayListWml.ChangeListener() {
+			public void contentChanged(ArrayListWml<?> list) {
+				changed.add(list);
+			}
+		});
+        byte[] fingerprint = tocGenerator.fingerprint();
+        Assert.assertNotNull(fingerprint);
+        Assert.assertTrue(Arrays.equals(fingerprint, tocGenerator.fingerprint()));
+        Assert.assertEquals(0, changed.size());
+        
+        // a ToC with fewer entries (eg \o "1-1") moves the pages after it
+        sdt.getSdtContent().getContent().remove(3);
+        Assert.assertFalse(Arrays.equals(fingerprint, tocGenerator.fingerprint()));
+	}
+	
 	private SdtBlock getTocSDT(WordprocessingMLPackage wordMLPackage) {
 
         MainDocumentPart documentPart = wordMLPackage.getMainDocumentPart();
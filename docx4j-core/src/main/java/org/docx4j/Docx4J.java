@@ -27,12 +27,18 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.docx4j.batch.BatchInput;
+import org.docx4j.batch.BatchPipeline;
+import org.docx4j.batch.BatchProcessor;
+import org.docx4j.batch.BatchSettings;
+import org.docx4j.batch.BatchStats;
 import org.docx4j.convert.out.Documents4jConversionSettings;
 import org.docx4j.convert.out.FOSettings;
 import org.docx4j.convert.out.HTMLSettings;
@@ -71,7 +77,6 @@ import org.docx4j.openpackaging.parts.opendope.XPathsPart;
 import org.docx4j.openpackaging.parts.relationships.Namespaces;
 import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
 import org.docx4j.relationships.Relationship;
-import org.docx4j.services.client.Converter;
 import org.docx4j.services.client.ConverterHttp;
 import org.docx4j.services.client.Format;
 import org.docx4j.utils.TraversalUtilVisitor;
@@ -692,6 +697,26 @@ public class Docx4J {
 		return (WordprocessingMLPackage)PartialDeepCopy.process(wmlPackage, null);
 	}
 	
+	/**
+	 *  Create the configuration object for batch processing
+	 *  
+	 *  @since 8.2.2
+	 */	
+	public static BatchSettings createBatchSettings() {
+		return new BatchSettings();
+	}
+	
+	/**
+	 *  Load and process each input with the pipeline, on a bounded pool of 
+	 *  worker threads.  A document which fails doesn't stop the batch; it is 
+	 *  counted in the returned stats, and reported to the settings' listener.
+	 *  
+	 *  @since 8.2.2
+	 */	
+	public static BatchStats batch(Iterator<BatchInput> inputs, BatchPipeline pipeline, BatchSettings settings) throws Docx4JException {
+		return new BatchProcessor(pipeline, settings).process(inputs);
+	}
+	
 	/**
 	 *  Create the configuration object for conversions that are done via xsl-fo
 	 */	
@@ -742,13 +767,10 @@ public class Docx4J {
 			// Since this converter is no longer available, this will only suit existing users
 			String URL = Docx4jProperties.getProperty("com.plutext.converter.URL", "http://localhost:9016/v1/00000000-0000-0000-0000-000000000000/convert");
 			
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			save(wmlPackage, baos);
-			
-			Converter converter = new ConverterHttp(URL); 
+			// the package is saved directly to the request
+			ConverterHttp converter = new ConverterHttp(URL); 
 			try {
-				converter.convert(baos.toByteArray(), Format.DOCX, Format.PDF, outputStream);
-				baos.close();
+				converter.convert(wmlPackage, Format.PDF, outputStream);
 			} catch (Exception e) {
 				throw new Docx4JException(e.getMessage(), e);
 			} finally {
@@ -41,6 +41,11 @@ import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+/**
+ * To extract the text of a whole document without loading it
+ * (eg for search indexing), see StreamingTextExtractor
+ * in org.docx4j.openpackaging.io3
+ */
 public class TextUtils {
 	
 	private static Logger log = LoggerFactory.getLogger(TextUtils.class);	
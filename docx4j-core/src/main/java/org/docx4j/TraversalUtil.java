@@ -44,6 +44,7 @@ import org.docx4j.relationships.Relationship;
 import org.docx4j.utils.CompoundTraversalUtilVisitorCallback;
 import org.docx4j.utils.SingleTraversalUtilVisitorCallback;
 import org.docx4j.utils.TraversalUtilVisitor;
+import org.docx4j.wml.ArrayListWml;
 import org.docx4j.wml.Br;
 import org.docx4j.wml.CTBookmark;
 import org.docx4j.wml.CTMarkupRange;
@@ -271,6 +272,60 @@ public class TraversalUtil {
 		cb.walkJAXBElements(parent);
 	}
 	
+	/**
+	 * Add the listener to each content list (ArrayListWml) reached by traversing
+	 * o, so that it is notified of changes to them.
+	 * 
+	 * @param o eg a Document, or Body
+	 * @since 8.2.2
+	 */
+	public static void addChangeListener(Object o, final ArrayListWml.ChangeListener listener) {
+		
+		new TraversalUtil(o, new CallbackImpl() {
+
+			@Override
+			public List<Object> getChildren(Object o) {
+				List<Object> children = super.getChildren(o);
+				if (children instanceof ArrayListWml) {
+					((ArrayListWml<?>)children).addChangeListener(listener);
+				}
+				return children;
+			}
+			
+			@Override
+			public List<Object> apply(Object o) {
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Remove the listener from each content list (ArrayListWml) reached by 
+	 * traversing o.
+	 * 
+	 * @param o eg a Document, or Body
+	 * @since 8.2.2
+	 */
+	public static void removeChangeListener(Object o, final ArrayListWml.ChangeListener listener) {
+		
+		new TraversalUtil(o, new CallbackImpl() {
+
+			@Override
+			public List<Object> getChildren(Object o) {
+				List<Object> children = super.getChildren(o);
+				if (children instanceof ArrayListWml) {
+					((ArrayListWml<?>)children).removeChangeListener(listener);
+				}
+				return children;
+			}
+			
+			@Override
+			public List<Object> apply(Object o) {
+				return null;
+			}
+		});
+	}
+	
 	static void visitChildrenImpl(Object o) {
 
 	}
@@ -343,31 +398,34 @@ public class TraversalUtil {
 			o = XmlUtils.unwrap(o);
 		}
 		
-		log.debug("getting children of " + o.getClass().getName() );
-		if (o instanceof org.docx4j.wml.Text) return null;
+		if (log.isDebugEnabled()) {
+			log.debug("getting children of " + o.getClass().getName() );
+		}
+		
+		// The kind of object is worked out once per class (see kindOf), 
+		// rather than by a chain of instanceof tests for each object 
+		switch (CHILD_KINDS.get(o.getClass())) {
 		
-		// Short circuit for common elements
-		if (o instanceof List) {
+		case NONE:
+			return null;
+			
+		case LIST: {
 			// Handy if you have your own list of objects you wish to process
 			return (List<Object>) o;
 			
-		} else if (o instanceof org.docx4j.wml.Document) {
+		}
+		case DOCUMENT: {
 			// since 3.3.4, so traverse visits Body as well.  This is more correct, and potentially useful.
             List<Object> artificialList = new ArrayList<Object>();
             artificialList.add( ((org.docx4j.wml.Document)o).getBody() );
             return artificialList;
 			
-        } else if (o instanceof Br
-        		|| o instanceof CTBookmark
-        		|| o instanceof CTMarkupRange) {			
-        	return null;
-        } else if (o instanceof R.Tab
-        		|| o instanceof R.LastRenderedPageBreak) {			
-        	return null;
-		} else if (o instanceof org.docx4j.wml.ContentAccessor) {
+        }
+		case CONTENT_ACCESSOR: {
 			return ((org.docx4j.wml.ContentAccessor) o).getContent();
 			
-		} else if (o instanceof org.docx4j.wml.SdtElement) {
+		}
+		case SDT_ELEMENT: {
 			if (((org.docx4j.wml.SdtElement) o).getSdtContent()!=null) {
 				return ((org.docx4j.wml.SdtElement) o).getSdtContent().getContent();
 			} else {
@@ -386,7 +444,8 @@ public class TraversalUtil {
 //            		((org.docx4j.wml.SdtElement) o).getSdtContent());
 //            return artificialList;
 			
-		} else if (o instanceof org.docx4j.dml.wordprocessingDrawing.Anchor) {
+		}
+		case ANCHOR: {
             org.docx4j.dml.wordprocessingDrawing.Anchor anchor = (org.docx4j.dml.wordprocessingDrawing.Anchor) o;
             List<Object> artificialList = new ArrayList<Object>();
             CTNonVisualDrawingProps drawingProps = anchor.getDocPr();
@@ -411,8 +470,9 @@ public class TraversalUtil {
             }
             if (!artificialList.isEmpty())
                 return artificialList;
-            
-        } else if (o instanceof org.docx4j.dml.wordprocessingDrawing.Inline) {
+            break;
+        }
+		case INLINE: {
             org.docx4j.dml.wordprocessingDrawing.Inline inline = (org.docx4j.dml.wordprocessingDrawing.Inline) o;
             List<Object> artificialList = new ArrayList<Object>();
             CTNonVisualDrawingProps drawingProps = inline.getDocPr();
@@ -437,14 +497,12 @@ public class TraversalUtil {
             }
             if (!artificialList.isEmpty())
                 return artificialList;
-
-        } else if (o instanceof Pict) {
+            break;
+        }
+		case PICT: {
 			return ((Pict)o).getAnyAndAny(); // (why didn't the reflection below find this?)
-
-        } else if (o instanceof ProofErr) {			
-        	return null;
-        	
-		} else if (o instanceof org.docx4j.dml.picture.Pic) { // Post 2.7.1; untested
+		}
+		case DML_PIC: { // Post 2.7.1; untested
 			
 			org.docx4j.dml.picture.Pic dmlPic = ((org.docx4j.dml.picture.Pic)o);
 			if (dmlPic.getBlipFill()!=null
@@ -456,7 +514,8 @@ public class TraversalUtil {
 			} else {
 				return null;						
 			}		
-		} else if (o instanceof org.docx4j.dml.CTGvmlPicture) {  // Post 2.7.1
+		}
+		case GVML_PICTURE: {  // Post 2.7.1
 			
 			org.docx4j.dml.CTGvmlPicture dmlPic = ((org.docx4j.dml.CTGvmlPicture)o);
 			if (dmlPic.getBlipFill()!=null
@@ -469,7 +528,8 @@ public class TraversalUtil {
 				return null;						
 			}		
 			
-		} else if (o instanceof org.docx4j.vml.CTShape) {				
+		}
+		case VML_SHAPE: {
 //			return ((org.docx4j.vml.CTShape)o).getAny();
 			List<Object> artificialList = new ArrayList<Object>();
 			for (JAXBElement<?> j : ((org.docx4j.vml.CTShape)o).getPathOrFormulasOrHandles() ) {
@@ -477,16 +537,19 @@ public class TraversalUtil {
 				artificialList.add(j);				
 			}
 			return artificialList;
-		} else if (o instanceof CTDataModel) {
+		}
+		case DATA_MODEL: {
 			CTDataModel dataModel = (CTDataModel)o;
 			List<Object> artificialList = new ArrayList<Object>();
 			// We're going to create a list merging two children ..			
 			artificialList.addAll(dataModel.getPtLst().getPt());
 			artificialList.addAll(dataModel.getCxnLst().getCxn());			
 			return artificialList;
-		} else if (o instanceof org.docx4j.dml.diagram2008.CTDrawing) {
+		}
+		case DIAGRAM_DRAWING: {
 			return ((org.docx4j.dml.diagram2008.CTDrawing)o).getSpTree().getSpOrGrpSp();
-		} else if (o instanceof org.docx4j.vml.CTTextbox) {				
+		}
+		case VML_TEXTBOX: {
 //			return ((org.docx4j.vml.CTTextbox)o).getAny();			
 			org.docx4j.vml.CTTextbox textBox = ((org.docx4j.vml.CTTextbox)o);
 			if (textBox.getTxbxContent()==null) {
@@ -497,7 +560,8 @@ public class TraversalUtil {
 			}
 //		} else if (o instanceof org.docx4j.wml.CTTxbxContent) {				
 //			return ((org.docx4j.wml.CTTxbxContent)o).getEGBlockLevelElts();
-		} else if (o instanceof CTObject) {
+		}
+		case OBJECT: {
 			
 			CTObject ctObject = (CTObject)o;
 			List<Object> artificialList = new ArrayList<Object>();
@@ -507,10 +571,12 @@ public class TraversalUtil {
 			}
 			return artificialList;
 			
-		} else if (o instanceof org.docx4j.dml.CTGvmlGroupShape) {
+		}
+		case GVML_GROUP_SHAPE: {
 			return ((org.docx4j.dml.CTGvmlGroupShape)o).getTxSpOrSpOrCxnSp();
 
-		} else if (o instanceof org.docx4j.dml.CTGvmlShape) {
+		}
+		case GVML_SHAPE: {
 			
 			org.docx4j.dml.CTGvmlShape sp = (org.docx4j.dml.CTGvmlShape)o; 
 			if (sp!=null
@@ -524,7 +590,8 @@ public class TraversalUtil {
 			}
 			return null;
 			
-		} else if(o instanceof FldChar) {
+		}
+		case FLD_CHAR: {
 			FldChar fldChar = ((FldChar)o);
 			List<Object> artificialList = new ArrayList<Object>();
 			artificialList.add(fldChar.getFldCharType());
@@ -538,14 +605,16 @@ public class TraversalUtil {
 				artificialList.add(fldChar.getNumberingChange());
 			}
 			return artificialList;
-		} else if (o instanceof org.docx4j.mce.AlternateContent) {
+		}
+		case ALTERNATE_CONTENT: {
 			// we also want to traverse the fallback
 			AlternateContent ac = (AlternateContent)o;
 			List<Object> artificialList = new ArrayList<Object>();
 			artificialList.addAll(ac.getChoice());
 			artificialList.add(ac.getFallback());
 			return artificialList;
-		} else if (o instanceof org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape.CTWordprocessingShape) {
+		}
+		case WORDPROCESSING_SHAPE: {
 			org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape.CTWordprocessingShape sp = (org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape.CTWordprocessingShape)o;
 			if (sp!=null
 					&& sp.getTxbx()!=null
@@ -556,26 +625,92 @@ public class TraversalUtil {
 			return null;
 			
 		}
+		default:
+			break;
+		}
 
 		// OK, what is this? Use reflection ..
 		// This should work for things including w:drawing
-		log.debug(o.getClass().getName() + " .. looking for method which returns list "  );
+		// The method is looked up once per class.
+		Method m = LIST_METHODS.get(o.getClass());
+		if (m==null) {
+			log.debug(".. no list member");
+			return null;
+		}
 		try {
-			Method[] methods = o.getClass().getDeclaredMethods();
-			for (int i = 0; i<methods.length; i++) {
-				Method m = methods[i];
-				if (m.getReturnType().getName().equals("java.util.List") ) {					
-					return (List<Object>)m.invoke(o);					
-				}
-			}
-			
+			return (List<Object>)m.invoke(o);					
 		} catch (Exception e) {
 			log.error(e.getMessage(), e);
 		}
-		log.debug(".. no list member");
 		return null;
 	}
 	
+	private enum ChildKind {
+		NONE, LIST, DOCUMENT, CONTENT_ACCESSOR, SDT_ELEMENT, ANCHOR, INLINE, PICT, 
+		DML_PIC, GVML_PICTURE, VML_SHAPE, DATA_MODEL, DIAGRAM_DRAWING, VML_TEXTBOX, 
+		OBJECT, GVML_GROUP_SHAPE, GVML_SHAPE, FLD_CHAR, ALTERNATE_CONTENT, 
+		WORDPROCESSING_SHAPE, OTHER
+	}
+	
+	private static final ClassValue<ChildKind> CHILD_KINDS = new ClassValue<ChildKind>() {
+		@Override
+		protected ChildKind computeValue(Class<?> c) {
+			return kindOf(c);
+		}
+	};
+	
+	/**
+	 * The equivalent of getChildrenImpl's instanceof tests (in the
+	 * same order), for any object of class c.
+	 */
+	private static ChildKind kindOf(Class<?> c) {
+		
+		if (org.docx4j.wml.Text.class.isAssignableFrom(c)) return ChildKind.NONE;
+		if (List.class.isAssignableFrom(c)) return ChildKind.LIST;
+		if (org.docx4j.wml.Document.class.isAssignableFrom(c)) return ChildKind.DOCUMENT;
+		if (Br.class.isAssignableFrom(c)
+				|| CTBookmark.class.isAssignableFrom(c)
+				|| CTMarkupRange.class.isAssignableFrom(c)
+				|| R.Tab.class.isAssignableFrom(c)
+				|| R.LastRenderedPageBreak.class.isAssignableFrom(c)) return ChildKind.NONE;
+		if (org.docx4j.wml.ContentAccessor.class.isAssignableFrom(c)) return ChildKind.CONTENT_ACCESSOR;
+		if (org.docx4j.wml.SdtElement.class.isAssignableFrom(c)) return ChildKind.SDT_ELEMENT;
+		if (org.docx4j.dml.wordprocessingDrawing.Anchor.class.isAssignableFrom(c)) return ChildKind.ANCHOR;
+		if (org.docx4j.dml.wordprocessingDrawing.Inline.class.isAssignableFrom(c)) return ChildKind.INLINE;
+		if (Pict.class.isAssignableFrom(c)) return ChildKind.PICT;
+		if (ProofErr.class.isAssignableFrom(c)) return ChildKind.NONE;
+		if (org.docx4j.dml.picture.Pic.class.isAssignableFrom(c)) return ChildKind.DML_PIC;
+		if (org.docx4j.dml.CTGvmlPicture.class.isAssignableFrom(c)) return ChildKind.GVML_PICTURE;
+		if (org.docx4j.vml.CTShape.class.isAssignableFrom(c)) return ChildKind.VML_SHAPE;
+		if (CTDataModel.class.isAssignableFrom(c)) return ChildKind.DATA_MODEL;
+		if (org.docx4j.dml.diagram2008.CTDrawing.class.isAssignableFrom(c)) return ChildKind.DIAGRAM_DRAWING;
+		if (org.docx4j.vml.CTTextbox.class.isAssignableFrom(c)) return ChildKind.VML_TEXTBOX;
+		if (CTObject.class.isAssignableFrom(c)) return ChildKind.OBJECT;
+		if (org.docx4j.dml.CTGvmlGroupShape.class.isAssignableFrom(c)) return ChildKind.GVML_GROUP_SHAPE;
+		if (org.docx4j.dml.CTGvmlShape.class.isAssignableFrom(c)) return ChildKind.GVML_SHAPE;
+		if (FldChar.class.isAssignableFrom(c)) return ChildKind.FLD_CHAR;
+		if (AlternateContent.class.isAssignableFrom(c)) return ChildKind.ALTERNATE_CONTENT;
+		if (CTWordprocessingShape.class.isAssignableFrom(c)) return ChildKind.WORDPROCESSING_SHAPE;
+		return ChildKind.OTHER;
+	}
+	
+	/**
+	 * For classes getChildrenImpl doesn't otherwise know, the first 
+	 * declared method which returns a List (or null if there isn't one). 
+	 */
+	private static final ClassValue<Method> LIST_METHODS = new ClassValue<Method>() {
+		@Override
+		protected Method computeValue(Class<?> c) {
+			log.debug(c.getName() + " .. looking for method which returns list "  );
+			for (Method m : c.getDeclaredMethods()) {
+				if (m.getReturnType().equals(List.class)) {
+					return m;
+				}
+			}
+			return null;
+		}
+	};
+	
 
 
 	public static void replaceChildren(Object o, List<Object> newChildren) {
@@ -71,6 +71,7 @@ import org.docx4j.jaxb.Context;
 import org.docx4j.jaxb.JAXBAssociation;
 import org.docx4j.jaxb.JaxbValidationEventHandler;
 import org.docx4j.jaxb.McIgnorableNamespaceDeclarator;
+import org.docx4j.jaxb.McPreprocessingStreamReader;
 import org.docx4j.jaxb.NamespacePrefixMapperUtils;
 import org.docx4j.jaxb.NamespacePrefixMappings;
 import org.docx4j.jaxb.XPathBinderAssociationIsPartialException;
@@ -462,6 +463,10 @@ public class XmlUtils {
 		} catch (XMLStreamException e) {
 			throw new JAXBException(e);
 		}			
+		if (McPreprocessingStreamReader.isEnabled()) {
+			// resolve mc:AlternateContent etc as we go
+			xsr = new McPreprocessingStreamReader(xsr);
+		}
 		
 		Object o = null;
 		Unmarshaller u = jc.createUnmarshaller();
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Belongs to a single worker thread, for the life of a batch.  
+ * 
+ * Use its resources for anything expensive to create which can 
+ * be reused from one document to the next, but isn't thread safe
+ * (eg an XSLT Transformer, a Marshaller, or output settings).  
+ * Resources which are Closeable are closed when the batch finishes.
+ * 
+ * @since 8.2.2
+ */
+public class BatchContext {
+
+	private final int workerIndex;
+	
+	private final Map<Object, Object> resources = new HashMap<Object, Object>();
+	
+	private BatchInput input;
+	
+	BatchContext(int workerIndex) {
+		this.workerIndex = workerIndex;
+	}
+
+	/**
+	 * @return the number of this worker, from 0
+	 */
+	public int getWorkerIndex() {
+		return workerIndex;
+	}
+
+	/**
+	 * @return the input currently being processed
+	 */
+	public BatchInput getInput() {
+		return input;
+	}
+
+	void setInput(BatchInput input) {
+		this.input = input;
+	}
+	
+	public Object getResource(Object key) {
+		return resources.get(key);
+	}
+
+	public void putResource(Object key, Object value) {
+		resources.put(key, value);
+	}
+	
+	/**
+	 * Get this worker's resource for key, creating it with factory
+	 * the first time.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getResource(Object key, Callable<T> factory) throws Exception {
+		
+		T resource = (T)resources.get(key);
+		if (resource==null) {
+			resource = factory.call();
+			resources.put(key, resource);
+		}
+		return resource;
+	}
+	
+	void close() {
+		
+		for (Object resource : resources.values()) {
+			if (resource instanceof Closeable) {
+				IOUtils.closeQuietly((Closeable)resource);
+			}
+		}
+		resources.clear();
+	}
+	
+}
@@ -0,0 +1,125 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A document to be processed by a BatchProcessor.  Inputs are opened
+ * only when a worker is ready for them, so a batch can be defined
+ * over more documents than would fit in memory.
+ * 
+ * @since 8.2.2
+ */
+public abstract class BatchInput {
+
+	/**
+	 * @return a name identifying this input in results and logs
+	 */
+	public abstract String getName();
+	
+	/**
+	 * @return the docx (or Flat OPC XML); the BatchProcessor closes it
+	 * @throws IOException
+	 */
+	public abstract InputStream openStream() throws IOException;
+	
+	@Override
+	public String toString() {
+		return getName();
+	}
+	
+	public static BatchInput of(final File file) {
+		return new BatchInput() {
+
+			@Override
+			public String getName() {
+				return file.getPath();
+			}
+
+			@Override
+			public InputStream openStream() throws IOException {
+				return new FileInputStream(file);
+			}
+		};
+	}
+	
+	public static BatchInput of(final String name, final byte[] bytes) {
+		return new BatchInput() {
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public InputStream openStream() {
+				return new ByteArrayInputStream(bytes);
+			}
+		};
+	}
+	
+	/**
+	 * @param dir
+	 * @param recurse whether to include subdirectories
+	 * @param extensions eg "docx", "docm"; if none, every file is included
+	 * @return an input for each matching file
+	 */
+	public static List<BatchInput> listFiles(File dir, boolean recurse, String... extensions) {
+		
+		List<BatchInput> inputs = new ArrayList<BatchInput>();
+		listFiles(dir, recurse, extensions, inputs);
+		return inputs;
+	}
+	
+	private static void listFiles(File dir, boolean recurse, String[] extensions, List<BatchInput> inputs) {
+		
+		File[] files = dir.listFiles();
+		if (files==null) return;
+		
+		for (File f : files) {
+			if (f.isDirectory()) {
+				if (recurse) {
+					listFiles(f, recurse, extensions, inputs);
+				}
+			} else if (matches(f.getName(), extensions)) {
+				inputs.add(of(f));
+			}
+		}
+	}
+	
+	private static boolean matches(String name, String[] extensions) {
+		
+		if (extensions==null || extensions.length==0) return true;
+		for (String extension : extensions) {
+			if (name.toLowerCase().endsWith("." + extension.toLowerCase())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+}
@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+/**
+ * Notified as each document in a batch finishes, successfully or not.
+ * 
+ * This is invoked on the worker thread which processed the document,
+ * so it must be thread safe.
+ * 
+ * @since 8.2.2
+ */
+public interface BatchListener {
+
+	void documentProcessed(BatchResult result);
+	
+}
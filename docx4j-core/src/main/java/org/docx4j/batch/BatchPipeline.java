@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+
+/**
+ * What to do with each document in a batch, eg bind, convert, save.
+ * 
+ * This is invoked on a worker thread, and on several workers at once, 
+ * so anything it keeps should be thread safe, or else be kept in
+ * the BatchContext, which belongs to a single worker.
+ * 
+ * @since 8.2.2
+ */
+public interface BatchPipeline {
+
+	/**
+	 * @param context the worker's context, and the current input
+	 * @param wmlPackage the loaded input
+	 * @throws Exception which fails this document only
+	 */
+	void process(BatchContext context, WordprocessingMLPackage wmlPackage) throws Exception;
+	
+}
@@ -0,0 +1,224 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.docx4j.Docx4J;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads each input, and processes it with a BatchPipeline, on a 
+ * fixed pool of worker threads:
+ * 
+ * - each worker has a BatchContext, for resources it reuses from 
+ *   one document to the next
+ * - inputs are read from the Iterator only as workers become free
+ *   (see BatchSettings.setMaxPending), so a huge batch doesn't
+ *   have all its documents open at once
+ * - an exception (or StackOverflowError) loading or processing a 
+ *   document fails that document only; it is reported to the listener, 
+ *   and counted in BatchStats
+ * 
+ * Resources which are already shared by docx4j (JAXB contexts, the 
+ * FopFactory, compiled XSLT, physical fonts) are created once,
+ * on first use.  Font mappers aren't reused, since a Mapper is per
+ * document (it holds the document's embedded fonts); nor are JAXB 
+ * marshallers, which docx4j creates per part.  Anything else a
+ * pipeline wants to reuse can be kept in the BatchContext.
+ * 
+ * See also Docx4J.batch
+ * 
+ * @since 8.2.2
+ */
+public class BatchProcessor {
+	
+	private static Logger log = LoggerFactory.getLogger(BatchProcessor.class);
+
+	private final BatchPipeline pipeline;
+	private final BatchSettings settings;
+	
+	public BatchProcessor(BatchPipeline pipeline, BatchSettings settings) {
+		this.pipeline = pipeline;
+		this.settings = (settings==null ? new BatchSettings() : settings);
+	}
+	
+	public BatchStats process(Iterable<BatchInput> inputs) throws Docx4JException {
+		return process(inputs.iterator());
+	}
+	
+	/**
+	 * Process the inputs, returning once all of them are done.
+	 * 
+	 * @param inputs
+	 * @return
+	 * @throws Docx4JException if interrupted
+	 */
+	public BatchStats process(Iterator<BatchInput> inputs) throws Docx4JException {
+		
+		final BatchStats stats = new BatchStats(settings.getMaxFailuresKept());
+		final Semaphore pending = new Semaphore(settings.getMaxPending());
+		final ConcurrentLinkedQueue<BatchContext> contexts = new ConcurrentLinkedQueue<BatchContext>();
+		
+		int parallelism = settings.getParallelism();
+		log.info("Processing batch with " + parallelism + " workers");
+		
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+				0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), 
+				new WorkerThreadFactory(contexts));
+		try {
+			while (inputs.hasNext()) {
+				
+				final BatchInput input = inputs.next();
+				pending.acquire();
+				try {
+					executor.execute(new Runnable() {
+						public void run() {
+							try {
+								process(((WorkerThread)Thread.currentThread()).context, input, stats);
+							} finally {
+								pending.release();
+							}
+						}
+					});
+				} catch (RuntimeException e) {
+					pending.release();
+					throw e;
+				}
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new Docx4JException("Batch interrupted, after " + stats.getCount() + " documents", e);
+		} finally {
+			// eg if the inputs iterator threw; let the workers finish with
+			// their contexts before closing them
+			executor.shutdown();
+			awaitTermination(executor);
+			stats.finished();
+			for (BatchContext context : contexts) {
+				context.close();
+			}
+		}
+		
+		log.info(stats.toString());
+		return stats;
+	}
+	
+	private static void awaitTermination(ThreadPoolExecutor executor) {
+		
+		boolean interrupted = false;
+		while (!executor.isTerminated()) {
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void process(BatchContext context, BatchInput input, BatchStats stats) {
+		
+		Throwable error = null;
+		long loadNanos = 0;
+		long processNanos = 0;
+		
+		long start = System.nanoTime();
+		InputStream is = null;
+		try {
+			is = input.openStream();
+			WordprocessingMLPackage wmlPackage = Docx4J.load(is);
+			long loaded = System.nanoTime();
+			loadNanos = loaded - start;
+			
+			context.setInput(input);
+			pipeline.process(context, wmlPackage);
+			processNanos = System.nanoTime() - loaded;
+			
+		} catch (Exception | StackOverflowError e) {
+			log.warn("Failed: " + input.getName() + ": " + e.getMessage());
+			log.debug(e.getMessage(), e);
+			error = e;
+			if (loadNanos==0) {
+				loadNanos = System.nanoTime() - start;
+			}
+		} finally {
+			IOUtils.closeQuietly(is);
+			context.setInput(null);
+		}
+		
+		BatchResult result = new BatchResult(input, context.getWorkerIndex(), error, loadNanos, processNanos);
+		stats.record(result);
+		
+		if (settings.getListener()!=null) {
+			try {
+				settings.getListener().documentProcessed(result);
+			} catch (RuntimeException e) {
+				log.error("BatchListener failed for " + input.getName(), e);
+			}
+		}
+	}
+	
+	private static class WorkerThread extends Thread {
+
+		private final BatchContext context;
+		
+		WorkerThread(Runnable r, BatchContext context) {
+			super(r, "docx4j-batch-" + context.getWorkerIndex());
+			this.context = context;
+			setDaemon(true);
+		}
+	}
+	
+	private static class WorkerThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger workers = new AtomicInteger();
+		private final ConcurrentLinkedQueue<BatchContext> contexts;
+		
+		WorkerThreadFactory(ConcurrentLinkedQueue<BatchContext> contexts) {
+			this.contexts = contexts;
+		}
+		
+		public Thread newThread(Runnable r) {
+			BatchContext context = new BatchContext(workers.getAndIncrement());
+			contexts.add(context);
+			return new WorkerThread(r, context);
+		}
+	}
+	
+}
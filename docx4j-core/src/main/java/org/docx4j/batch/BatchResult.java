@@ -0,0 +1,81 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+/**
+ * The outcome of processing one document in a batch.
+ * 
+ * @since 8.2.2
+ */
+public class BatchResult {
+
+	private final BatchInput input;
+	private final int workerIndex;
+	private final Throwable error;
+	private final long loadNanos;
+	private final long processNanos;
+	
+	BatchResult(BatchInput input, int workerIndex, Throwable error, long loadNanos, long processNanos) {
+		this.input = input;
+		this.workerIndex = workerIndex;
+		this.error = error;
+		this.loadNanos = loadNanos;
+		this.processNanos = processNanos;
+	}
+
+	public BatchInput getInput() {
+		return input;
+	}
+
+	public int getWorkerIndex() {
+		return workerIndex;
+	}
+	
+	public boolean isSuccess() {
+		return error==null;
+	}
+
+	/**
+	 * @return why the document failed (to open, load or process), or null 
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * @return time taken to load the document 
+	 */
+	public long getLoadNanos() {
+		return loadNanos;
+	}
+
+	/**
+	 * @return time taken by the pipeline (0 if the document didn't load)
+	 */
+	public long getProcessNanos() {
+		return processNanos;
+	}
+	
+	@Override
+	public String toString() {
+		return input.getName() + (error==null ? ": ok" : ": " + error.getMessage());
+	}
+	
+}
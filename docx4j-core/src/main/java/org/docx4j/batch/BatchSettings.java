@@ -0,0 +1,99 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import org.docx4j.Docx4jProperties;
+
+/**
+ * Configuration for a BatchProcessor.
+ * 
+ * @since 8.2.2
+ */
+public class BatchSettings {
+
+	private int parallelism = Docx4jProperties.getProperty("docx4j.batch.parallelism", 0);
+	
+	private int maxPending = 0;
+	
+	private BatchListener listener = null;
+	
+	private int maxFailuresKept = 1000;
+	
+	/**
+	 * @return the number of worker threads
+	 */
+	public int getParallelism() {
+		if (parallelism<1) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return parallelism;
+	}
+
+	/**
+	 * Number of worker threads.  0 (the default, unless property 
+	 * docx4j.batch.parallelism is set) means one per available processor. 
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @return the maximum number of documents opened or waiting for a worker
+	 */
+	public int getMaxPending() {
+		if (maxPending<1) {
+			return 2 * getParallelism();
+		}
+		return maxPending;
+	}
+
+	/**
+	 * How many inputs may be submitted but not yet finished, before
+	 * the thread feeding the batch waits for a worker to catch up.  
+	 * 0 (the default) means twice the parallelism.
+	 */
+	public void setMaxPending(int maxPending) {
+		this.maxPending = maxPending;
+	}
+
+	public BatchListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @param listener to be told the result of each document
+	 */
+	public void setListener(BatchListener listener) {
+		this.listener = listener;
+	}
+
+	public int getMaxFailuresKept() {
+		return maxFailuresKept;
+	}
+
+	/**
+	 * BatchStats keeps the results of up to this many failed documents
+	 * (default 1000); use a listener to see all of them.
+	 */
+	public void setMaxFailuresKept(int maxFailuresKept) {
+		this.maxFailuresKept = maxFailuresKept;
+	}
+	
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.docx4j.events.metrics.StepMetrics;
+
+/**
+ * Throughput, latency and failures of a batch.
+ * 
+ * This class is thread safe; it is updated by the workers as 
+ * each document finishes.
+ * 
+ * @since 8.2.2
+ */
+public class BatchStats {
+
+	private final AtomicLong succeeded = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	
+	private final StepMetrics load = new StepMetrics();
+	private final StepMetrics process = new StepMetrics();
+	private final StepMetrics total = new StepMetrics();
+	
+	private final List<BatchResult> failures = new ArrayList<BatchResult>();
+	private final int maxFailuresKept;
+	
+	private final long startNanos = System.nanoTime();
+	private volatile long endNanos = -1;
+	
+	BatchStats(int maxFailuresKept) {
+		this.maxFailuresKept = maxFailuresKept;
+	}
+	
+	void record(BatchResult result) {
+		
+		if (result.isSuccess()) {
+			succeeded.incrementAndGet();
+		} else {
+			failed.incrementAndGet();
+			synchronized (failures) {
+				if (failures.size()<maxFailuresKept) {
+					failures.add(result);
+				}
+			}
+		}
+		load.record(result.getLoadNanos(), -1);
+		if (result.getProcessNanos()>0) {
+			process.record(result.getProcessNanos(), -1);
+		}
+		total.record(result.getLoadNanos() + result.getProcessNanos(), -1);
+	}
+	
+	void finished() {
+		endNanos = System.nanoTime();
+	}
+
+	public long getSucceeded() {
+		return succeeded.get();
+	}
+
+	public long getFailed() {
+		return failed.get();
+	}
+	
+	public long getCount() {
+		return succeeded.get() + failed.get();
+	}
+
+	/**
+	 * @return the results of the failed documents (up to 
+	 * BatchSettings.getMaxFailuresKept)
+	 */
+	public List<BatchResult> getFailures() {
+		synchronized (failures) {
+			return new ArrayList<BatchResult>(failures);
+		}
+	}
+
+	/**
+	 * @return latency of loading each document
+	 */
+	public StepMetrics getLoadMetrics() {
+		return load;
+	}
+
+	/**
+	 * @return latency of the pipeline, for each document which loaded
+	 */
+	public StepMetrics getProcessMetrics() {
+		return process;
+	}
+
+	/**
+	 * @return latency of each document, load and pipeline
+	 */
+	public StepMetrics getTotalMetrics() {
+		return total;
+	}
+
+	/**
+	 * @return wall clock time of the batch, so far
+	 */
+	public long getElapsedNanos() {
+		return (endNanos<0 ? System.nanoTime() : endNanos) - startNanos;
+	}
+	
+	/**
+	 * @return documents per second
+	 */
+	public double getThroughput() {
+		long elapsed = getElapsedNanos();
+		if (elapsed<=0) return 0;
+		return getCount() * 1000000000d / elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return "documents=" + getCount()
+				+ ", failed=" + getFailed()
+				+ ", elapsed=" + (getElapsedNanos() / 1000000) + "ms"
+				+ ", throughput=" + String.format("%.1f", getThroughput()) + "/s"
+				+ ", per document: " + total;
+	}
+	
+}
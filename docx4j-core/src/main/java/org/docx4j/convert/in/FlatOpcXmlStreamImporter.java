@@ -0,0 +1,292 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+
+package org.docx4j.convert.in;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.JAXBException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.io.IOUtils;
+import org.docx4j.openpackaging.contenttype.CTDefault;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.contenttype.ContentTypes;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.Load3;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore.ByteArray;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.docx4j.utils.XMLStreamCopier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Create a Package object from Flat OPC XML, reading it with StAX
+ * one pkg:part at a time.
+ *
+ * Unlike FlatOpcXmlImporter, this doesn't unmarshal the whole file
+ * to an org.docx4j.xmlPackage.Package (with a DOM for each XML part).
+ * Instead, each part is stored as bytes (Base64 decoded as it is read,
+ * for binary parts), as if it had been unzipped from a docx; the package
+ * is then loaded from these with Load3, so XML parts are unmarshalled lazily.
+ *
+ * @since 8.2.2
+ */
+public class FlatOpcXmlStreamImporter {
+
+	private static Logger log = LoggerFactory.getLogger(FlatOpcXmlStreamImporter.class);
+
+	private static final String PKG_NS = "http://schemas.microsoft.com/office/2006/xmlPackage";
+
+	private final InputStream is;
+
+	/**
+	 * @param is - responsibility of the caller to close this.
+	 */
+	public FlatOpcXmlStreamImporter(InputStream is) {
+		this.is = is;
+	}
+
+	public OpcPackage get() throws Docx4JException {
+
+		HashMap<String, ByteArray> partByteArrays = new HashMap<String, ByteArray>();
+		Map<String, String> contentTypes = new LinkedHashMap<String, String>();
+		Set<String> binaryParts = new HashSet<String>();
+
+		// Guard against XXE
+        XMLInputFactory xif = XMLInputFactory.newInstance();
+        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false); // a DTD is merely ignored, its presence doesn't cause an exception
+        XMLOutputFactory xof = XMLOutputFactory.newInstance();
+
+		try {
+			XMLStreamReader xsr = xif.createXMLStreamReader(is);
+			xsr.nextTag();
+
+			if (!PKG_NS.equals(xsr.getNamespaceURI())
+					|| !"package".equals(xsr.getLocalName())) {
+
+				if ("http://schemas.microsoft.com/office/word/2003/wordml".equals(xsr.getNamespaceURI())) {
+					throw new IllegalArgumentException("Word 2003 XML is not supported. Use a docx or Flat OPC XML instead, or look at the Word2003XmlConverter proof of concept.");
+				}
+				throw new Docx4JException("Not Flat OPC XML; root element is " + xsr.getName());
+			}
+			Map<String, String> packageNamespaces = new HashMap<String, String>();
+			XMLStreamCopier.addNamespaceDeclarations(xsr, packageNamespaces);
+
+			while (xsr.nextTag()==XMLStreamConstants.START_ELEMENT) {
+
+				// pkg:part
+				String name = xsr.getAttributeValue(PKG_NS, "name");
+				String contentType = xsr.getAttributeValue(PKG_NS, "contentType");
+				if (name==null) {
+					throw new Docx4JException("pkg:part without @pkg:name");
+				}
+				if (log.isDebugEnabled()) {
+					log.debug("Adding " + name);
+				}
+
+				// Namespaces declared on ancestors, which the part content might rely on
+				Map<String, String> namespaces = new HashMap<String, String>(packageNamespaces);
+				XMLStreamCopier.addNamespaceDeclarations(xsr, namespaces);
+
+				byte[] bytes = null;
+				if (xsr.nextTag()==XMLStreamConstants.START_ELEMENT) {
+
+					if ("xmlData".equals(xsr.getLocalName())) {
+
+						XMLStreamCopier.addNamespaceDeclarations(xsr, namespaces);
+						namespaces.values().remove(PKG_NS);
+
+						xsr.nextTag(); // the part's root element
+						ByteArrayOutputStream baos = new ByteArrayOutputStream();
+						XMLStreamWriter xsw = xof.createXMLStreamWriter(baos, "UTF-8");
+						xsw.writeStartDocument("UTF-8", "1.0");
+						XMLStreamCopier.copyElement(xsr, xsw, namespaces);
+						xsw.writeEndDocument();
+						xsw.close();
+						bytes = baos.toByteArray();
+
+						xsr.nextTag(); // </pkg:xmlData>
+
+					} else if ("binaryData".equals(xsr.getLocalName())) {
+
+						CharactersInputStream base64 = new CharactersInputStream(xsr);
+						bytes = IOUtils.toByteArray(Base64.getMimeDecoder().wrap(base64));
+						// the decoder stops at any padding, so skip trailing whitespace
+						// to get to </pkg:binaryData>
+						IOUtils.skip(base64, Long.MAX_VALUE);
+						binaryParts.add(name.startsWith("/") ? name : "/" + name);
+
+					} else {
+						throw new Docx4JException("Unexpected " + xsr.getName() + " in part " + name);
+					}
+					xsr.nextTag(); // </pkg:part>
+				}
+
+				String entryName = name.startsWith("/") ? name.substring(1) : name;
+				partByteArrays.put(entryName, new ByteArray(bytes==null ? new byte[0] : bytes));
+				if (contentType!=null) {
+					contentTypes.put("/" + entryName, contentType);
+				}
+			}
+			xsr.close();
+
+			partByteArrays.put("[Content_Types].xml",
+					new ByteArray(contentTypesXml(contentTypes, binaryParts)));
+
+		} catch (XMLStreamException e) {
+			throw new Docx4JException("Couldn't read Flat OPC XML", e);
+		} catch (IOException e) {
+			throw new Docx4JException("Couldn't read Flat OPC XML", e);
+		}
+
+		if (partByteArrays.get("_rels/.rels")==null) {
+			throw new Docx4JException("Couldn't find pkg rels /_rels/.rels" );
+		}
+
+		Load3 loader = new Load3(new ZipPartStore(partByteArrays));
+		OpcPackage packageResult = loader.get();
+		packageResult.setNew(false);
+		return packageResult;
+	}
+
+	/**
+	 * [Content_Types].xml for the parts, as ContentTypeManager writes it.  As in 
+	 * FlatOpcXmlImporter, it has Defaults for rels and xml; binary parts (eg images) 
+	 * give a Default for their extension, as they would have in a docx, and 
+	 * other parts an Override.
+	 */
+	private static byte[] contentTypesXml(Map<String, String> contentTypes, Set<String> binaryParts) throws Docx4JException {
+
+		ContentTypeManager ctm = new ContentTypeManager();
+		ctm.addDefaultContentType("rels", ContentTypes.RELATIONSHIPS_PART);
+		ctm.addDefaultContentType("xml", "application/xml");
+
+		try {
+			for (Map.Entry<String, String> entry : contentTypes.entrySet()) {
+
+				String name = entry.getKey();
+				String ext = extension(name);
+				CTDefault defaultCT = (ext==null ? null : ctm.getDefaultContentType().get(ext));
+				if (defaultCT!=null 
+						&& defaultCT.getContentType().equals(entry.getValue())) {
+					continue;
+				}
+				if (defaultCT==null && ext!=null
+						&& binaryParts.contains(name)) {
+					ctm.addDefaultContentType(ext, entry.getValue());
+				} else {
+					ctm.addOverrideContentType(new URI(name), entry.getValue());
+				}
+			}
+
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			ctm.marshal(baos);
+			return baos.toByteArray();
+
+		} catch (URISyntaxException e) {
+			throw new Docx4JException("Invalid part name", e);
+		} catch (JAXBException e) {
+			throw new Docx4JException("Couldn't create [Content_Types].xml", e);
+		}
+	}
+
+	private static String extension(String name) {
+
+		int dot = name.lastIndexOf('.');
+		if (dot < 0 || dot < name.lastIndexOf('/')) {
+			return null;
+		}
+		return name.substring(dot + 1).toLowerCase();
+	}
+
+	/**
+	 * The text content of the current element, as (ASCII) bytes,
+	 * read from the XMLStreamReader as required.  At EOF, the reader
+	 * is positioned on the element's END_ELEMENT.
+	 */
+	private static class CharactersInputStream extends InputStream {
+
+		private final XMLStreamReader xsr;
+		private String text = "";
+		private int pos = 0;
+		private boolean done = false;
+
+		CharactersInputStream(XMLStreamReader xsr) {
+			this.xsr = xsr;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			while (pos==text.length()) {
+				if (done) return -1;
+				try {
+					int event = xsr.next();
+					if (event==XMLStreamConstants.CHARACTERS
+							|| event==XMLStreamConstants.SPACE
+							|| event==XMLStreamConstants.CDATA) {
+						text = xsr.getText();
+						pos = 0;
+					} else if (event==XMLStreamConstants.END_ELEMENT) {
+						done = true;
+					}
+					// ignore comments etc
+				} catch (XMLStreamException e) {
+					throw new IOException(e);
+				}
+			}
+			return text.charAt(pos++);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			if (len==0) return 0;
+			int c = read();
+			if (c==-1) return -1;
+			b[off] = (byte)c;
+			int n = 1;
+			while (n<len && pos<text.length()) {
+				b[off + n++] = (byte)text.charAt(pos++);
+			}
+			return n;
+		}
+	}
+
+}
@@ -24,6 +24,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 
+import org.docx4j.Docx4jProperties;
 import org.docx4j.model.images.ConversionImageHandler;
 import org.docx4j.openpackaging.packages.OpcPackage;
 
@@ -40,6 +41,7 @@ public abstract class AbstractConversionSettings { //implements ConversionFeatur
 	public static final String HYPERLINK_HANDLER = "hyperlinkHandler";
 	public static final String OPC_PACKAGE = "opcPackage";
 	public static final String CUSTOM_XSLT_TEMPLATES = "customXsltTemplates";
+	public static final String PARALLELISM = "parallelism";
 
 	protected Map<String, Object> settings = new TreeMap<String, Object>();
 	protected Set<String> features = new TreeSet<String>();
@@ -120,4 +122,23 @@ public abstract class AbstractConversionSettings { //implements ConversionFeatur
 		return settings.get(CUSTOM_XSLT_TEMPLATES);
 	}
 	
+	/** The number of threads a visitor (ie non-XSLT) based export may use
+	 * to convert the body content.  If greater than 1, the content of the 
+	 * sections is split into chunks of block level content, which are converted
+	 * in parallel, then stitched back together in document order.<br>
+	 * Only do this if your ConversionHyperlinkHandler (and ConversionImageHandler, 
+	 * if you set one) is thread safe. Default: docx4j.convert.out.parallelism, or 1
+	 * 
+	 * @since 8.2.2
+	 */
+	public void setParallelism(int parallelism) {
+		settings.put(PARALLELISM, Integer.valueOf(parallelism));
+	}
+	
+	public int getParallelism() {
+		return (settings.containsKey(PARALLELISM) ? 
+				(Integer)settings.get(PARALLELISM) : 
+				Docx4jProperties.getProperty("docx4j.convert.out.parallelism", 1));
+	}
+	
 }
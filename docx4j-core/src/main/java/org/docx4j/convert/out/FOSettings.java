@@ -21,6 +21,8 @@ package org.docx4j.convert.out;
 
 import java.io.File;
 
+import org.xml.sax.ContentHandler;
+
 /** This class contains the configuration for the conversion process.<br>
  *  The conversion is done in two steps: 
  *  <ol>
@@ -42,6 +44,10 @@ public class FOSettings extends AbstractConversionSettings {
 	public static final String APACHEFOP_MIME = "apacheFopMime";
 	public static final String CUSTOM_FO_RENDERER = "customFoRenderer";
 	public static final String FO_DUMP_FILE = "foDumpFile";
+	public static final String APACHEFOP_AREA_TREE_HANDLER = "apacheFopAreaTreeHandler";
+	
+	/** Apache FOP's area tree XML (org.apache.fop.apps.MimeConstants.MIME_FOP_AREA_TREE) */
+	public static final String MIME_FOP_AREA_TREE = "application/X-fop-areatree";
 
 	public FOSettings() {
 		super();
@@ -98,6 +104,22 @@ public class FOSettings extends AbstractConversionSettings {
 		settings.put(FO_DUMP_FILE, foFile);
 	}
 	
+	public ContentHandler getApacheFopAreaTreeHandler() {
+		return (ContentHandler)settings.get(APACHEFOP_AREA_TREE_HANDLER);
+	}
+	
+	/**
+	 * If the ApacheFopMime is MIME_FOP_AREA_TREE, send the area tree to this
+	 * handler as SAX events (as it is laid out), rather than serialising it
+	 * to the OutputStream.  Useful if you only want to extract something
+	 * (eg page numbers) from the area tree.
+	 * 
+	 * @since 8.2.2
+	 */
+	public void setApacheFopAreaTreeHandler(ContentHandler handler) {
+		settings.put(APACHEFOP_AREA_TREE_HANDLER, handler);
+	}
+	
 	private boolean layoutMasterSetCalculationInProgress = false;
 
 	public boolean lsLayoutMasterSetCalculationInProgress() {
@@ -140,6 +140,13 @@ public abstract class AbstractConversionContext {
 		return imageHandler;
 	}
 
+	/**
+	 * @since 8.2.2
+	 */
+	protected void setImageHandler(ConversionImageHandler imageHandler) {
+		this.imageHandler = imageHandler;
+	}
+
 	protected ConversionHyperlinkHandler getHyperlinkHandler() {
 		return hyperlinkHandler;
 	}
@@ -20,7 +20,15 @@
 package org.docx4j.convert.out.common;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.dom.DOMSource;
@@ -29,12 +37,23 @@ import javax.xml.transform.stream.StreamResult;
 import org.docx4j.TraversalUtil;
 import org.docx4j.XmlUtils;
 import org.docx4j.convert.out.AbstractConversionSettings;
+import org.docx4j.convert.out.common.writer.AbstractTableWriter;
 import org.docx4j.events.EventFinished;
 import org.docx4j.events.StartEvent;
 import org.docx4j.events.WellKnownProcessSteps;
+import org.docx4j.model.listnumbering.Emulator;
+import org.docx4j.model.listnumbering.Emulator.ResultTriple;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.openpackaging.parts.Part;
 import org.docx4j.utils.XmlSerializerUtil;
+import org.docx4j.wml.CTSimpleField;
+import org.docx4j.wml.FldChar;
+import org.docx4j.wml.P;
+import org.docx4j.wml.PPr;
+import org.docx4j.wml.STFldCharType;
+import org.docx4j.wml.Tbl;
+import org.w3c.dom.Comment;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -45,6 +64,12 @@ import org.w3c.dom.Node;
  * So some …ExporterDelegate use a Xslt transformation;
  * the others use a visitor (…ExporterGenerator)
  * 
+ * If it has a context factory, and the settings' parallelism is greater than 1,
+ * the body content of the sections is split into chunks, which are converted 
+ * in parallel, each with its own conversion context.  List numbers and table
+ * numbers are computed in document order beforehand, so the result is the same
+ * as converting sequentially.  Headers and footers are converted sequentially.
+ * 
  * @since 3.0
  */
 public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConversionSettings, CC extends AbstractWmlConversionContext> extends AbstractExporterDelegate<CS, CC> {
@@ -54,12 +79,34 @@ public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConvers
 	
 	protected AbstractVisitorExporterGeneratorFactory<CC> generatorFactory = null;
 
+	/**
+	 * Creates the conversion contexts for chunks of body content converted in parallel.
+	 * 
+	 * @since 8.2.2
+	 */
+	public interface AbstractVisitorExporterContextFactory<CS extends AbstractConversionSettings, CC extends AbstractWmlConversionContext> {
+		public CC createInstance(CS conversionSettings, CC conversionContext, ConversionSectionWrappers sections);
+	}
+	
+	protected AbstractVisitorExporterContextFactory<CS, CC> contextFactory = null;
+
+	//Chunks have at least this many block level elements
+	private static final int MIN_CHUNK_SIZE = 50;
 	
 	protected AbstractVisitorExporterDelegate(AbstractVisitorExporterGeneratorFactory<CC> generatorFactory) {
 		super();
 		this.generatorFactory = generatorFactory;
 	}
 
+	/**
+	 * @since 8.2.2
+	 */
+	protected AbstractVisitorExporterDelegate(AbstractVisitorExporterGeneratorFactory<CC> generatorFactory,
+			AbstractVisitorExporterContextFactory<CS, CC> contextFactory) {
+		this(generatorFactory);
+		this.contextFactory = contextFactory;
+	}
+
 
 	@Override
 	public void process(CS conversionSettings, CC conversionContext, OutputStream outputStream) throws Docx4JException {
@@ -89,6 +136,12 @@ public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConvers
     	}
     	
     	List<ConversionSectionWrapper> sectionWrappers = conversionContext.getSections().getList();
+    	int parallelism = (contextFactory != null ? conversionSettings.getParallelism() : 1);
+    	ChunkPlanner<CC> planner = null;
+    	if (parallelism > 1) {
+    		planner = new ChunkPlanner<CC>(conversionContext.getWmlPackage(), sectionWrappers, parallelism);
+    	}
+    	
     	for (int secindex=0; secindex < sectionWrappers.size(); secindex++) {
     		ConversionSectionWrapper sectionWrapper = sectionWrappers.get(secindex);
     		conversionContext.getSections().next();
@@ -105,10 +158,17 @@ public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConvers
     			currentParent = sectionRootBody;
     		}
     		
-    		generateBodyContent(conversionContext, 
-    				document, 
-    				sectionWrapper.getContent(), 
-    				currentParent);
+    		if (planner == null) {
+    			generateBodyContent(conversionContext, 
+    					document, 
+    					sectionWrapper.getContent(), 
+    					currentParent);
+    		} else {
+    			planBodyContent(conversionSettings, conversionContext, 
+    					document, 
+    					secindex, sectionWrapper.getContent(), 
+    					currentParent, planner);
+    		}
     		
     		currentParent = sectionRoot;
     		if (currentParent == null) {
@@ -126,6 +186,10 @@ public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConvers
     		}
     	}
     	
+    	if (planner != null) {
+    		generateBodyContent(planner.chunks, parallelism);
+    	}
+    	
     	appendDocumentFooter(conversionContext, document, documentRoot); 
     	
     	writeDocument(conversionContext, document, outputStream);
@@ -186,6 +250,156 @@ public abstract class AbstractVisitorExporterDelegate<CS extends AbstractConvers
 		new TraversalUtil(content, generator);
 	}
 
+	/**
+	 * Split the content into chunks (on the main thread, in document order), 
+	 * leaving a placeholder for each in currentParent.
+	 */
+	private void planBodyContent(CS conversionSettings, CC conversionContext, Document document,
+			int secindex, List<Object> content, Element currentParent, ChunkPlanner<CC> planner) throws Docx4JException {
+	int start = 0;
+	int tableIndex = AbstractTableWriter.getTableIndex(conversionContext);
+	int tables = planner.tables;
+		for (int i=0; i<content.size(); i++) {
+			new TraversalUtil(Collections.singletonList(content.get(i)), planner);
+			// don't split between a complex field's begin and separate
+			if (((i + 1 - start >= planner.chunkSize) && (planner.fieldLevel == 0)) 
+					|| (i == content.size() - 1)) {
+				
+				ConversionSectionWrappers sections = new ConversionSectionWrappers(conversionContext.getSections().getList());
+				for (int j=0; j<=secindex; j++) {
+					sections.next();
+				}
+				CC chunkContext = contextFactory.createInstance(conversionSettings, conversionContext, sections);
+				chunkContext.initializeChunk(conversionContext, planner.listNumbers, tableIndex);
+				
+				Comment placeholder = document.createComment("chunk " + planner.chunks.size());
+				currentParent.appendChild(placeholder);
+				planner.chunks.add(new BodyChunk<CC>(chunkContext, content.subList(start, i + 1), placeholder));
+				
+				tableIndex += planner.tables - tables;
+				tables = planner.tables;
+				start = i + 1;
+			}
+		}
+		// tables in later headers and footers follow these
+		AbstractTableWriter.setTableIndex(conversionContext, tableIndex);
+	}
+	
+	/**
+	 * Convert the chunks in parallel, then replace each placeholder with its result.
+	 */
+	private void generateBodyContent(List<BodyChunk<CC>> chunks, int parallelism) throws Docx4JException {
+	ForkJoinPool pool = new ForkJoinPool(parallelism);
+	List<ForkJoinTask<Element>> tasks = new ArrayList<ForkJoinTask<Element>>(chunks.size());
+		try {
+			for (final BodyChunk<CC> chunk : chunks) {
+				tasks.add(pool.submit(new Callable<Element>() {
+					@Override
+					public Element call() throws Exception {
+					Document chunkDocument = XmlUtils.neww3cDomDocument();
+					Node parent = chunk.placeholder.getParentNode();
+					Element chunkRoot = chunkDocument.createElementNS(parent.getNamespaceURI(), parent.getNodeName());
+						chunkDocument.appendChild(chunkRoot);
+						generateBodyContent(chunk.conversionContext, chunkDocument, chunk.content, chunkRoot);
+						return chunkRoot;
+					}
+				}));
+			}
+			for (int i=0; i<chunks.size(); i++) {
+			Element chunkRoot = tasks.get(i).get();
+			Comment placeholder = chunks.get(i).placeholder;
+			Document document = placeholder.getOwnerDocument();
+			Node parent = placeholder.getParentNode();
+				while (chunkRoot.getFirstChild() != null) {
+				Node child = chunkRoot.getFirstChild();
+				Node adopted = document.adoptNode(child);
+					if (adopted == null) {
+						// a different DOM implementation
+						adopted = document.importNode(child, true);
+						chunkRoot.removeChild(child);
+					}
+					parent.insertBefore(adopted, placeholder);
+				}
+				parent.removeChild(placeholder);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Docx4JException("Interrupted converting body content", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Docx4JException) {
+				throw (Docx4JException)e.getCause();
+			}
+			throw new Docx4JException("Error converting body content: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+	
+	private static class BodyChunk<CC extends AbstractWmlConversionContext> {
+		
+		final CC conversionContext;
+		final List<Object> content;
+		final Comment placeholder;
+		
+		BodyChunk(CC conversionContext, List<Object> content, Comment placeholder) {
+			this.conversionContext = conversionContext;
+			this.content = content;
+			this.placeholder = placeholder;
+		}
+	}
+	
+	/**
+	 * Visits the body content in document order, computing the list 
+	 * numbers and counting the tables which precede each chunk.
+	 */
+	private static class ChunkPlanner<CC extends AbstractWmlConversionContext> extends TraversalUtil.CallbackImpl {
+		
+		final WordprocessingMLPackage wmlPackage;
+		final int chunkSize;
+		final List<BodyChunk<CC>> chunks = new ArrayList<BodyChunk<CC>>();
+		final Map<PPr, ResultTriple> listNumbers = new IdentityHashMap<PPr, ResultTriple>();
+		int tables = 0;
+		int fieldLevel = 0;
+		
+		ChunkPlanner(WordprocessingMLPackage wmlPackage, List<ConversionSectionWrapper> sectionWrappers, int parallelism) {
+		int blocks = 0;
+			this.wmlPackage = wmlPackage;
+			for (ConversionSectionWrapper sectionWrapper : sectionWrappers) {
+				blocks += sectionWrapper.getContent().size();
+			}
+			// a few chunks for each thread, so they finish at about the same time
+			this.chunkSize = Math.max(MIN_CHUNK_SIZE, blocks / (parallelism * 4));
+		}
+		
+		@Override
+		public List<Object> apply(Object o) {
+			if (o instanceof P) {
+			PPr pPr = ((P)o).getPPr();
+				if ((pPr != null) && !listNumbers.containsKey(pPr)) {
+					listNumbers.put(pPr, Emulator.getNumber(wmlPackage, pPr));
+				}
+			} else if (o instanceof Tbl) {
+				tables++;
+			} else if (o instanceof FldChar) {
+				// as AbstractWmlConversionContext.updateComplexFieldDefinition
+				STFldCharType type = ((FldChar)o).getFldCharType();
+				if (type == STFldCharType.BEGIN) {
+					fieldLevel++;
+				} else if (type == STFldCharType.SEPARATE) {
+					if (fieldLevel == 1) fieldLevel--;
+				} else if (type == STFldCharType.END) {
+					if (fieldLevel > 0) fieldLevel--;
+				}
+			}
+			return null;
+		}
+		
+		@Override
+		public boolean shouldTraverse(Object o) {
+			return !((o instanceof P.Hyperlink) || (o instanceof CTSimpleField));
+		}
+	}
+
 	protected void appendSectionFooter(CC conversionContext, Document document,
 			ConversionSectionWrapper sectionWrapper,
 			Element currentParent) throws Docx4JException {
@@ -24,13 +24,17 @@ import java.util.Map;
 import org.docx4j.convert.out.AbstractConversionSettings;
 import org.docx4j.convert.out.ConversionHyperlinkHandler;
 import org.docx4j.convert.out.common.writer.AbstractMessageWriter;
+import org.docx4j.convert.out.common.writer.AbstractTableWriter;
 import org.docx4j.fonts.RunFontSelector;
 import org.docx4j.model.PropertyResolver;
+import org.docx4j.model.listnumbering.Emulator;
+import org.docx4j.model.listnumbering.Emulator.ResultTriple;
 import org.docx4j.model.styles.StyleTree;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.packages.OpcPackage;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.wml.PPr;
 import org.docx4j.wml.STFldCharType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +72,10 @@ public abstract class AbstractWmlConversionContext extends AbstractConversionCon
 	
 	private RunFontSelector runFontSelector = null;
 	
+	//The list numbers computed in advance, by paragraph properties, 
+	//when this context converts a chunk of the document in parallel 
+	private Map<PPr, ResultTriple> listNumbers = null;
+	
 	protected AbstractWmlConversionContext(AbstractWriterRegistry writerRegistry, 
 			AbstractMessageWriter messageWriter, AbstractConversionSettings conversionSettings, 
 			WordprocessingMLPackage wmlPackage, ConversionSectionWrappers conversionSectionWrappers,
@@ -155,6 +163,48 @@ public abstract class AbstractWmlConversionContext extends AbstractConversionCon
 	public ConversionSectionWrappers getSections() {
 		return conversionSectionWrappers;
 	}
+	
+	/**
+	 * Make this context ready to convert a chunk of the main document 
+	 * on another thread.  It shares the image handler of the context
+	 * converting the rest of the document. 
+	 * 
+	 * @param parentContext the context converting the rest of the document
+	 * @param listNumbers the list numbers of the paragraphs in the chunk (and 
+	 * any before it), computed in document order
+	 * @param tableIndex the number of tables before the chunk
+	 * @since 8.2.2
+	 */
+	protected void initializeChunk(AbstractWmlConversionContext parentContext, 
+			Map<PPr, ResultTriple> listNumbers, int tableIndex) {
+		setImageHandler(parentContext.getImageHandler());
+		setCurrentPart(parentContext.getCurrentPart());
+		this.listNumbers = listNumbers;
+		AbstractTableWriter.setTableIndex(this, tableIndex);
+	}
+	
+	/**
+	 * Get the list number of a paragraph.  Numbers depend on the paragraphs
+	 * which precede it, so (unless this context converts a chunk of the 
+	 * document, and the number was computed in advance) this must be called 
+	 * for the paragraphs in document order.
+	 * 
+	 * @param pPrDirect the paragraph's own properties 
+	 * @since 8.2.2
+	 */
+	public ResultTriple getNumber(PPr pPrDirect, String pStyleVal, String numId, String levelId) {
+		
+		if (listNumbers == null) {
+			return Emulator.getNumber(getWmlPackage(), pStyleVal, numId, levelId);
+		}
+		if (pPrDirect != null && listNumbers.containsKey(pPrDirect)) {
+			return listNumbers.get(pPrDirect);
+		}
+		// not seen in advance (eg in a text box); the counters are shared 
+		synchronized (getWmlPackage()) {
+			return Emulator.getNumber(getWmlPackage(), pStyleVal, numId, levelId);
+		}
+	}
 
 	public StyleTree getStyleTree() {
 		return styleTree;
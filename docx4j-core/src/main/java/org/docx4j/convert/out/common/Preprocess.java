@@ -24,8 +24,10 @@ import java.util.TreeSet;
 
 import org.docx4j.convert.out.ConversionFeatures;
 import org.docx4j.convert.out.common.preprocess.BookmarkMover;
+import org.docx4j.convert.out.common.preprocess.CombinedTraversal;
 import org.docx4j.convert.out.common.preprocess.Containerization;
 import org.docx4j.convert.out.common.preprocess.CoverPageSectPrMover;
+import org.docx4j.convert.out.common.preprocess.DeepCopyFilterForFeatures;
 import org.docx4j.convert.out.common.preprocess.FieldsCombiner;
 import org.docx4j.convert.out.common.preprocess.FopWorkaroundDisablePageBreakOnFirstParagraph;
 import org.docx4j.convert.out.common.preprocess.FopWorkaroundReplacePageBreakInEachList;
@@ -34,6 +36,7 @@ import org.docx4j.convert.out.common.preprocess.ParagraphStylesInTableFix;
 import org.docx4j.convert.out.common.preprocess.PartialDeepCopy;
 import org.docx4j.convert.out.html.ListsToContentControls;
 import org.docx4j.events.EventFinished;
+import org.docx4j.events.ProcessStep;
 import org.docx4j.events.StartEvent;
 import org.docx4j.events.WellKnownProcessSteps;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
@@ -74,7 +77,11 @@ public class Preprocess extends ConversionFeatures {
 		checkParams(opcPackage, features);
 		relationshipTypes = createRelationshipTypes(features);
 		if (features.contains(PP_COMMON_DEEP_COPY)) {
-			ret = PartialDeepCopy.process(opcPackage, relationshipTypes);
+			StartEvent startEvent = new StartEvent( opcPackage, WellKnownProcessSteps.CONVERT_PREPROCESS_PartialDeepCopy );
+			startEvent.publish();
+			// Parts which the selected features won't change share their content, rather than being copied 
+			ret = PartialDeepCopy.process(opcPackage, relationshipTypes, new DeepCopyFilterForFeatures(features));
+			new EventFinished(startEvent).publish();
 			if (ret instanceof WordprocessingMLPackage) {
 				log.debug("Results of PP_COMMON_DEEP_COPY: " + ((WordprocessingMLPackage)ret).getMainDocumentPart().getXML());
 			}
@@ -122,6 +129,10 @@ public class Preprocess extends ConversionFeatures {
 	 *  <li>PP_COMMON_COMBINE_FIELDS</li>
 	 *  <li>PP_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH</li>
 	 *  </ul> 
+	 *  Where both PP_COMMON_COMBINE_FIELDS and PP_COMMON_MOVE_PAGEBREAK are selected,
+	 *  they share a single traversal.  Each step is bracketed by a StartEvent/EventFinished 
+	 *  pair (within the overall CONVERT_PREPROCESS step), so you can see its timing;
+	 *  EventFinished is published even if the step fails.
 	 * 
 	 * @param wmlPackage, the package that should be preprocessed
 	 * @param features, the selected features
@@ -136,64 +147,131 @@ public class Preprocess extends ConversionFeatures {
 		
 		StartEvent startEvent = new StartEvent( ret, WellKnownProcessSteps.CONVERT_PREPROCESS );
 		startEvent.publish();
-		
+		try {
 
-//		log.debug(ret.getMainDocumentPart().getXML());
-	
-		if (features.contains(PP_COMMON_COMBINE_FIELDS)) {
-			log.debug("PP_COMMON_COMBINE_FIELDS");
-			FieldsCombiner.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_COMMON_MOVE_BOOKMARKS)) {
-			log.debug("PP_COMMON_MOVE_BOOKMARKS");
-			BookmarkMover.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_COMMON_MOVE_PAGEBREAK)) {
-			log.debug("PP_COMMON_MOVE_PAGEBREAK");
-			PageBreak.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_PDF_COVERPAGE_MOVE_SECTPR)) {
-			log.debug("PP_COMMON_COVERPAGE_MOVE_SECTPR");
-			CoverPageSectPrMover.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_COMMON_CONTAINERIZATION)) {
-			log.debug("PP_COMMON_CONTAINERIZATION");
-			Containerization.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_HTML_COLLECT_LISTS)) {
-			log.debug("PP_HTML_COLLECT_LISTS");
-			ListsToContentControls.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH)) {
-			log.debug("PP_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH");
-			FopWorkaroundDisablePageBreakOnFirstParagraph.process(ret);
 //			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_LIST_ITEM)) {
-			log.debug("PP_APACHEFOP_DISABLE_PAGEBREAK_LIST_ITEM");
-			FopWorkaroundReplacePageBreakInEachList.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-		if (features.contains(PP_COMMON_TABLE_PARAGRAPH_STYLE_FIX)) {
-			log.debug("PP_COMMON_TABLE_PARAGRAPH_STYLE_FIX");
-			ParagraphStylesInTableFix.process(ret);
-//			log.debug(ret.getMainDocumentPart().getXML());
-		}
-
-		
-		log.debug("Results of preprocessing: " + ret.getMainDocumentPart().getXML());
-		
-		new EventFinished(startEvent).publish();
 		
+			StartEvent stepEvent = null;
+			
+			boolean combineFields = features.contains(PP_COMMON_COMBINE_FIELDS);
+			boolean movePageBreaks = features.contains(PP_COMMON_MOVE_PAGEBREAK);
+			if (combineFields && movePageBreaks) {
+				// one traversal for both
+				log.debug("PP_COMMON_COMBINE_FIELDS, PP_COMMON_MOVE_PAGEBREAK");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_CombinedTraversal);
+				try {
+					CombinedTraversal.process(ret, combineFields, movePageBreaks);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+				
+			} else if (combineFields) {
+				log.debug("PP_COMMON_COMBINE_FIELDS");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_FieldsCombiner);
+				try {
+					FieldsCombiner.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_COMMON_MOVE_BOOKMARKS)) {
+				log.debug("PP_COMMON_MOVE_BOOKMARKS");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_BookmarkMover);
+				try {
+					BookmarkMover.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (movePageBreaks && !combineFields) {
+				log.debug("PP_COMMON_MOVE_PAGEBREAK");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_PageBreak);
+				try {
+					PageBreak.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_PDF_COVERPAGE_MOVE_SECTPR)) {
+				log.debug("PP_COMMON_COVERPAGE_MOVE_SECTPR");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_CoverPageSectPrMover);
+				try {
+					CoverPageSectPrMover.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_COMMON_CONTAINERIZATION)) {
+				log.debug("PP_COMMON_CONTAINERIZATION");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_Containerization);
+				try {
+					Containerization.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_HTML_COLLECT_LISTS)) {
+				log.debug("PP_HTML_COLLECT_LISTS");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_ListsToContentControls);
+				try {
+					ListsToContentControls.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH)) {
+				log.debug("PP_APACHEFOP_DISABLE_PAGEBREAK_FIRST_PARAGRAPH");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_FopWorkaroundDisablePageBreakOnFirstParagraph);
+				try {
+					FopWorkaroundDisablePageBreakOnFirstParagraph.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_LIST_ITEM)) {
+				log.debug("PP_APACHEFOP_DISABLE_PAGEBREAK_LIST_ITEM");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_FopWorkaroundReplacePageBreakInEachList);
+				try {
+					FopWorkaroundReplacePageBreakInEachList.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+			if (features.contains(PP_COMMON_TABLE_PARAGRAPH_STYLE_FIX)) {
+				log.debug("PP_COMMON_TABLE_PARAGRAPH_STYLE_FIX");
+				stepEvent = startStep(ret, WellKnownProcessSteps.CONVERT_PREPROCESS_ParagraphStylesInTableFix);
+				try {
+					ParagraphStylesInTableFix.process(ret);
+				} finally {
+					new EventFinished(stepEvent).publish();
+				}
+//				log.debug(ret.getMainDocumentPart().getXML());
+			}
+	
+			
+			log.debug("Results of preprocessing: " + ret.getMainDocumentPart().getXML());
+			
+		} finally {
+			new EventFinished(startEvent).publish();
+		}
 		
 		return ret;
 	}
+	
+	private static StartEvent startStep(WordprocessingMLPackage wmlPackage, ProcessStep step) {
+		
+		StartEvent stepEvent = new StartEvent( wmlPackage, step );
+		stepEvent.publish();
+		return stepEvent;
+	}
 
 	
 
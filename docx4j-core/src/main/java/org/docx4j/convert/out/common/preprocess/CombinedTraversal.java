@@ -0,0 +1,61 @@
+/*
+   Licensed to Plutext Pty Ltd under one or more contributor license agreements.  
+   
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License"); 
+    you may not use this file except in compliance with the License. 
+
+    You may obtain a copy of the License at 
+
+        http://www.apache.org/licenses/LICENSE-2.0 
+
+    Unless required by applicable law or agreed to in writing, software 
+    distributed under the License is distributed on an "AS IS" BASIS, 
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+    See the License for the specific language governing permissions and 
+    limitations under the License.
+
+ */
+package org.docx4j.convert.out.common.preprocess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.utils.TraversalUtilVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Runs the preprocessing steps which are implemented as paragraph 
+ *  visitors (FieldsCombiner, PageBreak) in a single traversal of the 
+ *  package, rather than one traversal each.<br>
+ *  
+ *  For each paragraph, the fields are combined before the page breaks 
+ *  are moved, which is the order Preprocess has always used.  PageBreak
+ *  does not care about bookmarks, so running it before BookmarkMover
+ *  (as this does) gives the same result.
+ * 
+ */
+public class CombinedTraversal {
+	
+	private static Logger log = LoggerFactory.getLogger(CombinedTraversal.class);		
+	
+	public static void process(WordprocessingMLPackage wmlPackage, 
+			boolean combineFields, boolean movePageBreaks) {
+		
+		List<TraversalUtilVisitor> visitors = new ArrayList<TraversalUtilVisitor>(2);
+		if (combineFields) {
+			visitors.add(FieldsCombiner.COMBINE_VISITOR);
+		}
+		if (movePageBreaks) {
+			visitors.add(new PageBreak.PageBreakVisitor());
+		}
+		log.debug("Combined traversal with " + visitors.size() + " visitors");
+		
+		// Not body only, since FieldsCombiner does headers/footers etc as well
+		TraversalUtil.visit(wmlPackage, false, visitors);
+	}
+
+}
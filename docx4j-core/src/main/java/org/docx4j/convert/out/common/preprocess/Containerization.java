@@ -127,10 +127,27 @@ public class Containerization {
 		
 		List<Object> groupedContent = null;
 		groupedContent = groupBodyContent(content);
-		if (groupedContent != null) {
-			content.clear();
-			content.addAll(groupedContent);
+		replaceIfChanged(content, groupedContent);
+	}
+	
+	/**
+	 * Replace the content of the list only if grouping changed it.  
+	 * DeepCopyFilterForFeatures lets parts with nothing to group share 
+	 * their content with the source package, so an unchanged list must 
+	 * not be written to (that would also notify any change listeners).
+	 */
+	private static void replaceIfChanged(List<Object> content, List<Object> groupedContent) {
+		
+		if (groupedContent == null) return;
+		if (groupedContent.size() == content.size()) {
+			boolean changed = false;
+			for (int i = 0; i < content.size() && !changed; i++) {
+				changed = (content.get(i) != groupedContent.get(i));
+			}
+			if (!changed) return;
 		}
+		content.clear();
+		content.addAll(groupedContent);
 	}
 		
 	private static void groupTable(Tbl table) {
@@ -153,10 +170,7 @@ public class Containerization {
 							tc = (Tc)elemCe;
 							if (tc.getContent() != null) {
 								cellElts = groupBodyContent(tc.getContent());
-								if (cellElts != null) {
-									tc.getContent().clear();
-									tc.getContent().addAll(cellElts);
-								}
+								replaceIfChanged(tc.getContent(), cellElts);
 							}
 						}
 					}
@@ -187,10 +201,7 @@ public class Containerization {
 			if (unwrapped instanceof P) {
 				paragraph = (P)unwrapped;
 				paragraphElts = groupRuns(paragraph.getContent());
-				paragraph.getContent().clear();
-				if (paragraphElts != null) {
-					paragraph.getContent().addAll(paragraphElts);
-				}
+				replaceIfChanged(paragraph.getContent(), paragraphElts);
 
 				currentBorders = null;
 				currentShading = null;
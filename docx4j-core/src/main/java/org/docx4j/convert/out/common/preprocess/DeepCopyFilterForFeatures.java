@@ -0,0 +1,125 @@
+/*
+   Licensed to Plutext Pty Ltd under one or more contributor license agreements.  
+   
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License"); 
+    you may not use this file except in compliance with the License. 
+
+    You may obtain a copy of the License at 
+
+        http://www.apache.org/licenses/LICENSE-2.0 
+
+    Unless required by applicable law or agreed to in writing, software 
+    distributed under the License is distributed on an "AS IS" BASIS, 
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+    See the License for the specific language governing permissions and 
+    limitations under the License.
+
+ */
+package org.docx4j.convert.out.common.preprocess;
+
+import java.util.List;
+import java.util.Set;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.TraversalUtil.CallbackImpl;
+import org.docx4j.convert.out.ConversionFeatures;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.CTBookmark;
+import org.docx4j.wml.CTMarkupRange;
+import org.docx4j.wml.FldChar;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Copy-on-write for PartialDeepCopy, at the granularity of a part.<br>
+ * 
+ *  FieldsCombiner, BookmarkMover and Containerization visit headers, footers,
+ *  footnotes, endnotes and comments as well as the main document, so 
+ *  Preprocess asks for all of those to be deep copied.  But most of these parts
+ *  contain nothing those steps would change.  This filter does a read-only
+ *  traversal of each such part, and only asks for a deep copy where 
+ *  there is something the selected features will write to; the other parts
+ *  share their content with the source package.<br>
+ *  
+ *  The main document part is always deep copied.
+ *
+ */
+public class DeepCopyFilterForFeatures implements PartialDeepCopy.DeepCopyFilter {
+	
+	protected static Logger log = LoggerFactory.getLogger(DeepCopyFilterForFeatures.class);
+	
+	private final boolean fields;
+	private final boolean bookmarks;
+	private final boolean containers;
+	
+	public DeepCopyFilterForFeatures(Set<String> features) {
+		fields = features.contains(ConversionFeatures.PP_COMMON_COMBINE_FIELDS);
+		bookmarks = features.contains(ConversionFeatures.PP_COMMON_MOVE_BOOKMARKS);
+		containers = features.contains(ConversionFeatures.PP_COMMON_CONTAINERIZATION);
+	}
+
+	@Override
+	public boolean needsDeepCopy(Part sourcePart) {
+		
+		if (sourcePart instanceof MainDocumentPart
+				|| !(sourcePart instanceof JaxbXmlPart)) {
+			return true;
+		}
+		
+		Object contents = ((JaxbXmlPart)sourcePart).getJaxbElement();
+		if (contents==null) {
+			return true;
+		}
+		
+		WriteFinder finder = new WriteFinder();
+		new TraversalUtil(contents, finder);
+		
+		if (log.isDebugEnabled()) {
+			log.debug(sourcePart.getPartName().getName() + " needs deep copy? " + finder.found);
+		}
+		return finder.found;
+	}
+
+	/**
+	 * Looks for content the preprocessing steps would change. 
+	 */
+	private class WriteFinder extends CallbackImpl {
+		
+		boolean found = false;
+
+		@Override
+		public List<Object> apply(Object o) {
+			
+			if (fields 
+					&& o instanceof FldChar) {
+				found = true;
+			} else if (bookmarks
+					&& (o instanceof CTBookmark
+							|| o instanceof CTMarkupRange)) {
+				found = true;
+			} else if (containers 
+					&& o instanceof P
+					&& ((P)o).getPPr()!=null
+					&& (((P)o).getPPr().getPBdr()!=null
+							|| ((P)o).getPPr().getShd()!=null)) {
+				found = true;
+			} else if (containers 
+					&& o instanceof R
+					&& ((R)o).getRPr()!=null
+					&& ((R)o).getRPr().getBdr()!=null) {
+				found = true;
+			}
+			return null;
+		}
+		
+		@Override
+		public boolean shouldTraverse(Object o) {
+			return !found;
+		}
+	}
+}
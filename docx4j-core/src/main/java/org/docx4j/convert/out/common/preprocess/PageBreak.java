@@ -24,6 +24,7 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.utils.TraversalUtilVisitor;
 import org.docx4j.wml.Body;
 import org.docx4j.wml.BooleanDefaultTrue;
 import org.docx4j.wml.Br;
@@ -61,6 +62,23 @@ public class PageBreak {
 		}				
 	}
 	
+	/**
+	 * Visitor equivalent of process, so this step can share a traversal
+	 * with other steps (see CombinedTraversal).  Like process, it only
+	 * acts on body level paragraphs.
+	 * 
+	 * @since 8.2.2
+	 */
+	protected static class PageBreakVisitor extends TraversalUtilVisitor<P> {
+		
+		@Override
+		public void apply(P paragraph, Object parent, List<Object> siblings) {
+			if (parent instanceof Body) {
+				updateParagraph(paragraph);
+			}
+		}
+	}
+	
 	private static void updateParagraph(P paragraph) {
 		
 		boolean containsPageBreak = checkPageBreak(paragraph.getContent());
@@ -53,16 +53,46 @@ import org.w3c.dom.Document;
  * If the passed relationship types is null, then it will do a complete deep copy.
  * This is probably faster than storing and reading the document but it is restricted 
  * to Parts of the types: BinaryPart, JaxbXmlPart, CustomXmlDataStoragePart, XmlPart.<br>
- * If the passed relationship types is empty, then the passed Package is returned.  
+ * If the passed relationship types is empty, then the passed Package is returned.<br>
+ * A DeepCopyFilter can be used to share (rather than copy) the data of a part 
+ * of one of those types, where it is known that the part won't be changed.  
  * 
  */
 public class PartialDeepCopy {
 	
 	protected static Logger log = LoggerFactory.getLogger(PartialDeepCopy.class);
 	
+	/**
+	 * Decides whether a part whose relationship type was selected
+	 * for deep copy actually needs it.
+	 * 
+	 * @since 8.2.2
+	 */
+	public interface DeepCopyFilter {
+		
+		/**
+		 * @param sourcePart
+		 * @return false if the data of sourcePart can safely be shared with the copy
+		 */
+		boolean needsDeepCopy(Part sourcePart);
+	}
 	
 	public static OpcPackage process(OpcPackage opcPackage, Set<String> relationshipTypes) throws Docx4JException {
 		
+		return process(opcPackage, relationshipTypes, null);
+	}
+	
+	/**
+	 * @param opcPackage
+	 * @param relationshipTypes
+	 * @param filter optional; consulted for parts of the relationshipTypes
+	 * @return
+	 * @throws Docx4JException
+	 * @since 8.2.2
+	 */
+	public static OpcPackage process(OpcPackage opcPackage, Set<String> relationshipTypes, 
+			DeepCopyFilter filter) throws Docx4JException {
+		
 		OpcPackage ret = null;
 		RelationshipsPart relPart = null;
 		if (opcPackage != null) {
@@ -77,7 +107,7 @@ public class PartialDeepCopy {
 				}
 				
 				
-				deepCopyRelationships(ret, opcPackage, ret, relationshipTypes);
+				deepCopyRelationships(ret, opcPackage, ret, relationshipTypes, filter);
 				
 				// Copy the font mappings
 				if (opcPackage instanceof WordprocessingMLPackage) {
@@ -153,6 +183,15 @@ public class PartialDeepCopy {
 			Base targetPart,
 			Set<String> relationshipTypes) throws Docx4JException {
 		
+		deepCopyRelationships(opcPackage, sourcePart, targetPart, relationshipTypes, null);
+	}
+	
+	protected static void deepCopyRelationships(OpcPackage opcPackage,
+			Base sourcePart,
+			Base targetPart,
+			Set<String> relationshipTypes,
+			DeepCopyFilter filter) throws Docx4JException {
+		
 		RelationshipsPart sourceRelationshipsPart = sourcePart.getRelationshipsPart(false);
 		Relationships sourceRelationships = (sourceRelationshipsPart != null ? 
 									   		 sourceRelationshipsPart.getRelationships() : 
@@ -187,9 +226,9 @@ public class PartialDeepCopy {
 						// but we can relax this..
 						|| !"external".equals(sourceRelationship.getTargetMode().toLowerCase())) {
 					sourceChild = sourceRelationshipsPart.getPart(sourceRelationship);
-					targetChild = deepCopyPart(opcPackage, targetPart, sourceChild, relationshipTypes);
+					targetChild = deepCopyPart(opcPackage, targetPart, sourceChild, relationshipTypes, filter);
 					if (sourceChild != targetChild) {
-						deepCopyRelationships(opcPackage, sourceChild, targetChild, relationshipTypes);
+						deepCopyRelationships(opcPackage, sourceChild, targetChild, relationshipTypes, filter);
 					}
 				}
 			}
@@ -197,15 +236,25 @@ public class PartialDeepCopy {
 	}
 
 	protected static Part deepCopyPart(OpcPackage opcPackage, Base targetParent, Part sourcePart, Set<String> relationshipTypes) throws Docx4JException {
+		
+		return deepCopyPart(opcPackage, targetParent, sourcePart, relationshipTypes, null);
+	}
+	
+	protected static Part deepCopyPart(OpcPackage opcPackage, Base targetParent, Part sourcePart, Set<String> relationshipTypes,
+			DeepCopyFilter filter) throws Docx4JException {
 
 		//check if already handled
 		Part ret = opcPackage.getParts().get(sourcePart.getPartName());
 		if (ret == null) {
-			//
-			ret = copyPart(sourcePart, 
-						   opcPackage, ((relationshipTypes == null) || 
-								        relationshipTypes.contains(sourcePart.getRelationshipType()))
-						   );
+			boolean deepCopy = ((relationshipTypes == null) || 
+			        relationshipTypes.contains(sourcePart.getRelationshipType()));
+			if (deepCopy 
+					&& filter != null
+					&& !filter.needsDeepCopy(sourcePart)) {
+				log.debug("Sharing data of " + sourcePart.getPartName().getName());
+				deepCopy = false;
+			}
+			ret = copyPart(sourcePart, opcPackage, deepCopy);
 			opcPackage.getParts().put(ret);
 			targetParent.setPartShortcut(ret, ret.getRelationshipType());
 		}
@@ -174,6 +174,31 @@ public abstract class AbstractTableWriter extends AbstractSimpleWriter {
 	protected AbstractTableWriter() {
 		super(WRITER_ID);
 	}
+	
+	/**
+	 * @return the number of tables the context has converted (including  
+	 * any it was told precede them)
+	 * @since 8.2.2
+	 */
+	public static int getTableIndex(AbstractWmlConversionContext context) {
+		TransformState state = context.getTransformState(WRITER_ID);
+		return (state instanceof TableModelTransformState ? 
+				((TableModelTransformState)state).idx : 0);
+	}
+	
+	/**
+	 * Set the number of tables preceding those the context is yet to convert,
+	 * so that table ids stay unique when parts of a document are converted 
+	 * with different contexts.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static void setTableIndex(AbstractWmlConversionContext context, int idx) {
+		TransformState state = context.getTransformState(WRITER_ID);
+		if (state instanceof TableModelTransformState) {
+			((TableModelTransformState)state).idx = idx;
+		}
+	}
 
 	@Override
 	public TransformState createTransformState() {
@@ -21,20 +21,29 @@
 package org.docx4j.convert.out.flatOpcXml;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.util.Base64;
 import java.util.HashMap;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.parsers.DocumentBuilder;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.dom.DOMSource;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.docx4j.XmlUtils;
 import org.docx4j.convert.out.Output;
 import org.docx4j.jaxb.Context;
@@ -42,6 +51,7 @@ import org.docx4j.jaxb.McIgnorableNamespaceDeclarator;
 import org.docx4j.jaxb.NamespacePrefixMapperUtils;
 import org.docx4j.openpackaging.URIHelper;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
 import org.docx4j.openpackaging.packages.OpcPackage;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.openpackaging.parts.JaxbXmlPart;
@@ -50,6 +60,8 @@ import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
 import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
 import org.docx4j.relationships.Relationship;
+import org.docx4j.utils.NamespaceTrimmingXMLStreamWriter;
+import org.docx4j.utils.XMLStreamCopier;
 import org.docx4j.utils.XmlSerializerUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -105,6 +117,16 @@ public class FlatOpcXmlCreator implements Output {
 	
 	private org.docx4j.xmlPackage.Package pkgResult;
 	
+	private static final String PKG_NS = "http://schemas.microsoft.com/office/2006/xmlPackage";
+	private static final String PKG_PREFIX = "pkg";
+	
+	/**
+	 * Set while stream is writing; parts are then written here,
+	 * rather than added to pkgResult.
+	 */
+	private XMLStreamWriter xsw;
+	private XMLInputFactory xif;
+	
 	
 	public org.docx4j.xmlPackage.Package get() throws Docx4JException  {		
 		
@@ -173,6 +195,54 @@ public class FlatOpcXmlCreator implements Output {
 		
 	}
 
+	/**
+	 * Write the package in Flat OPC format, one part at a time.  
+	 * 
+	 * Unlike get() and marshal, this doesn't build an org.docx4j.xmlPackage.Package:
+	 * JAXB parts are marshalled straight to the output, other XML parts are copied
+	 * from their DOM one at a time, and binary parts
+	 * are Base64 encoded as they are written (straight from the source part store, 
+	 * if they haven't been loaded).
+	 * 
+	 * @param os - responsibility of the caller to close this.
+	 * @since 8.2.2
+	 */
+	public void stream(OutputStream os) throws Docx4JException {
+		
+		if (packageIn==null) {
+			throw new Docx4JException("No zipped package to convert to Flat OPC Package");
+		}
+		handled = new HashMap<String, String>();
+		
+		try {
+			xif = XMLInputFactory.newInstance();
+			xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+			xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			
+			xsw = XMLOutputFactory.newInstance().createXMLStreamWriter(os, "UTF-8");
+			xsw.writeStartDocument("UTF-8", "1.0");
+			xsw.writeStartElement(PKG_PREFIX, "package", PKG_NS);
+			xsw.writeNamespace(PKG_PREFIX, PKG_NS);
+
+			// As for get()
+			RelationshipsPart rp = packageIn.getRelationshipsPart();
+			saveRawXmlPart(rp ); 			
+			addPartsFromRelationships(rp );
+			
+			xsw.writeEndElement();
+			xsw.writeEndDocument();
+			xsw.close(); // doesn't close os
+			
+		} catch (Docx4JException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new Docx4JException("Failed to save package", e);
+		} finally {
+			xsw = null;
+			xif = null;
+		}
+	}
+
 //	public void  saveRawXmlPart(Part part) throws Docx4JException {
 //		
 //		// This is a neater signature and should be used where possible!
@@ -187,23 +257,121 @@ public class FlatOpcXmlCreator implements Output {
 
 	public void  saveRawXmlPart(Part part) throws Docx4JException {
 		
+		if (xsw!=null) {
+			writeXmlPart(part);
+			return;
+		}
+		
 		org.docx4j.xmlPackage.Part partResult = createRawXmlPart(part);
         pkgResult.getPart().add(partResult);
 		
 	}
 	
-	private static org.w3c.dom.Document marshaltoW3CDomDocument(Object o, JAXBContext jc, String ignorables) {
+	private void writeXmlPart(Part part) throws Docx4JException {
+		
+		String partName = part.getPartName().getName();
+        if (!partName.startsWith("/")) {       
+        	partName = "/" + partName;
+        }
+        
 		try {
-
-			Marshaller marshaller = jc.createMarshaller();
-
-			NamespacePrefixMapperUtils.setProperty(marshaller, 
-					NamespacePrefixMapperUtils.getPrefixMapper());	
-			((McIgnorableNamespaceDeclarator)NamespacePrefixMapperUtils.getPrefixMapper()).setMcIgnorable(ignorables);
+			byte[] bytes = null;
+			if (part instanceof org.docx4j.openpackaging.parts.JaxbXmlPart) {
+				
+				// marshalled straight into xsw, below
+				
+			} else if (part instanceof org.docx4j.openpackaging.parts.CustomXmlDataStoragePart) {
+				
+				bytes = toBytes(((org.docx4j.openpackaging.parts.CustomXmlDataStoragePart)part).getData().getDocument());
+				
+			} else if (part instanceof org.docx4j.openpackaging.parts.XmlPart) {
+				
+				bytes = toBytes(((org.docx4j.openpackaging.parts.XmlPart)part).getDocument());
+				
+			} else {
+				log.error("PROBLEM - No suitable part found for: " + partName);
+			}
 			
-			org.w3c.dom.Document doc = XmlUtils.getNewDocumentBuilder().newDocument();
-			marshaller.marshal(o, doc);
+			writePartStart(partName, part.getContentType());
+			xsw.writeStartElement(PKG_PREFIX, "xmlData", PKG_NS);
+			if (part instanceof org.docx4j.openpackaging.parts.JaxbXmlPart) {
+				writeJaxbXmlPart((org.docx4j.openpackaging.parts.JaxbXmlPart)part);
+			} else if (bytes!=null) {
+				XMLStreamReader xsr = xif.createXMLStreamReader(new ByteArrayInputStream(bytes));
+				XMLStreamCopier.copyRootElement(xsr, xsw);
+				xsr.close();
+			}
+			xsw.writeEndElement();
+			xsw.writeEndElement();
+			log.debug( "PUT SUCCESS: " + partName);		
 			
+		} catch (Docx4JException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new Docx4JException("Problem saving part " + partName, e);
+		} 		        
+	}
+	
+	/**
+	 * Marshal the part into xsw, trimming namespaces as we go (as 
+	 * docx4j.jaxb.marshal.canonicalize does), rather than via a DOM and c14n. 
+	 * Word requires the namespaces to be declared in each part, which they are,
+	 * since the trimming writer only knows about those it has declared itself.
+	 */
+	private void writeJaxbXmlPart(JaxbXmlPart<?> part) throws Exception {
+		
+		// before the context, since unmarshalling may change that 
+		Object o = part.getJaxbElement();
+		
+		String ignorables = (part.getMceIgnorable()==null ? "" : part.getMceIgnorable()) 
+				+ part.getMcChoiceNamespaces();
+		
+		Marshaller marshaller = part.getJAXBContext().createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+		NamespacePrefixMapperUtils.setProperty(marshaller, 
+				NamespacePrefixMapperUtils.getPrefixMapper());	
+		((McIgnorableNamespaceDeclarator)NamespacePrefixMapperUtils.getPrefixMapper()).setMcIgnorable(ignorables);
+		
+		marshaller.marshal(o, new NamespaceTrimmingXMLStreamWriter(xsw, ignorables));
+	}
+	
+	private static byte[] toBytes(org.w3c.dom.Document doc) throws Docx4JException {
+		
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		XmlUtils.w3CDomNodeToOutputStream(doc, baos);
+		return baos.toByteArray();
+	}
+	
+	private void writePartStart(String partName, String ct) throws XMLStreamException {
+		
+		xsw.writeStartElement(PKG_PREFIX, "part", PKG_NS);
+		xsw.writeAttribute(PKG_PREFIX, PKG_NS, "name", partName);
+        if (ct == null) {
+        	// NB - Word can't consume it if the content type is not set 
+        	// on the rels parts.
+        	log.error("Content type not set! ");
+        } else {
+    		xsw.writeAttribute(PKG_PREFIX, PKG_NS, "contentType", ct);
+        }
+	}
+	
+	private static byte[] marshalToTrimmedBytes(Object o, JAXBContext jc, String ignorables) throws Exception {
+		
+		Marshaller marshaller = jc.createMarshaller();
+
+		NamespacePrefixMapperUtils.setProperty(marshaller, 
+				NamespacePrefixMapperUtils.getPrefixMapper());	
+		((McIgnorableNamespaceDeclarator)NamespacePrefixMapperUtils.getPrefixMapper()).setMcIgnorable(ignorables);
+		
+		org.w3c.dom.Document doc = XmlUtils.getNewDocumentBuilder().newDocument();
+		marshaller.marshal(o, doc);
+		
+		return XmlUtils.trimNamespaces(doc, ignorables);
+	}
+	
+	private static org.w3c.dom.Document marshaltoW3CDomDocument(Object o, JAXBContext jc, String ignorables) {
+		try {
+
 			// For FlatOPC, always canonicalize, since we want to
 			// trim namespaces to make the file as small as possible
 			// (since a key use case is OpenDoPE's UpdateXmlFromDocumentSurface).
@@ -217,7 +385,7 @@ public class FlatOpcXmlCreator implements Output {
 //			if (true /* always canonicalize! */
 //					|| Docx4jProperties.getProperty("docx4j.jaxb.marshal.canonicalize", false)) {
 
-				byte[] bytes = XmlUtils.trimNamespaces(doc, ignorables);
+				byte[] bytes = marshalToTrimmedBytes(o, jc, ignorables);
 				
 				//log.debug(new String(bytes, "UTF-8"));
 				/*MOXy issue where it looks like trimNamespaces drops w namespace!
@@ -457,6 +625,10 @@ public class FlatOpcXmlCreator implements Output {
 	
 	protected void saveRawBinaryPart(Part part) throws Docx4JException {
 
+		if (xsw!=null) {
+			writeBinaryPart(part);
+			return;
+		}
 		
 		org.docx4j.xmlPackage.Part partResult = createRawBinaryPart(part);
         pkgResult.getPart().add(partResult);
@@ -464,6 +636,88 @@ public class FlatOpcXmlCreator implements Output {
 		
 	}
 	
+	private void writeBinaryPart(Part part) throws Docx4JException {
+		
+		// As for createRawBinaryPart
+		String resolvedPartUri = part.getPartName().getName();
+
+		try {
+			writePartStart(resolvedPartUri, part.getContentType());
+			xsw.writeAttribute(PKG_PREFIX, PKG_NS, "compression", "store");
+			xsw.writeStartElement(PKG_PREFIX, "binaryData", PKG_NS);
+			
+			OutputStream base64 = Base64.getEncoder().wrap(new CharactersOutputStream(xsw));
+			
+			BinaryPart binaryPart = (BinaryPart)part;
+			PartStore partStore = part.getPackage()==null ? null : part.getPackage().getSourcePartStore();
+			if (!binaryPart.isLoaded() && partStore!=null) {
+				// don't cache it in the part
+				InputStream is = partStore.loadPart(resolvedPartUri.substring(1));
+				try {
+					IOUtils.copy(is, base64);
+				} finally {
+					IOUtils.closeQuietly(is);
+				}
+			} else {
+				binaryPart.writeDataToOutputStream(base64);
+			}
+			base64.close(); // writes any padding
+			
+			xsw.writeEndElement();
+			xsw.writeEndElement();
+			
+		} catch (Exception e ) {
+			throw new Docx4JException("Failed to put binary part", e);			
+		}
+		log.debug( "PUT SUCCESS: " + resolvedPartUri);		
+	}
+	
+	/**
+	 * Passes Base64 output to the XMLStreamWriter, as characters.
+	 */
+	private static class CharactersOutputStream extends OutputStream {
+		
+		private final XMLStreamWriter xsw;
+		private final char[] chars = new char[8192];
+		private int count = 0;
+		
+		CharactersOutputStream(XMLStreamWriter xsw) {
+			this.xsw = xsw;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (count==chars.length) {
+				flush();
+			}
+			chars[count++] = (char)b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			for (int i=off; i<off+len; i++) {
+				write(b[i]);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (count>0) {
+				try {
+					xsw.writeCharacters(chars, 0, count);
+				} catch (XMLStreamException e) {
+					throw new IOException(e);
+				}
+				count = 0;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush(); // but leave xsw open
+		}
+	}
+	
 	public static org.docx4j.xmlPackage.Part createRawBinaryPart(Part part) throws Docx4JException {
 		
 		String resolvedPartUri = part.getPartName().getName();
@@ -24,6 +24,7 @@ import java.util.List;
 import org.docx4j.convert.out.HTMLSettings;
 import org.docx4j.convert.out.common.AbstractVisitorExporterDelegate;
 import org.docx4j.convert.out.common.ConversionSectionWrapper;
+import org.docx4j.convert.out.common.ConversionSectionWrappers;
 import org.docx4j.convert.out.common.XsltCommonFunctions;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.parts.Part;
@@ -34,8 +35,18 @@ import org.w3c.dom.Element;
 
 public class HTMLExporterVisitorDelegate extends AbstractVisitorExporterDelegate<HTMLSettings, HTMLConversionContext> {
 
+	protected static final AbstractVisitorExporterContextFactory<HTMLSettings, HTMLConversionContext> CONTEXT_FACTORY = 
+			new AbstractVisitorExporterContextFactory<HTMLSettings, HTMLConversionContext>() {
+				@Override
+				public HTMLConversionContext createInstance(HTMLSettings conversionSettings,
+						HTMLConversionContext conversionContext, ConversionSectionWrappers sections) {
+					return new HTMLConversionContext(conversionContext.getWriterRegistry(), 
+							conversionSettings, conversionContext.getWmlPackage(), sections);
+				}
+	};
+
 	protected HTMLExporterVisitorDelegate() {
-		super(HTMLExporterVisitorGenerator.GENERATOR_FACTORY);
+		super(HTMLExporterVisitorGenerator.GENERATOR_FACTORY, CONTEXT_FACTORY);
 	}
 
 	@Override
@@ -118,8 +118,8 @@ public class HTMLExporterVisitorGenerator extends AbstractVisitorExporterGenerat
 				levelId = pPrDirect.getNumPr().getIlvl()==null ? null : pPrDirect.getNumPr().getIlvl().getVal().toString(); 
 			}
 			
-        	ResultTriple triple = org.docx4j.model.listnumbering.Emulator.getNumber(
-        			conversionContext.getWmlPackage(), pStyleVal, numId, levelId);   
+        	ResultTriple triple = conversionContext.getNumber(
+        			pPrDirect, pStyleVal, numId, levelId);   
         	
 
 			if (triple==null) {
@@ -12,6 +12,16 @@ public abstract class Docx4jEvent {
 		Docx4jEvent.bus = bus;
 	}	
 	
+	/**
+	 * Whether anyone is listening.  Use this to avoid the cost of creating
+	 * events in frequently executed code.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static boolean hasEventNotifier() {
+		return bus!=null;
+	}
+	
 	private static Boolean publishAsynch = null;
 	public static Boolean publishAsynch() {
 		if (publishAsynch==null) {
@@ -115,6 +125,31 @@ public abstract class Docx4jEvent {
 	public JobIdentifier getJob() {
 		return job;
 	}
+	
+	private final long nanoTime = System.nanoTime();
+	/**
+	 * When this event was created, per System.nanoTime 
+	 * (so only meaningful relative to another event).
+	 * 
+	 * @since 8.2.2
+	 */
+	public long getNanoTime() {
+		return nanoTime;
+	}
+	
+	private String detail;
+	/**
+	 * Optional qualifier of the process step, for example the type of part 
+	 * being unmarshalled.
+	 * 
+	 * @since 8.2.2
+	 */
+	public String getDetail() {
+		return detail;
+	}
+	public void setDetail(String detail) {
+		this.detail = detail;
+	}
 
 	private ProcessStep processStep;
 	/**
@@ -11,6 +11,31 @@ public class EventFinished extends Docx4jEvent {
 	public EventFinished(StartEvent started) {
 		super( started.getJob(),   started.getPkgIdentifier(),  started.getProcessStep());
 		this.started = started;
+		setDetail(started.getDetail());
+	}
+	
+	/**
+	 * @return nanoseconds since the StartEvent, or -1 if this event wasn't 
+	 * constructed from a StartEvent
+	 * @since 8.2.2
+	 */
+	public long getElapsedNanos() {
+		if (started==null) return -1;
+		return getNanoTime() - started.getNanoTime();
+	}
+	
+	private long bytes = -1;
+	/**
+	 * The number of bytes read or written by the step (eg the size of the 
+	 * package loaded or saved, or of the part unmarshalled), or -1 if not known.
+	 * 
+	 * @since 8.2.2
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+	public void setBytes(long bytes) {
+		this.bytes = bytes;
 	}
 	
 	/**
@@ -22,7 +22,20 @@ public enum WellKnownProcessSteps implements ProcessStep {
 	FOP_RENDER_PASS1,
 	FOP_RENDER_PASS2,
 	CONVERT_PREPROCESS,
+	CONVERT_PREPROCESS_PartialDeepCopy,
+	CONVERT_PREPROCESS_CombinedTraversal,
+	CONVERT_PREPROCESS_FieldsCombiner,
+	CONVERT_PREPROCESS_BookmarkMover,
+	CONVERT_PREPROCESS_PageBreak,
+	CONVERT_PREPROCESS_CoverPageSectPrMover,
+	CONVERT_PREPROCESS_Containerization,
+	CONVERT_PREPROCESS_ListsToContentControls,
+	CONVERT_PREPROCESS_FopWorkaroundDisablePageBreakOnFirstParagraph,
+	CONVERT_PREPROCESS_FopWorkaroundReplacePageBreakInEachList,
+	CONVERT_PREPROCESS_ParagraphStylesInTableFix,
 	HTML_OUT,
-	XHTML_IMPORT;	
+	XHTML_IMPORT,
+	PART_UNMARSHAL, // detail is the part class
+	FONT_DISCOVERY;	
 
 }
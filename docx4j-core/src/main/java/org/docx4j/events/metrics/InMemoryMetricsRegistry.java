@@ -0,0 +1,65 @@
+package org.docx4j.events.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a StepMetrics for each StepKey seen.
+ *
+ * @since 8.2.2
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+	private final ConcurrentHashMap<StepKey, StepMetrics> metrics
+		= new ConcurrentHashMap<StepKey, StepMetrics>();
+
+	public void record(StepKey key, long elapsedNanos, long bytes) {
+		getOrCreate(key).record(elapsedNanos, bytes);
+	}
+
+	/**
+	 * @return the metrics for this key, or null if nothing has been recorded for it
+	 */
+	public StepMetrics getStepMetrics(StepKey key) {
+		return metrics.get(key);
+	}
+
+	/**
+	 * @return a live, unmodifiable view of all the metrics
+	 */
+	public Map<StepKey, StepMetrics> getAll() {
+		return Collections.unmodifiableMap(metrics);
+	}
+
+	public void reset() {
+		for (StepMetrics stepMetrics : metrics.values()) {
+			stepMetrics.reset();
+		}
+	}
+
+	protected StepMetrics getOrCreate(StepKey key) {
+
+		StepMetrics stepMetrics = metrics.get(key);
+		if (stepMetrics==null) {
+			StepMetrics created = newStepMetrics(key);
+			stepMetrics = metrics.putIfAbsent(key, created);
+			if (stepMetrics==null) {
+				stepMetrics = created;
+				created(key, created);
+			}
+		}
+		return stepMetrics;
+	}
+
+	protected StepMetrics newStepMetrics(StepKey key) {
+		return new StepMetrics();
+	}
+
+	/**
+	 * Invoked once for each key, when its StepMetrics is first added.
+	 */
+	protected void created(StepKey key, StepMetrics stepMetrics) {
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.docx4j.events.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An InMemoryMetricsRegistry which also registers each StepMetrics
+ * as an MXBean, named org.docx4j:type=Metrics,job=..,step=..[,detail=..]
+ *
+ * @since 8.2.2
+ */
+public class JmxMetricsRegistry extends InMemoryMetricsRegistry {
+
+	private static Logger log = LoggerFactory.getLogger(JmxMetricsRegistry.class);
+
+	private final MBeanServer server;
+	private final String domain;
+
+	private final List<ObjectName> registered = new ArrayList<ObjectName>();
+
+	public JmxMetricsRegistry() {
+		this(ManagementFactory.getPlatformMBeanServer(), "org.docx4j");
+	}
+
+	public JmxMetricsRegistry(MBeanServer server, String domain) {
+		this.server = server;
+		this.domain = domain;
+	}
+
+	@Override
+	protected void created(StepKey key, StepMetrics stepMetrics) {
+
+		try {
+			ObjectName name = objectName(key);
+			server.registerMBean(stepMetrics, name);
+			synchronized (registered) {
+				registered.add(name);
+			}
+		} catch (Exception e) {
+			// metrics are still recorded in memory
+			log.warn("Couldn't register MBean for " + key + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Unregister the MBeans registered by this registry.
+	 */
+	public void unregister() {
+
+		synchronized (registered) {
+			for (ObjectName name : registered) {
+				try {
+					server.unregisterMBean(name);
+				} catch (Exception e) {
+					log.warn("Couldn't unregister " + name + ": " + e.getMessage());
+				}
+			}
+			registered.clear();
+		}
+	}
+
+	public ObjectName objectName(StepKey key) throws Exception {
+
+		StringBuilder sb = new StringBuilder(domain);
+		sb.append(":type=Metrics");
+		sb.append(",job=").append(ObjectName.quote(String.valueOf(key.getJob())));
+		sb.append(",step=").append(ObjectName.quote(String.valueOf(key.getStep())));
+		if (key.getDetail()!=null) {
+			sb.append(",detail=").append(ObjectName.quote(key.getDetail()));
+		}
+		return new ObjectName(sb.toString());
+	}
+
+}
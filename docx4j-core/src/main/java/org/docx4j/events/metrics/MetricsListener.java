@@ -0,0 +1,70 @@
+package org.docx4j.events.metrics;
+
+import org.docx4j.events.Docx4jEvent;
+import org.docx4j.events.EventFinished;
+
+import net.engio.mbassy.bus.MBassador;
+import net.engio.mbassy.bus.config.BusConfiguration;
+import net.engio.mbassy.bus.config.Feature;
+import net.engio.mbassy.listener.Handler;
+import net.engio.mbassy.listener.Listener;
+import net.engio.mbassy.listener.References;
+
+/**
+ * Records the duration (and bytes, where reported) of each process step,
+ * from the EventFinished events docx4j publishes.
+ *
+ * If you already have an MBassador bus, subscribe an instance of this
+ * to it.  Otherwise, use install:
+ *
+ *     InMemoryMetricsRegistry registry = new JmxMetricsRegistry();
+ *     MetricsListener.install(registry);
+ *     ...
+ *     registry.getAll()
+ *
+ * Events are only published when a bus is set, so there is no cost
+ * to this unless it is used.
+ *
+ * @since 8.2.2
+ */
+@Listener(references = References.Strong) // MBassador holds listeners weakly by default
+public class MetricsListener {
+
+	private final MetricsRegistry registry;
+
+	public MetricsListener(MetricsRegistry registry) {
+		this.registry = registry;
+	}
+
+	public MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	@Handler
+	public void handleMessage(EventFinished event) {
+
+		if (event.getStartEvent()==null) return;
+
+		registry.record(new StepKey(event), event.getElapsedNanos(), event.getBytes());
+	}
+
+	/**
+	 * Create a synchronous bus with a MetricsListener for the registry subscribed,
+	 * and set it via Docx4jEvent.setEventNotifier (replacing any existing bus).
+	 *
+	 * @return the bus, so you can subscribe other listeners
+	 */
+	public static MBassador<Docx4jEvent> install(MetricsRegistry registry) {
+
+		MBassador<Docx4jEvent> bus = new MBassador<Docx4jEvent>(
+				new BusConfiguration()
+			     .addFeature(Feature.SyncPubSub.Default())
+			     .addFeature(Feature.AsynchronousHandlerInvocation.Default())
+			     .addFeature(Feature.AsynchronousMessageDispatch.Default())
+			     );
+		bus.subscribe(new MetricsListener(registry));
+		Docx4jEvent.setEventNotifier(bus);
+		return bus;
+	}
+
+}
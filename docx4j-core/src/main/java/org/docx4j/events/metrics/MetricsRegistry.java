@@ -0,0 +1,21 @@
+package org.docx4j.events.metrics;
+
+/**
+ * Where MetricsListener records what it observes.
+ *
+ * InMemoryMetricsRegistry and JmxMetricsRegistry are provided; implement
+ * this to bridge to your own metrics system.  Implementations must be
+ * thread safe.
+ *
+ * @since 8.2.2
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * @param key
+	 * @param elapsedNanos duration of the step
+	 * @param bytes bytes read or written by the step, or -1 if not known
+	 */
+	void record(StepKey key, long elapsedNanos, long bytes);
+
+}
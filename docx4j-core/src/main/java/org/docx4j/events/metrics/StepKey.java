@@ -0,0 +1,69 @@
+package org.docx4j.events.metrics;
+
+import org.docx4j.events.Docx4jEvent;
+
+/**
+ * What metrics are recorded against: the job type, the process step,
+ * and the optional detail (eg the part class, for PART_UNMARSHAL).
+ *
+ * @since 8.2.2
+ */
+public final class StepKey {
+
+	private final String job;
+	private final String step;
+	private final String detail;
+
+	public StepKey(String job, String step, String detail) {
+		this.job = job;
+		this.step = step;
+		this.detail = detail;
+	}
+
+	public StepKey(Docx4jEvent event) {
+		this(event.getJob()==null ? null : event.getJob().name(),
+				event.getProcessStep()==null ? null : event.getProcessStep().name(),
+				event.getDetail());
+	}
+
+	public String getJob() {
+		return job;
+	}
+
+	public String getStep() {
+		return step;
+	}
+
+	/**
+	 * @return the detail, or null
+	 */
+	public String getDetail() {
+		return detail;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this==o) return true;
+		if (!(o instanceof StepKey)) return false;
+		StepKey other = (StepKey)o;
+		return eq(job, other.job) && eq(step, other.step) && eq(detail, other.detail);
+	}
+
+	private static boolean eq(String a, String b) {
+		return a==null ? b==null : a.equals(b);
+	}
+
+	@Override
+	public int hashCode() {
+		int h = job==null ? 0 : job.hashCode();
+		h = 31*h + (step==null ? 0 : step.hashCode());
+		h = 31*h + (detail==null ? 0 : detail.hashCode());
+		return h;
+	}
+
+	@Override
+	public String toString() {
+		return job + "/" + step + (detail==null ? "" : "/" + detail);
+	}
+
+}
@@ -0,0 +1,136 @@
+package org.docx4j.events.metrics;
+
+/**
+ * Latency histogram, count and byte totals for one StepKey.
+ *
+ * Latencies are kept in log-linear buckets (4 per power of 2), so
+ * percentiles are accurate to within 25%, in constant space.
+ *
+ * This class is thread safe.
+ *
+ * @since 8.2.2
+ */
+public class StepMetrics implements StepMetricsMXBean {
+
+	private static final int SUB_BUCKETS = 4;
+	private static final int BUCKETS = SUB_BUCKETS * 62;
+
+	private final long[] buckets = new long[BUCKETS];
+
+	private long count;
+	private long totalNanos;
+	private long maxNanos;
+	private long totalBytes;
+
+	/**
+	 * @param elapsedNanos
+	 * @param bytes or -1 if not known
+	 */
+	public synchronized void record(long elapsedNanos, long bytes) {
+
+		if (elapsedNanos<0) elapsedNanos = 0;
+
+		buckets[bucket(elapsedNanos)]++;
+		count++;
+		totalNanos += elapsedNanos;
+		if (elapsedNanos>maxNanos) maxNanos = elapsedNanos;
+		if (bytes>0) totalBytes += bytes;
+	}
+
+	public synchronized long getCount() {
+		return count;
+	}
+
+	public synchronized long getTotalNanos() {
+		return totalNanos;
+	}
+
+	public synchronized long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public synchronized long getTotalBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * @param percentile eg 99
+	 * @return the upper bound of the bucket containing the requested percentile
+	 * (capped at the maximum recorded), or 0 if nothing has been recorded
+	 */
+	public synchronized long getPercentileNanos(double percentile) {
+
+		if (count==0) return 0;
+
+		long rank = (long)Math.ceil(percentile / 100 * count);
+		if (rank<1) rank = 1;
+		long seen = 0;
+		for (int i=0; i<BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen>=rank) {
+				return Math.min(upperBound(i), maxNanos);
+			}
+		}
+		return maxNanos;
+	}
+
+	public synchronized void reset() {
+
+		java.util.Arrays.fill(buckets, 0);
+		count = 0;
+		totalNanos = 0;
+		maxNanos = 0;
+		totalBytes = 0;
+	}
+
+	public synchronized double getMeanMillis() {
+		return count==0 ? 0 : millis(totalNanos) / count;
+	}
+
+	public double getP50Millis() {
+		return millis(getPercentileNanos(50));
+	}
+
+	public double getP95Millis() {
+		return millis(getPercentileNanos(95));
+	}
+
+	public double getP99Millis() {
+		return millis(getPercentileNanos(99));
+	}
+
+	public double getMaxMillis() {
+		return millis(getMaxNanos());
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "count=" + count
+				+ ", mean=" + getMeanMillis() + "ms"
+				+ ", p50=" + getP50Millis() + "ms"
+				+ ", p99=" + getP99Millis() + "ms"
+				+ ", max=" + getMaxMillis() + "ms"
+				+ ", bytes=" + totalBytes;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1000000d;
+	}
+
+	static int bucket(long value) {
+
+		if (value<SUB_BUCKETS) return (int)value;
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		return SUB_BUCKETS*(msb-1) + (int)((value >>> (msb-2)) & (SUB_BUCKETS-1));
+	}
+
+	static long upperBound(int bucket) {
+
+		if (bucket<SUB_BUCKETS) return bucket;
+		int msb = bucket/SUB_BUCKETS + 1;
+		long sub = bucket % SUB_BUCKETS;
+		long lower = (SUB_BUCKETS + sub) << (msb-2);
+		return lower + (1L << (msb-2)) - 1;
+	}
+
+}
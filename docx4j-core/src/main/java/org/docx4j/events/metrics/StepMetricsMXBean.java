@@ -0,0 +1,28 @@
+package org.docx4j.events.metrics;
+
+/**
+ * The view of StepMetrics exposed via JMX, by JmxMetricsRegistry.
+ *
+ * @since 8.2.2
+ */
+public interface StepMetricsMXBean {
+
+	long getCount();
+
+	double getMeanMillis();
+
+	double getP50Millis();
+
+	double getP95Millis();
+
+	double getP99Millis();
+
+	double getMaxMillis();
+
+	/**
+	 * @return total bytes read or written, over those events which reported it
+	 */
+	long getTotalBytes();
+
+	void reset();
+}
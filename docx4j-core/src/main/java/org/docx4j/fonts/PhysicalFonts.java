@@ -7,6 +7,10 @@ import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.docx4j.events.EventFinished;
+import org.docx4j.events.StartEvent;
+import org.docx4j.events.WellKnownJobTypes;
+import org.docx4j.events.WellKnownProcessSteps;
 import org.docx4j.fonts.fop.fonts.EmbedFontInfo;
 import org.docx4j.fonts.fop.fonts.FontCache;
 import org.docx4j.fonts.fop.fonts.FontResolver;
@@ -157,49 +161,55 @@ public class PhysicalFonts {
 		// instead, but don't, since in docx4j we're settled on
 		// PDF output via XSL FO)		
 		
-        FontFileFinder fontFileFinder = new FontFileFinder();
+		StartEvent startEvent = new StartEvent( WellKnownJobTypes.ANONYMOUS, null, WellKnownProcessSteps.FONT_DISCOVERY );
+		startEvent.publish();
+		
+		try {
+	        FontFileFinder fontFileFinder = new FontFileFinder();
         
-        // Automagically finds a list of font files on local system
-        // based on os.name
-        List fontFileList = fontFileFinder.find();      
+	        // Automagically finds a list of font files on local system
+	        // based on os.name
+	        List fontFileList = fontFileFinder.find();      
         
         
-        if (regex==null) {
-            for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
+	        if (regex==null) {
+	            for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
             	
-            	URL fontUrl = getURL(iter.next());
+	            	URL fontUrl = getURL(iter.next());
                 
-                // parse font to ascertain font info
-            	addPhysicalFont( fontUrl);
-            }
-        } else {
-        	Pattern pattern = Pattern.compile(regex);
-            for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
+	                // parse font to ascertain font info
+	            	addPhysicalFont( fontUrl);
+	            }
+	        } else {
+	        	Pattern pattern = Pattern.compile(regex);
+	            for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
             	
-            	URL fontUrl = getURL(iter.next());
+	            	URL fontUrl = getURL(iter.next());
                 
             	
-                // parse font to ascertain font info
-            	if (pattern.matcher(fontUrl.toString()).matches()){
-            		addPhysicalFont( fontUrl);        		
-            	} else {
-//                	log.debug("Ignoring " + fontUrl.toString() );
+	                // parse font to ascertain font info
+	            	if (pattern.matcher(fontUrl.toString()).matches()){
+	            		addPhysicalFont( fontUrl);        		
+	            	} else {
+	//                	log.debug("Ignoring " + fontUrl.toString() );
 
-            	}
-            }
-        }
+	            	}
+	            }
+	        }
         
 
-// docx4j 3.2.2: no, these are document specific, so don't belong in PhysicalFonts        
-//        // Add fonts from our Temporary Embedded Fonts dir
-//        fontFileList = fontFileFinder.find( ObfuscatedFontPart.getTemporaryEmbeddedFontsDir() );
-//        for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
-//            URL fontUrl = getURL(iter.next());
-//            addPhysicalFont( fontUrl);
-//        }
-        
-        fontCache.save();
+	// docx4j 3.2.2: no, these are document specific, so don't belong in PhysicalFonts        
+	//        // Add fonts from our Temporary Embedded Fonts dir
+	//        fontFileList = fontFileFinder.find( ObfuscatedFontPart.getTemporaryEmbeddedFontsDir() );
+	//        for (Iterator iter = fontFileList.iterator(); iter.hasNext();) {
+	//            URL fontUrl = getURL(iter.next());
+	//            addPhysicalFont( fontUrl);
+	//        }
         
+	        fontCache.save();
+		} finally {
+			new EventFinished(startEvent).publish();
+		}
 	}
 	
 	private static URL getURL(Object o) throws Exception {
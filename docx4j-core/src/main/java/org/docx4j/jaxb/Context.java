@@ -24,6 +24,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -32,6 +34,7 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 
 import org.apache.commons.io.IOUtils;
+import org.docx4j.Docx4jProperties;
 import org.docx4j.utils.ResourceUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +71,81 @@ public class Context {
 	private static Logger log = LoggerFactory.getLogger(Context.class);
 	
 	
+	/**
+	 * The packages in the main docx4j context, jc.
+	 */
+	private static final String FULL_CONTEXT_PATH = "org.docx4j.wml:org.docx4j.w14:org.docx4j.w15:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2006.wordml:" +
+			"org.docx4j.dml:org.docx4j.dml.chart:org.docx4j.dml.chart.x2007:org.docx4j.dml.chartDrawing:org.docx4j.dml.compatibility:org.docx4j.dml.diagram:org.docx4j.dml.lockedCanvas:org.docx4j.dml.picture:org.docx4j.dml.wordprocessingDrawing:org.docx4j.dml.spreadsheetdrawing:org.docx4j.dml.diagram2008:" +
+			// All VML stuff is here, since compiling it requires WML and DML (and MathML), but not PML or SML
+			"org.docx4j.vml:org.docx4j.vml.officedrawing:org.docx4j.vml.wordprocessingDrawing:org.docx4j.vml.presentationDrawing:org.docx4j.vml.spreadsheetDrawing:org.docx4j.vml.root:" +
+			"org.docx4j.docProps.coverPageProps:" +
+			"org.opendope.xpaths:org.opendope.conditions:org.opendope.questions:org.opendope.answers:org.opendope.components:org.opendope.SmartArt.dataHierarchy:" +
+			"org.docx4j.math:" +
+			"org.docx4j.sharedtypes:org.docx4j.bibliography:" +
+			"org.docx4j.com.microsoft.schemas.ink.x2010.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2010.chartDrawing:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2010.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2012.chart:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2012.chartStyle:" +
+//			"org.docx4j.com.microsoft.schemas.office.drawing.x2008.diagram:" // see instead existing org.docx4j.dml.diagram2008
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2010.diagram:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2012.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2010.picture:" +
+			"org.docx4j.org.w3.x1998.math.mathML:" +
+			"org.docx4j.org.w3.x2003.inkML:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2013.main.command:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chart.ac:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chartex:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chart:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2014.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x201611.diagram:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x201611.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x201612.diagram:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2016.ink:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2016.SVG.main:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x201703.chart:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2017.decorative:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2017.model3d:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2018.animation.model3d:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2018.animation:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2018.hyperlinkcolor:" +
+			"org.docx4j.com.microsoft.schemas.office.powerpoint.x2014.inkAction:" + /* nb that is generated from drawing, but maybe we need to copy this and ink to pptx4j context */
+			"org.docx4j.com.microsoft.schemas.office.thememl.x2012.main:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingDrawing:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingCanvas:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingGroup:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2012.wordprocessingDrawing:" +
+			"org.docx4j.w15symex:org.docx4j.w16cid:" +
+			"org.docx4j.com.microsoft.schemas.office.webextensions.taskpanes_2010_11:" +
+			"org.docx4j.com.microsoft.schemas.office.webextensions.webextension_2010_11";
+
+	/**
+	 * The packages in the reduced context used for jc if 
+	 * docx4j.jaxb.Context.slim=true: WML and what a typical
+	 * WordprocessingML document contains (pictures, VML, math), 
+	 * plus the custom XML parts Load3 recognises (OpenDoPE etc), and the 
+	 * a14 extensions Word 2010+ writes in pictures (eg a14:useLocalDpi). 
+	 * It omits charts, diagrams, ink, and the newer DrawingML extensions.
+	 */
+	private static final String SLIM_CONTEXT_PATH = "org.docx4j.wml:org.docx4j.w14:org.docx4j.w15:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2006.wordml:" +
+			"org.docx4j.dml:org.docx4j.dml.picture:org.docx4j.dml.wordprocessingDrawing:" +
+			// VML as a whole, since its packages refer to each other
+			"org.docx4j.vml:org.docx4j.vml.officedrawing:org.docx4j.vml.wordprocessingDrawing:org.docx4j.vml.presentationDrawing:org.docx4j.vml.spreadsheetDrawing:org.docx4j.vml.root:" +
+			"org.docx4j.docProps.coverPageProps:" +
+			"org.opendope.xpaths:org.opendope.conditions:org.opendope.questions:org.opendope.answers:org.opendope.components:" +
+			"org.docx4j.math:" +
+			"org.docx4j.sharedtypes:org.docx4j.bibliography:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingDrawing:" +
+			"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape:" +
+			"org.docx4j.com.microsoft.schemas.office.drawing.x2010.main:" +
+			"org.docx4j.w15symex:org.docx4j.w16cid";
+
+	private static final boolean slim;
+	private static volatile JAXBContext jcFull;
+	
 	public static JAXBImplementation jaxbImplementation = null;
 		
 	/** 
@@ -81,6 +159,7 @@ public class Context {
 	
 	static {
 		JAXBContext tempContext = null;
+		slim = Docx4jProperties.getProperty("docx4j.jaxb.Context.slim", false);
 
 		// Display diagnostic info about version of JAXB being used.
 		log.info("java.vendor="+System.getProperty("java.vendor"));
@@ -117,52 +196,35 @@ public class Context {
     	  
 			java.lang.ClassLoader classLoader = Context.class.getClassLoader();
 
-			tempContext = JAXBContext.newInstance("org.docx4j.wml:org.docx4j.w14:org.docx4j.w15:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2006.wordml:" +
-					"org.docx4j.dml:org.docx4j.dml.chart:org.docx4j.dml.chart.x2007:org.docx4j.dml.chartDrawing:org.docx4j.dml.compatibility:org.docx4j.dml.diagram:org.docx4j.dml.lockedCanvas:org.docx4j.dml.picture:org.docx4j.dml.wordprocessingDrawing:org.docx4j.dml.spreadsheetdrawing:org.docx4j.dml.diagram2008:" +
-					// All VML stuff is here, since compiling it requires WML and DML (and MathML), but not PML or SML
-					"org.docx4j.vml:org.docx4j.vml.officedrawing:org.docx4j.vml.wordprocessingDrawing:org.docx4j.vml.presentationDrawing:org.docx4j.vml.spreadsheetDrawing:org.docx4j.vml.root:" +
-					"org.docx4j.docProps.coverPageProps:" +
-					"org.opendope.xpaths:org.opendope.conditions:org.opendope.questions:org.opendope.answers:org.opendope.components:org.opendope.SmartArt.dataHierarchy:" +
-					"org.docx4j.math:" +
-					"org.docx4j.sharedtypes:org.docx4j.bibliography:" +
-					"org.docx4j.com.microsoft.schemas.ink.x2010.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2010.chartDrawing:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2010.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2012.chart:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2012.chartStyle:" +
-//					"org.docx4j.com.microsoft.schemas.office.drawing.x2008.diagram:" // see instead existing org.docx4j.dml.diagram2008
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2010.diagram:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2012.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2010.picture:" +
-					"org.docx4j.org.w3.x1998.math.mathML:" +
-					"org.docx4j.org.w3.x2003.inkML:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2013.main.command:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chart.ac:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chartex:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2014.chart:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2014.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x201611.diagram:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x201611.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x201612.diagram:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2016.ink:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2016.SVG.main:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x201703.chart:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2017.decorative:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2017.model3d:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2018.animation.model3d:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2018.animation:" +
-					"org.docx4j.com.microsoft.schemas.office.drawing.x2018.hyperlinkcolor:" +
-					"org.docx4j.com.microsoft.schemas.office.powerpoint.x2014.inkAction:" + /* nb that is generated from drawing, but maybe we need to copy this and ink to pptx4j context */
-					"org.docx4j.com.microsoft.schemas.office.thememl.x2012.main:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingDrawing:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingShape:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingCanvas:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2010.wordprocessingGroup:" +
-					"org.docx4j.com.microsoft.schemas.office.word.x2012.wordprocessingDrawing:" +
-					"org.docx4j.w15symex:org.docx4j.w16cid:" +
-					"org.docx4j.com.microsoft.schemas.office.webextensions.taskpanes_2010_11:" +
-					"org.docx4j.com.microsoft.schemas.office.webextensions.webextension_2010_11", classLoader,
+			// The other contexts are built concurrently with the main one, if
+			// docx4j.jaxb.Context.parallel=true
+			ExecutorService executor = null;
+			if (Docx4jProperties.getProperty("docx4j.jaxb.Context.parallel", false)) {
+				executor = ContextLoader.newExecutor(
+						Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()-1)));
+			}
+			Future<JAXBContext> fDocPropsCore = ContextLoader.submit(executor, "org.docx4j.docProps.core:org.docx4j.docProps.core.dc.elements:org.docx4j.docProps.core.dc.terms", classLoader);
+			Future<JAXBContext> fDocPropsCustom = ContextLoader.submit(executor, "org.docx4j.docProps.custom", classLoader);
+			Future<JAXBContext> fDocPropsExtended = ContextLoader.submit(executor, "org.docx4j.docProps.extended", classLoader);
+			Future<JAXBContext> fXmlPackage = ContextLoader.submit(executor, "org.docx4j.xmlPackage", classLoader);
+			Future<JAXBContext> fRelationships = ContextLoader.submit(executor, "org.docx4j.relationships", classLoader);
+			Future<JAXBContext> fCustomXmlProperties = ContextLoader.submit(executor, "org.docx4j.customXmlProperties", classLoader);
+			Future<JAXBContext> fContentTypes = ContextLoader.submit(executor, "org.docx4j.openpackaging.contenttype", classLoader);
+			Future<JAXBContext> fSectionModel = ContextLoader.submit(executor, "org.docx4j.model.structure.jaxb", classLoader);
+			Future<JAXBContext> fEncryption = ContextLoader.submit(executor, 
+					 "org.docx4j.com.microsoft.schemas.office.x2006.encryption:"
+					+ "org.docx4j.com.microsoft.schemas.office.x2006.keyEncryptor.certificate:"
+					+ "org.docx4j.com.microsoft.schemas.office.x2006.keyEncryptor.password:"
+					, classLoader);
+			Future<JAXBContext> fMCE = ContextLoader.submit(executor, "org.docx4j.mce", classLoader);
+			if (executor!=null) {
+				executor.shutdown(); // once the above are done
+			}
+
+			if (slim) {
+				log.info("Using slim WML context; full context will be created if required");
+			}
+			tempContext = JAXBContext.newInstance(slim ? SLIM_CONTEXT_PATH : FULL_CONTEXT_PATH, classLoader,
 					ProviderProperties.getProviderProperties() );
 			
 			log.debug("JAXB Context: " + tempContext.getClass().getName());
@@ -224,28 +286,24 @@ public class Context {
 			}
 			
 			jcThemePart = tempContext; //JAXBContext.newInstance("org.docx4j.dml",classLoader );
-			jcDocPropsCore = JAXBContext.newInstance("org.docx4j.docProps.core:org.docx4j.docProps.core.dc.elements:org.docx4j.docProps.core.dc.terms",classLoader, ProviderProperties.getProviderProperties() );
-			jcDocPropsCustom = JAXBContext.newInstance("org.docx4j.docProps.custom",classLoader, ProviderProperties.getProviderProperties() );
-			jcDocPropsExtended = JAXBContext.newInstance("org.docx4j.docProps.extended",classLoader, ProviderProperties.getProviderProperties() );
-			jcXmlPackage = JAXBContext.newInstance("org.docx4j.xmlPackage",classLoader, ProviderProperties.getProviderProperties() );
-			jcRelationships = JAXBContext.newInstance("org.docx4j.relationships",classLoader, ProviderProperties.getProviderProperties() );
-			jcCustomXmlProperties = JAXBContext.newInstance("org.docx4j.customXmlProperties",classLoader, ProviderProperties.getProviderProperties() );
-			jcContentTypes = JAXBContext.newInstance("org.docx4j.openpackaging.contenttype",classLoader, ProviderProperties.getProviderProperties() );
+			jcDocPropsCore = ContextLoader.get(fDocPropsCore);
+			jcDocPropsCustom = ContextLoader.get(fDocPropsCustom);
+			jcDocPropsExtended = ContextLoader.get(fDocPropsExtended);
+			jcXmlPackage = ContextLoader.get(fXmlPackage);
+			jcRelationships = ContextLoader.get(fRelationships);
+			jcCustomXmlProperties = ContextLoader.get(fCustomXmlProperties);
+			jcContentTypes = ContextLoader.get(fContentTypes);
 			
-			jcSectionModel = JAXBContext.newInstance("org.docx4j.model.structure.jaxb",classLoader, ProviderProperties.getProviderProperties() );
+			jcSectionModel = ContextLoader.get(fSectionModel);
 			
 			try {
 				//jcXmlDSig = JAXBContext.newInstance("org.plutext.jaxb.xmldsig",classLoader );
-				jcEncryption = JAXBContext.newInstance(
-						 "org.docx4j.com.microsoft.schemas.office.x2006.encryption:"
-						+ "org.docx4j.com.microsoft.schemas.office.x2006.keyEncryptor.certificate:"
-						+ "org.docx4j.com.microsoft.schemas.office.x2006.keyEncryptor.password:"
-						,classLoader, ProviderProperties.getProviderProperties() );
+				jcEncryption = ContextLoader.get(fEncryption);
 			} catch (javax.xml.bind.JAXBException e) {
 				log.error(e.getMessage());
 			}
 
-			jcMCE = JAXBContext.newInstance("org.docx4j.mce",classLoader, ProviderProperties.getProviderProperties() );
+			jcMCE = ContextLoader.get(fMCE);
 			
 			log.debug(".. other contexts loaded ..");
 										
@@ -257,6 +315,50 @@ public class Context {
       jc = tempContext;
 	}
 	
+	/**
+	 * Whether jc is the reduced WML context (docx4j.jaxb.Context.slim=true).
+	 * 
+	 * @since 8.2.2
+	 */
+	public static boolean isSlim() {
+		return slim;
+	}
+	
+	/**
+	 * The context containing all the packages docx4j knows about.  This is jc,
+	 * unless docx4j.jaxb.Context.slim=true, in which case it is created on first use.
+	 * A part using the slim context switches to this one if its XML contains 
+	 * something the slim context doesn't know about, including xsd:any content
+	 * (eg a chart in a:graphicData) the slim context would leave as DOM.  
+	 * 
+	 * With the slim context, if you add content from other packages (eg a chart, 
+	 * a SmartArt diagram, or an OpenDoPE part) to a part, setJAXBContext(Context.getFullContext())
+	 * on that part first.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static JAXBContext getFullContext() {
+		
+		if (!slim) {
+			return jc;
+		}
+		if (jcFull==null) {
+			synchronized (Context.class) {
+				if (jcFull==null) {
+					log.info("Creating full context");
+					try {
+						jcFull = JAXBContext.newInstance(FULL_CONTEXT_PATH, Context.class.getClassLoader(),
+								ProviderProperties.getProviderProperties() );
+					} catch (JAXBException e) {
+						log.error("Cannot initialize full context", e);
+						throw new RuntimeException(e);
+					}
+				}
+			}
+		}
+		return jcFull;
+	}
+	
 	private static org.docx4j.wml.ObjectFactory wmlObjectFactory;
 	
 	public static org.docx4j.wml.ObjectFactory getWmlObjectFactory() {
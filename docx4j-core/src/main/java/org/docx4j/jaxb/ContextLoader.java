@@ -0,0 +1,89 @@
+package org.docx4j.jaxb;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+/**
+ * Creates JAXBContexts, possibly on other threads.
+ *
+ * This is a separate class, since the tasks run while Context's
+ * static initializer is running; if they touched Context (including
+ * a lambda or inner class of Context), they would wait for that
+ * initializer to complete, and so deadlock.
+ *
+ * @since 8.2.2
+ */
+class ContextLoader {
+
+	private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+	/**
+	 * @param nThreads
+	 * @return an executor whose threads won't prevent JVM exit
+	 */
+	static ExecutorService newExecutor(int nThreads) {
+
+		return Executors.newFixedThreadPool(nThreads, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "docx4j-jaxb-context-" + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	/**
+	 * Create a JAXBContext for contextPath using the executor, or on
+	 * this thread (before returning) if executor is null.
+	 */
+	static Future<JAXBContext> submit(ExecutorService executor,
+			final String contextPath, final ClassLoader classLoader) {
+
+		Callable<JAXBContext> task = new Callable<JAXBContext>() {
+
+			@Override
+			public JAXBContext call() throws JAXBException {
+				return JAXBContext.newInstance(contextPath, classLoader,
+						ProviderProperties.getProviderProperties() );
+			}
+		};
+
+		if (executor==null) {
+			FutureTask<JAXBContext> future = new FutureTask<JAXBContext>(task);
+			future.run();
+			return future;
+		} else {
+			return executor.submit(task);
+		}
+	}
+
+	/**
+	 * Wait for the context, re-throwing any JAXBException from its creation.
+	 */
+	static JAXBContext get(Future<JAXBContext> future) throws JAXBException {
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JAXBException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof JAXBException) {
+				throw (JAXBException)e.getCause();
+			}
+			throw new JAXBException(e.getCause());
+		}
+	}
+
+}
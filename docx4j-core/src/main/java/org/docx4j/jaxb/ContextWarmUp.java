@@ -0,0 +1,91 @@
+package org.docx4j.jaxb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Create the JAXB contexts (org.docx4j.jaxb.Context, and optionally
+ * org.pptx4j.jaxb.Context and org.xlsx4j.jaxb.Context) concurrently,
+ * on background threads, so that they are ready (or nearly so)
+ * by the time your application first loads or creates a document.
+ *
+ * Call this as early as possible, eg at application start:
+ *
+ * <pre>
+ *   ContextWarmUp.start();
+ * </pre>
+ *
+ * If a document is touched before warm-up completes, that thread just
+ * waits for the relevant context to finish (the JVM guarantees a class
+ * is only initialised once), so nothing is built twice.
+ *
+ * This doesn't create the full context if docx4j.jaxb.Context.slim=true;
+ * see Context.getFullContext()
+ *
+ * @since 8.2.2
+ */
+public class ContextWarmUp {
+
+	private static Logger log = LoggerFactory.getLogger(ContextWarmUp.class);
+
+	private static final String DOCX4J_CONTEXT = "org.docx4j.jaxb.Context";
+	private static final String PPTX4J_CONTEXT = "org.pptx4j.jaxb.Context";
+	private static final String XLSX4J_CONTEXT = "org.xlsx4j.jaxb.Context";
+
+	private ContextWarmUp() {}
+
+	/**
+	 * Start creating the docx4j, pptx4j and xlsx4j contexts.
+	 *
+	 * @return a future which completes when they have all been created
+	 */
+	public static CompletableFuture<Void> start() {
+		return start(true, true);
+	}
+
+	/**
+	 * Start creating the docx4j context, and optionally the pptx4j and xlsx4j ones.
+	 *
+	 * @param pptx4j whether to create org.pptx4j.jaxb.Context.jcPML
+	 * @param xlsx4j whether to create org.xlsx4j.jaxb.Context.jcSML
+	 * @return a future which completes when they have all been created
+	 */
+	public static CompletableFuture<Void> start(boolean pptx4j, boolean xlsx4j) {
+
+		List<String> classNames = new ArrayList<String>();
+		classNames.add(DOCX4J_CONTEXT);
+		if (pptx4j) classNames.add(PPTX4J_CONTEXT);
+		if (xlsx4j) classNames.add(XLSX4J_CONTEXT);
+
+		final ClassLoader classLoader = ContextWarmUp.class.getClassLoader();
+		final ExecutorService executor = ContextLoader.newExecutor(classNames.size());
+
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[classNames.size()];
+		for (int i=0; i<futures.length; i++) {
+			final String className = classNames.get(i);
+			futures[i] = CompletableFuture.runAsync(new Runnable() {
+
+				@Override
+				public void run() {
+					long start = System.currentTimeMillis();
+					try {
+						// Context classes create their contexts in their static initializers
+						Class.forName(className, true, classLoader);
+					} catch (ClassNotFoundException e) {
+						throw new IllegalStateException(e);
+					}
+					log.debug("{} ready after {}ms", className, System.currentTimeMillis()-start);
+				}
+			}, executor);
+		}
+		executor.shutdown(); // once the above are done
+
+		return CompletableFuture.allOf(futures);
+	}
+
+}
@@ -1,16 +1,42 @@
 package org.docx4j.jaxb;
 
+import java.util.List;
+
 import javax.xml.bind.Unmarshaller;
 
+import org.docx4j.dml.CTOfficeArtExtension;
+import org.docx4j.dml.GraphicData;
 import org.docx4j.mce.AlternateContent;
 import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.vml.root.Xml;
+import org.docx4j.wml.CTPictureBase;
+import org.docx4j.wml.CTShapeDefaults;
 
 public class Docx4jUnmarshallerListener extends Unmarshaller.Listener {
 
 	private JaxbXmlPart part;
 
+	/**
+	 * Whether the part is being unmarshalled with the slim context
+	 */
+	private boolean slim;
+
+	private boolean laxElements = false;
+
 	public Docx4jUnmarshallerListener(JaxbXmlPart part) {
 		this.part = part;
+		this.slim = Context.isSlim() && part.getJAXBContext()==Context.jc;
+	}
+
+	/**
+	 * Whether, using the slim context, xsd:any (lax) content such as a chart in
+	 * a:graphicData was left as a DOM element.  The full context may know it, 
+	 * so the part should be unmarshalled again with that.
+	 * 
+	 * @since 8.2.2
+	 */
+	public boolean hasLaxElements() {
+		return laxElements;
 	}
 
 //	@Override
@@ -21,6 +47,20 @@ public class Docx4jUnmarshallerListener extends Unmarshaller.Listener {
   @Override
   public void afterUnmarshal(Object target, Object parent) {
 	  
+		if (slim && !laxElements) {
+			if (target instanceof GraphicData) {
+				laxElements = containsElement(((GraphicData)target).getAny());
+			} else if (target instanceof CTOfficeArtExtension) {
+				laxElements = ((CTOfficeArtExtension)target).getAny() instanceof org.w3c.dom.Element;
+			} else if (target instanceof CTPictureBase) {
+				laxElements = containsElement(((CTPictureBase)target).getAnyAndAny());
+			} else if (target instanceof CTShapeDefaults) {
+				laxElements = containsElement(((CTShapeDefaults)target).getAny());
+			} else if (target instanceof Xml) {
+				laxElements = containsElement(((Xml)target).getAny());
+			}
+		}
+	  
 		if (target instanceof AlternateContent.Choice) {
 			
 			AlternateContent.Choice choice = (AlternateContent.Choice)target;
@@ -38,4 +78,11 @@ public class Docx4jUnmarshallerListener extends Unmarshaller.Listener {
 		}
 	}
 
+	private static boolean containsElement(List<Object> any) {
+		for (Object o : any) {
+			if (o instanceof org.w3c.dom.Element) return true;
+		}
+		return false;
+	}
+
 }
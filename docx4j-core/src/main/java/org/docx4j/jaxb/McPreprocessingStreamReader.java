@@ -0,0 +1,424 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.jaxb;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import org.docx4j.Docx4jProperties;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Does what mc-preprocessor.xslt does, as the XML is read, so that
+ * it can be applied during the first unmarshal, rather than by 
+ * re-parsing and transforming the part after unmarshalling fails:
+ * 
+ * - mc:AlternateContent is replaced by the content of its mc:Fallback
+ *   (or dropped, if it has none), except where docx4j's content model 
+ *   allows it (eg in w:r)
+ * - the attribute values which Google Docs, pandoc and SSRS get wrong 
+ *   (eg w:w="10206.0", or w:header="") are fixed
+ * 
+ * Elements in an mc:Ignorable namespace docx4j doesn't know are passed
+ * through, as they would be without this reader, so that where the 
+ * content model allows them (xsd:any), they survive a round trip.
+ * 
+ * Used by JaxbXmlPart, JaxbXmlPartXPathAware and XmlUtils when 
+ * unmarshalling a stream, if docx4j property 
+ * docx4j.jaxb.McPreprocessingStreamReader is true (it is false by default).  
+ * If unmarshalling still fails (eg on an element docx4j doesn't know), 
+ * the XSLT is applied as before. 
+ * 
+ * @since 8.2.2
+ */
+public class McPreprocessingStreamReader extends StreamReaderDelegate {
+	
+	private static Logger log = LoggerFactory.getLogger(McPreprocessingStreamReader.class);
+	
+	private static final String MC = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+	private static final String W = Namespaces.NS_WORD12;
+	private static final String WORDML_2010_11 = "http://schemas.microsoft.com/office/word/2010/11/wordml";
+	private static final String PML = "http://schemas.openxmlformats.org/presentationml/2006/main";
+	private static final String SML = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	
+	/**
+	 * Elements whose content model includes mc:AlternateContent 
+	 */
+	private static final Set<String> ALTERNATE_CONTENT_PARENTS = new HashSet<String>();
+	static {
+		ALTERNATE_CONTENT_PARENTS.add(W + " r");
+		ALTERNATE_CONTENT_PARENTS.add(PML + " spTree");
+		ALTERNATE_CONTENT_PARENTS.add(PML + " grpSp");
+		ALTERNATE_CONTENT_PARENTS.add(PML + " controls");
+		ALTERNATE_CONTENT_PARENTS.add(SML + " workbook");
+	}
+	
+	private static final Pattern XPATH_NUMBER = Pattern.compile("\\s*-?(\\d+(\\.\\d*)?|\\.\\d+)\\s*");
+	
+	/**
+	 * @return whether the docx4j property docx4j.jaxb.McPreprocessingStreamReader
+	 * is true (it is false by default)
+	 */
+	public static boolean isEnabled() {
+		return Docx4jProperties.getProperty("docx4j.jaxb.McPreprocessingStreamReader", false);
+	}
+	
+	// What to do with an element (in the underlying document)
+	private static final int SKIP = -1;
+	private static final int EMIT = 0;
+	private static final int ALTERNATE_CONTENT = 1;  // omit the tags; keep the mc:Fallback only
+	private static final int FALLBACK = 2;  // omit the tags; keep the child elements
+	
+	// For each open element 
+	private int depth = 0;
+	private int[] actions = new int[32];
+	private boolean[] allowsAlternateContent = new boolean[32]; // nearest emitted element does
+	
+	// The attributes of the current start element, when they differ 
+	// from those of the underlying reader
+	private int attributeCount = -1;
+	private int[] attributeIndexes = new int[8];
+	private String[] attributeValues = new String[8];
+	
+	private DecimalFormat numberFormat;
+	
+	public McPreprocessingStreamReader(XMLStreamReader reader) {
+		super(reader);
+	}
+
+	@Override
+	public int next() throws XMLStreamException {
+		
+		while (true) {
+			
+			attributeCount = -1;
+			int event = super.next();
+			
+			switch (event) {
+			case START_ELEMENT:
+				int action = startElement();
+				if (action==SKIP) {
+					skipElement();
+					continue;
+				}
+				depth++;
+				if (action==EMIT) {
+					filterAttributes();
+					return event;
+				}
+				continue;
+				
+			case END_ELEMENT:
+				depth--;
+				if (actions[depth]==EMIT) {
+					return event;
+				}
+				continue;
+				
+			case CHARACTERS:
+			case CDATA:
+			case SPACE:
+			case COMMENT:
+			case PROCESSING_INSTRUCTION:
+			case ENTITY_REFERENCE:
+				if (depth>0 
+						&& (actions[depth-1]==ALTERNATE_CONTENT
+							|| actions[depth-1]==FALLBACK)) {
+					// like xsl:copy-of select="mc:Fallback/*"
+					continue;
+				}
+				return event;
+				
+			default:
+				return event;
+			}
+		}
+	}
+	
+	@Override
+	public int nextTag() throws XMLStreamException {
+		
+		// StreamReaderDelegate would bypass our next()
+		int event = next();
+		while ((event==CHARACTERS && isWhiteSpace()) 
+				|| (event==CDATA && isWhiteSpace())
+				|| event==SPACE 
+				|| event==PROCESSING_INSTRUCTION 
+				|| event==COMMENT) {
+			event = next();
+		}
+		if (event!=START_ELEMENT && event!=END_ELEMENT) {
+			throw new XMLStreamException("expected start or end tag", getLocation());
+		}
+		return event;
+	}
+	
+	/**
+	 * Work out what to do with the element the underlying reader is on,
+	 * and record it at index depth.
+	 */
+	private int startElement() {
+		
+		if (depth==actions.length) {
+			int length = depth * 2;
+			actions = Arrays.copyOf(actions, length);
+			allowsAlternateContent = Arrays.copyOf(allowsAlternateContent, length);
+		}
+		
+		String ns = super.getNamespaceURI();
+		String localName = super.getLocalName();
+		
+		int parentAction = (depth==0 ? EMIT : actions[depth-1]);
+		boolean parentAllows = (depth==0 ? false : allowsAlternateContent[depth-1]);
+		
+		int action;
+		if (parentAction==ALTERNATE_CONTENT) {
+			if (MC.equals(ns) && "Fallback".equals(localName)) {
+				log.debug("Selecting mc:Fallback");
+				action = FALLBACK;
+			} else {
+				// mc:Choice
+				return SKIP;
+			}
+		} else if (MC.equals(ns) && "AlternateContent".equals(localName)) {
+			if (parentAllows) {
+				log.debug("mc:AlternateContent where allowed; retaining");
+				action = EMIT;
+			} else {
+				log.debug("Found some mc:AlternateContent");
+				action = ALTERNATE_CONTENT;
+			}
+		} else {
+			action = EMIT;
+		}
+		
+		actions[depth] = action;
+		if (action==EMIT) {
+			allowsAlternateContent[depth] = ALTERNATE_CONTENT_PARENTS.contains(ns + " " + localName);
+		} else {
+			allowsAlternateContent[depth] = parentAllows;
+		}
+		return action;
+	}
+	
+	private void skipElement() throws XMLStreamException {
+		
+		int level = 1;
+		while (level>0) {
+			int event = super.next();
+			if (event==START_ELEMENT) {
+				level++;
+			} else if (event==END_ELEMENT) {
+				level--;
+			}
+		}
+	}
+	
+	/**
+	 * Work out the attributes of the current (emitted) start element.
+	 */
+	private void filterAttributes() {
+		
+		int count = super.getAttributeCount();
+		if (count>attributeIndexes.length) {
+			attributeIndexes = new int[count];
+			attributeValues = new String[count];
+		}
+		
+		boolean changed = false;
+		int kept = 0;
+		for (int i=0; i<count; i++) {
+			
+			String ns = super.getAttributeNamespace(i);
+			String value = super.getAttributeValue(i);
+			
+			if (W.equals(ns)) {
+				String fixed = fixWordAttribute(super.getAttributeLocalName(i), value);
+				if (fixed!=value) {
+					changed = true;
+					if (fixed==null) continue;
+					value = fixed;
+				}
+			} else if (WORDML_2010_11.equals(ns)) {
+				changed = true;
+				continue;
+			}
+			attributeIndexes[kept] = i;
+			attributeValues[kept] = value;
+			kept++;
+		}
+		
+		if (changed) {
+			attributeCount = kept;
+		}
+	}
+	
+	/**
+	 * @return the value to use instead (null to drop the attribute), 
+	 * or value itself, if it is ok
+	 */
+	private String fixWordAttribute(String localName, String value) {
+		
+		switch (localName) {
+		case "w":
+			String elementName = super.getLocalName();
+			if ("dxa".equals(super.getAttributeValue(W, "type"))
+					|| "pgSz".equals(elementName)
+					|| "gridCol".equals(elementName)
+					|| "tblW".equals(elementName)) {
+				return formatNumber(value);
+			}
+			return value;
+		case "h":
+			return isWordElement("pgSz") ? formatNumber(value) : value;
+		case "line":
+		case "after":
+			return isWordElement("spacing") ? formatNumber(value) : value;
+		case "hanging":
+			return isWordElement("ind") ? formatNumber(value) : value;
+		case "space":
+			elementName = super.getLocalName();
+			if ("top".equals(elementName)
+					|| "left".equals(elementName)
+					|| "bottom".equals(elementName)
+					|| "right".equals(elementName)) {
+				return formatNumber(value);
+			}
+			return value;
+		case "rsidRPr":
+		case "rsidDel":
+		case "rsidR":
+		case "rsidSect":
+		case "gutter":
+			return value.length()==0 ? null : value;
+		case "header":
+		case "footer":
+			return value.length()==0 ? "0" : value;
+		default:
+			return value;
+		}
+	}
+	
+	private boolean isWordElement(String localName) {
+		return localName.equals(super.getLocalName()) && W.equals(super.getNamespaceURI());
+	}
+	
+	/**
+	 * As XSLT format-number(value, '#')
+	 */
+	private String formatNumber(String value) {
+		
+		if (isInteger(value)) return value;
+		if (!XPATH_NUMBER.matcher(value).matches()) return "NaN";
+		
+		if (numberFormat==null) {
+			numberFormat = new DecimalFormat("#", DecimalFormatSymbols.getInstance(Locale.ROOT));
+		}
+		return numberFormat.format(Double.parseDouble(value.trim()));
+	}
+	
+	private static boolean isInteger(String value) {
+		
+		int length = value.length();
+		if (length==0) return false;
+		int start = (value.charAt(0)=='-' ? 1 : 0);
+		if (start==length) return false;
+		for (int i=start; i<length; i++) {
+			char c = value.charAt(i);
+			if (c<'0' || c>'9') return false;
+		}
+		return true;
+	}
+	
+	// Attributes, as filtered
+	
+	@Override
+	public int getAttributeCount() {
+		return attributeCount<0 ? super.getAttributeCount() : attributeCount;
+	}
+	
+	private int index(int i) {
+		return attributeCount<0 ? i : attributeIndexes[i];
+	}
+
+	@Override
+	public QName getAttributeName(int index) {
+		return super.getAttributeName(index(index));
+	}
+
+	@Override
+	public String getAttributeNamespace(int index) {
+		return super.getAttributeNamespace(index(index));
+	}
+
+	@Override
+	public String getAttributeLocalName(int index) {
+		return super.getAttributeLocalName(index(index));
+	}
+
+	@Override
+	public String getAttributePrefix(int index) {
+		return super.getAttributePrefix(index(index));
+	}
+
+	@Override
+	public String getAttributeType(int index) {
+		return super.getAttributeType(index(index));
+	}
+
+	@Override
+	public boolean isAttributeSpecified(int index) {
+		return super.isAttributeSpecified(index(index));
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		return attributeCount<0 ? super.getAttributeValue(index) : attributeValues[index];
+	}
+
+	@Override
+	public String getAttributeValue(String namespaceURI, String localName) {
+		
+		if (attributeCount<0) {
+			return super.getAttributeValue(namespaceURI, localName);
+		}
+		for (int i=0; i<attributeCount; i++) {
+			if (localName.equals(super.getAttributeLocalName(attributeIndexes[i]))
+					&& (namespaceURI==null 
+						|| namespaceURI.equals(super.getAttributeNamespace(attributeIndexes[i])))) {
+				return attributeValues[i];
+			}
+		}
+		return null;
+	}
+	
+}
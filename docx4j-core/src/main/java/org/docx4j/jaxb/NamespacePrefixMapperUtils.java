@@ -149,6 +149,26 @@ public class NamespacePrefixMapperUtils {
 		}
 	}
 	
+	/**
+	 * The prefix mappers returned by getPrefixMapper and 
+	 * getPrefixMapperRelationshipsPart are shared, and JaxbXmlPart.marshal 
+	 * sets the part's mc:Ignorable on the one it is given.  So to marshal 
+	 * parts on several threads at once, give each its own.
+	 * 
+	 * @param namespacePrefixMapper one of the shared prefix mappers
+	 * @return a new prefix mapper of the same class
+	 * @throws JAXBException
+	 * @since 8.2.2
+	 */
+	public static Object newInstance(Object namespacePrefixMapper) throws JAXBException {
+		
+		try {
+			return namespacePrefixMapper.getClass().newInstance();
+		} catch (Exception e) {
+			throw new JAXBException("Can't create " + namespacePrefixMapper.getClass().getName(), e);
+		}
+	}
+	
 	/**
 	 * setProperty on 'com.sun.xml.bind.namespacePrefixMapper' or
 	 * 'com.sun.xml.internal.bind.namespacePrefixMapper', as appropriate,
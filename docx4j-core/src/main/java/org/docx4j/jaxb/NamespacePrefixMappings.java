@@ -20,9 +20,9 @@
 
 package org.docx4j.jaxb;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
@@ -846,7 +846,8 @@ public class NamespacePrefixMappings implements NamespaceContext, org.docx4j.org
 		return null;
 	}
 	
-	private static Map<String, String> namespaces = new HashMap<String, String>();	
+	// concurrent, since mappings may be registered while other threads evaluate XPaths
+	private static Map<String, String> namespaces = new ConcurrentHashMap<String, String>();	
 	public static void registerPrefixMappings(String prefixMappings) {
 		// eg  w:prefixMappings="xmlns:ns0='http://schemas.medchart'"
 		// according to the spec, whitespace is the delimiter
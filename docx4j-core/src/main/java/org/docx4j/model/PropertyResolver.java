@@ -122,12 +122,14 @@ public class PropertyResolver {
 	private NumberingDefinitionsPart numberingDefinitionsPart;
 
 
-	private java.util.Map<String, PPr>  resolvedStylePPrComponent = new HashMap<String, PPr>();
+	private java.util.Map<String, PPr>  resolvedStylePPrComponent 
+		= java.util.Collections.synchronizedMap(new HashMap<String, PPr>());
 
 	/**
 	 * This map also contains the rPr component of a pPr
 	 */
-	private java.util.Map<String, RPr>  resolvedStyleRPrComponent = new HashMap<String, RPr>();
+	private java.util.Map<String, RPr>  resolvedStyleRPrComponent 
+		= java.util.Collections.synchronizedMap(new HashMap<String, RPr>());
 	
 	public PropertyResolver(WordprocessingMLPackage wordMLPackage) throws Docx4JException {
 		
@@ -1221,7 +1223,8 @@ public class PropertyResolver {
     private void initialiseLiveStyles() {
     	
     	log.debug("initialiseLiveStyles()");
-		liveStyles = new java.util.HashMap<String, org.docx4j.wml.Style>();
+		// synchronized, since conversion may resolve properties on several threads
+		liveStyles = java.util.Collections.synchronizedMap(new java.util.HashMap<String, org.docx4j.wml.Style>());
 		
 		for ( org.docx4j.wml.Style s : styles.getStyle() ) {				
 			liveStyles.put(s.getStyleId(), s);	
@@ -1231,7 +1234,7 @@ public class PropertyResolver {
     }
 
 	
-    public boolean activateStyle( String styleId  ) {
+    public synchronized boolean activateStyle( String styleId  ) {
     	
     	if (liveStyles.get(styleId)!=null) {
     		// Its already live - nothing to do
@@ -1253,7 +1256,7 @@ public class PropertyResolver {
     	
     }
     
-    public boolean activateStyle(org.docx4j.wml.Style s) {
+    public synchronized boolean activateStyle(org.docx4j.wml.Style s) {
 
     	return activateStyle(s, true);
     	
@@ -1261,6 +1264,12 @@ public class PropertyResolver {
 
     private boolean activateStyle(org.docx4j.wml.Style s, boolean replace) {
     	
+    	if (wordMLPackage.isFrozen()) {
+    		// other threads may be reading the styles part
+    		log.warn("Package is frozen, so not activating style: " + s.getStyleId());
+    		return false;
+    	}
+    	
     	if (liveStyles.get(s.getStyleId())!=null) {
     		// Its already live
     		
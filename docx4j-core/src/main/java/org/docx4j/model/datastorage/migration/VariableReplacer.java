@@ -0,0 +1,283 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.model.datastorage.migration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.XMLEvent;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.TraversalUtil.CallbackImpl;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.wml.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replaces ${key} placeholders in w:t content, without the
+ * marshal / string replace / unmarshal round trip used by
+ * JaxbXmlPart.variableReplace.
+ *
+ * Where the part is already unmarshalled, the placeholders are found in
+ * a single traversal of the content tree, and the Text objects are
+ * updated in place.  Where it hasn't been unmarshalled yet, the
+ * replacement is done in a StAX pass over the part's bytes, and the
+ * result is unmarshalled once.
+ *
+ * A placeholder must be wholly contained in a single Text object,
+ * so you should run VariablePrepare first.
+ *
+ * Unlike the string based approach, a mapped value is treated as text
+ * (so there is no need to escape &amp; or &lt;, but nor can the value
+ * contain WordML markup).
+ *
+ * Where one template is to be filled many times, use compile(Object)
+ * once, then for each set of values invoke Compiled.replace and
+ * save (or deep copy) the result.
+ *
+ * @since 8.2.2
+ */
+public class VariableReplacer {
+
+	private static Logger log = LoggerFactory.getLogger(VariableReplacer.class);
+
+	private static final String PLACEHOLDER_START = "${";
+
+	/**
+	 * Replace the ${key} placeholders in this part.
+	 *
+	 * @param part
+	 * @param mappings
+	 * @throws Docx4JException
+	 */
+	public static void replace(JaxbXmlPart<?> part, Map<String, ?> mappings) throws Docx4JException {
+
+		if (part.isUnmarshalled()) {
+			compile(part.getJaxbElement()).replace(mappings);
+		} else {
+			replaceInPartStore(part, mappings);
+		}
+	}
+
+	/**
+	 * Find the Text objects containing placeholders, in a single traversal.
+	 * The resulting Compiled object can be used to fill this same content
+	 * repeatedly.
+	 *
+	 * @param jaxbElement eg a Document, or Body, or a List of block level content
+	 * @return
+	 */
+	public static Compiled compile(Object jaxbElement) {
+
+		final List<Slot> slots = new ArrayList<Slot>();
+
+		new TraversalUtil(jaxbElement, new CallbackImpl() {
+
+			@Override
+			public List<Object> apply(Object o) {
+
+				if (o instanceof Text) {
+					Text t = (Text)o;
+					if (t.getValue()!=null
+							&& t.getValue().contains(PLACEHOLDER_START)) {
+						slots.add(new Slot(t, t.getValue()));
+					}
+				}
+				return null;
+			}
+		});
+
+		log.debug("Found " + slots.size() + " Text objects containing placeholders");
+		return new Compiled(slots);
+	}
+
+	/**
+	 * The positions of the placeholders in some content, as found by compile(Object).
+	 */
+	public static class Compiled {
+
+		private final List<Slot> slots;
+
+		private Compiled(List<Slot> slots) {
+			this.slots = slots;
+		}
+
+		/**
+		 * @return the number of Text objects which contain a placeholder
+		 */
+		public int size() {
+			return slots.size();
+		}
+
+		/**
+		 * Set the value of each Text object containing placeholders.
+		 * This always starts from the original (template) value, so
+		 * can be invoked any number of times.
+		 *
+		 * @param mappings
+		 */
+		public void replace(Map<String, ?> mappings) {
+
+			for (Slot slot : slots) {
+				String value = slot.fill(mappings);
+				slot.text.setValue(value);
+				if (slot.text.getSpace()==null
+						&& !value.equals(value.trim())) {
+					slot.text.setSpace("preserve");
+				}
+			}
+		}
+	}
+
+	/**
+	 * A Text object (if any), together with its template value split
+	 * into literals and keys: literals[0] keys[0] literals[1] .. literals[n]
+	 */
+	private static class Slot {
+
+		private final Text text;
+		private final String[] literals;
+		private final String[] keys;
+
+		Slot(Text text, String template) {
+
+			this.text = text;
+
+			List<String> literalList = new ArrayList<String>();
+			List<String> keyList = new ArrayList<String>();
+
+			int offset = 0;
+			while (true) {
+				int startKey = template.indexOf(PLACEHOLDER_START, offset);
+				int keyEnd = (startKey == -1) ? -1 : template.indexOf('}', startKey);
+				if (keyEnd == -1) {
+					literalList.add(template.substring(offset));
+					break;
+				}
+				literalList.add(template.substring(offset, startKey));
+				keyList.add(template.substring(startKey + 2, keyEnd));
+				offset = keyEnd + 1;
+			}
+
+			literals = literalList.toArray(new String[literalList.size()]);
+			keys = keyList.toArray(new String[keyList.size()]);
+		}
+
+		String fill(Map<String, ?> mappings) {
+
+			StringBuilder sb = new StringBuilder();
+			for (int i=0; i<keys.length; i++) {
+				sb.append(literals[i]);
+				appendValue(sb, keys[i], mappings);
+			}
+			sb.append(literals[keys.length]);
+			return sb.toString();
+		}
+	}
+
+	/**
+	 * Same behaviour as XmlUtils.unmarshallFromTemplate for a missing key.
+	 */
+	private static void appendValue(StringBuilder sb, String key, Map<String, ?> mappings) {
+
+		Object val = mappings.get(key);
+		if (val == null) {
+			log.warn("Invalid key '" + key + "' or key not mapped to a value");
+			sb.append(key);
+		} else {
+			sb.append(val.toString());
+		}
+	}
+
+	/**
+	 * StAX pass over the stored bytes, replacing placeholders in character content,
+	 * then a single unmarshal of the result.
+	 */
+	private static void replaceInPartStore(JaxbXmlPart part, Map<String, ?> mappings) throws Docx4JException {
+
+		PartStore partStore = part.getPackage().getSourcePartStore();
+		String name = part.getPartName().getName();
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (InputStream is = partStore.loadPart(name.substring(1))) {
+
+			if (is==null) {
+				log.warn(name + " missing from part store");
+				throw new Docx4JException(name + " missing from part store");
+			}
+			log.info("Replacing variables in " + name + " from part store");
+
+			XMLInputFactory xif = XMLInputFactory.newInstance();
+	        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+			xif.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+
+			XMLEventReader reader = xif.createXMLEventReader(is);
+			XMLEventWriter writer = XMLOutputFactory.newInstance().createXMLEventWriter(baos, "UTF-8");
+			XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+			while (reader.hasNext()) {
+				XMLEvent event = reader.nextEvent();
+				if (event.isCharacters()) {
+					Characters characters = event.asCharacters();
+					String data = characters.getData();
+					if (!characters.isWhiteSpace()
+							&& data.contains(PLACEHOLDER_START)) {
+						event = eventFactory.createCharacters(
+								new Slot(null, data).fill(mappings));
+					}
+				}
+				writer.add(event);
+			}
+			reader.close();
+			writer.flush();
+			writer.close();
+
+		} catch (IOException e) {
+			throw new Docx4JException(e.getMessage(), e);
+		} catch (XMLStreamException e) {
+			throw new Docx4JException("Problem replacing variables in " + name, e);
+		}
+
+		try {
+			part.setJaxbElement(
+					part.unmarshal(new ByteArrayInputStream(baos.toByteArray())));
+		} catch (JAXBException e) {
+			throw new Docx4JException("Problem unmarshalling " + name, e);
+		}
+	}
+
+}
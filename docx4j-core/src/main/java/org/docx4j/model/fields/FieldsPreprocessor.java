@@ -1,10 +1,14 @@
 package org.docx4j.model.fields;
 
+import org.docx4j.Docx4jProperties;
+import org.docx4j.TraversalUtil;
+import org.docx4j.TraversalUtil.CallbackImpl;
 import org.docx4j.XmlUtils;
 import org.docx4j.jaxb.Context;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.Docx4JRuntimeException;
 import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.wml.CTSimpleField;
 import org.docx4j.wml.ContentAccessor;
 import org.docx4j.wml.FldChar;
 import org.docx4j.wml.P;
@@ -16,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
 import javax.xml.transform.Source;
@@ -32,7 +37,8 @@ import java.util.NoSuchElementException;
  * (see FieldRef for description).
  * 
  * It does this in 2 steps:
- * - step 1: use XSLT to convert simple fields into complex ones
+ * - step 1: convert simple fields into complex ones (in place, or with
+ *   XSLT if docx4j.Fields.FieldsPreprocessor.XSLT=true)
  * - step 2: put all the instructions into a single run
  * 
  * Currently the canonicalisation is done at the paragraph level,
@@ -73,11 +79,124 @@ public class FieldsPreprocessor {
 
 	/**
 	 * Convert any w:fldSimple in this part to complex field. 
+	 * 
+	 * Since 8.2.2, this is done in place, in a single traversal of the part's content.
+	 * Set property docx4j.Fields.FieldsPreprocessor.XSLT=true to use the 
+	 * FieldsSimpleToComplex.xslt round trip instead.
+	 * 
 	 * @param part
 	 * @throws Docx4JException
 	 */
 	public static void complexifyFields(JaxbXmlPart part) throws Docx4JException {
 		
+		if (Docx4jProperties.getProperty("docx4j.Fields.FieldsPreprocessor.XSLT", false)) {
+			complexifyFieldsViaXSLT(part);
+			return;
+		}
+		
+		Object contents = part.getContents();
+		
+		SimpleToComplex simpleToComplex = new SimpleToComplex();
+		simpleToComplex.apply(contents); // TraversalUtil only applies to descendants 
+		new TraversalUtil(contents, simpleToComplex);
+		
+		if (log.isDebugEnabled()) {
+			log.debug("Converted " + simpleToComplex.count + " fldSimple in " + part.getPartName().getName());
+		}
+	}
+	
+	/*
+	 * Replaces each w:fldSimple in the content lists it visits with the
+	 * equivalent complex field run, as FieldsSimpleToComplex.xslt does:
+	 * 
+      <w:r>
+        <w:rPr/>  (from the first run in the fldSimple, if any)
+        <w:fldChar w:fldCharType="begin"/>
+        <w:instrText xml:space="preserve">DATE </w:instrText>
+        <w:fldChar w:fldCharType="separate"/>
+        <w:t>4/12/2011</w:t>  (each w:t or w:instrText in the fldSimple's runs) 
+        <w:fldChar w:fldCharType="end"/>
+      </w:r>
+	 */
+	private static class SimpleToComplex extends CallbackImpl {
+		
+		int count = 0;
+
+		@Override
+		public List<Object> apply(Object o) {
+			
+			List<Object> content = getChildren(o);
+			if (content==null) return null;
+			
+			for (int i=0; i<content.size(); i++) {
+				Object unwrapped = XmlUtils.unwrap(content.get(i));
+				if (unwrapped instanceof CTSimpleField) {
+					R r = toComplex((CTSimpleField)unwrapped);
+					r.setParent(o);
+					content.set(i, r);
+					count++;
+				}
+			}
+			return null;
+		}
+		
+		private R toComplex(CTSimpleField fldSimple) {
+			
+			org.docx4j.wml.ObjectFactory factory = Context.getWmlObjectFactory();
+			
+			R r = factory.createR();
+			
+			FldChar begin = factory.createFldChar();
+			begin.setFldCharType(STFldCharType.BEGIN);
+			r.getContent().add(factory.createRFldChar(begin));
+			
+			Text instrText = factory.createText();
+			instrText.setValue(fldSimple.getInstr() + " "); // as the XSLT does
+			instrText.setSpace("preserve");
+			r.getContent().add(factory.createRInstrText(instrText));
+			
+			FldChar separate = factory.createFldChar();
+			separate.setFldCharType(STFldCharType.SEPARATE);
+			r.getContent().add(factory.createRFldChar(separate));
+			
+			for (Object o : fldSimple.getContent()) {
+				if (o instanceof R) {
+					R existing = (R)o;
+					if (r.getRPr()==null 
+							&& existing.getRPr()!=null) {
+						// Keep rPr, so we can preserve bold, italic, underline etc
+						r.setRPr(existing.getRPr());
+						existing.getRPr().setParent(r);
+					}
+					for (Object o2 : existing.getContent()) {
+						if (o2 instanceof JAXBElement
+								&& XmlUtils.unwrap(o2) instanceof Text) {
+							String localName = ((JAXBElement)o2).getName().getLocalPart();
+							Text existingText = (Text)XmlUtils.unwrap(o2);
+							if (localName.equals("t")) {
+								r.getContent().add(o2);
+								existingText.setParent(r);
+							} else if (localName.equals("instrText")) {
+								// Word 2010 is happy with either w:instrText or w:t here, but the latter is better
+								Text t = factory.createText();
+								t.setValue(existingText.getValue());
+								r.getContent().add(factory.createRT(t));
+							}
+						}
+					}
+				}
+			}
+			
+			FldChar end = factory.createFldChar();
+			end.setFldCharType(STFldCharType.END);
+			r.getContent().add(factory.createRFldChar(end));
+			
+			return r;
+		}
+	}
+	
+	private static void complexifyFieldsViaXSLT(JaxbXmlPart part) throws Docx4JException {
+		
 		org.w3c.dom.Document doc = XmlUtils.marshaltoW3CDomDocument(
 				part.getJaxbElement() ); 	
 		
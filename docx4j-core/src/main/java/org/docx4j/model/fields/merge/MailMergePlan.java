@@ -0,0 +1,720 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.model.fields.merge;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.Context;
+import org.docx4j.model.fields.ComplexFieldLocator;
+import org.docx4j.model.fields.FieldRef;
+import org.docx4j.model.fields.FieldsPreprocessor;
+import org.docx4j.model.fields.merge.MailMerger.FormTextFieldNames;
+import org.docx4j.model.fields.merge.MailMerger.MergeFieldSpec;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.Load3;
+import org.docx4j.openpackaging.io3.Save;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.io3.stores.SnapshotPartStore;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore.ByteArray;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.FooterPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.HeaderPart;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart.AddPartBehaviour;
+import org.docx4j.relationships.Relationship;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.BooleanDefaultTrue;
+import org.docx4j.wml.CTRel;
+import org.docx4j.wml.ContentAccessor;
+import org.docx4j.wml.FldChar;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.docx4j.wml.SectPr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A mail merge template which has been compiled once, so that it can
+ * be merged with many records cheaply.
+ *
+ * MailMerger.performOnInstance finds and canonicalises the fields afresh
+ * for each record.  Here that is done once, when the plan is compiled;
+ * the position of each MERGEFIELD in the canonicalised content is
+ * recorded, together with its parsed instruction.  Rendering a record is
+ * then just a deep copy of the canonicalised content, a lookup of each
+ * field by position, and the population of the field.
+ *
+ * Records are independent, so they can be rendered in parallel
+ * on an ExecutorService you supply.  The results can be streamed
+ * to a docx per record (see renderEach), or into a single
+ * docx (see getConsolidatedResult).  At most maxInFlight records
+ * are submitted to the executor at a time, so memory use doesn't
+ * grow with the number of records.
+ *
+ * The docx for each record is created from a snapshot of the template's
+ * parts (taken when the plan is compiled), without unzipping anything;
+ * the parts being merged into are given their merged content directly,
+ * so the template's copies of them are never unmarshalled.
+ *
+ * MailMerger.setMERGEFIELDInOutput applies, as it does to MailMerger.
+ *
+ * WARNING: As with MailMerger, compiling converts simple fields in
+ * the input docx to complex fields, so input a copy if that is a problem.
+ *
+ * @since 8.2.2
+ */
+public class MailMergePlan {
+
+	private static Logger log = LoggerFactory.getLogger(MailMergePlan.class);
+
+	private final WordprocessingMLPackage input;
+
+	/**
+	 * The parts of the input docx, after fields were complexified
+	 */
+	private final HashMap<String, ByteArray> templateParts;
+
+	private final ContentPlan mainDocumentPlan;
+
+	private int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+	private final boolean processHeadersAndFooters;
+
+	/**
+	 * For getConsolidatedResult: the headers/footers in the first section
+	 */
+	private final Map<CTRel, ContentPlan> firstSectionHeaderFooterPlans = new HashMap<CTRel, ContentPlan>();
+	private BooleanDefaultTrue titlePage = null;
+
+	/**
+	 * For renderEach: all headers/footers, by part name
+	 */
+	private final Map<PartName, ContentPlan> headerFooterPlans = new HashMap<PartName, ContentPlan>();
+
+	private MailMergePlan(WordprocessingMLPackage input,
+			boolean processHeadersAndFooters) throws Docx4JException {
+
+		this.input = input;
+		this.processHeadersAndFooters = processHeadersAndFooters;
+
+		FieldsPreprocessor.complexifyFields(input.getMainDocumentPart() );
+		mainDocumentPlan = new ContentPlan(input.getMainDocumentPart());
+
+		if (processHeadersAndFooters) {
+
+			RelationshipsPart rp = input.getMainDocumentPart().getRelationshipsPart();
+			for ( Relationship r : rp.getJaxbElement().getRelationship()  ) {
+
+				if (r.getType().equals(Namespaces.HEADER)
+						|| r.getType().equals(Namespaces.FOOTER)) {
+
+					JaxbXmlPart part = (JaxbXmlPart)rp.getPart(r);
+					FieldsPreprocessor.complexifyFields(part );
+					headerFooterPlans.put(part.getPartName(), new ContentPlan(part));
+				}
+			}
+
+			SectPr sectPr = input.getDocumentModel().getSections().get(0).getSectPr();
+			titlePage = sectPr.getTitlePg();
+			for (CTRel rel : sectPr.getEGHdrFtrReferences()) {
+
+				Part part = rp.getPart(rel.getId());
+				firstSectionHeaderFooterPlans.put(rel, headerFooterPlans.get(part.getPartName()));
+			}
+		}
+
+		// As in OpcPackage.clone
+		SnapshotPartStore snapshot = new SnapshotPartStore();
+		PartStore targetPartStore = input.getTargetPartStore();
+		try {
+			new Save(input, snapshot).save(null);
+		} finally {
+			input.setTargetPartStore(targetPartStore);
+		}
+		templateParts = snapshot.getPartByteArrays();
+	}
+
+	/**
+	 * Compile the template.
+	 *
+	 * @param input the template docx, which will be modified (fields are complexified)
+	 * @param processHeadersAndFooters whether to merge into headers/footers as well
+	 * @return
+	 * @throws Docx4JException
+	 */
+	public static MailMergePlan compile(WordprocessingMLPackage input,
+			boolean processHeadersAndFooters) throws Docx4JException {
+
+		long start = System.currentTimeMillis();
+		MailMergePlan plan = new MailMergePlan(input, processHeadersAndFooters);
+		log.info("Compiled mail merge template in " + (System.currentTimeMillis()-start) + "ms; "
+				+ plan.mainDocumentPlan.getMergeFieldCount() + " MERGEFIELDs in main document part");
+		return plan;
+	}
+
+	/**
+	 * @return the number of MERGEFIELDs in the main document part
+	 */
+	public int getMergeFieldCount() {
+		return mainDocumentPlan.getMergeFieldCount();
+	}
+
+	/**
+	 * @return the maximum number of records submitted to the executor
+	 * but not yet handled
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @param maxInFlight the maximum number of records submitted to the executor
+	 * but not yet handled (default: twice the number of processors)
+	 */
+	public void setMaxInFlight(int maxInFlight) {
+		if (maxInFlight<1) {
+			throw new IllegalArgumentException("maxInFlight must be at least 1");
+		}
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Merge a single record into the main document part content.  The template is not altered,
+	 * so this method can be invoked concurrently.
+	 *
+	 * @param data
+	 * @return the content for the main document part
+	 * @throws Docx4JException
+	 */
+	public List<Object> render(Map<DataFieldName, String> data) throws Docx4JException {
+		return mainDocumentPlan.render(input, data, new FormTextFieldNames());
+	}
+
+	/**
+	 * Receives the result for a record, as soon as it has been rendered.
+	 */
+	public interface RecordCallback {
+
+		/**
+		 * Invoked on an executor thread, possibly concurrently with other records,
+		 * so implementations must be thread safe.
+		 *
+		 * @param index the position of the record in the data list
+		 * @param result a docx containing the merge result for this record only
+		 * @throws Docx4JException
+		 */
+		void handle(int index, WordprocessingMLPackage result) throws Docx4JException;
+	}
+
+	/**
+	 * Render a docx for each record, in parallel on executor,
+	 * passing each to the callback (for example, to save it) as soon as it is ready,
+	 * so the results don't have to be held in memory together.
+	 *
+	 * Headers/footers (if processHeadersAndFooters) are merged
+	 * in all sections, as in MailMerger.performMerge.
+	 *
+	 * @param data
+	 * @param executor
+	 * @param callback
+	 * @throws Docx4JException the first failure, once all records have been attempted
+	 */
+	public void renderEach(List<Map<DataFieldName, String>> data,
+			ExecutorService executor, final RecordCallback callback) throws Docx4JException {
+
+		ArrayDeque<Future<Object>> pending = new ArrayDeque<Future<Object>>();
+		Docx4JException failure = null;
+		for (int i=0; i<data.size(); i++) {
+
+			if (pending.size()>=maxInFlight) {
+				failure = awaitRecord(pending.remove(), failure);
+			}
+
+			final int index = i;
+			final Map<DataFieldName, String> datamap = data.get(i);
+			pending.add(executor.submit(new Callable<Object>() {
+
+				@Override
+				public Object call() throws Exception {
+					callback.handle(index, renderPackage(datamap));
+					return null;
+				}
+			}));
+		}
+		while (!pending.isEmpty()) {
+			failure = awaitRecord(pending.remove(), failure);
+		}
+		if (failure!=null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * @return the first failure
+	 */
+	private static Docx4JException awaitRecord(Future<Object> future, Docx4JException failure) {
+
+		try {
+			getResult(future);
+		} catch (Docx4JException e) {
+			if (failure==null) {
+				return e;
+			}
+			log.error(e.getMessage(), e);
+		}
+		return failure;
+	}
+
+	/**
+	 * @return a new docx from the template's parts, sharing their bytes
+	 */
+	private WordprocessingMLPackage newTarget() throws Docx4JException {
+
+		// New ByteArrays, since setBytes would otherwise affect the template
+		HashMap<String, ByteArray> parts = new HashMap<String, ByteArray>(templateParts.size()*2);
+		for (Map.Entry<String, ByteArray> entry : templateParts.entrySet()) {
+			parts.put(entry.getKey(), new ByteArray(entry.getValue().getBytes()));
+		}
+		WordprocessingMLPackage target = (WordprocessingMLPackage)new Load3(new ZipPartStore(parts)).get();
+		target.setNew(false);
+		return target;
+	}
+
+	private WordprocessingMLPackage renderPackage(Map<DataFieldName, String> datamap) throws Docx4JException {
+
+		FormTextFieldNames formTextFieldNames = new FormTextFieldNames();
+
+		WordprocessingMLPackage target = newTarget();
+
+		mainDocumentPlan.renderInto(target.getMainDocumentPart(), input, datamap, formTextFieldNames);
+
+		if (processHeadersAndFooters) {
+
+			RelationshipsPart rp = target.getMainDocumentPart().getRelationshipsPart();
+			for ( Relationship r : rp.getJaxbElement().getRelationship()  ) {
+
+				if (r.getType().equals(Namespaces.HEADER)
+						|| r.getType().equals(Namespaces.FOOTER)) {
+
+					JaxbXmlPart part = (JaxbXmlPart)rp.getPart(r);
+					headerFooterPlans.get(part.getPartName()).renderInto(part, input, datamap, formTextFieldNames);
+				}
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * As MailMerger.getConsolidatedResultCrude, but records are rendered in parallel
+	 * on executor.  Each record's content is added to the consolidated body (in
+	 * record order) as soon as it is available.
+	 *
+	 * @param data
+	 * @param executor
+	 * @return
+	 * @throws Docx4JException
+	 */
+	public WordprocessingMLPackage getConsolidatedResult(List<Map<DataFieldName, String>> data,
+			ExecutorService executor) throws Docx4JException {
+
+		// Required where converting MERGEFIELD to FORMTEXT; shared, since the names should be unique in the docx
+		final FormTextFieldNames formTextFieldNames = new FormTextFieldNames();
+
+		// unlike renderPackage, this unmarshals the template's main document part, but only once
+		WordprocessingMLPackage target = newTarget();
+
+		// populate main document part
+		SectPr documentSeparator = MailMerger.getDocumentSeparator(target);
+		if (processHeadersAndFooters) {
+			if (titlePage!=null
+					&& titlePage.isVal()) {
+				documentSeparator.setTitlePg(titlePage);
+			}
+			documentSeparator.getEGHdrFtrReferences().clear();
+		}
+		List<Object> body = target.getMainDocumentPart().getContent();
+		body.clear();
+
+		// Records are added in order, as soon as available; at most maxInFlight are pending
+		ArrayDeque<Future<RecordResult>> pending = new ArrayDeque<Future<RecordResult>>();
+		Iterator<Map<DataFieldName, String>> records = data.iterator();
+		try {
+			while (records.hasNext() || !pending.isEmpty()) {
+
+				while (records.hasNext()
+						&& pending.size()<maxInFlight) {
+					pending.add(executor.submit(renderRecord(records.next(), formTextFieldNames)));
+				}
+				addRecord(target, documentSeparator, body, getResult(pending.remove()));
+			}
+		} finally {
+			// if a record failed, don't leave the rest running
+			for (Future<RecordResult> future : pending) {
+				future.cancel(true);
+			}
+		}
+
+		return target;
+	}
+
+	private Callable<RecordResult> renderRecord(final Map<DataFieldName, String> datamap,
+			final FormTextFieldNames formTextFieldNames) {
+
+		return new Callable<RecordResult>() {
+
+			@Override
+			public RecordResult call() throws Exception {
+
+				RecordResult result = new RecordResult();
+				result.content = mainDocumentPlan.render(input, datamap, formTextFieldNames);
+				if (processHeadersAndFooters) {
+					for( CTRel ctRel : firstSectionHeaderFooterPlans.keySet()) {
+						result.headersFooters.put(ctRel,
+								firstSectionHeaderFooterPlans.get(ctRel).render(input, datamap, formTextFieldNames));
+					}
+				}
+				return result;
+			}
+		};
+	}
+
+	private void addRecord(WordprocessingMLPackage target, SectPr documentSeparator,
+			List<Object> body, RecordResult result) throws Docx4JException {
+
+		// now inject the content
+		body.addAll(result.content);
+
+		// add sectPr to final paragraph
+		P lastP = null;
+		Object last = result.content.isEmpty() ? null : result.content.get( result.content.size()-1);
+		if (last instanceof P) {
+			lastP = (P)last;
+		} else {
+			lastP = Context.getWmlObjectFactory().createP();
+			body.add(lastP);
+		}
+		if (lastP.getPPr()==null) {
+			lastP.setPPr(Context.getWmlObjectFactory().createPPr());
+		}
+		SectPr thisSection = XmlUtils.deepCopy(documentSeparator);
+		lastP.getPPr().setSectPr(thisSection);
+
+		if (processHeadersAndFooters) {
+			for( CTRel ctRel : result.headersFooters.keySet()) {
+
+				// Create a suitable part
+				JaxbXmlPart clonedPart = null;
+				if (ctRel instanceof org.docx4j.wml.HeaderReference) {
+					clonedPart = new HeaderPart();
+					clonedPart.setJaxbElement(Context.getWmlObjectFactory().createHdr());
+				} else {
+					clonedPart = new FooterPart();
+					clonedPart.setJaxbElement(Context.getWmlObjectFactory().createFtr());
+				}
+				((ContentAccessor)clonedPart).getContent().addAll(result.headersFooters.get(ctRel));
+
+				// Add it
+				Relationship rel = target.getMainDocumentPart().addTargetPart(clonedPart, AddPartBehaviour.RENAME_IF_NAME_EXISTS);
+
+				// Now add CTRel!
+				CTRel newHfRef = XmlUtils.deepCopy(ctRel);
+				newHfRef.setId(rel.getId());
+
+				thisSection.getEGHdrFtrReferences().add(newHfRef);
+			}
+		}
+	}
+
+	private static class RecordResult {
+
+		List<Object> content;
+		Map<CTRel, List<Object>> headersFooters = new HashMap<CTRel, List<Object>>();
+	}
+
+	private static <T> T getResult(Future<T> future) throws Docx4JException {
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new Docx4JException("Interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Docx4JException) {
+				throw (Docx4JException)e.getCause();
+			}
+			throw new Docx4JException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * The compiled form of some content (eg the main document part, or a header).
+	 */
+	private static class ContentPlan {
+
+		/**
+		 * The content as given, for use if compiled positions can't be used
+		 */
+		private final List<Object> contentList;
+
+		/**
+		 * A copy of the part's root element, without its content
+		 */
+		private final Object shell;
+
+		/**
+		 * The canonicalised content, which is deep copied for each record
+		 */
+		private final Body canonical;
+
+		/**
+		 * null if the positions couldn't be verified
+		 */
+		private List<CompiledField> fields = new ArrayList<CompiledField>();
+
+		ContentPlan(JaxbXmlPart part) throws Docx4JException {
+
+			this.contentList = ((ContentAccessor)part).getContent();
+
+			shell = XmlUtils.deepCopy(part.getJaxbElement());
+			((ContentAccessor)shell).getContent().clear();
+
+			// as in MailMerger.performOnInstance
+			Body shell = Context.getWmlObjectFactory().createBody();
+			shell.getContent().addAll(contentList);
+			canonical = (Body)XmlUtils.deepCopy(shell);
+
+			ComplexFieldLocator fl = new ComplexFieldLocator();
+			new TraversalUtil(canonical, fl);
+			log.info("Found " + fl.getStarts().size() + " fields ");
+
+			List<FieldRef> fieldRefs = new ArrayList<FieldRef>();
+			MailMerger.canonicaliseStarts(fl, fieldRefs);
+
+			// Record where each MERGEFIELD is
+			Map<Object, int[]> paths = new IdentityHashMap<Object, int[]>();
+			index(canonical, new int[0], paths);
+			for (FieldRef fr : fieldRefs) {
+
+				if ( fr.getFldName().equals("MERGEFIELD") ) {
+
+					CompiledField cf = new CompiledField(fr, paths);
+					if (cf.parent==null
+							|| cf.beginRun==null
+							|| cf.fldCharBegin==null) {
+						log.warn("Couldn't compile field position; fields will be located for each record");
+						fields = null;
+						return;
+					}
+					fields.add(cf);
+				}
+			}
+
+			// A deep copy is a marshal/unmarshal round trip; check the positions survive that
+			if (resolve(XmlUtils.deepCopy(canonical))==null) {
+				log.warn("Compiled field positions don't survive deep copy; fields will be located for each record");
+				fields = null;
+			}
+		}
+
+		int getMergeFieldCount() {
+			return fields==null ? -1 : fields.size();
+		}
+
+		/**
+		 * Give the target's copy of the part the content rendered for this record.
+		 */
+		@SuppressWarnings("unchecked")
+		void renderInto(JaxbXmlPart target, WordprocessingMLPackage input,
+				Map<DataFieldName, String> datamap,
+				FormTextFieldNames formTextFieldNames) throws Docx4JException {
+
+			Object root = XmlUtils.deepCopy(shell);
+			((ContentAccessor)root).getContent().addAll(render(input, datamap, formTextFieldNames));
+			target.setJaxbElement(root);
+		}
+
+		List<Object> render(WordprocessingMLPackage input,
+				Map<DataFieldName, String> datamap,
+				FormTextFieldNames formTextFieldNames) throws Docx4JException {
+
+			if (fields==null) {
+				return MailMerger.performOnInstance(input, contentList, datamap, formTextFieldNames);
+			}
+
+			Body shellClone = (Body)XmlUtils.deepCopy(canonical);
+			List<FieldRef> fieldRefs = resolve(shellClone);
+			if (fieldRefs==null) {
+				log.debug("Couldn't resolve compiled field positions; locating fields");
+				return MailMerger.performOnInstance(input, contentList, datamap, formTextFieldNames);
+			}
+
+			for (int i=0; i<fieldRefs.size(); i++) {
+				MailMerger.mergeField(input, shellClone, fieldRefs.get(i), fields.get(i).spec,
+						datamap, formTextFieldNames);
+			}
+			return shellClone.getContent();
+		}
+
+		/**
+		 * Set up FieldRefs pointing to the objects in a copy of the canonical content.
+		 *
+		 * @return null, if the copy doesn't have the expected structure
+		 */
+		private List<FieldRef> resolve(Body shellClone) {
+
+			List<FieldRef> fieldRefs = new ArrayList<FieldRef>();
+			for (CompiledField cf : fields) {
+
+				Object parent = at(shellClone, cf.parent);
+				Object beginRun = at(shellClone, cf.beginRun);
+				Object fldChar = XmlUtils.unwrap(at(shellClone, cf.fldCharBegin));
+				Object resultsSlot = at(shellClone, cf.resultsSlot);
+				Object endRun = at(shellClone, cf.endRun);
+				if (!(parent instanceof ContentAccessor)
+						|| !(beginRun instanceof R)
+						|| !(fldChar instanceof FldChar)
+						|| (cf.resultsSlot!=null && !(resultsSlot instanceof R))
+						|| (cf.endRun!=null && !(endRun instanceof R))) {
+					return null;
+				}
+
+				FieldRef fr = new FieldRef((FldChar)fldChar);
+				fr.setParent((ContentAccessor)parent);
+				fr.setBeginRun((R)beginRun);
+				fr.setSeenSeparate(cf.seenSeparate);
+				fr.setResultsSlot((R)resultsSlot);
+				fr.setEndRun((R)endRun);
+				for (int[] path : cf.instructions) {
+					Object instruction = at(shellClone, path);
+					if (instruction==null) {
+						return null;
+					}
+					fr.getInstructions().add(instruction);
+				}
+				fieldRefs.add(fr);
+			}
+			return fieldRefs;
+		}
+	}
+
+	/**
+	 * A MERGEFIELD: the positions of its objects in the canonical content,
+	 * and its parsed instruction.
+	 */
+	private static class CompiledField {
+
+		final int[] parent;
+		final int[] beginRun;
+		final int[] fldCharBegin;
+		final int[] resultsSlot;
+		final int[] endRun;
+		final List<int[]> instructions = new ArrayList<int[]>();
+		final boolean seenSeparate;
+
+		final MergeFieldSpec spec;
+
+		CompiledField(FieldRef fr, Map<Object, int[]> paths) {
+
+			parent = paths.get(fr.getParent());
+			beginRun = paths.get(fr.getBeginRun());
+			resultsSlot = fr.getResultsSlot()==null ? null : paths.get(fr.getResultsSlot());
+			endRun = fr.getEndRun()==null ? null : paths.get(fr.getEndRun());
+			seenSeparate = fr.haveSeenSeparate();
+
+			int[] fldCharPath = null;
+			if (fr.getBeginRun()!=null) {
+				for (Object o : fr.getBeginRun().getContent()) {
+					Object unwrapped = XmlUtils.unwrap(o);
+					if (unwrapped instanceof FldChar
+							&& ((FldChar)unwrapped).getFldCharType()==org.docx4j.wml.STFldCharType.BEGIN) {
+						fldCharPath = paths.get(unwrapped);
+						break;
+					}
+				}
+			}
+			fldCharBegin = fldCharPath;
+
+			for (Object o : fr.getInstructions()) {
+				instructions.add(paths.get(o));
+			}
+
+			spec = new MergeFieldSpec(fr);
+		}
+	}
+
+	/**
+	 * Record the position of each object in the tree, as a list of child indexes
+	 * (children as per TraversalUtil.getChildrenImpl)
+	 */
+	private static void index(Object o, int[] path, Map<Object, int[]> paths) {
+
+		List<Object> children = TraversalUtil.getChildrenImpl(o);
+		if (children==null) return;
+
+		for (int i=0; i<children.size(); i++) {
+
+			Object child = children.get(i);
+			if (child==null) continue;
+
+			int[] childPath = Arrays.copyOf(path, path.length+1);
+			childPath[path.length] = i;
+			paths.put(child, childPath);
+			Object unwrapped = XmlUtils.unwrap(child);
+			if (unwrapped!=child) {
+				paths.put(unwrapped, childPath);
+			}
+			index(child, childPath, paths);
+		}
+	}
+
+	private static Object at(Object root, int[] path) {
+
+		if (path==null) return null;
+
+		Object o = root;
+		for (int i : path) {
+			List<Object> children = TraversalUtil.getChildrenImpl(o);
+			if (children==null || i>=children.size()) {
+				return null;
+			}
+			o = children.get(i);
+		}
+		return o;
+	}
+
+}
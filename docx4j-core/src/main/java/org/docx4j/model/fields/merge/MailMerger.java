@@ -282,7 +282,7 @@ public class MailMerger {
 	 * @param template
 	 * @return
 	 */
-	private static SectPr getDocumentSeparator(WordprocessingMLPackage template) {
+	protected static SectPr getDocumentSeparator(WordprocessingMLPackage template) {
 	    	
 		   SectPr sectPr = template.getMainDocumentPart().getJaxbElement().getBody().getSectPr();
 		   
@@ -472,7 +472,7 @@ public class MailMerger {
 	
 	
 	
-	private static List<Object> performOnInstance(WordprocessingMLPackage input, 
+	protected static List<Object> performOnInstance(WordprocessingMLPackage input, 
 			List<Object> contentList, 
 			Map<DataFieldName, String> datamap,
 			FormTextFieldNames formTextFieldNames) throws Docx4JException {
@@ -500,52 +500,68 @@ public class MailMerger {
 			
 			if ( fr.getFldName().equals("MERGEFIELD") ) {
 				
-				String instr = extractInstr(fr.getInstructions() );
-				String lang = extractLang(fr.getResultsSlot());
-				String datafieldName = getDatafieldNameFromInstr(instr);
-				String val = datamap.get( new DataFieldName(datafieldName));
-				String gFormat = null; // required only for FORMTEXT conversion
+				mergeField(input, shellClone, fr, new MergeFieldSpec(fr), datamap, formTextFieldNames);
+			}
+		}
+		
+		return shellClone.getContent();
+
+	}
+
+	/**
+	 * Populate a single MERGEFIELD, whose FieldRef was set up by
+	 * canonicalising the content of shellClone.
+	 * 
+	 * @since 8.2.2
+	 */
+	protected static void mergeField(WordprocessingMLPackage input, 
+			ContentAccessor shellClone, FieldRef fr, MergeFieldSpec spec,
+			Map<DataFieldName, String> datamap,
+			FormTextFieldNames formTextFieldNames) throws Docx4JException {
+		
+		String datafieldName = spec.datafieldName;
+		String val = datamap.get( new DataFieldName(datafieldName));
+		String gFormat = null; // required only for FORMTEXT conversion
+		
+		if (StringUtils.isBlank(val)) {
+			log.warn("Couldn't find value for key: '" + datafieldName + "'");
+            if (fieldFate.equals(OutputField.REMOVED)) {
+                // Remove the mergefield from the document
+                removeSimpleField(fr);
+
+                // Concatenate all content still present in the parent
+                String text = getTextInsideContent(fr.getParent());
+
+                // If the parent still contains data, don't delete it
+                if (StringUtils.isBlank(text)) {
+                    recursiveRemove(shellClone, fr.getParent());
+                }
+            }				
+		} else {
+			
+			// Now format the result
+			try {
+				FldSimpleModel fsm = spec.getModel();
+				val = FormattingSwitchHelper.applyFormattingSwitch(input, fsm, val, spec.lang);
 				
-				if (StringUtils.isBlank(val)) {
-					log.warn("Couldn't find value for key: '" + datafieldName + "'");
-                    if (fieldFate.equals(OutputField.REMOVED)) {
-                        // Remove the mergefield from the document
-                        removeSimpleField(fr);
-
-                        // Concatenate all content still present in the parent
-                        String text = getTextInsideContent(fr.getParent());
-
-                        // If the parent still contains data, don't delete it
-                        if (StringUtils.isBlank(text)) {
-                            recursiveRemove(shellClone, fr.getParent());
-                        }
-                    }				
-				} else {
-					
-					// Now format the result
-					FldSimpleModel fsm = new FldSimpleModel();
-					try {
-						fsm.build(instr);
-						val = FormattingSwitchHelper.applyFormattingSwitch(input, fsm, val, lang);
-						
-						gFormat = FormattingSwitchHelper.findFirstSwitchValue("\\*", fsm.getFldParameters(), true);
-						// Solely for potential use in OutputField.AS_FORMTEXT_REGULAR
-						// We are in fact applying all formatting switches above.
-						
-					} catch (TransformerException e) {
-						log.warn("Can't format the field", e);
-					}
-					
-					fr.setResult(val);
-				}
+				gFormat = FormattingSwitchHelper.findFirstSwitchValue("\\*", fsm.getFldParameters(), true);
+				// Solely for potential use in OutputField.AS_FORMTEXT_REGULAR
+				// We are in fact applying all formatting switches above.
 				
-				if (fieldFate.equals(OutputField.AS_FORMTEXT_REGULAR)) {
-					
-					log.debug(gFormat);
-					// TODO if we're going to use gFormat, setup FSM irrespective of whether we can find key 
-					
-					
-					// TODO: other format instructions
+			} catch (TransformerException e) {
+				log.warn("Can't format the field", e);
+			}
+			
+			fr.setResult(val);
+		}
+		
+		if (fieldFate.equals(OutputField.AS_FORMTEXT_REGULAR)) {
+			
+			log.debug(gFormat);
+			// TODO if we're going to use gFormat, setup FSM irrespective of whether we can find key 
+			
+			
+			// TODO: other format instructions
 //					if (gFormat!=null) {
 //						if (gFormat.equals("Upper")) {
 //							gFormat = "UPPERCASE";
@@ -553,54 +569,94 @@ public class MailMerger {
 //							gFormat = "LOWERCASE";
 //						} 
 //					}
-					
-					// replace instrText
-					// eg MERGEFIELD  CLIENT.ORGANIZATIONSTATE \* Upper  \* MERGEFORMAT
-					// to FORMTEXT
-					// Do this first, so we can abort without affecting output
-					List<Object> instructions = fr.getInstructions();
-					if (instructions.size()!=1) {
-						log.error("TODO MERGEFIELD field contained complex instruction");
-						continue;
-					}
-					Object o = XmlUtils.unwrap(instructions.get(0));
-					if (o instanceof Text) {
-						((Text)o).setValue("FORMTEXT");
-					} else {
-                        if(log.isErrorEnabled()) {
-                            log.error("TODO: set FORMTEXT in" + o.getClass().getName());
-                            log.error(XmlUtils.marshaltoString(instructions.get(0), true, true));
-                        }
-						continue;
-					}
-					
-					String fieldName = formTextFieldNames.generateName(datafieldName);
-					log.debug("Field name normalisation: " + datafieldName + " -> " + fieldName);
-					setFormFieldProperties(fr, fieldName, null);
-					
-					// remove <w:highlight w:val="lightGray"/>, if present
-					// (corresponds in Word to clicking Legacy Forms > Form Field Shading)
-					// so that the result is not printed in grey
-					R resultR = fr.getResultsSlot();
-					if (resultR.getRPr()!=null
-							&& resultR.getRPr().getHighlight()!=null) {
-						resultR.getRPr().setHighlight(null);
-					}
-					
-				} else if (!fieldFate.equals(OutputField.KEEP_MERGEFIELD)) {
-					// If doing an actual mail merge, the begin-separate run is removed, as is the end run				
-					fr.getParent().getContent().remove(fr.getBeginRun());
-					fr.getParent().getContent().remove(fr.getEndRun());
-				}
-				
+			
+			// replace instrText
+			// eg MERGEFIELD  CLIENT.ORGANIZATIONSTATE \* Upper  \* MERGEFORMAT
+			// to FORMTEXT
+			// Do this first, so we can abort without affecting output
+			List<Object> instructions = fr.getInstructions();
+			if (instructions.size()!=1) {
+				log.error("TODO MERGEFIELD field contained complex instruction");
+				return;
+			}
+			Object o = XmlUtils.unwrap(instructions.get(0));
+			if (o instanceof Text) {
+				((Text)o).setValue("FORMTEXT");
+			} else {
+                if(log.isErrorEnabled()) {
+                    log.error("TODO: set FORMTEXT in" + o.getClass().getName());
+                    log.error(XmlUtils.marshaltoString(instructions.get(0), true, true));
+                }
+				return;
+			}
+			
+			String fieldName = formTextFieldNames.generateName(datafieldName);
+			log.debug("Field name normalisation: " + datafieldName + " -> " + fieldName);
+			setFormFieldProperties(fr, fieldName, null);
+			
+			// remove <w:highlight w:val="lightGray"/>, if present
+			// (corresponds in Word to clicking Legacy Forms > Form Field Shading)
+			// so that the result is not printed in grey
+			R resultR = fr.getResultsSlot();
+			if (resultR.getRPr()!=null
+					&& resultR.getRPr().getHighlight()!=null) {
+				resultR.getRPr().setHighlight(null);
+			}
+			
+		} else if (!fieldFate.equals(OutputField.KEEP_MERGEFIELD)) {
+			// If doing an actual mail merge, the begin-separate run is removed, as is the end run				
+			fr.getParent().getContent().remove(fr.getBeginRun());
+			fr.getParent().getContent().remove(fr.getEndRun());
+		}
+		
 //				System.out.println("AFTER " +XmlUtils.marshaltoString(
 //						fr.getParent(), true, true));
-				
-			}
+		
+	}
+	
+	/**
+	 * The parts of a MERGEFIELD which don't depend on the data,
+	 * so that a compiled template (see MailMergePlan) can 
+	 * work them out just once. 
+	 * 
+	 * @since 8.2.2
+	 */
+	protected static class MergeFieldSpec {
+		
+		final String instr;
+		final String lang;
+		final String datafieldName;
+		
+		private FldSimpleModel fsm;
+		private TransformerException fsmException;
+		
+		MergeFieldSpec(FieldRef fr) {
+			
+			instr = extractInstr(fr.getInstructions() );
+			lang = extractLang(fr.getResultsSlot());
+			datafieldName = getDatafieldNameFromInstr(instr);
 		}
 		
-		return shellClone.getContent();
-
+		/**
+		 * Only needed where there is a value to format.  Once built, 
+		 * the model is only read, so it can be shared between threads.
+		 */
+		synchronized FldSimpleModel getModel() throws TransformerException {
+			
+			if (fsm==null && fsmException==null) {
+				FldSimpleModel model = new FldSimpleModel();
+				try {
+					model.build(instr);
+					fsm = model;
+				} catch (TransformerException e) {
+					fsmException = e;
+				}
+			}
+			if (fsmException!=null) {
+				throw fsmException;
+			}
+			return fsm;
+		}
 	}
 
 	/**
@@ -930,7 +986,7 @@ public class MailMerger {
 		
 		private FormTextFieldNameSet names = new FormTextFieldNameSet(); 
 		
-		public String generateName(String input) {
+		public synchronized String generateName(String input) {
 			
 			// Strip characters
 			String unpunctuated = pattern.matcher(input).replaceAll("_");			
@@ -51,7 +51,7 @@ public abstract class AbstractConversionImageHandler implements ConversionImageH
 	}
 
 	@Override
-	public String handleImage(AbstractWordXmlPicture picture, Relationship relationship, BinaryPart part) throws Docx4JException {
+	public synchronized String handleImage(AbstractWordXmlPicture picture, Relationship relationship, BinaryPart part) throws Docx4JException {
 	String key = createKey(relationship, part);
 	String uri = null;
 		if (handledImagesMap.containsKey(key)) {
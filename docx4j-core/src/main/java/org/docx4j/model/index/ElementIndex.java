@@ -0,0 +1,644 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+
+package org.docx4j.model.index;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.JAXBElement;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.TraversalUtil.CallbackImpl;
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.ArrayListWml;
+import org.docx4j.wml.Body;
+import org.docx4j.wml.CTBookmark;
+import org.docx4j.wml.CTMarkupRange;
+import org.docx4j.wml.CTSimpleField;
+import org.docx4j.wml.FldChar;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.docx4j.wml.STFldCharType;
+import org.docx4j.wml.SdtElement;
+import org.docx4j.wml.SdtPr;
+import org.docx4j.wml.Tbl;
+import org.docx4j.wml.Text;
+import org.jvnet.jaxb2_commons.ppp.Child;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An index of the content controls, bookmarks, fields, tables and
+ * paragraphs (by style) in the main document part, so you can find
+ * them without traversing the document each time.
+ *
+ * The index is built in a single pass, when first used, and is then
+ * kept up to date incrementally: a change to a content list
+ * (ArrayListWml) within the document marks the affected top-level
+ * block (ie child of w:body) as dirty, and only dirty blocks are
+ * re-indexed, when the index is next queried.  (The index listens 
+ * only to the lists in the document it has indexed, adding itself 
+ * to lists in new content as that content is indexed.)
+ *
+ * Changes which don't go through a content list (eg setting an
+ * sdtPr/w:tag value, a bookmark name, or a paragraph's pPr) aren't
+ * detected; after making them, call refresh(Object) with the
+ * changed object (or one of its ancestors), or rebuild().
+ *
+ * Like the rest of the content model, this is not thread-safe.
+ *
+ * Get an instance via MainDocumentPart.getElementIndex();
+ * it exists only if you ask for it.
+ *
+ * @since 8.2.2
+ */
+public class ElementIndex {
+
+	private static Logger log = LoggerFactory.getLogger(ElementIndex.class);
+
+	/**
+	 * Added to the content lists of the indexed body
+	 */
+	private final ArrayListWml.ChangeListener listener = new ArrayListWml.ChangeListener() {
+
+		@Override
+		public void contentChanged(ArrayListWml<?> list) {
+
+			if (body==null) return; // closed
+
+			// Find the top-level block the change is in
+			Object block = null;
+			Object o = list.getParent();
+			while (o instanceof Child
+					&& o!=body) {
+				block = o;
+				o = ((Child)o).getParent();
+			}
+			if (o!=body) return; // no longer in the indexed body, or parent not set
+
+			if (block==null) {
+				bodyChanged();
+			} else {
+				blockChanged(block);
+			}
+		}
+	};
+
+	private final MainDocumentPart part;
+
+	private Body body;
+
+	/**
+	 * If true, rebuild on next use
+	 */
+	private boolean stale = true;
+
+	/**
+	 * If true, blocks have been added to or removed from the body since we last looked
+	 */
+	private boolean bodyDirty = false;
+
+	/**
+	 * Blocks whose content has changed since they were indexed
+	 */
+	private final Set<Object> dirtyBlocks = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+	/**
+	 * Entries for each top-level block, keyed by the (unwrapped) block.
+	 */
+	private final Map<Object, Entries> blocks = new IdentityHashMap<Object, Entries>();
+
+	private final Map<String, List<SdtElement>> sdtsByTag = new HashMap<String, List<SdtElement>>();
+	private final Map<BigInteger, List<SdtElement>> sdtsById = new HashMap<BigInteger, List<SdtElement>>();
+	private final Map<String, List<CTBookmark>> bookmarksByName = new HashMap<String, List<CTBookmark>>();
+	private final Map<BigInteger, List<CTBookmark>> bookmarksById = new HashMap<BigInteger, List<CTBookmark>>();
+	private final Map<BigInteger, List<CTMarkupRange>> bookmarkEndsById = new HashMap<BigInteger, List<CTMarkupRange>>();
+
+	public ElementIndex(MainDocumentPart part) {
+		this.part = part;
+	}
+
+	/**
+	 * Stop tracking changes; the index will be rebuilt if it is used again.
+	 */
+	public void close() {
+		if (body!=null) {
+			TraversalUtil.removeChangeListener(body, listener);
+		}
+		body = null;
+		stale = true;
+	}
+
+	/**
+	 * Re-index the entire document.
+	 */
+	public void rebuild() {
+
+		long start = System.currentTimeMillis();
+
+		// Lists which are still in the body keep the listener (re-adding it is a no-op),
+		// and it ignores the others
+		body = null;
+		stale = true;
+		bodyDirty = false;
+		dirtyBlocks.clear();
+		blocks.clear();
+		sdtsByTag.clear();
+		sdtsById.clear();
+		bookmarksByName.clear();
+		bookmarksById.clear();
+		bookmarkEndsById.clear();
+
+		if (part.getJaxbElement()==null
+				|| part.getJaxbElement().getBody()==null) {
+			log.debug("No content to index");
+			return; // still stale
+		}
+		body = part.getJaxbElement().getBody();
+		if (body.getContent() instanceof ArrayListWml) {
+			((ArrayListWml<?>)body.getContent()).addChangeListener(listener);
+		}
+
+		for (Object o : body.getContent()) {
+			index(XmlUtils.unwrap(o));
+		}
+		stale = false;
+
+		if (log.isDebugEnabled()) {
+			log.debug("Indexed " + blocks.size() + " blocks in " + (System.currentTimeMillis()-start) + "ms");
+		}
+	}
+
+	/**
+	 * Re-index the top-level block containing o, after you have made changes
+	 * to it which didn't go through a content list.
+	 *
+	 * @param o a block level element in the body, or something inside it
+	 */
+	public void refresh(Object o) {
+
+		if (stale) return; // will be rebuilt anyway
+
+		Object block = XmlUtils.unwrap(o);
+		while (block instanceof Child
+				&& !(((Child)block).getParent() instanceof Body)) {
+			block = ((Child)block).getParent();
+		}
+		if (block instanceof Child
+				&& ((Child)block).getParent()==body) {
+			dirtyBlocks.add(block);
+		} else {
+			log.debug("Couldn't find top-level block, so rebuilding");
+			stale = true;
+		}
+	}
+
+	private void ensureCurrent() {
+
+		if (stale
+				|| part.getJaxbElement()==null
+				|| part.getJaxbElement().getBody()!=body) {
+			rebuild();
+			return;
+		}
+
+		if (!dirtyBlocks.isEmpty()) {
+			for (Object block : dirtyBlocks) {
+				if (blocks.containsKey(block)) { // otherwise new or removed; see below
+					forget(block);
+					index(block);
+				}
+			}
+			dirtyBlocks.clear();
+		}
+		if (bodyDirty) {
+			reconcile();
+			bodyDirty = false;
+		}
+	}
+
+	private void bodyChanged() {
+		bodyDirty = true;
+	}
+
+	private void blockChanged(Object block) {
+		dirtyBlocks.add(block);
+	}
+
+	/**
+	 * The content list of the body changed; index new blocks, and forget
+	 * removed ones.
+	 */
+	private void reconcile() {
+
+		Map<Object, Object> current = new IdentityHashMap<Object, Object>();
+		for (Object o : body.getContent()) {
+			Object block = XmlUtils.unwrap(o);
+			current.put(block, block);
+			if (!blocks.containsKey(block)) {
+				index(block);
+			}
+		}
+		for (Object block : new ArrayList<Object>(blocks.keySet())) {
+			if (!current.containsKey(block)) {
+				forget(block);
+			}
+		}
+	}
+
+	private void forget(Object block) {
+
+		Entries entries = blocks.remove(block);
+		if (entries==null) return;
+
+		// Use the keys recorded when indexing, since the
+		// tag, name or id could have changed since
+		for (Registration<?, ?> registration : entries.registrations) {
+			registration.remove();
+		}
+	}
+
+	private void index(Object block) {
+
+		Indexer indexer = new Indexer(listener);
+		indexer.apply(block);
+		if (indexer.shouldTraverse(block)) {
+			new TraversalUtil(block, indexer);
+		}
+		indexer.finish();
+		Entries entries = indexer.entries;
+		blocks.put(block, entries);
+
+		for (SdtElement sdt : entries.sdts) {
+			SdtPr sdtPr = sdt.getSdtPr();
+			if (sdtPr==null) continue;
+			if (sdtPr.getTag()!=null
+					&& sdtPr.getTag().getVal()!=null) {
+				entries.register(sdtsByTag, sdtPr.getTag().getVal(), sdt);
+			}
+			if (sdtPr.getId()!=null
+					&& sdtPr.getId().getVal()!=null) {
+				entries.register(sdtsById, sdtPr.getId().getVal(), sdt);
+			}
+		}
+		for (CTBookmark bookmark : entries.bookmarks) {
+			if (bookmark.getName()!=null) {
+				entries.register(bookmarksByName, bookmark.getName(), bookmark);
+			}
+			if (bookmark.getId()!=null) {
+				entries.register(bookmarksById, bookmark.getId(), bookmark);
+			}
+		}
+		for (CTMarkupRange end : entries.bookmarkEnds) {
+			if (end.getId()!=null) {
+				entries.register(bookmarkEndsById, end.getId(), end);
+			}
+		}
+	}
+
+	private static <K, V> void addValue(Map<K, List<V>> map, K key, V value) {
+
+		List<V> list = map.get(key);
+		if (list==null) {
+			list = new ArrayList<V>(1);
+			map.put(key, list);
+		}
+		list.add(value);
+	}
+
+	/**
+	 * A value added to one of the lookup maps, so it can be removed again.
+	 */
+	private static class Registration<K, V> {
+
+		final Map<K, List<V>> map;
+		final K key;
+		final V value;
+
+		Registration(Map<K, List<V>> map, K key, V value) {
+			this.map = map;
+			this.key = key;
+			this.value = value;
+		}
+
+		void remove() {
+			List<V> list = map.get(key);
+			if (list==null) return;
+			for (int i = 0; i < list.size(); i++) {
+				if (list.get(i)==value) {
+					list.remove(i);
+					break;
+				}
+			}
+			if (list.isEmpty()) {
+				map.remove(key);
+			}
+		}
+	}
+
+	private static <K, V> List<V> get(Map<K, List<V>> map, K key) {
+
+		List<V> list = map.get(key);
+		if (list==null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(list);
+	}
+
+	// Queries -------------------------------------
+
+	/**
+	 * @return the content controls whose w:tag has the specified value
+	 */
+	public List<SdtElement> getSdtsByTag(String tag) {
+		ensureCurrent();
+		return get(sdtsByTag, tag);
+	}
+
+	/**
+	 * @return the content control with the specified w:id, or null
+	 */
+	public SdtElement getSdtById(BigInteger id) {
+		ensureCurrent();
+		List<SdtElement> list = sdtsById.get(id);
+		return (list==null) ? null : list.get(0);
+	}
+
+	/**
+	 * @return the bookmarkStart with the specified name, or null
+	 */
+	public CTBookmark getBookmarkStart(String name) {
+		ensureCurrent();
+		List<CTBookmark> list = bookmarksByName.get(name);
+		return (list==null) ? null : list.get(0);
+	}
+
+	/**
+	 * @return the bookmarkStart with the specified id, or null
+	 */
+	public CTBookmark getBookmarkStart(BigInteger id) {
+		ensureCurrent();
+		List<CTBookmark> list = bookmarksById.get(id);
+		return (list==null) ? null : list.get(0);
+	}
+
+	/**
+	 * @return the bookmarkEnd with the specified id, or null
+	 */
+	public CTMarkupRange getBookmarkEnd(BigInteger id) {
+		ensureCurrent();
+		List<CTMarkupRange> list = bookmarkEndsById.get(id);
+		return (list==null) ? null : list.get(0);
+	}
+
+	/**
+	 * @return the bookmarkEnd matching the bookmarkStart with the specified name, or null
+	 */
+	public CTMarkupRange getBookmarkEnd(String name) {
+		CTBookmark start = getBookmarkStart(name);
+		if (start==null || start.getId()==null) return null;
+		return getBookmarkEnd(start.getId());
+	}
+
+	/**
+	 * Fields of the specified type (eg "PAGEREF", "TOC", "MERGEFIELD"),
+	 * in document order.  For a simple field, the entry is the CTSimpleField;
+	 * for a complex field, it is the run containing the w:fldChar of type begin.
+	 *
+	 * @param type field type, case insensitive
+	 */
+	public List<Object> getFields(String type) {
+		ensureCurrent();
+		String key = type.toUpperCase();
+		List<Object> result = new ArrayList<Object>();
+		for (Entries entries : inDocumentOrder()) {
+			List<Object> fields = entries.fields.get(key);
+			if (fields!=null) {
+				result.addAll(fields);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return all the tables (including nested ones), in document order
+	 */
+	public List<Tbl> getTables() {
+		ensureCurrent();
+		List<Tbl> result = new ArrayList<Tbl>();
+		for (Entries entries : inDocumentOrder()) {
+			result.addAll(entries.tables);
+		}
+		return result;
+	}
+
+	/**
+	 * @param styleId the w:pStyle value; null for paragraphs without one
+	 * @return paragraphs with the specified style, in document order
+	 */
+	public List<P> getParagraphsByStyle(String styleId) {
+		ensureCurrent();
+		List<P> result = new ArrayList<P>();
+		for (Entries entries : inDocumentOrder()) {
+			for (P p : entries.paragraphs) {
+				if (styleId==null ? getStyle(p)==null : styleId.equals(getStyle(p))) {
+					result.add(p);
+				}
+			}
+		}
+		return result;
+	}
+
+	private List<Entries> inDocumentOrder() {
+		List<Entries> result = new ArrayList<Entries>(blocks.size());
+		for (Object o : body.getContent()) {
+			Entries entries = blocks.get(XmlUtils.unwrap(o));
+			if (entries!=null) {
+				result.add(entries);
+			}
+		}
+		return result;
+	}
+
+	private static String getStyle(P p) {
+		if (p.getPPr()!=null
+				&& p.getPPr().getPStyle()!=null) {
+			return p.getPPr().getPStyle().getVal();
+		}
+		return null;
+	}
+
+	// Indexing -------------------------------------
+
+	private static class Entries {
+
+		final List<SdtElement> sdts = new ArrayList<SdtElement>();
+		final List<CTBookmark> bookmarks = new ArrayList<CTBookmark>();
+		final List<CTMarkupRange> bookmarkEnds = new ArrayList<CTMarkupRange>();
+		final Map<String, List<Object>> fields = new HashMap<String, List<Object>>();
+		final List<Tbl> tables = new ArrayList<Tbl>();
+		final List<P> paragraphs = new ArrayList<P>();
+
+		final List<Registration<?, ?>> registrations = new ArrayList<Registration<?, ?>>();
+
+		<K, V> void register(Map<K, List<V>> map, K key, V value) {
+			addValue(map, key, value);
+			registrations.add(new Registration<K, V>(map, key, value));
+		}
+	}
+
+	private static class Indexer extends CallbackImpl {
+
+		final Entries entries = new Entries();
+
+		/**
+		 * Added to each content list in the block, as we go
+		 */
+		private final ArrayListWml.ChangeListener listener;
+		
+		Indexer(ArrayListWml.ChangeListener listener) {
+			this.listener = listener;
+		}
+
+		/**
+		 * Complex fields which have begun, but whose instructions are still being read
+		 * (a field can be nested in another's instructions).
+		 */
+		private final List<ComplexField> fieldStack = new ArrayList<ComplexField>();
+
+		@Override
+		public List<Object> apply(Object o) {
+
+			if (o instanceof P) {
+				entries.paragraphs.add((P)o);
+			} else if (o instanceof R) {
+				applyRun((R)o);
+			} else if (o instanceof SdtElement) {
+				entries.sdts.add((SdtElement)o);
+			} else if (o instanceof Tbl) {
+				entries.tables.add((Tbl)o);
+			} else if (o instanceof CTBookmark) {
+				entries.bookmarks.add((CTBookmark)o);
+			} else if (o.getClass()==CTMarkupRange.class) {
+				// as in RangeFinder, a bookmarkEnd
+				entries.bookmarkEnds.add((CTMarkupRange)o);
+			} else if (o instanceof CTSimpleField) {
+				addField(((CTSimpleField)o).getInstr(), o);
+			}
+			return null;
+		}
+
+		@Override
+		public List<Object> getChildren(Object o) {
+			List<Object> children = super.getChildren(o);
+			listenTo(children);
+			return children;
+		}
+
+		@Override
+		public boolean shouldTraverse(Object o) {
+			// nothing of interest in a run which isn't in its immediate content
+			return !(o instanceof R);
+		}
+		
+		private void listenTo(List<Object> list) {
+			if (list instanceof ArrayListWml) {
+				((ArrayListWml<?>)list).addChangeListener(listener);
+			}
+		}
+
+		private void applyRun(R r) {
+
+			listenTo(r.getContent());
+
+			for (Object o : r.getContent()) {
+
+				if (o instanceof JAXBElement
+						&& "instrText".equals(((JAXBElement<?>)o).getName().getLocalPart())) {
+					if (!fieldStack.isEmpty()) {
+						ComplexField field = fieldStack.get(fieldStack.size()-1);
+						if (field.instr!=null) {
+							field.instr.append(((Text)XmlUtils.unwrap(o)).getValue());
+						}
+					}
+					continue;
+				}
+
+				Object unwrapped = XmlUtils.unwrap(o);
+				if (!(unwrapped instanceof FldChar)) continue;
+
+				STFldCharType type = ((FldChar)unwrapped).getFldCharType();
+				if (type==STFldCharType.BEGIN) {
+					fieldStack.add(new ComplexField(r));
+				} else if (!fieldStack.isEmpty()) {
+					ComplexField field = fieldStack.get(fieldStack.size()-1);
+					if (field.instr!=null) {
+						// separate, or end without separate
+						addField(field.instr.toString(), field.begin);
+						field.instr = null;
+					}
+					if (type==STFldCharType.END) {
+						fieldStack.remove(fieldStack.size()-1);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Record any field whose instructions continue past the end of the block.
+		 */
+		void finish() {
+			for (ComplexField field : fieldStack) {
+				if (field.instr!=null) {
+					addField(field.instr.toString(), field.begin);
+				}
+			}
+		}
+
+		private void addField(String instr, Object o) {
+
+			if (instr==null) return;
+			String trimmed = instr.trim();
+			if (trimmed.length()==0) return;
+			int space = trimmed.indexOf(' ');
+			String type = (space<0 ? trimmed : trimmed.substring(0, space)).toUpperCase();
+			addValue(entries.fields, type, o);
+		}
+	}
+
+	private static class ComplexField {
+
+		final R begin;
+		StringBuilder instr = new StringBuilder();
+
+		ComplexField(R begin) {
+			this.begin = begin;
+		}
+	}
+
+}
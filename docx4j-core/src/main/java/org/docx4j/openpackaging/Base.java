@@ -28,6 +28,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.docx4j.openpackaging.contenttype.ContentType;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.InvalidFormatException;
 import org.docx4j.openpackaging.packages.OpcPackage;
 import org.docx4j.openpackaging.parts.CustomXmlPart;
@@ -190,6 +191,26 @@ public abstract class Base {
 	 * in a convenience method.
 	 */ 
 	public abstract boolean setPartShortcut(Part part, String relationshipType);
+	
+	/**
+	 * Load the targets of this part's relationships of the given type,
+	 * if a lazy load deferred them (see Load3.setDeferredRelationshipTypes),
+	 * so that the shortcut to them is set.  For use in shortcut getters.
+	 * 
+	 * @param relationshipType
+	 * @since 8.2.2
+	 */
+	protected void loadDeferredParts(String relationshipType) {
+		
+		if (getPackage()==null
+				|| getPackage().getDeferredPartLoader()==null) return;
+		
+		try {
+			getPackage().getDeferredPartLoader().load(this, relationshipType);
+		} catch (Docx4JException e) {
+			log.error("Couldn't load deferred " + relationshipType + " parts of " + getPartName(), e);
+		}
+	}
 
 //	/**
 //	 * Flag if a modification has been made.  
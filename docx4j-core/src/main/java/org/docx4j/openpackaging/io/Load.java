@@ -23,7 +23,6 @@ package org.docx4j.openpackaging.io;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 
 import javax.xml.bind.JAXBElement;
@@ -291,7 +290,17 @@ public class Load {
 	 */
 	public static void registerCustomXmlDataStorageParts(OpcPackage pkg) {
 		
-		HashMap<PartName, Part> parts = pkg.getParts().getParts();
+		registerCustomXmlDataStorageParts(pkg, pkg.getParts().getParts().values());
+	}
+	
+	/**
+	 * Register the CustomXmlParts among the specified parts of this package.
+	 * 
+	 * @param pkg
+	 * @param col
+	 * @since 8.2.2
+	 */
+	public static void registerCustomXmlDataStorageParts(OpcPackage pkg, Collection<Part> col) {
 		
 		// Strictly speaking, we're only interested in CustomXmlDataStorageParts
 		// which are referred to in document.xml.rels ?
@@ -299,7 +308,6 @@ public class Load {
 		// which has a data store item ID, even if it isn't in document.xml.rels 
 		
 		//Iterator iterator = parts.entrySet().iterator();
-		Collection col = parts.values();
 		Iterator iterator = col.iterator();
 		while( iterator.hasNext() ) {
 			Part entry = (Part)iterator.next();
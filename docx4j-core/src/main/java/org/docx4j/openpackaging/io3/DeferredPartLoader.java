@@ -0,0 +1,177 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.openpackaging.io3;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.docx4j.openpackaging.Base;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
+import org.docx4j.relationships.Relationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads, on first access, the parts whose loading Load3 deferred 
+ * (see Load3.setDeferredRelationshipTypes).
+ * 
+ * A deferred relationship is in its relationships part as usual, but 
+ * neither its target part, nor the parts related to that, are in the 
+ * package until they are loaded, which happens when:
+ * 
+ * - RelationshipsPart.getPart(Relationship) is invoked for it
+ * 
+ * - a shortcut for it (eg getCommentsPart, getGlossaryDocumentPart,
+ *   getNotesSlidePart) is invoked on its source part
+ *   
+ * - loadAll is invoked, as freeze() does
+ * 
+ * Until then, Save copies the parts through from the source part store, 
+ * as they are.  Note that OpcPackage.getParts() only contains the parts 
+ * which have been loaded, so code which looks for parts there (rather 
+ * than following relationships) should invoke loadAll first.
+ * 
+ * @since 8.2.2
+ */
+public class DeferredPartLoader {
+
+	private static Logger log = LoggerFactory.getLogger(DeferredPartLoader.class);
+
+	private final Load3 load3;
+	private final OpcPackage pkg;
+	private final ContentTypeManager ctm;
+	private final Set<String> relationshipTypes;
+	
+	// Relationship doesn't override equals, so keyed by identity.
+	private final Map<Relationship, RelationshipsPart> deferred 
+		= new IdentityHashMap<Relationship, RelationshipsPart>();
+	
+	DeferredPartLoader(Load3 load3, OpcPackage pkg, ContentTypeManager ctm, 
+			Set<String> relationshipTypes) {
+		this.load3 = load3;
+		this.pkg = pkg;
+		this.ctm = ctm;
+		this.relationshipTypes = new HashSet<String>(relationshipTypes);
+	}
+	
+	/**
+	 * @return the relationship types whose targets are deferred
+	 */
+	public Set<String> getRelationshipTypes() {
+		return relationshipTypes;
+	}
+	
+	synchronized void defer(RelationshipsPart rp, Relationship r) {
+		deferred.put(r, rp);
+	}
+	
+	/**
+	 * @param r
+	 * @return whether the target of this relationship is yet to be loaded
+	 */
+	public synchronized boolean isDeferred(Relationship r) {
+		return deferred.containsKey(r);
+	}
+
+	/**
+	 * @return the number of relationships whose targets are yet to be loaded
+	 */
+	public synchronized int getDeferredCount() {
+		return deferred.size();
+	}
+	
+	/**
+	 * Load the target of this deferred relationship, and the parts 
+	 * related to it (other than those of a deferred type, which are 
+	 * deferred in turn). 
+	 * 
+	 * @param r
+	 * @return the target part, or null if r isn't deferred
+	 * @throws Docx4JException
+	 */
+	public synchronized Part load(Relationship r) throws Docx4JException {
+		
+		RelationshipsPart rp = deferred.get(r);
+		if (rp==null) return null;
+
+		if (log.isDebugEnabled()) {
+			log.debug("Loading deferred " + r.getTarget() + " from " + rp.getSourceP().getPartName());
+		}
+
+		Set<PartName> before = new HashSet<PartName>(pkg.getParts().getParts().keySet());
+		load3.loadDeferredPart(pkg, rp, r, ctm);
+		deferred.remove(r);
+
+		// Register any custom xml parts just loaded
+		List<Part> loaded = new ArrayList<Part>();
+		for (Map.Entry<PartName, Part> entry : pkg.getParts().getParts().entrySet()) {
+			if (!before.contains(entry.getKey())) {
+				loaded.add(entry.getValue());
+			}
+		}
+		Load3.registerCustomXmlDataStorageParts(pkg, loaded);
+		
+		return rp.getPart(r);
+	}
+
+	/**
+	 * Load the targets of the deferred relationships of the specified type.
+	 * 
+	 * @param source only load those from this part (or package); 
+	 * null for all of them 
+	 * @param relationshipType
+	 * @throws Docx4JException
+	 */
+	public synchronized void load(Base source, String relationshipType) throws Docx4JException {
+		
+		for (Relationship r : new ArrayList<Relationship>(deferred.keySet())) {
+			RelationshipsPart rp = deferred.get(r);
+			if (rp!=null
+					&& r.getType().equals(relationshipType)
+					&& (source==null || rp.getSourceP()==source)) {
+				load(r);
+			}
+		}
+	}
+	
+	/**
+	 * Load all the deferred parts, so that the package is as it would 
+	 * have been had nothing been deferred.
+	 * 
+	 * @throws Docx4JException
+	 */
+	public synchronized void loadAll() throws Docx4JException {
+
+		// Loading a part can defer more
+		while (!deferred.isEmpty()) {
+			load(deferred.keySet().iterator().next());
+		}
+	}
+	
+}
@@ -25,6 +25,10 @@ package org.docx4j.openpackaging.io3;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.Unmarshaller;
@@ -32,6 +36,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.io.IOUtils;
+import org.docx4j.Docx4jProperties;
 import org.docx4j.XmlUtils;
 import org.docx4j.docProps.coverPageProps.CoverPageProperties;
 import org.docx4j.jaxb.Context;
@@ -51,6 +56,7 @@ import org.docx4j.openpackaging.packages.OpcPackage;
 import org.docx4j.openpackaging.parts.DefaultXmlPart;
 import org.docx4j.openpackaging.parts.DocPropsCoverPagePart;
 import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartContentsCache;
 import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.XmlPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.BibliographyPart;
@@ -74,10 +80,12 @@ import org.slf4j.LoggerFactory;
  * stored (that is PartLoader's problem).  
  * 
  * What this class knows how to do is to traverse the
- * opc, via its relationships. It would be possible/interesting
- * to have a design which lazily followed the rels, but
- * we don't do that. All rel parts are unmarshalled
- * and traversed when invoked.
+ * opc, via its relationships. By default, all rel parts are 
+ * unmarshalled and traversed when invoked.  
+ * 
+ * Alternatively, the rels of certain types (eg comments, the 
+ * glossary document, embeddings) can be followed lazily: see 
+ * setDeferredRelationshipTypes.
  * 
  * @author jharrop
  * 
@@ -91,6 +99,66 @@ public class Load3 extends Load {
 	
 	public Load3(PartStore partLoader) {
 		this.partStore = partLoader;
+		if (Docx4jProperties.getProperty(LAZY_PROPERTY, false)) {
+			deferredRelationshipTypes = DEFAULT_DEFERRED_RELATIONSHIP_TYPES;
+		}
+	}
+	
+	/**
+	 * Set this property to true to defer loading the targets of 
+	 * the DEFAULT_DEFERRED_RELATIONSHIP_TYPES.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static final String LAZY_PROPERTY = "docx4j.openpackaging.io3.Load3.lazy";
+	
+	/**
+	 * Relationships whose targets are generally not needed to 
+	 * process the main document (or slides): comments, 
+	 * the glossary document, embedded objects and packages, 
+	 * and slide notes.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static final Set<String> DEFAULT_DEFERRED_RELATIONSHIP_TYPES 
+		= Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+				Namespaces.COMMENTS,
+				Namespaces.COMMENTS_EXTENDED,
+				Namespaces.COMMENTS_IDS,
+				Namespaces.GLOSSARY_DOCUMENT,
+				Namespaces.OLE_OBJECT,
+				Namespaces.EMBEDDED_PKG,
+				Namespaces.PRESENTATIONML_COMMENTS,
+				Namespaces.PRESENTATIONML_NOTES_SLIDE)));
+	
+	private Set<String> deferredRelationshipTypes = null;
+
+	/**
+	 * Defer loading the target parts of relationships of these types 
+	 * (and the parts related to them) until they are first accessed.  
+	 * This makes loading quicker where those parts aren't needed.
+	 * See DeferredPartLoader for what triggers the load.  
+	 * 
+	 * A relationship type with a shortcut (eg getStyleDefinitionsPart)
+	 * should only be deferred if that shortcut loads deferred parts; the 
+	 * ones for the DEFAULT_DEFERRED_RELATIONSHIP_TYPES do.  And deferring 
+	 * Namespaces.CUSTOM_XML_DATA_STORAGE means the package's custom xml parts 
+	 * aren't registered until they are loaded, so don't do that if the 
+	 * document uses data binding.
+	 * 
+	 * @param deferredRelationshipTypes null or empty to load everything (the 
+	 * default, unless LAZY_PROPERTY is set)
+	 * @since 8.2.2
+	 */
+	public void setDeferredRelationshipTypes(Set<String> deferredRelationshipTypes) {
+		this.deferredRelationshipTypes = deferredRelationshipTypes;
+	}
+
+	/**
+	 * @since 8.2.2
+	 */
+	public Set<String> getDeferredRelationshipTypes() {
+		return deferredRelationshipTypes;
 	}
 
 	public Load3() {
@@ -184,6 +252,22 @@ public class Load3 extends Load {
 		}
 		log.info("Instantiated package of type " + p.getClass().getName() );
 		p.setSourcePartStore(partStore);
+		
+		if (deferredRelationshipTypes!=null
+				&& !deferredRelationshipTypes.isEmpty()) {
+			p.setDeferredPartLoader(
+					new DeferredPartLoader(this, p, ctm, deferredRelationshipTypes));
+		} else {
+			p.setDeferredPartLoader(null);
+		}
+		
+		long maxBytes = Docx4jProperties.getPropertyLong(PartContentsCache.MAX_BYTES_PROPERTY, -1);
+		if (maxBytes>-1) {
+			p.setPartContentsCache(new PartContentsCache(maxBytes));
+		} else if (p.getPartContentsCache()!=null) {
+			// re-using a package, so start afresh
+			p.setPartContentsCache(new PartContentsCache(p.getPartContentsCache().getMaxBytes()));
+		}
 
 		p.setRelationships(rp);
 		rp.setSourceP(p); //
@@ -275,7 +359,7 @@ public class Load3 extends Load {
 				// This is usually the first logged comment for
 				// a part, so start with a line break.
 			try {				
-				getPart(pkg, rp, r, ctm);
+				getPart(pkg, rp, r, ctm, true);
 			} catch (Docx4JException e) {
 				throw e;
 			} catch (Exception e) {
@@ -301,7 +385,7 @@ public class Load3 extends Load {
 	 * @throws InvalidFormatException
 	 */
 	private void getPart(OpcPackage pkg, RelationshipsPart rp, 
-			Relationship r, ContentTypeManager ctm)
+			Relationship r, ContentTypeManager ctm, boolean mayDefer)
 			throws Docx4JException, InvalidFormatException, URISyntaxException {
 		
 		Base source = null;
@@ -369,6 +453,14 @@ public class Load3 extends Load {
 			return;
 		}
 		
+		if (mayDefer
+				&& pkg.getDeferredPartLoader()!=null
+				&& pkg.getDeferredPartLoader().getRelationshipTypes().contains(relationshipType)) {
+			log.debug("Deferring " + resolvedPartUri);
+			pkg.getDeferredPartLoader().defer(rp, r);
+			return;
+		}
+		
 		part = getRawPart(ctm, resolvedPartUri, r, rp); // will throw exception if null
 
 		// The source Part (or Package) might have a convenience
@@ -404,6 +496,22 @@ public class Load3 extends Load {
 		}
 	}
 
+	/**
+	 * Load the target of a relationship which was deferred, and its related
+	 * parts (deferring those of a deferred type).
+	 */
+	void loadDeferredPart(OpcPackage pkg, RelationshipsPart rp, 
+			Relationship r, ContentTypeManager ctm) throws Docx4JException {
+		
+		try {
+			getPart(pkg, rp, r, ctm, false);
+		} catch (Docx4JException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new Docx4JException("Failed to load deferred part " + r.getTarget(), e);
+		}
+	}
+
 	/**
 	 * Get the Relationships Part (if there is one) for a given Part.  
 	 * Otherwise return null.
@@ -23,16 +23,21 @@ package org.docx4j.openpackaging.io3;
 
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.HashMap;
 
+import org.apache.commons.io.IOUtils;
+
 import org.docx4j.Docx4jProperties;
 import org.docx4j.Version;
 import org.docx4j.docProps.core.CoreProperties;
 import org.docx4j.docProps.extended.Properties;
 import org.docx4j.openpackaging.URIHelper;
 import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.contenttype.ContentTypes;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.io3.stores.PartStore;
 import org.docx4j.openpackaging.io3.stores.ZipPartStore;
@@ -42,8 +47,10 @@ import org.docx4j.openpackaging.parts.DocPropsCorePart;
 import org.docx4j.openpackaging.parts.DocPropsExtendedPart;
 import org.docx4j.openpackaging.parts.JaxbXmlPart;
 import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.XmlPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.OleObjectBinaryPart;
 import org.docx4j.openpackaging.parts.relationships.Namespaces;
 import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
 import org.docx4j.relationships.Relationship;
@@ -374,6 +381,15 @@ public class Save {
 				
 //				Document contents = getDocumentFromZippedPart( zf,  target);
 				
+				DeferredPartLoader deferred = p.getDeferredPartLoader();
+				if (deferred!=null
+						&& deferred.isDeferred(r)
+						&& p.getParts().get(new PartName("/" + resolvedPartUri))==null) {
+					// A lazy load deferred it, and it still hasn't been loaded
+					saveDeferredPart(resolvedPartUri, r);
+					continue;
+				}
+				
 				if (!false) {
 					log.debug("Getting part /" + resolvedPartUri );
 					
@@ -461,6 +477,78 @@ public class Save {
 //		}
 	}
 	
+	/**
+	 * Save a part which hasn't been loaded, since a lazy load deferred it,  
+	 * by copying it (and its rels) from the source part store as is. 
+	 * Related parts which haven't been loaded either are copied likewise; 
+	 * those which have are saved as usual.
+	 * 
+	 * @param resolvedPartUri without leading '/'
+	 * @param r
+	 * @throws Docx4JException
+	 * @since 8.2.2
+	 */
+	protected void saveDeferredPart(String resolvedPartUri, Relationship r)
+			throws Docx4JException, IOException, URISyntaxException {
+		
+		if (handled.get(resolvedPartUri)!=null) {
+			log.debug(".. duplicate save avoided .." );
+			return;
+		}
+		if (p.getSourcePartStore()==null) {
+			throw new Docx4JException("Can't copy deferred part " + resolvedPartUri + ", since sourcePartStore not set");
+		}
+		log.debug(".. copying deferred " + resolvedPartUri);
+
+		// The part stores copy a BinaryPart which isn't loaded from the source part store
+		PartName partName = new PartName("/" + resolvedPartUri);
+		String contentType = p.getContentTypeManager().getContentType(partName);
+		BinaryPart copy;
+		if (Namespaces.OLE_OBJECT.equals(r.getType())
+				|| ContentTypes.OFFICEDOCUMENT_OLE_OBJECT.equals(contentType)
+				|| ContentTypes.OFFICEDOCUMENT_ACTIVEX_OBJECT.equals(contentType)) {
+			copy = new OleObjectBinaryPart(partName); // so it is stored, not compressed
+		} else {
+			copy = new BinaryPart(partName);
+		}
+		p.getTargetPartStore().saveBinaryPart(copy);
+		handled.put(resolvedPartUri, resolvedPartUri);
+		
+		String relsPartName = PartName.getRelationshipsPartName(resolvedPartUri);
+		RelationshipsPart rrp;
+		InputStream is = p.getSourcePartStore().loadPart(relsPartName);
+		if (is==null) {
+			return;
+		}
+		try {
+			rrp = new RelationshipsPart();
+			rrp.unmarshal(is);
+		} catch (Exception e) {
+			throw new Docx4JException("Error reading " + relsPartName, e);
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+		p.getTargetPartStore().saveBinaryPart(new BinaryPart(new PartName("/" + relsPartName)));
+		
+		for ( Relationship rr : rrp.getRelationships().getRelationship() ) {
+
+			if (rr.getType().equals(Namespaces.HYPERLINK)
+					|| (rr.getTargetMode() != null
+						&& rr.getTargetMode().equals("External"))) {
+				continue;
+			}
+			
+			String target = URIHelper.resolvePartUri(partName.getURI(), new URI(rr.getTarget() ) ).toString().substring(1);
+			Part part = p.getParts().get(new PartName("/" + target));
+			if (part==null) {
+				saveDeferredPart(target, rr);
+			} else {
+				// loaded via some other relationship
+				savePart(part);
+			}
+		}
+	}
+	
 	
 	
 	
@@ -0,0 +1,538 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.openpackaging.io3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.io.IOUtils;
+import org.docx4j.openpackaging.URIHelper;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extracts the text of a docx, pptx or xlsx (eg for search indexing),
+ * reading the parts which contain text with StAX, directly from the
+ * PartStore.  Nothing is unmarshalled, and no package is created, so
+ * this is much cheaper than loading the package and using
+ * TextUtils.extractText.
+ *
+ * Parts are found by following relationships (from _rels/.rels, to the
+ * main document part, and from there to its headers, footers, footnotes,
+ * endnotes, comments, slides, notes, worksheets and shared strings);
+ * [Content_Types].xml is used to skip targets which aren't XML.
+ * Parts the main part refers to (eg slides, sheets, headers) are visited
+ * in the order of those references.
+ *
+ * The text is reported one paragraph (w:p, a:p, or shared/inline string)
+ * at a time.  Text in mc:Fallback is ignored, since it duplicates
+ * the mc:Choice.
+ *
+ * @since 8.2.2
+ */
+public class StreamingTextExtractor {
+
+	private static Logger log = LoggerFactory.getLogger(StreamingTextExtractor.class);
+
+	private static final String NS_CONTENT_TYPES = "http://schemas.openxmlformats.org/package/2006/content-types";
+	private static final String NS_DRAWINGML = "http://schemas.openxmlformats.org/drawingml/2006/main";
+	private static final String NS_SPREADSHEETML = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	private static final String NS_MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+	/**
+	 * Relationships to parts whose text is extracted
+	 */
+	private static final Set<String> TEXT_RELATIONSHIPS = new HashSet<String>(Arrays.asList(
+			Namespaces.HEADER,
+			Namespaces.FOOTER,
+			Namespaces.FOOTNOTES,
+			Namespaces.ENDNOTES,
+			Namespaces.COMMENTS,
+			Namespaces.PRESENTATIONML_SLIDE,
+			Namespaces.PRESENTATIONML_NOTES_SLIDE,
+			Namespaces.SPREADSHEETML_WORKSHEET,
+			Namespaces.SPREADSHEETML_SHARED_STRINGS));
+
+	private static XMLInputFactory xif;
+	static {
+		xif = XMLInputFactory.newInstance();
+		xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		xif.setProperty(XMLInputFactory.SUPPORT_DTD, false); // a DTD is merely ignored, its presence doesn't cause an exception
+	}
+
+	/**
+	 * Receives the text, one paragraph at a time.
+	 */
+	public interface ParagraphHandler {
+
+		/**
+		 * @param partName the part containing the paragraph, eg word/document.xml
+		 * @param index the index of the paragraph in the part (from 0)
+		 * @param text the text of the paragraph; only valid for the duration of the call
+		 */
+		void paragraph(String partName, int index, CharSequence text) throws IOException;
+	}
+
+	/**
+	 * The location of a paragraph in the text written by extractText(Writer, List).
+	 */
+	public static class TextOffset {
+
+		private final String partName;
+		private final int paragraphIndex;
+		private final long offset;
+		private final int length;
+
+		public TextOffset(String partName, int paragraphIndex, long offset, int length) {
+			this.partName = partName;
+			this.paragraphIndex = paragraphIndex;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * @return the part containing the paragraph, eg word/document.xml
+		 */
+		public String getPartName() {
+			return partName;
+		}
+
+		/**
+		 * @return the index of the paragraph in its part (from 0)
+		 */
+		public int getParagraphIndex() {
+			return paragraphIndex;
+		}
+
+		/**
+		 * @return the offset (in chars) of the paragraph's text
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * @return the length of the paragraph's text, excluding the newline
+		 */
+		public int getLength() {
+			return length;
+		}
+	}
+
+	private final PartStore partStore;
+
+	private Map<String, String> defaultContentTypes;
+	private Map<String, String> overrideContentTypes;
+
+	public StreamingTextExtractor(PartStore partStore) {
+		this.partStore = partStore;
+	}
+
+	/**
+	 * Write the text, each paragraph followed by '\n'.
+	 */
+	public void extractText(Writer out) throws Docx4JException {
+		extractText(out, null);
+	}
+
+	/**
+	 * Write the text, each paragraph followed by '\n'.
+	 *
+	 * @param offsets if not null, a TextOffset is added to this for each paragraph
+	 */
+	public void extractText(final Writer out, final List<TextOffset> offsets) throws Docx4JException {
+
+		extractText(new ParagraphHandler() {
+
+			long offset = 0;
+
+			@Override
+			public void paragraph(String partName, int index, CharSequence text) throws IOException {
+
+				if (offsets!=null) {
+					offsets.add(new TextOffset(partName, index, offset, text.length()));
+				}
+				out.append(text).append('\n');
+				offset += text.length() + 1;
+			}
+		});
+	}
+
+	/**
+	 * Report the text of each paragraph to the handler.
+	 */
+	public void extractText(ParagraphHandler handler) throws Docx4JException {
+
+		readContentTypes();
+
+		String mainPartName = null;
+		for (Rel rel : readRels("_rels/.rels", "")) {
+			if (rel.type.equals(Namespaces.DOCUMENT)) {
+				mainPartName = rel.target;
+				break;
+			}
+		}
+		if (mainPartName==null) {
+			throw new Docx4JException("Couldn't find main document part");
+		}
+
+		extractPart(mainPartName, handler, new HashSet<String>());
+	}
+
+	private void extractPart(String partName, ParagraphHandler handler, Set<String> visited)
+			throws Docx4JException {
+
+		if (!visited.add(partName)) return;
+
+		if (!isXml(partName)) {
+			log.debug("Skipping " + partName + ", which isn't XML");
+			return;
+		}
+
+		// ids of the relationships this part refers to, in document order
+		Set<String> referencedIds = new LinkedHashSet<String>();
+
+		InputStream is = partStore.loadPart(partName);
+		if (is==null) {
+			log.warn("Missing " + partName);
+			return;
+		}
+		try {
+			extractParagraphs(partName, is, handler, referencedIds);
+		} catch (XMLStreamException e) {
+			throw new Docx4JException("Error reading " + partName, e);
+		} catch (IOException e) {
+			throw new Docx4JException("Error handling text of " + partName, e);
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+
+		List<Rel> rels = readRels(getRelsPartName(partName), partName);
+
+		// first, the parts which are referenced, in that order
+		Map<String, Rel> relsById = new HashMap<String, Rel>();
+		for (Rel rel : rels) {
+			relsById.put(rel.id, rel);
+		}
+		for (String id : referencedIds) {
+			Rel rel = relsById.get(id);
+			if (rel!=null && TEXT_RELATIONSHIPS.contains(rel.type)) {
+				extractPart(rel.target, handler, visited);
+			}
+		}
+		// then the rest (eg footnotes, comments, shared strings)
+		for (Rel rel : rels) {
+			if (TEXT_RELATIONSHIPS.contains(rel.type)) {
+				extractPart(rel.target, handler, visited);
+			}
+		}
+	}
+
+	private void extractParagraphs(String partName, InputStream is, ParagraphHandler handler,
+			Set<String> referencedIds) throws XMLStreamException, IOException {
+
+		XMLStreamReader xsr = xif.createXMLStreamReader(is);
+		try {
+			// paragraphs may be nested (eg in a text box), so a stack of them
+			List<StringBuilder> paragraphs = new ArrayList<StringBuilder>();
+			int depth = 0;
+			int index = 0;
+
+			boolean inText = false;
+			int runDepth = 0;
+			int skipDepth = 0;
+			String cellType = null;
+
+			while (xsr.hasNext()) {
+
+				int event = xsr.next();
+				if (event==XMLStreamConstants.START_ELEMENT) {
+
+					if (skipDepth>0) {
+						skipDepth++;
+						continue;
+					}
+
+					String ns = xsr.getNamespaceURI();
+					String localName = xsr.getLocalName();
+
+					for (int i=0; i<xsr.getAttributeCount(); i++) {
+						if ("id".equals(xsr.getAttributeLocalName(i))
+								&& Namespaces.RELATIONSHIPS_OFFICEDOC.equals(xsr.getAttributeNamespace(i))) {
+							referencedIds.add(xsr.getAttributeValue(i));
+						}
+					}
+
+					if (NS_MARKUP_COMPATIBILITY.equals(ns)) {
+						if ("Fallback".equals(localName)) {
+							skipDepth = 1;
+						}
+					} else if (Namespaces.NS_WORD12.equals(ns)) {
+						if ("p".equals(localName)) {
+							depth = startParagraph(paragraphs, depth);
+						} else if ("t".equals(localName)) {
+							inText = depth>0;
+						} else if ("r".equals(localName)) {
+							runDepth++;
+						} else if (runDepth>0 && depth>0) {
+							// w:tab also occurs in w:tabs, so only in a run
+							if ("tab".equals(localName)) {
+								paragraphs.get(depth-1).append('\t');
+							} else if ("br".equals(localName)
+									|| "cr".equals(localName)) {
+								paragraphs.get(depth-1).append(' ');
+							} else if ("noBreakHyphen".equals(localName)) {
+								paragraphs.get(depth-1).append('-');
+							}
+						}
+					} else if (NS_DRAWINGML.equals(ns)) {
+						if ("p".equals(localName)) {
+							depth = startParagraph(paragraphs, depth);
+						} else if ("t".equals(localName)) {
+							inText = depth>0;
+						} else if ("br".equals(localName) && depth>0) {
+							paragraphs.get(depth-1).append(' ');
+						}
+					} else if (NS_SPREADSHEETML.equals(ns)) {
+						if ("si".equals(localName)
+								|| "is".equals(localName)) {
+							depth = startParagraph(paragraphs, depth);
+						} else if ("t".equals(localName)) {
+							inText = depth>0;
+						} else if ("rPh".equals(localName)) {
+							// phonetic reading
+							skipDepth = 1;
+						} else if ("c".equals(localName)) {
+							cellType = xsr.getAttributeValue(null, "t");
+						} else if ("v".equals(localName) && "str".equals(cellType)) {
+							// a formula's string result
+							depth = startParagraph(paragraphs, depth);
+							inText = true;
+						}
+					}
+
+				} else if (event==XMLStreamConstants.END_ELEMENT) {
+
+					if (skipDepth>0) {
+						skipDepth--;
+						continue;
+					}
+
+					String ns = xsr.getNamespaceURI();
+					String localName = xsr.getLocalName();
+
+					if (Namespaces.NS_WORD12.equals(ns)
+							|| NS_DRAWINGML.equals(ns)) {
+						if ("p".equals(localName) && depth>0) {
+							handler.paragraph(partName, index++, paragraphs.get(--depth));
+						} else if ("t".equals(localName)) {
+							inText = false;
+						} else if ("r".equals(localName) && runDepth>0
+								&& Namespaces.NS_WORD12.equals(ns)) {
+							runDepth--;
+						}
+					} else if (NS_SPREADSHEETML.equals(ns)) {
+						if (("si".equals(localName)
+								|| "is".equals(localName)
+								|| ("v".equals(localName) && "str".equals(cellType)))
+								&& depth>0) {
+							inText = false;
+							handler.paragraph(partName, index++, paragraphs.get(--depth));
+						} else if ("t".equals(localName)) {
+							inText = false;
+						} else if ("c".equals(localName)) {
+							cellType = null;
+						}
+					}
+
+				} else if (inText && skipDepth==0
+						&& (event==XMLStreamConstants.CHARACTERS
+							|| event==XMLStreamConstants.CDATA
+							|| event==XMLStreamConstants.SPACE)) {
+
+					paragraphs.get(depth-1).append(
+							xsr.getTextCharacters(), xsr.getTextStart(), xsr.getTextLength());
+				}
+			}
+		} finally {
+			xsr.close();
+		}
+	}
+
+	/**
+	 * Push a paragraph onto the stack, reusing its StringBuilder.
+	 *
+	 * @return the new depth
+	 */
+	private static int startParagraph(List<StringBuilder> paragraphs, int depth) {
+
+		if (paragraphs.size()==depth) {
+			paragraphs.add(new StringBuilder());
+		} else {
+			paragraphs.get(depth).setLength(0);
+		}
+		return depth + 1;
+	}
+
+	private void readContentTypes() throws Docx4JException {
+
+		defaultContentTypes = new HashMap<String, String>();
+		overrideContentTypes = new HashMap<String, String>();
+
+		InputStream is = partStore.loadPart("[Content_Types].xml");
+		if (is==null) {
+			throw new Docx4JException("Couldn't find [Content_Types].xml");
+		}
+		try {
+			XMLStreamReader xsr = xif.createXMLStreamReader(is);
+			try {
+				while (xsr.hasNext()) {
+					if (xsr.next()==XMLStreamConstants.START_ELEMENT
+							&& NS_CONTENT_TYPES.equals(xsr.getNamespaceURI())) {
+
+						String contentType = xsr.getAttributeValue(null, "ContentType");
+						if ("Default".equals(xsr.getLocalName())) {
+							String extension = xsr.getAttributeValue(null, "Extension");
+							if (extension!=null) {
+								defaultContentTypes.put(extension.toLowerCase(), contentType);
+							}
+						} else if ("Override".equals(xsr.getLocalName())) {
+							String name = xsr.getAttributeValue(null, "PartName");
+							if (name!=null) {
+								if (name.startsWith("/")) name = name.substring(1);
+								overrideContentTypes.put(name.toLowerCase(), contentType);
+							}
+						}
+					}
+				}
+			} finally {
+				xsr.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new Docx4JException("Error reading [Content_Types].xml", e);
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+	}
+
+	private boolean isXml(String partName) {
+
+		String contentType = overrideContentTypes.get(partName.toLowerCase());
+		if (contentType==null) {
+			int dot = partName.lastIndexOf('.');
+			if (dot>-1) {
+				contentType = defaultContentTypes.get(partName.substring(dot+1).toLowerCase());
+			}
+		}
+		return contentType!=null
+				&& (contentType.endsWith("+xml") || contentType.endsWith("/xml"));
+	}
+
+	/**
+	 * eg word/_rels/document.xml.rels for word/document.xml
+	 */
+	private static String getRelsPartName(String partName) {
+
+		int slash = partName.lastIndexOf('/');
+		return partName.substring(0, slash+1) + "_rels/" + partName.substring(slash+1) + ".rels";
+	}
+
+	private static class Rel {
+
+		final String id;
+		final String type;
+		final String target;
+
+		Rel(String id, String type, String target) {
+			this.id = id;
+			this.type = type;
+			this.target = target;
+		}
+	}
+
+	/**
+	 * @param relsPartName the rels part to read
+	 * @param sourcePartName the part whose rels these are ("" for the package)
+	 * @return the internal relationships, with targets resolved to zip entry names
+	 */
+	private List<Rel> readRels(String relsPartName, String sourcePartName) throws Docx4JException {
+
+		List<Rel> rels = new ArrayList<Rel>();
+
+		InputStream is = partStore.loadPart(relsPartName);
+		if (is==null) return rels;
+
+		try {
+			XMLStreamReader xsr = xif.createXMLStreamReader(is);
+			try {
+				URI sourceURI = new URI("/" + sourcePartName);
+				while (xsr.hasNext()) {
+					if (xsr.next()==XMLStreamConstants.START_ELEMENT
+							&& "Relationship".equals(xsr.getLocalName())
+							&& Namespaces.RELATIONSHIPS.equals(xsr.getNamespaceURI())) {
+
+						if ("External".equals(xsr.getAttributeValue(null, "TargetMode"))) continue;
+
+						String id = xsr.getAttributeValue(null, "Id");
+						String type = xsr.getAttributeValue(null, "Type");
+						String target = xsr.getAttributeValue(null, "Target");
+						if (type==null || target==null) continue;
+
+						try {
+							String resolved = URIHelper.resolvePartUri(sourceURI, new URI(target)).getPath();
+							rels.add(new Rel(id, type, resolved.startsWith("/") ? resolved.substring(1) : resolved));
+						} catch (URISyntaxException e) {
+							log.warn("Ignoring target " + target + " in " + relsPartName + ": " + e.getMessage());
+						}
+					}
+				}
+			} finally {
+				xsr.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new Docx4JException("Error reading " + relsPartName, e);
+		} catch (URISyntaxException e) {
+			throw new Docx4JException("Error reading " + relsPartName, e);
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+		return rels;
+	}
+
+}
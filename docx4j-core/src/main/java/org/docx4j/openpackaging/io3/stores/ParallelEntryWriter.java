@@ -0,0 +1,286 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.openpackaging.io3.stores;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+
+/**
+ * Produces and compresses zip entries on several threads, then writes 
+ * them to the ZipArchiveOutputStream in the order they were added, so 
+ * the zip is the same as if they had been written one at a time.
+ * 
+ * (commons-compress' ParallelScatterZipCreator groups the entries 
+ * by the thread which compressed them, so the order would vary.) 
+ * 
+ * @since 8.2.2
+ */
+class ParallelEntryWriter {
+
+	/**
+	 * The content of an entry, written on a worker thread.
+	 */
+	interface EntryContent {
+		
+		void writeTo(OutputStream os) throws Exception;
+	}
+	
+	private static final AtomicInteger threadNumber = new AtomicInteger(1);
+	
+	private final ZipArchiveOutputStream zos;
+	private final ThreadPoolExecutor executor;
+	
+	// Entries are held in memory until written, so limit how many are pending
+	private final int maxPending;
+	private final ArrayDeque<Future<CompressedEntry>> pending 
+		= new ArrayDeque<Future<CompressedEntry>>();
+
+	ParallelEntryWriter(ZipArchiveOutputStream zos, int parallelism) {
+		
+		this.zos = zos;
+		this.maxPending = parallelism * 4;
+		
+		executor = new ThreadPoolExecutor(parallelism, parallelism, 
+				1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), 
+				new ThreadFactory() {
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "docx4j-save-" + threadNumber.getAndIncrement());
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		// so nothing is left running if the save fails before finish
+		executor.allowCoreThreadTimeOut(true); 
+	}
+	
+	/**
+	 * @param name the entry name
+	 * @param stored whether to store the entry, rather than deflate it
+	 * @param bytes its content
+	 * @throws Docx4JException
+	 */
+	void add(String name, boolean stored, final byte[] bytes) throws Docx4JException {
+		
+		add(name, stored, new EntryContent() {
+
+			@Override
+			public void writeTo(OutputStream os) throws IOException {
+				os.write(bytes);
+			}
+		});
+	}
+	
+	/**
+	 * @param name the entry name
+	 * @param stored whether to store the entry, rather than deflate it
+	 * @param bb its content (remaining bytes), not copied, so it mustn't 
+	 * change until written
+	 * @throws Docx4JException
+	 */
+	void add(String name, boolean stored, ByteBuffer bb) throws Docx4JException {
+		
+		final ByteBuffer content = bb.duplicate();
+		add(name, stored, new EntryContent() {
+
+			@Override
+			public void writeTo(OutputStream os) throws IOException {
+				ZipPartStore.writeBuffer(content, os);
+			}
+		});
+	}
+	
+	/**
+	 * @param name the entry name
+	 * @param stored whether to store the entry, rather than deflate it
+	 * @param content written on a worker thread
+	 * @throws Docx4JException
+	 */
+	void add(final String name, final boolean stored, final EntryContent content) throws Docx4JException {
+		
+		pending.add(executor.submit(new Callable<CompressedEntry>() {
+
+			@Override
+			public CompressedEntry call() throws Exception {
+				return compress(name, stored, content);
+			}
+		}));
+		
+		// Write what is ready, waiting if too much is pending
+		while (!pending.isEmpty()
+				&& (pending.size() > maxPending || pending.peek().isDone())) {
+			writeNext();
+		}
+	}
+	
+	/**
+	 * Write the remaining entries.
+	 * 
+	 * @throws Docx4JException
+	 */
+	void finish() throws Docx4JException {
+		
+		try {
+			while (!pending.isEmpty()) {
+				writeNext();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	private void writeNext() throws Docx4JException {
+		
+		CompressedEntry entry = null;
+		try {
+			entry = pending.remove().get();
+			zos.addRawArchiveEntry(entry.zipEntry, 
+					new ByteArrayInputStream(entry.bytes, 0, entry.length));
+			
+		} catch (ExecutionException e) {
+			abort();
+			if (e.getCause() instanceof Docx4JException) {
+				throw (Docx4JException)e.getCause();
+			}
+			throw new Docx4JException("Error saving part", e.getCause());
+		} catch (InterruptedException e) {
+			abort();
+			Thread.currentThread().interrupt();
+			throw new Docx4JException("Interrupted while saving", e);
+		} catch (IOException e) {
+			abort();
+			throw new Docx4JException("Error writing " + entry.zipEntry.getName(), e);
+		}
+	}
+	
+	private void abort() {
+		
+		for (Future<CompressedEntry> future : pending) {
+			future.cancel(true);
+		}
+		pending.clear();
+		executor.shutdownNow();
+	}
+	
+	private static CompressedEntry compress(String name, boolean stored, EntryContent content) 
+			throws Exception {
+
+		ZipArchiveEntry ze = new ZipArchiveEntry(name);
+		ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream();
+		CRC32 crc = new CRC32();
+
+		if (stored) {
+			content.writeTo(baos);
+			crc.update(baos.buf(), 0, baos.size());
+			
+			ze.setMethod(ZipArchiveEntry.STORED);
+			ze.setSize(baos.size());
+			
+		} else {
+			// As ZipArchiveOutputStream would
+			Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+			try {
+				DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater, 8192);
+				content.writeTo(new CrcOutputStream(dos, crc));
+				dos.finish();
+				
+				ze.setMethod(ZipArchiveEntry.DEFLATED);
+				ze.setSize(deflater.getBytesRead());
+			} finally {
+				deflater.end();
+			}
+		}
+		ze.setCompressedSize(baos.size());
+		ze.setCrc(crc.getValue());
+		
+		return new CompressedEntry(ze, baos.buf(), baos.size());
+	}
+	
+	private static class CompressedEntry {
+		
+		final ZipArchiveEntry zipEntry;
+		final byte[] bytes;
+		final int length;
+		
+		CompressedEntry(ZipArchiveEntry zipEntry, byte[] bytes, int length) {
+			this.zipEntry = zipEntry;
+			this.bytes = bytes;
+			this.length = length;
+		}
+	}
+	
+	/**
+	 * Avoids copying the buffer.
+	 */
+	private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+		
+		byte[] buf() {
+			return buf;
+		}
+	}
+	
+	/**
+	 * Updates the CRC with the uncompressed bytes; 
+	 * unlike CheckedOutputStream, it writes arrays in one go.
+	 */
+	private static class CrcOutputStream extends OutputStream {
+		
+		private final OutputStream os;
+		private final CRC32 crc;
+		
+		CrcOutputStream(OutputStream os, CRC32 crc) {
+			this.os = os;
+			this.crc = crc;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			crc.update(b);
+			os.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			crc.update(b, off, len);
+			os.write(b, off, len);
+		}
+	}
+	
+}
@@ -19,9 +19,14 @@
  */
 package org.docx4j.openpackaging.io3.stores;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
+import org.apache.commons.io.IOUtils;
 import org.docx4j.openpackaging.contenttype.ContentTypeManager;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
@@ -29,6 +34,7 @@ import org.docx4j.openpackaging.parts.JaxbXmlPart;
 import org.docx4j.openpackaging.parts.Part;
 import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.XmlPart;
+import org.docx4j.utils.BufferUtil;
 
 /**
  * A PartStore is a connection to a repository for
@@ -74,6 +80,63 @@ public interface PartStore {
 	 */
 	public InputStream loadPart(String partName) throws Docx4JException;
 	
+	/**
+	 * The content of a part as a ByteBuffer (position 0, limit its length), 
+	 * or null if the part does not exist.
+	 * 
+	 * Where the part store already holds the content in memory (eg ZipPartStore), 
+	 * the buffer is over that, rather than a copy; so don't modify it.
+	 * 
+	 * This default implementation reads loadPart into a buffer of 
+	 * getPartSize bytes (if supported).
+	 * 
+	 * @param partName
+	 * @return
+	 * @throws Docx4JException
+	 * @since 8.2.2
+	 */
+	public default ByteBuffer loadPartBuffer(String partName) throws Docx4JException {
+		
+		InputStream is = loadPart(partName);
+		if (is==null) return null;
+		try {
+			long size = -1;
+			try {
+				size = getPartSize(partName);
+			} catch (UnsupportedOperationException e) {}
+			
+			if (size>=0 && size<=Integer.MAX_VALUE) {
+				return ByteBuffer.wrap(IOUtils.toByteArray(is, size));
+			} else {
+				return BufferUtil.readInputStream(is);
+			}
+		} catch (IOException e) {
+			throw new Docx4JException("Error reading " + partName, e);
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+	}
+
+	/**
+	 * The content of a part as a channel (of getPartSize bytes), 
+	 * or null if the part does not exist.  For example, to transfer 
+	 * it to a FileChannel without copying it through the heap. 
+	 * 
+	 * Caller should close the channel after use.
+	 * 
+	 * This default implementation wraps loadPart.
+	 * 
+	 * @param partName
+	 * @return
+	 * @throws Docx4JException
+	 * @since 8.2.2
+	 */
+	public default ReadableByteChannel loadPartChannel(String partName) throws Docx4JException {
+		
+		InputStream is = loadPart(partName);
+		return (is==null ? null : Channels.newChannel(is));
+	}
+	
 	/**
 	 * 
 	 * Rename a part in the part store. Useful where a part is being renamed,
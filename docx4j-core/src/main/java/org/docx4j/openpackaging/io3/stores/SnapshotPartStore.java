@@ -0,0 +1,211 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.openpackaging.io3.stores;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.XmlPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A target PartStore which, instead of writing a zip, captures the
+ * current content of each part saved to it, so that a new ZipPartStore
+ * can be created from them (eg to load a clone of the package).
+ *
+ * Nothing is compressed.  Where a part hasn't changed since it was loaded
+ * (it hasn't been unmarshalled, or it is clean according to the package's
+ * PartContentsCache, or it is a binary part), the snapshot shares its bytes
+ * rather than copying them.  Only XML parts which may have changed
+ * are marshalled.
+ *
+ * @since 8.2.2
+ */
+public class SnapshotPartStore extends ZipPartStore {
+
+	private static Logger log = LoggerFactory.getLogger(SnapshotPartStore.class);
+
+	private PartStore sourcePartStore;
+
+	public SnapshotPartStore() {
+		super(new HashMap<String, ByteArray>());
+	}
+
+	/**
+	 * @return the captured parts, keyed by zip entry name (ie without leading '/'),
+	 * including [Content_Types].xml
+	 */
+	public HashMap<String, ByteArray> getPartByteArrays() {
+		return partByteArrays;
+	}
+
+	@Override
+	public void setSourcePartStore(PartStore partStore) {
+		super.setSourcePartStore(partStore);
+		this.sourcePartStore = partStore;
+	}
+
+	@Override
+	public void setOutputStream(OutputStream os) {
+		// Nothing to do
+	}
+
+	@Override
+	public void saveContentTypes(ContentTypeManager ctm) throws Docx4JException {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try {
+			ctm.marshal(baos);
+		} catch (Exception e) {
+			throw new Docx4JException("Error marshalling Content_Types ", e);
+		}
+		partByteArrays.put("[Content_Types].xml", new ByteArray(baos.toByteArray()));
+	}
+
+	@Override
+	public void saveJaxbXmlPart(JaxbXmlPart part) throws Docx4JException {
+
+		String targetName;
+		if (part.getPartName().getName().equals("_rels/.rels")) {
+			targetName = part.getPartName().getName();
+		} else {
+			targetName = part.getPartName().getName().substring(1);
+		}
+
+		if (!part.isUnmarshalled()
+				|| (part.isContentsClean()
+						&& part.getPackage()!=null
+						&& part.getPackage().getPartContentsCache()!=null)) {
+
+			ByteArray unchanged = shareSource(targetName);
+			if (unchanged!=null) {
+				log.debug("sharing " + targetName);
+				partByteArrays.put(targetName, unchanged);
+				return;
+			}
+		}
+
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			part.marshal(baos);
+			partByteArrays.put(targetName, new ByteArray(baos.toByteArray()));
+		} catch (Exception e) {
+			throw new Docx4JException("Error marshalling JaxbXmlPart " + part.getPartName(), e);
+		}
+	}
+
+	@Override
+	public void saveCustomXmlDataStoragePart(CustomXmlDataStoragePart part) throws Docx4JException {
+
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			part.getData().writeDocument(baos);
+			partByteArrays.put(part.getPartName().getName().substring(1), new ByteArray(baos.toByteArray()));
+		} catch (Exception e) {
+			throw new Docx4JException("Error marshalling CustomXmlDataStoragePart " + part.getPartName(), e);
+		}
+	}
+
+	@Override
+	public void saveXmlPart(XmlPart part) throws Docx4JException {
+
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			XmlUtils.getTransformerFactory().newTransformer().transform(
+					new DOMSource(part.getDocument()), new StreamResult(baos));
+			partByteArrays.put(part.getPartName().getName().substring(1), new ByteArray(baos.toByteArray()));
+		} catch (Exception e) {
+			throw new Docx4JException("Error marshalling XmlPart " + part.getPartName(), e);
+		}
+	}
+
+	@Override
+	public void saveBinaryPart(Part part) throws Docx4JException {
+
+		String targetName = part.getPartName().getName().substring(1);
+		ByteArray byteArray = null;
+
+		if (((BinaryPart)part).isLoaded()
+				&& !((BinaryPart)part).isContentsClean()) {
+
+			ByteBuffer bb = ((BinaryPart)part).getBuffer();
+			if (bb.hasArray()
+					&& bb.arrayOffset()==0
+					&& bb.limit()==bb.array().length) {
+				// share the buffer's array
+				byteArray = new ByteArray(bb.array());
+			} else {
+				byteArray = new ByteArray(((BinaryPart)part).getBytes());
+			}
+		} else {
+			byteArray = shareSource(targetName);
+			if (byteArray==null) {
+				throw new Docx4JException("part '" + part.getPartName() + "' not found");
+			}
+		}
+		partByteArrays.put(targetName, byteArray);
+	}
+
+	@Override
+	public void finishSave() throws Docx4JException {
+		// Nothing to do
+	}
+
+	/**
+	 * @return the part's bytes in the source part store (without copying
+	 * them, if it is a ZipPartStore), or null
+	 */
+	private ByteArray shareSource(String partName) throws Docx4JException {
+
+		if (sourcePartStore==null) {
+			return null;
+		} else if (sourcePartStore instanceof ZipPartStore) {
+			ByteArray source = ((ZipPartStore)sourcePartStore).getByteArray(partName);
+			// A new ByteArray, since setBytes would otherwise affect both
+			return (source==null ? null : new ByteArray(source.getBytes()));
+		} else {
+			ByteBuffer bb = sourcePartStore.loadPartBuffer(partName);
+			if (bb==null) return null;
+			if (bb.hasArray()
+					&& bb.arrayOffset()==0
+					&& bb.position()==0
+					&& bb.limit()==bb.array().length) {
+				return new ByteArray(bb.array());
+			}
+			byte[] bytes = new byte[bb.remaining()];
+			bb.duplicate().get(bytes);
+			return new ByteArray(bytes);
+		}
+	}
+
+}
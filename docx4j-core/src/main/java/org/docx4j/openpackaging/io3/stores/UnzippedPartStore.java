@@ -23,12 +23,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
+import org.apache.commons.io.IOUtils;
 import org.docx4j.XmlUtils;
 import org.docx4j.openpackaging.contenttype.ContentTypeManager;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
@@ -122,6 +128,55 @@ public class UnzippedPartStore implements PartStore {
 		return is;
 	}
 	
+	/**
+	 * The part's bytes, read via a FileChannel into a buffer of the file's size.
+	 * 
+	 * The file isn't memory mapped, since this part store saves in place, 
+	 * and a mapped file can't safely be truncated and rewritten 
+	 * (and on Windows, can't be rewritten at all until the mapping is 
+	 * garbage collected).
+	 * 
+	 * @since 8.2.2
+	 */
+	@Override
+	public ByteBuffer loadPartBuffer(String partName) throws Docx4JException {
+
+		File f = new File(dir.getPath() + dir.separator + partName);
+		if (!f.exists()) return null;
+		
+		FileChannel fc = null;
+		try {
+			fc = new FileInputStream(f).getChannel();
+			long size = fc.size();
+			if (size>Integer.MAX_VALUE) {
+				throw new Docx4JException(partName + " is too large to buffer");
+			}
+			ByteBuffer bb = ByteBuffer.allocate((int)size);
+			while (bb.hasRemaining()
+					&& fc.read(bb) != -1) {}
+			((Buffer)bb).flip();
+			return bb;
+		} catch (IOException e) {
+			throw new Docx4JException("Error reading " + partName, e);
+		} finally {
+			IOUtils.closeQuietly(fc);
+		}
+	}
+	
+	/**
+	 * @return a FileChannel, or null
+	 * @since 8.2.2
+	 */
+	@Override
+	public ReadableByteChannel loadPartChannel(String partName) throws Docx4JException {
+
+		try {
+			return new FileInputStream(new File(dir.getPath() + dir.separator + partName)).getChannel(); 
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+	}
+	
 	@Override
 	public long getPartSize(String partName) throws Docx4JException {
 		
@@ -203,20 +258,7 @@ public class UnzippedPartStore implements PartStore {
 	        			&& this.sourcePartStore==null) {
 	        		throw new Docx4JException("part store has changed, and sourcePartStore not set");
 	        	} else {
-	        		InputStream is = sourcePartStore.loadPart(part.getPartName().getName().substring(1));
-					FileOutputStream fos = new FileOutputStream(file);
-
-	        		int read = 0;
-	        		byte[] bytes = new byte[1024];
-
-	        		while ((read = is.read(bytes)) != -1) {
-	        			fos.write(bytes, 0, read);
-	        		}
-
-	        		is.close();
-	        		fos.flush();
-	        		fos.close();
-
+	        		copyFromSource(part.getPartName().getName().substring(1), file);
 	        	}
 
 	        }
@@ -298,13 +340,15 @@ public class UnzippedPartStore implements PartStore {
 
 
 		try {
-			FileOutputStream fos;
 
 	        if (((BinaryPart)part).isLoaded() ) {
 
-	        	fos = new FileOutputStream(file);
-		        fos.write( ((BinaryPart)part).getBytes() );
-			    fos.close();
+	        	FileOutputStream fos = new FileOutputStream(file);
+	        	try {
+	        		((BinaryPart)part).writeDataToOutputStream(fos);
+	        	} finally {
+	        		fos.close();
+	        	}
 
 	        } else {
 
@@ -320,16 +364,7 @@ public class UnzippedPartStore implements PartStore {
 
 	        	} else {
 
-	        		InputStream is = sourcePartStore.loadPart(part.getPartName().getName().substring(1));
-	        		int read = 0;
-	        		byte[] bytes = new byte[1024];
-
-		        	fos = new FileOutputStream(file);
-
-	        		while ((read = is.read(bytes)) != -1) {
-	        			fos.write(bytes, 0, read);
-	        		}
-	        		is.close();
+	        		copyFromSource(part.getPartName().getName().substring(1), file);
 	        	}
 	        }
 
@@ -346,6 +381,28 @@ public class UnzippedPartStore implements PartStore {
 	public void finishSave() throws Docx4JException {
 		// nothing to do
 	}
+	
+	/**
+	 * Copy a part from the source part store to the file, via its channel 
+	 * (so for a FileChannel, without copying it through the heap).
+	 */
+	private void copyFromSource(String partName, File file) throws Docx4JException, IOException {
+		
+		ReadableByteChannel in = sourcePartStore.loadPartChannel(partName);
+		if (in == null) throw new Docx4JException("part '" + partName + "' not found");
+		FileChannel out = null;
+		try {
+			out = new FileOutputStream(file).getChannel();
+			long position = 0;
+			long count;
+			while ((count = out.transferFrom(in, position, Long.MAX_VALUE)) > 0) {
+				position += count;
+			}
+		} finally {
+			IOUtils.closeQuietly(in);
+			IOUtils.closeQuietly(out);
+		}
+	}
 
 	@Override
 	public void dispose() {
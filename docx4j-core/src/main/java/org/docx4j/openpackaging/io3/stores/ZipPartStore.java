@@ -19,8 +19,6 @@
  */
 package org.docx4j.openpackaging.io3.stores;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -28,7 +26,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.zip.CRC32;
@@ -41,9 +42,11 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
 import org.apache.commons.io.IOUtils;
 import org.docx4j.Docx4jProperties;
 import org.docx4j.XmlUtils;
+import org.docx4j.jaxb.NamespacePrefixMapperUtils;
 import org.docx4j.openpackaging.contenttype.ContentTypeManager;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.Docx4JRuntimeException;
@@ -55,6 +58,7 @@ import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.XmlPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.OleObjectBinaryPart;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -75,6 +79,40 @@ public class ZipPartStore implements PartStore {
 	
 	long MAX_BYTES_Unzip_Error = -1;
 	
+	/**
+	 * The number of threads to marshal and compress parts on when saving.
+	 * 1 (the default) saves them one at a time, on the calling thread.
+	 * 0 uses one thread per processor.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static final String PARALLELISM_PROPERTY = "docx4j.openpackaging.io3.stores.ZipPartStore.parallelism";
+	
+	private int parallelism = Docx4jProperties.getProperty(PARALLELISM_PROPERTY, 1);
+
+	/**
+	 * @return the number of threads to marshal and compress parts on when saving
+	 * @since 8.2.2
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Marshal and compress parts on several threads when saving.  
+	 * The parts are still written to the zip in the usual order.  
+	 * Worthwhile for packages with many changed parts (eg slides or sheets); 
+	 * the compressed parts are held in memory until they are written.
+	 * 
+	 * @param parallelism 1 to save one part at a time, on the 
+	 * calling thread (the default, unless PARALLELISM_PROPERTY is set);
+	 * 0 for one thread per processor 
+	 * @since 8.2.2
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
 	private void initMaxBytes() {
 
 		MAX_BYTES_Unzip_Error = Docx4jProperties.getPropertyLong("docx4j.openpackaging.parts.MAX_BYTES.unzip.error", -1);
@@ -85,6 +123,20 @@ public class ZipPartStore implements PartStore {
 		initMaxBytes();
 	}
 
+	/**
+	 * For a package which has been unpacked some other way
+	 * (eg from Flat OPC, by FlatOpcXmlStreamImporter).
+	 * 
+	 * @param partByteArrays keyed by zip entry name (ie without leading '/'), 
+	 * including [Content_Types].xml
+	 * @since 8.2.2
+	 */
+	public ZipPartStore(HashMap<String, ByteArray> partByteArrays) {
+		
+		initMaxBytes();
+		this.partByteArrays = partByteArrays;
+	}
+
 	public ZipPartStore(File f) throws Docx4JException {
 		
 		initMaxBytes();
@@ -109,7 +161,7 @@ public class ZipPartStore implements PartStore {
 			policePartSize(f, entry.getSize(), entry.getName());
 			InputStream in = null;
 			try {
-				byte[] bytes =  getBytesFromInputStream( zf.getInputStream(entry) );
+				byte[] bytes =  getBytesFromInputStream( zf.getInputStream(entry), entry.getSize() );
 				policePartSize(f, bytes.length, entry.getName()); // in case earlier check ineffective
 				partByteArrays.put(entry.getName(), new ByteArray(bytes) );
 			} catch (PartTooLargeException e) {
@@ -151,7 +203,7 @@ public class ZipPartStore implements PartStore {
             ArchiveEntry entry = null;
             while ((entry = zis.getNextEntry()) != null) {
             	// How to read the data descriptor for length? ie before reading?
-				byte[] bytes =  getBytesFromInputStream( zis );
+				byte[] bytes =  getBytesFromInputStream( zis, entry.getSize() );
 				//log.debug("Extracting " + entry.getName());
 				policePartSize(null, bytes.length, entry.getName()); 
 				partByteArrays.put(entry.getName(), new ByteArray(bytes) );
@@ -180,22 +232,29 @@ public class ZipPartStore implements PartStore {
 		return (partByteArrays.get(partName) !=null );
 	}
 
-	private byte[] getBytesFromInputStream(InputStream is)
+	/**
+	 * @param is not closed, since it may be the ZipArchiveInputStream
+	 * @param size the entry's uncompressed size, or -1 if unknown (eg
+	 * it is in a data descriptor)
+	 */
+	private byte[] getBytesFromInputStream(InputStream is, long size)
 			throws Exception {
 
-			BufferedInputStream bufIn = new BufferedInputStream(is);
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			BufferedOutputStream bos = new BufferedOutputStream(baos);
-			int c = bufIn.read();
-			while (c != -1) {
-				bos.write(c);
-				c = bufIn.read();
+			if (size>=0 && size<=Integer.MAX_VALUE) {
+				// read straight into an array of the right size
+				byte[] bytes = IOUtils.toByteArray(is, size);
+				int next = is.read();
+				if (next == -1) {
+					return bytes;
+				}
+				// the recorded size was wrong; read the rest
+				ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length * 2);
+				baos.write(bytes);
+				baos.write(next);
+				IOUtils.copy(is, baos);
+				return baos.toByteArray();
 			}
-			bos.flush();
-			baos.flush();
-			//bufIn.close(); //don't do that, since it closes the ZipInputStream after we've read an entry!
-			bos.close();
-			return baos.toByteArray();
+			return IOUtils.toByteArray(is);
 		}
 
 //	private static InputStream getInputStreamFromZippedPart(HashMap<String, ByteArray> partByteArrays,
@@ -223,6 +282,37 @@ public class ZipPartStore implements PartStore {
 		return bytes.getInputStream();
 	}
 	
+	/**
+	 * A read-only buffer over the part's bytes (not a copy), since they
+	 * may be shared (eg by a clone of the package).
+	 * 
+	 * @since 8.2.2
+	 */
+	@Override
+	public ByteBuffer loadPartBuffer(String partName) throws Docx4JException {
+
+        ByteArray bytes = partByteArrays.get(partName);
+        if (bytes == null) {
+        	log.debug("part '" + partName + "' not present in part store");
+        	return null;
+        }
+		return ByteBuffer.wrap(bytes.getBytes()).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @since 8.2.2
+	 */
+	@Override
+	public ReadableByteChannel loadPartChannel(String partName) throws Docx4JException {
+
+        ByteArray bytes = partByteArrays.get(partName);
+        if (bytes == null) {
+        	log.debug("part '" + partName + "' not present in part store");
+        	return null;
+        }
+		return new SeekableInMemoryByteChannel(bytes.getBytes());
+	}
+	
 	@Override
 	public long getPartSize(String partName) throws Docx4JException {
 		
@@ -268,17 +358,33 @@ public class ZipPartStore implements PartStore {
 	///// Save methods
 
 	private ZipArchiveOutputStream zos;
+	
+	// Only if saving in parallel
+	private ParallelEntryWriter parallelWriter;
 
 	/**
 	 * @param zipOutputStream the zipOutputStream to set
 	 */
 	public void setOutputStream(OutputStream os) {
 		this.zos = new ZipArchiveOutputStream(os);
+		
+		int threads = (parallelism==0 ? Runtime.getRuntime().availableProcessors() : parallelism);
+		if (threads>1) {
+			parallelWriter = new ParallelEntryWriter(zos, threads);
+		} else {
+			parallelWriter = null;
+		}
 	}
 
 	public void saveContentTypes(ContentTypeManager ctm) throws Docx4JException {
 
 		try {
+			if (parallelWriter!=null) {
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				ctm.marshal(baos);
+				parallelWriter.add("[Content_Types].xml", false, baos.toByteArray());
+				return;
+			}
 
 	        zos.putArchiveEntry(new ZipArchiveEntry("[Content_Types].xml"));
 	        ctm.marshal(zos);
@@ -290,7 +396,7 @@ public class ZipPartStore implements PartStore {
 
 	}
 
-	public void saveJaxbXmlPart(JaxbXmlPart part) throws Docx4JException {
+	public void saveJaxbXmlPart(final JaxbXmlPart part) throws Docx4JException {
 
 		String targetName;
 		if (part.getPartName().getName().equals("_rels/.rels")) {
@@ -298,6 +404,29 @@ public class ZipPartStore implements PartStore {
 		} else {
 			targetName = part.getPartName().getName().substring(1);
 		}
+		
+		if (parallelWriter!=null) {
+			if (part.isUnmarshalled()) {
+				parallelWriter.add(targetName, false, new ParallelEntryWriter.EntryContent() {
+					
+					@Override
+					public void writeTo(OutputStream os) throws Exception {
+						try {
+							// Its own prefix mapper, since marshal sets the part's mc:Ignorable on it
+							Object prefixMapper = (part instanceof RelationshipsPart) ?
+									NamespacePrefixMapperUtils.getPrefixMapperRelationshipsPart()
+									: NamespacePrefixMapperUtils.getPrefixMapper();
+							part.marshal(os, NamespacePrefixMapperUtils.newInstance(prefixMapper));
+						} catch (Exception e) {
+							throw new Docx4JException("Error marshalling JaxbXmlPart " + part.getPartName(), e);
+						}
+					}
+				});
+			} else {
+				parallelWriter.add(targetName, false, getSourceBuffer(targetName));
+			}
+			return;
+		}
 
 		try {
 	        // Add ZIP entry to output stream.
@@ -371,6 +500,12 @@ public class ZipPartStore implements PartStore {
 		String targetName = part.getPartName().getName().substring(1);
 
 		try {
+			if (parallelWriter!=null) {
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				part.getData().writeDocument( baos );
+				parallelWriter.add(targetName, false, baos.toByteArray());
+				return;
+			}
 
 	        // Add ZIP entry to output stream.
 	        zos.putArchiveEntry(new ZipArchiveEntry(targetName));
@@ -391,6 +526,13 @@ public class ZipPartStore implements PartStore {
 		String targetName = part.getPartName().getName().substring(1);
 
 		try {
+			if (parallelWriter!=null) {
+				ByteArrayOutputStream baos = new ByteArrayOutputStream();
+				XmlUtils.getTransformerFactory().newTransformer().transform(
+						new DOMSource(part.getDocument()), new StreamResult(baos));
+				parallelWriter.add(targetName, false, baos.toByteArray());
+				return;
+			}
 
 		    // Add ZIP entry to output stream.
 		    zos.putArchiveEntry(new ZipArchiveEntry(targetName));
@@ -430,11 +572,12 @@ public class ZipPartStore implements PartStore {
 
 		try {
 			
-			byte[] bytes = null;
+			ByteBuffer bb = null;
 			
 	        if (((BinaryPart)part).isLoaded() ) {
 
-	            bytes = ((BinaryPart)part).getBytes();
+	            bb = ((BinaryPart)part).getBuffer();
+	            ((Buffer)bb).rewind();
 
 	        } else {
 
@@ -449,15 +592,21 @@ public class ZipPartStore implements PartStore {
 		            ByteArray byteArray = partByteArrays.get(
 		            		part.getPartName().getName().substring(1) );
 		            if (byteArray == null) throw new IOException("part '" + part.getPartName() + "' not found");
-		            bytes = byteArray.getBytes();
+		            bb = ByteBuffer.wrap(byteArray.getBytes());
 
 	        	} else {
 
-	        		InputStream is = sourcePartStore.loadPart(part.getPartName().getName().substring(1));
-	        		bytes = IOUtils.toByteArray(is);
+	        		bb = sourcePartStore.loadPartBuffer(part.getPartName().getName().substring(1));
+		            if (bb == null) throw new IOException("part '" + part.getPartName() + "' not found");
 	        	}
 	        }
 			
+	        if (parallelWriter!=null) {
+	        	// stored, if OleObjectBinaryPart (see below)
+	        	parallelWriter.add(resolvedPartUri, part instanceof OleObjectBinaryPart, bb);
+	        	return;
+	        }
+			
 	        // Add ZIP entry to output stream.
 			if (part instanceof OleObjectBinaryPart) {
 				// Workaround: Powerpoint 2010 (32-bit) can't play eg WMV if it is compressed!
@@ -467,11 +616,11 @@ public class ZipPartStore implements PartStore {
 				ze.setMethod(ZipArchiveOutputStream.STORED);
 				
 				// must set size, compressed size, and crc-32
-				ze.setSize(bytes.length);
-				ze.setCompressedSize(bytes.length);
+				ze.setSize(bb.remaining());
+				ze.setCompressedSize(bb.remaining());
 				
 			    CRC32 crc = new CRC32();
-			    crc.update(bytes);	
+			    crc.update(bb.duplicate());	
 			    ze.setCrc(crc.getValue());
 				
 				zos.putArchiveEntry(ze);				
@@ -479,7 +628,7 @@ public class ZipPartStore implements PartStore {
 				zos.putArchiveEntry(new ZipArchiveEntry(resolvedPartUri));
 			}
 
-	        zos.write( bytes );
+	        writeBuffer(bb, zos);
 
 			// Complete the entry
 	        zos.closeArchiveEntry();
@@ -494,6 +643,11 @@ public class ZipPartStore implements PartStore {
 
 	public void finishSave() throws Docx4JException {
 
+		if (parallelWriter!=null) {
+			parallelWriter.finish();
+			parallelWriter = null;
+		}
+		
 		try {
 			// Complete the ZIP file
 			// Don't forget to do this or everything will appear
@@ -509,6 +663,34 @@ public class ZipPartStore implements PartStore {
 
 
 
+	/**
+	 * @param partName without leading '/'
+	 * @return the part's bytes in the source part store (without copying
+	 * them, where that store holds them in memory)
+	 */
+	private ByteBuffer getSourceBuffer(String partName) throws Docx4JException {
+
+		if (this.sourcePartStore==null) {
+			throw new Docx4JException("part store has changed, and sourcePartStore not set");
+		} 
+		ByteBuffer bb = sourcePartStore.loadPartBuffer(partName);
+		if (bb == null) throw new Docx4JException("part '" + partName + "' not found");
+		return bb;
+	}
+
+	/**
+	 * Write the buffer's remaining bytes, from its array if it has one.
+	 * The buffer's position is unchanged.
+	 */
+	static void writeBuffer(ByteBuffer bb, OutputStream os) throws IOException {
+
+		if (bb.hasArray()) {
+			os.write(bb.array(), bb.arrayOffset() + bb.position(), bb.remaining());
+		} else {
+			Channels.newChannel(os).write(bb.duplicate());
+		}
+	}
+
 	public static class ByteArray implements Serializable {
 
 		private static final long serialVersionUID = -784146312250361899L;
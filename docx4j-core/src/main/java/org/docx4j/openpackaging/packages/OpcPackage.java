@@ -22,8 +22,6 @@
 package org.docx4j.openpackaging.packages;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -39,13 +37,18 @@ import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.docx4j.Docx4J;
+import org.docx4j.Docx4jProperties;
 import org.docx4j.TextUtils;
 import org.docx4j.convert.in.FlatOpcXmlImporter;
+import org.docx4j.convert.in.FlatOpcXmlStreamImporter;
 import org.docx4j.convert.out.flatOpcXml.FlatOpcXmlCreator;
 import org.docx4j.docProps.core.CoreProperties;
 import org.docx4j.docProps.core.dc.elements.SimpleLiteral;
 import org.docx4j.docProps.custom.Properties;
+import org.docx4j.events.Docx4jEvent;
 import org.docx4j.events.EventFinished;
 import org.docx4j.events.PackageIdentifier;
 import org.docx4j.events.PackageIdentifierTransient;
@@ -59,23 +62,31 @@ import org.docx4j.openpackaging.contenttype.ContentTypeManager;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.InvalidFormatException;
 import org.docx4j.openpackaging.io.SaveToZipFile;
+import org.docx4j.openpackaging.io3.DeferredPartLoader;
 import org.docx4j.openpackaging.io3.Load3;
 import org.docx4j.openpackaging.io3.Save;
 import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.io3.stores.SnapshotPartStore;
 import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
 import org.docx4j.openpackaging.parts.CustomXmlPart;
 import org.docx4j.openpackaging.parts.DocPropsCorePart;
 import org.docx4j.openpackaging.parts.DocPropsCustomPart;
 import org.docx4j.openpackaging.parts.DocPropsExtendedPart;
 import org.docx4j.openpackaging.parts.ExternalTarget;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
 import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartContentsCache;
 import org.docx4j.openpackaging.parts.PartName;
 import org.docx4j.openpackaging.parts.Parts;
+import org.docx4j.openpackaging.parts.XmlPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
 import org.docx4j.openpackaging.parts.relationships.Namespaces;
 import org.docx4j.org.apache.poi.poifs.crypt.Decryptor;
 import org.docx4j.org.apache.poi.poifs.crypt.EncryptionInfo;
 import org.docx4j.org.apache.poi.poifs.crypt.EncryptionMode;
 import org.docx4j.org.apache.poi.poifs.crypt.Encryptor;
+import org.docx4j.org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
 import org.docx4j.org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +101,13 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 
 	private static Logger log = LoggerFactory.getLogger(OpcPackage.class);
 
+	/**
+	 * Whether Flat OPC XML is read and written with StAX, a part at a time
+	 * (FlatOpcXmlStreamImporter, FlatOpcXmlCreator.stream), rather than via
+	 * an org.docx4j.xmlPackage.Package object.
+	 */
+	private static final String FLAT_OPC_STREAM = "docx4j.openpackaging.packages.OpcPackage.FlatOPC.stream";
+
 	/**
 	 * This HashMap is intended to prevent loops during the loading 
 	 * of this package. TODO This doesn't really tell us anything that
@@ -163,6 +181,118 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	public void setSourcePartStore(PartStore partStore) {
 		this.sourcePartStore = partStore;
 	}
+	
+	private DeferredPartLoader deferredPartLoader;
+	
+	/**
+	 * @return the loader for the parts whose loading Load3 deferred, 
+	 * or null if all the parts were loaded (the default)
+	 * @since 8.2.2
+	 */
+	public DeferredPartLoader getDeferredPartLoader() {
+		return deferredPartLoader;
+	}
+
+	/**
+	 * @param deferredPartLoader
+	 * @since 8.2.2
+	 */
+	public void setDeferredPartLoader(DeferredPartLoader deferredPartLoader) {
+		this.deferredPartLoader = deferredPartLoader;
+	}
+
+	private PartContentsCache partContentsCache;
+	
+	/**
+	 * @return the cache limiting how much unmarshalled part content
+	 * this package keeps, or null (the default) for no limit
+	 * @since 8.2.2
+	 */
+	public PartContentsCache getPartContentsCache() {
+		return partContentsCache;
+	}
+
+	/**
+	 * Limit how much unmarshalled part content this package keeps in memory;
+	 * see PartContentsCache for when this is safe to use.
+	 * 
+	 * @param partContentsCache or null for no limit
+	 * @since 8.2.2
+	 */
+	public void setPartContentsCache(PartContentsCache partContentsCache) {
+		this.partContentsCache = partContentsCache;
+	}
+
+	private volatile boolean frozen = false;
+	
+	/**
+	 * Prepare this package to be read by several threads at once, without 
+	 * copying it.  The contents of every part are loaded now (rather than lazily),
+	 * as are any parts whose loading Load3 deferred,
+	 * and any PartContentsCache is removed, so that reading a part's contents 
+	 * no longer changes any state.  Subclasses also initialise anything
+	 * which would otherwise be initialised (and possibly added to the 
+	 * content) on first use.
+	 * 
+	 * A frozen package must then be treated as read-only: don't modify 
+	 * its contents, or add or remove parts.  It can be exported (eg to HTML
+	 * or PDF, which work on a copy), have its text extracted, or XPaths 
+	 * evaluated on its XML parts, by several threads at once.  
+	 * 
+	 * A DOM isn't thread-safe even to read, so XmlPart's XPath methods are 
+	 * still synchronized (as they always were), and code which reads the 
+	 * DOM from XmlPart.getDocument() itself must synchronize on it. 
+	 * PropertyResolver.activateStyle won't add a style to a frozen package; 
+	 * activate any styles you need before freezing.
+	 * 
+	 * This saves keeping a copy of a large template for each thread.  
+	 * 
+	 * @since 8.2.2
+	 */
+	public void freeze() throws Docx4JException {
+		
+		if (frozen) return;
+		
+		if (deferredPartLoader!=null) {
+			deferredPartLoader.loadAll();
+		}
+		partContentsCache = null;
+		for (Part part : getParts().getParts().values()) {
+			if (part instanceof JaxbXmlPart) {
+				((JaxbXmlPart)part).getContents();
+			} else if (part instanceof BinaryPart) {
+				((BinaryPart)part).getBuffer();
+			} else if (part instanceof XmlPart) {
+				expand(((XmlPart)part).getDocument());
+			} else if (part instanceof CustomXmlDataStoragePart) {
+				expand(((CustomXmlDataStoragePart)part).getData().getDocument());
+			}
+		}
+		frozen = true;
+	}
+	
+	/**
+	 * Visit every node, since a DOM may expand its nodes lazily
+	 * (eg Xerces' deferred DOM), which isn't safe on several threads.
+	 */
+	private static void expand(org.w3c.dom.Node node) {
+		
+		if (node==null) return;
+		for (org.w3c.dom.Node child = node.getFirstChild(); child!=null; child = child.getNextSibling()) {
+			if (child.getAttributes()!=null) {
+				child.getAttributes().getLength();
+			}
+			expand(child);
+		}
+	}
+	
+	/**
+	 * @return whether freeze() has been invoked
+	 * @since 8.2.2
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
 
 	private PartStore targetPartStore;	
 	
@@ -280,21 +410,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	public static OpcPackage load(final java.io.File docxFile, String password) throws Docx4JException {
 		
 		PackageIdentifier name = new PackageIdentifierTransient(docxFile.getName());
-		
-		try {
-			 final FileInputStream fileInputStream = new FileInputStream(docxFile);
-			    try {
-				return OpcPackage.load(name, fileInputStream, password);
-			    } finally {
-				try {
-				    fileInputStream.close();
-				} catch (final IOException e) {
-				    log.warn("Could not close fileInputStream of file {}: {}", docxFile.toString(), e.getMessage());
-				}
-			    }
-		} catch (final FileNotFoundException e) {
-			throw new Docx4JException("Couldn't load file from " + docxFile.getAbsolutePath(), e);
-		}
+		return OpcPackage.load(name, docxFile, password);
 	}
 
 	/**
@@ -311,6 +427,12 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	 */	
 	public static OpcPackage load(PackageIdentifier pkgIdentifier, final java.io.File docxFile, String password) throws Docx4JException {
 		
+		if (isCompoundFile(docxFile)) {
+			// read the OLE2 container from the file, rather than copying it into memory
+			log.info("Detected compound file");
+			return loadCompound(pkgIdentifier, docxFile, password);
+		}
+		
 		try {
 			final FileInputStream fileInputStream = new FileInputStream(docxFile);
 			try {
@@ -511,9 +633,13 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 				opcPackage.setName(pkgIdentifier.name());
 			}
 			
-			new EventFinished(startEvent).publish();						
+			publishFinished(startEvent, file.length());						
 			return opcPackage;
 			
+		} else if (type.equals(Filetype.Compound)){
+			
+			return loadCompound(pkgIdentifier, file, password);
+			
 		} else {
 			try {
 
@@ -545,7 +671,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	 * 
 	 * @Since 3.3.0      
 	 */
-	private static OpcPackage load(PackageIdentifier pkgIdentifier, final InputStream is, Filetype type, String password) throws Docx4JException {
+	private static OpcPackage load(PackageIdentifier pkgIdentifier, InputStream is, Filetype type, String password) throws Docx4JException {
 
 		if (pkgIdentifier==null) {
 			pkgIdentifier = new PackageIdentifierTransient("pkg_" + System.currentTimeMillis());
@@ -554,6 +680,12 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 		StartEvent startEvent = new StartEvent( pkgIdentifier,  WellKnownProcessSteps.PKG_LOAD );
 		startEvent.publish();			
 		
+		CountingInputStream counter = null;
+		if (Docx4jEvent.hasEventNotifier()) {
+			// so the EventFinished can report the package size
+			is = counter = new CountingInputStream(is);
+		}
+		
 		if (type.equals(Filetype.ZippedPackage)){
 			
 			final ZipPartStore partLoader = new ZipPartStore(is);
@@ -566,7 +698,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 				opcPackage.setName(pkgIdentifier.name());
 			}
 			
-			new EventFinished(startEvent).publish();						
+			publishFinished(startEvent, counter);						
 			return opcPackage;
 			
 //			final LoadFromZipNG loader = new LoadFromZipNG();
@@ -576,74 +708,187 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 			
 	        try {
 				POIFSFileSystem fs = new POIFSFileSystem(is);
-				InputStream is2 = null;
-				try {
-					EncryptionInfo info = new EncryptionInfo(fs); 
-			        Decryptor d = Decryptor.getInstance(info); 
-			        log.debug("Decrypting with " + d.getClass().getName());
-			        if (d.verifyPassword(password))   {
-		                 log.debug("Password works");
-		             } else {
-		 				throw new Docx4JException("Problem reading encrypted document: wrong password?");
-		             }
-			        
-					 is2 = d.getDataStream(fs);
-					/* Note, this uses getCipher again:
-					 * 
-							at org.docx4j.org.apache.poi.poifs.crypt.CryptoFunctions.getCipher(CryptoFunctions.java:208)
-							at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor.initCipherForBlock(AgileDecryptor.java:305)
-							at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor$AgileCipherInputStream.initCipherForBlock(AgileDecryptor.java:351)
-							at org.docx4j.org.apache.poi.poifs.crypt.ChunkedCipherInputStream.<init>(ChunkedCipherInputStream.java:56)
-							at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor$AgileCipherInputStream.<init>(AgileDecryptor.java:343)
-							at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor.getDataStream(AgileDecryptor.java:287)
-							at org.docx4j.org.apache.poi.poifs.crypt.Decryptor.getDataStream(Decryptor.java:95)
-						
-						but at this point you'll have a null key if verifyPassword failed! 
-							
-						 */
-				} catch (FileNotFoundException fnf) {
-					
-					/*
-						java.io.FileNotFoundException: no such entry: "EncryptionInfo", had: [Data, CompObj, ObjectPool, 1Table, DocumentSummaryInformation, SummaryInformation, WordDocument, Macros, MsoDataStore]
-							at org.docx4j.org.apache.poi.poifs.filesystem.DirectoryNode.getEntry(DirectoryNode.java:406)
-							at org.docx4j.org.apache.poi.poifs.filesystem.DirectoryNode.createDocumentInputStream(DirectoryNode.java:194)
-							at org.docx4j.org.apache.poi.poifs.crypt.EncryptionInfo.<init>(EncryptionInfo.java:103)					 
-							*/
-					throw new Docx4JException("This file seems to be a binary doc/ppt/xls, not an encrypted OLE2 file containing a doc/pptx/xlsx");
-					
-				}
-				final ZipPartStore partLoader = new ZipPartStore(is2);
-				final Load3 loader = new Load3(partLoader);
-				OpcPackage opcPackage = loader.get();
-
-				opcPackage.setNew(false);
-				
-				if (pkgIdentifier!=null) {
-					opcPackage.setName(pkgIdentifier.name());
-				}
-				
-//				opcPackage.getProtectionSettings().setWasEncrypted(true);
-				
-				return opcPackage;
+				return decrypt(pkgIdentifier, fs, password);
 			} catch (Docx4JException e) {
 				throw e;
 			} catch (Exception e) {
 				throw new Docx4JException("Problem reading encrypted document", e);
 			} finally {
-				new EventFinished(startEvent).publish();				
+				publishFinished(startEvent, counter);				
 			}
 		}
 		
 		try {
+			if (Docx4jProperties.getProperty(FLAT_OPC_STREAM, false)) {
+				return new FlatOpcXmlStreamImporter(is).get();
+			}
 			FlatOpcXmlImporter xmlPackage = new FlatOpcXmlImporter(is); 
 			return xmlPackage.get(); 
 		} catch (final Exception e) {
 			throw new Docx4JException("Couldn't load xml from stream ",e);
 		} finally {
-			new EventFinished(startEvent).publish();									
+			publishFinished(startEvent, counter);									
 		}
 	}
 
+	private static void publishFinished(StartEvent startEvent, long bytes) {
+		
+		EventFinished finished = new EventFinished(startEvent);
+		finished.setBytes(bytes);
+		finished.publish();
+	}
+
+	private static void publishFinished(StartEvent startEvent, CountingInputStream counter) {
+		publishFinished(startEvent, counter==null ? -1 : counter.getByteCount());
+	}
+
+	private static void publishFinished(StartEvent startEvent, CountingOutputStream counter) {
+		publishFinished(startEvent, counter==null ? -1 : counter.getByteCount());
+	}
+
+	/**
+	 * @return whether the file starts with the OLE2 compound file signature
+	 */
+	private static boolean isCompoundFile(File file) throws Docx4JException {
+		
+		final byte[] firstTwobytes=new byte[2];
+		int read=0;
+		try {
+			final FileInputStream fileInputStream = new FileInputStream(file);
+			try {
+				read = fileInputStream.read(firstTwobytes);
+			} finally {
+				fileInputStream.close();
+			}
+		} catch (final IOException e) {
+			throw new Docx4JException("Couldn't load file from " + file.getAbsolutePath(), e);
+		}
+		return read==2 && firstTwobytes[0]==(byte)0xD0 && firstTwobytes[1]==(byte)0xCF;
+	}
+
+	/**
+	 * Load an encrypted package, with the OLE2 container read directly 
+	 * from the file (NPOIFSFileSystem is backed by a FileChannel), 
+	 * rather than buffered in memory.
+	 */
+	private static OpcPackage loadCompound(PackageIdentifier pkgIdentifier, final File file, String password) throws Docx4JException {
+
+		if (pkgIdentifier==null) {
+			pkgIdentifier = new PackageIdentifierTransient(file.getName());
+		}
+		
+		StartEvent startEvent = new StartEvent( pkgIdentifier,  WellKnownProcessSteps.PKG_LOAD );
+		startEvent.publish();			
+
+		NPOIFSFileSystem fs = null;
+		try {
+			fs = new NPOIFSFileSystem(file, true);
+			return decrypt(pkgIdentifier, fs, password);
+		} catch (Docx4JException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new Docx4JException("Problem reading encrypted document", e);
+		} finally {
+			if (fs!=null) {
+				try {
+					fs.close();
+				} catch (final IOException e) {
+					log.warn("Could not close file {}: {}", file.toString(), e.getMessage());
+				}
+			}
+			publishFinished(startEvent, file.length());				
+		}
+	}
+
+	/**
+	 * Decrypt the EncryptedPackage stream of the OLE2 container, and load the 
+	 * package from it.  The decrypted stream is fully read by ZipPartStore, 
+	 * so the file system can be closed once this returns.
+	 */
+	private static OpcPackage decrypt(PackageIdentifier pkgIdentifier, NPOIFSFileSystem fs, String password) throws Exception {
+		
+		InputStream is2 = null;
+		try {
+			EncryptionInfo info = new EncryptionInfo(fs); 
+	        Decryptor d = Decryptor.getInstance(info); 
+	        log.debug("Decrypting with " + d.getClass().getName());
+	        if (d.verifyPassword(password))   {
+                 log.debug("Password works");
+             } else {
+ 				throw new Docx4JException("Problem reading encrypted document: wrong password?");
+             }
+	        
+			 is2 = d.getDataStream(fs);
+			/* Note, this uses getCipher again:
+			 * 
+					at org.docx4j.org.apache.poi.poifs.crypt.CryptoFunctions.getCipher(CryptoFunctions.java:208)
+					at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor.initCipherForBlock(AgileDecryptor.java:305)
+					at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor$AgileCipherInputStream.initCipherForBlock(AgileDecryptor.java:351)
+					at org.docx4j.org.apache.poi.poifs.crypt.ChunkedCipherInputStream.<init>(ChunkedCipherInputStream.java:56)
+					at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor$AgileCipherInputStream.<init>(AgileDecryptor.java:343)
+					at org.docx4j.org.apache.poi.poifs.crypt.agile.AgileDecryptor.getDataStream(AgileDecryptor.java:287)
+					at org.docx4j.org.apache.poi.poifs.crypt.Decryptor.getDataStream(Decryptor.java:95)
+				
+				but at this point you'll have a null key if verifyPassword failed! 
+					
+				 */
+		} catch (FileNotFoundException fnf) {
+			
+			/*
+				java.io.FileNotFoundException: no such entry: "EncryptionInfo", had: [Data, CompObj, ObjectPool, 1Table, DocumentSummaryInformation, SummaryInformation, WordDocument, Macros, MsoDataStore]
+					at org.docx4j.org.apache.poi.poifs.filesystem.DirectoryNode.getEntry(DirectoryNode.java:406)
+					at org.docx4j.org.apache.poi.poifs.filesystem.DirectoryNode.createDocumentInputStream(DirectoryNode.java:194)
+					at org.docx4j.org.apache.poi.poifs.crypt.EncryptionInfo.<init>(EncryptionInfo.java:103)					 
+					*/
+			throw new Docx4JException("This file seems to be a binary doc/ppt/xls, not an encrypted OLE2 file containing a doc/pptx/xlsx");
+			
+		}
+		final ZipPartStore partLoader = new ZipPartStore(is2);
+		final Load3 loader = new Load3(partLoader);
+		OpcPackage opcPackage = loader.get();
+
+		opcPackage.setNew(false);
+		
+		if (pkgIdentifier!=null) {
+			opcPackage.setName(pkgIdentifier.name());
+		}
+		
+		return opcPackage;
+	}
+
+	/**
+	 * Create and initialise the Encryptor for one of the Docx4J.FLAG_SAVE_ENCRYPTED_ variants.
+	 */
+	private static Encryptor createEncryptor(int flags, String password) throws Docx4JException {
+		
+		if (password==null || password.trim().length()==0) {
+			// If in Word you hit enter when asked to set the password, the docx will be saved unencrypted
+			throw new Docx4JException("Encryption requested, but a new password not provided.");
+		}
+		
+		// We could set DocSecurity=1, but it seems completely irrelevant,
+		// so why bother, until proven that some Microsoft software somewhere uses it?
+		// If/when we do so, use ProtectionSettings.setDocSecurity
+
+		EncryptionInfo info = null;			
+		if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_BINARYRC4) {
+			info = new EncryptionInfo(EncryptionMode.binaryRC4);
+			
+		} else if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_STANDARD ) {
+			info = new EncryptionInfo(EncryptionMode.standard);	
+			
+		} else if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_AGILE ) {
+			info = new EncryptionInfo(EncryptionMode.agile);
+			// EncryptionInfo info = new EncryptionInfo(EncryptionMode.agile, CipherAlgorithm.aes192, HashAlgorithm.sha384, -1, -1, null);
+
+		}  			
+
+		Encryptor enc = info.getEncryptor();
+		enc.confirmPassword(password); 
+
+		return enc;
+	}
+
 	/**
 	 * Convenience method to save a WordprocessingMLPackage
 	 * or PresentationMLPackage to a File.  If the file ends with .xml,
@@ -678,6 +923,13 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	 */	
 	public void save(File outFile, int flags, String password) throws Docx4JException {
 		
+		if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_BINARYRC4
+				|| flags == Docx4J.FLAG_SAVE_ENCRYPTED_STANDARD 
+				|| flags == Docx4J.FLAG_SAVE_ENCRYPTED_AGILE) {
+			saveEncrypted(outFile, flags, password);
+			return;
+		}
+		
 		OutputStream outStream = null;
 		try {
 			outStream = new FileOutputStream(outFile);
@@ -696,6 +948,54 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 		
 	}	
 
+	/**
+	 * Write the OLE2 container directly to the file (NPOIFSFileSystem 
+	 * opened read/write on a FileChannel), rather than building it in memory
+	 * and then copying it out.  
+	 */
+	private void saveEncrypted(File outFile, int flags, String password) throws Docx4JException {
+		
+		StartEvent startEvent = new StartEvent( this,  WellKnownProcessSteps.PKG_SAVE );
+		startEvent.publish();
+		
+		NPOIFSFileSystem fs = null;
+		try {
+			Encryptor enc = createEncryptor(flags, password);
+
+			// start with an empty file system
+			OutputStream fos = new FileOutputStream(outFile);
+			try {
+				NPOIFSFileSystem empty = new NPOIFSFileSystem();
+				empty.writeFilesystem(fos);
+				empty.close();
+			} finally {
+				fos.close();
+			}
+			
+			fs = new NPOIFSFileSystem(outFile, false);
+			OutputStream os = enc.getDataStream(fs);
+			
+			Save saver = new Save(this);
+			saver.save(os); // closing the zip closes os, which writes the EncryptedPackage
+			
+			fs.writeFilesystem();
+			
+		} catch (Docx4JException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new  Docx4JException("Error encrypting as OLE compound file", e);
+		} finally {
+			if (fs!=null) {
+				try {
+					fs.close();
+				} catch (IOException e) {
+					log.warn("Could not close file {}: {}", outFile.toString(), e.getMessage());
+				}
+			}
+			publishFinished(startEvent, outFile.length());
+		}
+	}
+
 	/**
 	 *  Save this pkg to an OutputStream in the usual zipped up format
 	 *  (Docx4J.FLAG_SAVE_ZIP_FILE)
@@ -732,7 +1032,16 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 		StartEvent startEvent = new StartEvent( this,  WellKnownProcessSteps.PKG_SAVE );
 		startEvent.publish();
 		
-		if (flags == Docx4J.FLAG_SAVE_FLAT_XML) {
+		CountingOutputStream counter = null;
+		if (Docx4jEvent.hasEventNotifier()) {
+			// so the EventFinished can report the package size
+			outStream = counter = new CountingOutputStream(outStream);
+		}
+		
+		if (flags == Docx4J.FLAG_SAVE_FLAT_XML
+				&& Docx4jProperties.getProperty(FLAT_OPC_STREAM, false)) {
+			new FlatOpcXmlCreator(this).stream(outStream);
+		} else if (flags == Docx4J.FLAG_SAVE_FLAT_XML) {
 			JAXBContext jc = Context.jcXmlPackage;
 			FlatOpcXmlCreator opcXmlCreator = new FlatOpcXmlCreator(this);
 			org.docx4j.xmlPackage.Package pkg = opcXmlCreator.get();
@@ -751,30 +1060,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 				|| flags == Docx4J.FLAG_SAVE_ENCRYPTED_AGILE 							
 				) {
 			
-			if (password==null || password.trim().length()==0) {
-				// If in Word you hit enter when asked to set the password, the docx will be saved unencrypted
-				throw new Docx4JException("Encryption requested, but a new password not provided.");
-			}
-			
-			// We could set DocSecurity=1, but it seems completely irrelevant,
-			// so why bother, until proven that some Microsoft software somewhere uses it?
-			// If/when we do so, use ProtectionSettings.setDocSecurity
-
-			EncryptionInfo info = null;			
-			if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_BINARYRC4) {
-				info = new EncryptionInfo(EncryptionMode.binaryRC4);
-				
-			} else if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_STANDARD ) {
-				info = new EncryptionInfo(EncryptionMode.standard);	
-				
-			} else if (flags == Docx4J.FLAG_SAVE_ENCRYPTED_AGILE ) {
-				info = new EncryptionInfo(EncryptionMode.agile);
-				// EncryptionInfo info = new EncryptionInfo(EncryptionMode.agile, CipherAlgorithm.aes192, HashAlgorithm.sha384, -1, -1, null);
-
-			}  			
-
-			Encryptor enc = info.getEncryptor();
-			enc.confirmPassword(password); 
+			Encryptor enc = createEncryptor(flags, password);
 
 			try {
 				POIFSFileSystem fs = new POIFSFileSystem();
@@ -794,7 +1080,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 			Save saver = new Save(this);
 			saver.save(outStream);
 		}
-		new EventFinished(startEvent).publish();
+		publishFinished(startEvent, counter);
 	}	
 	
 	
@@ -936,22 +1222,32 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 	}
 	
 
-	/** @since 2.7.2 */
+	/** 
+	 * Clone this package.  Nothing is zipped or unzipped: parts which haven't 
+	 * changed since this package was loaded share its bytes, and the clone's 
+	 * XML parts are unmarshalled when (and if) they are first used.  So the cost 
+	 * of a clone depends on how many parts have been unmarshalled in this package,
+	 * rather than on its size.  (Parts which have been unmarshalled, but not modified, 
+	 * are also shared if this package has a PartContentsCache.) 
+	 * 
+	 * @since 2.7.2 */
 	@Override
 	public OpcPackage clone() {
 		
 		OpcPackage result = null;
-		
-		// Zip it up
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		Save saver = new Save(this);
+		PartStore targetPartStore = this.getTargetPartStore();
 		
 		try {
-			saver.save(baos);
-			result = load(new ByteArrayInputStream(baos.toByteArray()));
+			SnapshotPartStore snapshot = new SnapshotPartStore();
+			new Save(this, snapshot).save(null);
+			result = new Load3(new ZipPartStore(snapshot.getPartByteArrays())).get();
+			result.setNew(false);
 		} catch (Docx4JException e) {
 			// Shouldn't happen
 			log.error(e.getMessage(), e);
+		} finally {
+			// Save set it to the snapshot
+			this.setTargetPartStore(targetPartStore);
 		}
 
 		return result;
@@ -1020,6 +1316,7 @@ public abstract class OpcPackage extends Base implements PackageIdentifier {
 		customXmlDataStorageParts= new HashMap<String, CustomXmlPart>();
 		sourcePartStore=null;
 		targetPartStore=null;
+		deferredPartLoader=null;
 		docPropsCorePart=null;
 		docPropsExtendedPart=null;
 		docPropsCustomPart=null;
@@ -38,6 +38,7 @@ import org.docx4j.convert.out.flatOpcXml.FlatOpcXmlCreator;
 import org.docx4j.fonts.IdentityPlusMapper;
 import org.docx4j.fonts.Mapper;
 import org.docx4j.jaxb.Context;
+import org.docx4j.model.PropertyResolver;
 import org.docx4j.model.structure.DocumentModel;
 import org.docx4j.model.structure.HeaderFooterPolicy;
 import org.docx4j.model.structure.PageDimensions;
@@ -56,10 +57,13 @@ import org.docx4j.openpackaging.parts.WordprocessingML.DocumentSettingsPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.FontTablePart;
 import org.docx4j.openpackaging.parts.WordprocessingML.GlossaryDocumentPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.NumberingDefinitionsPart;
+import org.docx4j.openpackaging.parts.WordprocessingML.StyleDefinitionsPart;
 import org.docx4j.openpackaging.parts.relationships.Namespaces;
 import org.docx4j.wml.CTSettings;
 import org.docx4j.wml.Document;
 import org.docx4j.wml.SectPr;
+import org.docx4j.wml.Style;
 import org.docx4j.wml.Styles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -564,6 +568,56 @@ public class WordprocessingMLPackage extends OpcPackage {
 		
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * For a WordprocessingMLPackage, this also sets up the style tree,
+	 * the property resolver (resolving the properties of each style),
+	 * the document model and the font mapper, and resolves any 
+	 * numStyleLink in the numbering definitions.  Once frozen, 
+	 * each thread gets its own list numbering counters.
+	 * 
+	 * @since 8.2.2
+	 */
+	@Override
+	public void freeze() throws Docx4JException {
+		
+		if (isFrozen()) return;
+		
+		MainDocumentPart mdp = getMainDocumentPart();
+		if (mdp!=null) {
+			
+			// HTML, PDF output would otherwise add these
+			StyleDefinitionsPart sdp = mdp.getStyleDefinitionsPart(true);
+			if (sdp!=null) {
+				sdp.getDefaultParagraphStyle();
+				sdp.getDefaultCharacterStyle();
+			}
+			mdp.getStyleTree();
+			
+			PropertyResolver propertyResolver = mdp.getPropertyResolver();
+			if (sdp!=null) {
+				for (Style style : sdp.getContents().getStyle()) {
+					if ("paragraph".equals(style.getType())) {
+						propertyResolver.getEffectivePPr(style.getStyleId());
+						propertyResolver.getEffectiveRPr(style.getStyleId());
+					} else if ("character".equals(style.getType())) {
+						propertyResolver.getEffectiveRPr(style.getStyleId());
+					}
+				}
+			}
+			
+			NumberingDefinitionsPart ndp = mdp.getNumberingDefinitionsPart();
+			if (ndp!=null && sdp!=null) {
+				ndp.resolveLinkedAbstractNum(sdp);
+			}
+		}
+		getDocumentModel();
+		getFontMapper();
+		
+		super.freeze();
+	}
+	
 	/**
 	 * Reinit fields so this pkg object can be re-used.
 	 * @since 3.3.7
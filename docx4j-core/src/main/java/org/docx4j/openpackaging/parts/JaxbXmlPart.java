@@ -30,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -37,7 +38,6 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.util.JAXBResult;
-import javax.xml.crypto.dsig.CanonicalizationMethod;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -56,10 +56,15 @@ import javax.xml.transform.stax.StAXSource;
 import org.apache.commons.io.IOUtils;
 import org.docx4j.Docx4jProperties;
 import org.docx4j.XmlUtils;
+import org.docx4j.events.Docx4jEvent;
+import org.docx4j.events.EventFinished;
+import org.docx4j.events.StartEvent;
+import org.docx4j.events.WellKnownProcessSteps;
 import org.docx4j.jaxb.Context;
 import org.docx4j.jaxb.Docx4jMarshallerListener;
 import org.docx4j.jaxb.Docx4jUnmarshallerListener;
 import org.docx4j.jaxb.JaxbValidationEventHandler;
+import org.docx4j.jaxb.McPreprocessingStreamReader;
 import org.docx4j.jaxb.McIgnorableNamespaceDeclarator;
 import org.docx4j.jaxb.NamespacePrefixMapperUtils;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
@@ -71,13 +76,11 @@ import org.docx4j.openpackaging.io3.stores.ZipPartStore;
 import org.docx4j.openpackaging.io3.stores.ZipPartStore.ByteArray;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPartFilterOutputStream;
-import org.docx4j.org.apache.xml.security.Init;
-import org.docx4j.org.apache.xml.security.c14n.Canonicalizer;
+import org.docx4j.utils.NamespaceTrimmingXMLStreamWriter;
 import org.docx4j.utils.XMLStreamWriterWrapper;
 import org.docx4j.utils.XMLStreamWriterWrapperIndenting;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -138,6 +141,23 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 		return jc;
 	}
 	
+	/**
+	 * If this part is using the slim WML context (docx4j.jaxb.Context.slim=true),
+	 * switch it to the full context, so unmarshalling can be retried with that.
+	 * 
+	 * @return whether the context was switched
+	 * @since 8.2.2
+	 */
+	protected boolean useFullContextIfSlim() {
+		
+		if (Context.isSlim() && jc==Context.jc) {
+			log.info(getPartName().getName() + " contains content the slim context doesn't know; using full context");
+			jc = Context.getFullContext();
+			return true;
+		}
+		return false;
+	}
+	
 	protected static long MAX_BYTES_Unmarshal_Error = -1;
 	
 	static {
@@ -148,6 +168,117 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	
 	/** The content tree (ie JAXB representation of the Part) */
 	protected E jaxbElement = null;
+	
+	/**
+	 * The content tree as unmarshalled from the source PartStore, while it is
+	 * unmodified (as far as we know), so it can be evicted and reloaded.
+	 * Any assignment of jaxbElement makes the part dirty, since they will 
+	 * no longer be the same object.
+	 * 
+	 * Eviction, and loading the contents while they are clean, 
+	 * synchronize on this part.
+	 */
+	private volatile Object cleanContents = null;
+	
+	/**
+	 * Whether contents have been evicted (and not reloaded yet)
+	 */
+	private boolean evicted = false;
+	
+	/**
+	 * The number of marshals in progress; contents aren't evicted while
+	 * they are being marshalled (eg by a ParallelEntryWriter worker)
+	 */
+	private final AtomicInteger marshalling = new AtomicInteger();
+	
+	private PartContentsCache getPartContentsCache() {
+		if (this.getPackage()==null) return null;
+		return this.getPackage().getPartContentsCache();
+	}
+	
+	/**
+	 * Whether this part's contents are as unmarshalled from the source PartStore,
+	 * and so could be discarded, and reloaded if required.
+	 * 
+	 * @since 8.2.2
+	 */
+	public boolean isContentsClean() {
+		return jaxbElement!=null
+				&& jaxbElement==cleanContents;
+	}
+	
+	/**
+	 * Record that you have modified (or are about to modify) this part's 
+	 * contents in a way docx4j can't detect (ie other than via setJaxbElement, 
+	 * or a change to a WordprocessingML content list), so they must not be 
+	 * evicted.  For example, setting a property on an object in the tree
+	 * (a style's rPr, a paragraph's pPr, a Text's value) isn't detected;
+	 * if you don't call this first, and the part is evicted, those edits 
+	 * are silently lost.
+	 * 
+	 * Only relevant if you are using a PartContentsCache.  
+	 * 
+	 * @since 8.2.2
+	 */
+	public synchronized void setContentsModified() {
+		if (cleanContents==null) return;
+		cleanContents = null;
+		PartContentsCache cache = getPartContentsCache();
+		if (cache!=null) {
+			cache.forget(this);
+		}
+	}
+	
+	/**
+	 * Discard this part's contents, if they are clean, to free memory.
+	 * They'll be unmarshalled from the source PartStore next time they
+	 * are needed.  
+	 * 
+	 * Don't retain references to the old contents; if you modify those,
+	 * your changes will be lost.  Nor will edits docx4j can't detect
+	 * survive (see setContentsModified). 
+	 * 
+	 * Contents of a frozen package are never evicted.
+	 * 
+	 * Synchronized with the loading of this part's contents in getContents(),
+	 * so a thread loading them doesn't race with their eviction.
+	 * 
+	 * @return whether the contents were evicted
+	 * @since 8.2.2
+	 */
+	public synchronized boolean evict() {
+		
+		if (!isContentsClean()
+				|| !isEvictable()
+				|| marshalling.get()>0
+				|| this.getPackage()==null
+				|| this.getPackage().isFrozen()
+				|| this.getPackage().getSourcePartStore()==null) {
+			return false;
+		}
+		log.debug("Evicting contents of " + this.getPartName().getName());
+		jaxbElement = null;
+		cleanContents = null;
+		evicted = true;
+		PartContentsCache cache = getPartContentsCache();
+		if (cache!=null) {
+			cache.evicted(this);
+		}
+		return true;
+	}
+
+	/**
+	 * Whether this part's contents may be evicted (see PartContentsCache).
+	 * 
+	 * A subclass which reads the jaxbElement field directly (rather than via 
+	 * getContents()), or which modifies its contents in ways which can't be 
+	 * detected, should return false.
+	 * 
+	 * @since 8.2.2
+	 */
+	protected boolean isEvictable() {
+		return true;
+	}
 
 	/**
 	 * Get the live contents of this part (the JAXB object model).
@@ -158,9 +289,58 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	 */
 	public E getContents() throws Docx4JException {
 		
+		E contents = jaxbElement;
+		if (contents!=null
+				&& (cleanContents==null 
+					|| (this.getPackage()!=null && this.getPackage().isFrozen()))) {
+			// created or modified, or frozen, so never evicted
+			return contents;
+		}
+		
+		boolean loaded = false;
+		boolean reload = false;
+		synchronized (this) {
+			contents = getContentsSynchronized();
+			if (justLoaded) {
+				justLoaded = false;
+				loaded = (contents!=null);
+				reload = evicted;
+				evicted = false;
+			}
+		}
+		if (loaded) {
+			// outside the lock, since the cache may evict other parts
+			PartContentsCache cache = getPartContentsCache();
+			if (cache!=null
+					&& isEvictable()) {
+				cache.loaded(this, reload);
+			}
+		}
+		return contents;
+	}
+	
+	/**
+	 * Whether getContentsSynchronized() has just unmarshalled the contents 
+	 */
+	private boolean justLoaded = false;
+	
+	private E getContentsSynchronized() throws Docx4JException {
+		
 		// Lazy unmarshal
 		InputStream is = null;
-		if (jaxbElement==null) {
+		if (jaxbElement!=null) {
+			if (cleanContents!=null) {
+				PartContentsCache cache = getPartContentsCache();
+				if (cache!=null) {
+					if (jaxbElement==cleanContents) {
+						cache.accessed(this);
+					} else {
+						// jaxbElement has been replaced
+						setContentsModified();
+					}
+				}
+			}
+		} else {
 			if (this.getPackage()==null) {
 				log.warn("This part not added to a package, so its contents can't be retrieved. " );
 				return null;
@@ -195,7 +375,15 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 					log.warn(name + " missing from part store");
 				} else {
 					log.debug("Lazily unmarshalling " + name);
-					unmarshal( is );
+					StartEvent startEvent = unmarshalStarted();
+					try {
+						unmarshal( is );
+					} finally {
+						unmarshalFinished(startEvent);
+					}
+					
+					cleanContents = jaxbElement;
+					justLoaded = true;
 				}
 			} catch (JAXBException e) {
 				throw new Docx4JException("Problem with part " + this.getPartName(), e);
@@ -208,6 +396,36 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 		return jaxbElement;
 	}
 	
+	/**
+	 * Publish a PART_UNMARSHAL StartEvent (detail is the part class), 
+	 * if anyone is listening.
+	 * 
+	 * @return the event, to pass to unmarshalFinished, or null
+	 * @since 8.2.2
+	 */
+	protected StartEvent unmarshalStarted() {
+		
+		if (!Docx4jEvent.hasEventNotifier()) return null;
+		
+		StartEvent startEvent = new StartEvent( this.getPackage(), WellKnownProcessSteps.PART_UNMARSHAL );
+		startEvent.setDetail(this.getClass().getSimpleName());
+		startEvent.publish();
+		return startEvent;
+	}
+
+	/**
+	 * @param startEvent as returned by unmarshalStarted
+	 * @since 8.2.2
+	 */
+	protected void unmarshalFinished(StartEvent startEvent) {
+		
+		if (startEvent==null) return;
+		
+		EventFinished finished = new EventFinished(startEvent);
+		finished.setBytes(this.getContentLengthAsLoaded());
+		finished.publish();
+	}
+	
 	/**
 	 * Get the live contents of this part.
 	 * (getContents() is preferred, this is the older/less friendly method name)
@@ -223,6 +441,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	}
 
 	public void setJaxbElement(E jaxbElement) {
+		setContentsModified();
 		this.jaxbElement = jaxbElement;
 	}
 	/**
@@ -232,6 +451,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	 * @since 3.0
 	 */
 	public void setContents(E jaxbElement) {
+		setContentsModified();
 		this.jaxbElement = jaxbElement;
 	}
 	
@@ -261,6 +481,10 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	 * XmlUtils.marshaltoString directly, since it avoids
 	 * some JAXB processing.  
 	 * 
+	 * See org.docx4j.model.datastorage.migration.VariableReplacer
+	 * for an alternative which avoids the string round trip altogether
+	 * (mapped values are then treated as text, not markup). 
+	 * 
 	 * @param mappings
 	 * @throws JAXBException
 	 * @throws Docx4JException
@@ -701,14 +925,16 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
     		Object namespacePrefixMapper) throws JAXBException {
 
     	
+		marshalling.incrementAndGet();
 		try {
+			// first, since unmarshalling may switch a slim part to the full context
+			E contents = getContents();
 			Marshaller marshaller = jc.createMarshaller();
 //			marshaller.setProperty("com.sun.xml.internal.bind.c14n",true);
 			
 //			marshaller.setListener(Docx4jMarshallerListener);
 			
 			NamespacePrefixMapperUtils.setProperty(marshaller, namespacePrefixMapper);
-			getContents();
 	    	setMceIgnorable( (McIgnorableNamespaceDeclarator) namespacePrefixMapper);
 	    		// this method needs to be suitably overridden in a subclass,
 	    		// to .setMcIgnorable
@@ -722,7 +948,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 //				
 //			} else {
 
-				marshaller.marshal(jaxbElement, node);
+				marshaller.marshal(contents, node);
 //			}
 			
 			// Now unset it
@@ -730,7 +956,9 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 			
 		} catch (Docx4JException e) {
 			throw new JAXBException(e);  // avoid change to method signature
-		} 
+		} finally {
+			marshalling.decrementAndGet();
+		}
 	}
     
     /**
@@ -763,7 +991,10 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
     public void marshal(java.io.OutputStream os, Object namespacePrefixMapper) throws JAXBException {
 
     	
+		marshalling.incrementAndGet();
 		try {
+			// first, since unmarshalling may switch a slim part to the full context
+			E contents = getContents();
 			Marshaller marshaller = jc.createMarshaller();
 			if (Docx4jProperties.getProperty("docx4j.jaxb.formatted.output", true)) {
 				marshaller.setProperty("jaxb.formatted.output", true);
@@ -773,7 +1004,6 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 			NamespacePrefixMapperUtils.setProperty(marshaller, namespacePrefixMapper);
 			
 			log.debug("marshalling " + this.getClass().getName() );	
-			getContents();
 //			if (jaxbElement==null) {
 //				log.error("No JAXBElement has been created for this part, yet!");
 //				throw new JAXBException("No JAXBElement has been created for this part, yet!");
@@ -787,53 +1017,20 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	    	
 			if (Docx4jProperties.getProperty("docx4j.jaxb.marshal.canonicalize", false)) {
 				
-				// We currently canonicalize twice:
-				// 1. trim namespaces
-				// 2. add mcIgnorable
-	    		
-	    		Document doc = XmlUtils.marshaltoW3CDomDocument(jaxbElement, jc); // NB that code trims namespaces
-
-	    		// Now, we need to add back in the mcIgnorable ones
-	    		NamespacePrefixMapperUtils.declareNamespaces(mceIgnorable + getMcChoiceNamespaces(), doc);
-	    		/* that generalises the following:
-	    		if (this.getMceIgnorable().contains("w15")) {
-		    		doc.getDocumentElement().setAttributeNS("http://www.w3.org/2000/xmlns/" ,
-		    				"xmlns:w15", "http://schemas.microsoft.com/office/word/2012/wordml");
-	    			
-	    		}
-	    		*/
-	    		
-	    		log.debug("Input to Canonicalizer: " + XmlUtils.w3CDomNodeToString(doc));
-	    		
-	    		Init.init();
-	    		Canonicalizer c = Canonicalizer.getInstance(CanonicalizationMethod.EXCLUSIVE); 
-	    		/* EXCLUSIVE works, with 
-	    		
-						byte[] bytes = c.canonicalizeSubtree(doc, this.getMceIgnorable());
-						
-				   EXCLUSIVE does not work, if you use	    	
-				   
-				   		c.canonicalizeSubtree(doc, null) or 
-				   		c.canonicalizeSubtree(doc, null)
-				   		
-				   since org.docx4j.org.apache.xml.security.c14n.Canonicalizer then pushes w15 etc down the tree
-				   
-				   INCLUSIVE works c.canonicalizeSubtree(doc)
-				   
-				   In effect, the choice between EXCLUSIVE and INCLUSIVE comes down to
-				   the handling of attributes in the XML namespace, such as xml:lang and xml:space.
-				   
-				   TODO revisit which is preferable.
-				*/
-	    		
-	    		
-	    		log.debug( "canonicalizeSubtree with inclusiveNamespaces {}, {}", this.getMceIgnorable(), getMcChoiceNamespaces() );
-	    		
-	    		byte[] bytes = c.canonicalizeSubtree(doc, this.getMceIgnorable()  + getMcChoiceNamespaces());
-	    		//byte[] bytes = c.canonicalizeSubtree(doc); // for INCLUSIVE
-	    		
-	    		
-	    		IOUtils.write(bytes, os);
+				// Trim unused namespaces as we go (rather than marshalling to a DOM,
+				// then canonicalizing), keeping the mcIgnorable ones on the root element
+				((McIgnorableNamespaceDeclarator) namespacePrefixMapper).setMcIgnorable(
+						mceIgnorable + getMcChoiceNamespaces());
+				
+				XMLStreamWriter xsw = getXMLOutputFactory().createXMLStreamWriter(os, "UTF-8");
+				NamespaceTrimmingXMLStreamWriter trimming = new NamespaceTrimmingXMLStreamWriter(xsw, 
+						mceIgnorable + getMcChoiceNamespaces());
+				
+				log.debug( "trimming namespaces, except {}, {}", mceIgnorable, getMcChoiceNamespaces() );
+				
+				marshaller.marshal(contents, trimming);
+				trimming.flush();
+				trimming.close();
 	    		
 	    	} else if (!Docx4jProperties.getProperty(
 	    			"docx4j.openpackaging.parts.JaxbXmlPart.MarshalToOutputStreamViaXMLStreamWriter", false)){
@@ -858,7 +1055,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 										buffered, 
 										isNew); // BufferedOutputStream helps a lot here
 						
-						marshaller.marshal(jaxbElement, filteredOS);
+						marshaller.marshal(contents, filteredOS);
 						
 						buffered.flush(); // Critical for Sun/Oracle JAXB in 1.8.0_181, otherwise there is content loss at the end of the part 
 						
@@ -877,7 +1074,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 //					marshaller.marshal(jaxbElement, buffered); 
 //					buffered.flush();
 					
-					marshaller.marshal(jaxbElement, os); 
+					marshaller.marshal(contents, os); 
 					
 				}
 	    		
@@ -917,7 +1114,7 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	            // code in git history to do that 
 //	    		xsww.setIgnorableNamespaces(mceIgnorable + getMcChoiceNamespaces());
 	            
-	            marshaller.marshal(jaxbElement, xsww);
+	            marshaller.marshal(contents, xsww);
 	            
 	            xsww.close();
 	            xsw.close();
@@ -931,9 +1128,21 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 			throw new JAXBException(e);  // avoid change to method signature
 		} catch (Exception e) {
 			throw new JAXBException(e);  // avoid change to method signature
+		} finally {
+			marshalling.decrementAndGet();
 		}
 	}
     
+    private static XMLOutputFactory xmlOutputFactory;
+    
+    private static XMLOutputFactory getXMLOutputFactory() {
+    	// creating a factory involves a service lookup, so reuse it
+    	if (xmlOutputFactory==null) {
+    		xmlOutputFactory = XMLOutputFactory.newFactory();
+    	}
+    	return xmlOutputFactory;
+    }
+    
     public String getMceIgnorable() {
     	return "";
     }
@@ -1042,6 +1251,10 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 	        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
 	        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false); // a DTD is merely ignored, its presence doesn't cause an exception
 	        XMLStreamReader xsr = xif.createXMLStreamReader(is);			
+	        if (McPreprocessingStreamReader.isEnabled()) {
+	        	// resolve mc:AlternateContent etc as we go
+	        	xsr = new McPreprocessingStreamReader(xsr);
+	        }
 		    
 			Unmarshaller u = jc.createUnmarshaller();
 			
@@ -1052,12 +1265,22 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 //			}
 			u.setEventHandler(eventHandler);
 			
-			Unmarshaller.Listener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
+			Docx4jUnmarshallerListener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
 			u.setListener(docx4jUnmarshallerListener);
 						
 			try {
 				jaxbElement = (E) XmlUtils.unwrap(
 						u.unmarshal( xsr ));						
+				if (docx4jUnmarshallerListener.hasLaxElements()
+						&& is.markSupported()
+						&& useFullContextIfSlim()) {
+					try {
+						is.reset();
+					} catch (IOException e) {
+						throw new UnmarshalException("Couldn't reset stream", e);
+					}
+					return unmarshal(is);
+				}
 			} catch (UnmarshalException ue) {
 				
 				if (ue.getLinkedException()!=null 
@@ -1075,6 +1298,15 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 				if (is.markSupported() ) {
 					// When reading from zip, we use a ByteArrayInputStream,
 					// which does support this.
+					
+					if (useFullContextIfSlim()) {
+						try {
+							is.reset();
+						} catch (IOException e) {
+							throw new UnmarshalException("Couldn't reset stream", e);
+						}
+						return unmarshal(is);
+					}
 				
 					log.info("encountered unexpected content; pre-processing");
 					eventHandler.setContinue(true);
@@ -1114,13 +1346,20 @@ public abstract class JaxbXmlPart<E> /* used directly only by DocProps parts, Re
 			eventHandler.setContinue(false);
 			u.setEventHandler(eventHandler);
 			
-			Unmarshaller.Listener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
+			Docx4jUnmarshallerListener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
 			u.setListener(docx4jUnmarshallerListener);
 			
 			try {
 				jaxbElement = (E) XmlUtils.unwrap(
 						u.unmarshal( el ) );
+				if (docx4jUnmarshallerListener.hasLaxElements()
+						&& useFullContextIfSlim()) {
+					return unmarshal(el);
+				}
 			} catch (UnmarshalException ue) {
+				if (useFullContextIfSlim()) {
+					return unmarshal(el);
+				}
 				log.info("encountered unexpected content; pre-processing");
 				try {
 					org.w3c.dom.Document doc;
@@ -39,11 +39,13 @@ import javax.xml.transform.stax.StAXSource;
 import org.apache.commons.io.IOUtils;
 import org.docx4j.Docx4jProperties;
 import org.docx4j.XmlUtils;
+import org.docx4j.events.StartEvent;
 import org.docx4j.jaxb.Context;
 import org.docx4j.jaxb.Docx4jUnmarshallerListener;
 import org.docx4j.jaxb.JAXBAssociation;
 import org.docx4j.jaxb.JAXBImplementation;
 import org.docx4j.jaxb.JaxbValidationEventHandler;
+import org.docx4j.jaxb.McPreprocessingStreamReader;
 import org.docx4j.jaxb.XPathBinderAssociationIsPartialException;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.InvalidFormatException;
@@ -118,7 +120,12 @@ implements XPathEnabled<E> {
 					log.warn(name + " missing from part store");
 				} else {
 					log.debug("Lazily unmarshalling " + name);
-					unmarshal( is, true ); // we need the DOM doc
+					StartEvent startEvent = unmarshalStarted();
+					try {
+						unmarshal( is, true ); // we need the DOM doc
+					} finally {
+						unmarshalFinished(startEvent);
+					}
 				}
 			} catch (JAXBException e) {
 				log.error(e.getMessage(), e);
@@ -353,6 +360,17 @@ implements XPathEnabled<E> {
 		return unmarshal(is, false);
 	}
 	
+	/**
+	 * A Binder has no Listener, so can't tell us when the slim context leaves 
+	 * lax content (eg a chart in a:graphicData) as DOM; use the full context.
+	 */
+	private void useFullContextForBinder() {
+		if (Context.isSlim() && jc==Context.jc) {
+			log.debug(getPartName().getName() + ": using full context for binder");
+			jc = Context.getFullContext();
+		}
+	}
+	
 	/**
 	 * Unmarshalling via DOM document can be 4x slower than unmarshalling
 	 * the inputstream using XMLStreamReader, so we avoid doing that where possible.
@@ -445,6 +463,7 @@ implements XPathEnabled<E> {
 					}
 	
 					// 
+					useFullContextForBinder();
 					binder = jc.createBinder();
 					
 					log.debug("info: " + binder.getClass().getName());
@@ -462,6 +481,10 @@ implements XPathEnabled<E> {
 			        xif.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
 			        xif.setProperty(XMLInputFactory.SUPPORT_DTD, false); // a DTD is merely ignored, its presence doesn't cause an exception
 			        XMLStreamReader xsr = xif.createXMLStreamReader(is);			
+			        if (McPreprocessingStreamReader.isEnabled()) {
+			        	// resolve mc:AlternateContent etc as we go
+			        	xsr = new McPreprocessingStreamReader(xsr);
+			        }
 				    
 			        // XMLStreamReaderWrapper xsrw = new XMLStreamReaderWrapper(this, xsr)
 					Unmarshaller u = jc.createUnmarshaller();
@@ -472,11 +495,19 @@ implements XPathEnabled<E> {
 //					}
 					u.setEventHandler(eventHandler);
 					
-					Unmarshaller.Listener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
+					Docx4jUnmarshallerListener docx4jUnmarshallerListener = new Docx4jUnmarshallerListener(this);
 					u.setListener(docx4jUnmarshallerListener);
 					
 					unwrapUsually(u.unmarshal( xsr ));						
 					
+					if (docx4jUnmarshallerListener.hasLaxElements()
+							&& is.markSupported()
+							&& useFullContextIfSlim()) {
+						// try again with the full context
+						is.reset();
+						return this.unmarshal(is, forceBinder);
+					}
+					
 				}
 			} catch (org.xml.sax.SAXParseException e) {
 				
@@ -491,6 +522,14 @@ implements XPathEnabled<E> {
 					
 			} catch (Exception ue) {
 
+				if (ue instanceof UnmarshalException
+						&& is.markSupported()
+						&& useFullContextIfSlim()) {
+					// try again with the full context
+					is.reset();
+					return this.unmarshal(is, forceBinder);
+				}
+				
 				if (ue instanceof UnmarshalException) {
 					// Usually..
 					
@@ -586,6 +625,7 @@ implements XPathEnabled<E> {
 						// drop things we don't have a content model for; the preprocessor doesn't need to 
 						// do that				
 						eventHandler.setContinue(true);
+						useFullContextForBinder();
 						binder = jc.createBinder();
 						binder.setEventHandler(eventHandler);
 						jaxbElement =  (E) XmlUtils.unwrap(binder.unmarshal( doc ));
@@ -681,6 +721,7 @@ implements XPathEnabled<E> {
 				}
 			}
 			
+			useFullContextForBinder();
 			binder = jc.createBinder();
 			JaxbValidationEventHandler eventHandler = new JaxbValidationEventHandler();
 			eventHandler.setContinue(false);
@@ -699,6 +740,9 @@ implements XPathEnabled<E> {
 					log.warn( ue.getMessage(), ue);
 					log.info(".. can recover if problem is w:tblW/@w:w");					
 				}
+				if (useFullContextIfSlim()) {
+					return unmarshal(el);
+				}
 				log.info("encountered unexpected content; pre-processing");
 				org.w3c.dom.Document doc = null;
 				try {
@@ -0,0 +1,220 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.openpackaging.parts;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.docx4j.TraversalUtil;
+import org.docx4j.wml.ArrayListWml;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits how much unmarshalled XML part content a package keeps in memory.
+ *
+ * Parts whose contents are clean (ie unmarshalled from the package's
+ * source PartStore, and not modified since) are tracked in least recently
+ * used order; when the total size (as loaded) of the XML they were
+ * unmarshalled from exceeds maxBytes, the least recently used are evicted.
+ * An evicted part is unmarshalled from the PartStore again next time its
+ * contents are requested, and if it is saved without having been reloaded,
+ * its original bytes are written.  Parts which aren't evictable (see
+ * JaxbXmlPart.isEvictable()) aren't tracked.
+ *
+ * A part is no longer clean once setJaxbElement/setContents is called, or
+ * once a WordprocessingML content list (ArrayListWml) in it changes (the 
+ * cache listens to the lists in the contents as loaded; adding content 
+ * to one of those is itself a change).
+ * Other modifications (eg setting a property on an object in the tree)
+ * can't be detected; if you make them, first call
+ * JaxbXmlPart.setContentsModified(), or don't use this.  It is
+ * intended for workflows which mostly read, such as conversion to PDF
+ * or HTML of very large documents or decks.
+ *
+ * To use it, package.setPartContentsCache(new PartContentsCache(maxBytes)),
+ * or set docx4j.openpackaging.parts.PartContentsCache.maxBytes, to have
+ * one for each loaded package.
+ *
+ * @since 8.2.2
+ */
+public class PartContentsCache {
+
+	private static Logger log = LoggerFactory.getLogger(PartContentsCache.class);
+
+	public static final String MAX_BYTES_PROPERTY = "docx4j.openpackaging.parts.PartContentsCache.maxBytes";
+
+	/**
+	 * Added to each content list in a clean part's contents when they are loaded, 
+	 * so the part is marked modified when one of them changes.
+	 */
+	private static class ModificationDetector implements ArrayListWml.ChangeListener {
+
+		private final JaxbXmlPart<?> part;
+
+		ModificationDetector(JaxbXmlPart<?> part) {
+			this.part = part;
+		}
+
+		@Override
+		public void contentChanged(ArrayListWml<?> list) {
+			part.setContentsModified();
+		}
+	}
+
+	private final long maxBytes;
+
+	/**
+	 * Clean parts, least recently used first, with their size as loaded
+	 */
+	private final LinkedHashMap<JaxbXmlPart<?>, Long> parts = new LinkedHashMap<JaxbXmlPart<?>, Long>(16, 0.75f, true);
+
+	private long bytesHeld = 0;
+
+	private long evictions = 0;
+
+	private long reloads = 0;
+
+	/**
+	 * @param maxBytes the total size (as loaded, ie the XML, not the
+	 * resulting object tree which is typically several times larger)
+	 * of clean parts to keep unmarshalled
+	 */
+	public PartContentsCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * @return the total size (as loaded) of the clean parts currently unmarshalled
+	 */
+	public synchronized long getBytesHeld() {
+		return bytesHeld;
+	}
+
+	/**
+	 * @return the number of times part contents have been evicted
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return the number of times evicted part contents have been unmarshalled again
+	 */
+	public synchronized long getReloads() {
+		return reloads;
+	}
+
+	/**
+	 * Evict the contents of all clean parts.
+	 *
+	 * @return the number evicted
+	 */
+	public int evictAll() {
+
+		List<JaxbXmlPart<?>> toEvict;
+		synchronized (this) {
+			toEvict = new ArrayList<JaxbXmlPart<?>>(parts.keySet());
+		}
+		int count = 0;
+		for (JaxbXmlPart<?> part : toEvict) {
+			if (part.evict()) count++;
+		}
+		return count;
+	}
+
+	/**
+	 * The part's contents have just been unmarshalled from the source PartStore.
+	 */
+	void loaded(JaxbXmlPart<?> part, boolean reload) {
+
+		if (part.jaxbElement.getClass().getPackage()==ArrayListWml.class.getPackage()) {
+			// only WordprocessingML content has ArrayListWml
+			TraversalUtil.addChangeListener(part.jaxbElement, new ModificationDetector(part));
+		}
+
+		List<JaxbXmlPart<?>> toEvict = new ArrayList<JaxbXmlPart<?>>();
+		synchronized (this) {
+
+			if (reload) {
+				reloads++;
+			}
+
+			long size = Math.max(0, part.getContentLengthAsLoaded());
+			Long previous = parts.put(part, size);
+			if (previous!=null) {
+				bytesHeld -= previous;
+			}
+			bytesHeld += size;
+
+			// Least recently used first, but never the part just loaded
+			long projected = bytesHeld;
+			for (Iterator<Map.Entry<JaxbXmlPart<?>, Long>> it = parts.entrySet().iterator();
+					projected > maxBytes && it.hasNext(); ) {
+				Map.Entry<JaxbXmlPart<?>, Long> entry = it.next();
+				if (entry.getKey()!=part) {
+					toEvict.add(entry.getKey());
+					projected -= entry.getValue();
+				}
+			}
+		}
+		// outside the lock, since evict() calls back into evicted()
+		for (JaxbXmlPart<?> victim : toEvict) {
+			if (log.isDebugEnabled()) {
+				log.debug("Over budget, so evicting " + victim.getPartName().getName());
+			}
+			victim.evict();
+		}
+	}
+
+	/**
+	 * The part's contents have been accessed.
+	 */
+	synchronized void accessed(JaxbXmlPart<?> part) {
+		parts.get(part); // update access order
+	}
+
+	/**
+	 * The part's contents have been evicted.
+	 */
+	synchronized void evicted(JaxbXmlPart<?> part) {
+		evictions++;
+		forget(part);
+	}
+
+	/**
+	 * The part is no longer clean (or no longer in this package).
+	 */
+	synchronized void forget(JaxbXmlPart<?> part) {
+
+		Long size = parts.remove(part);
+		if (size!=null) {
+			bytesHeld -= size;
+		}
+	}
+
+}
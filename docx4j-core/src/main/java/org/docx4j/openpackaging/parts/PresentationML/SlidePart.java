@@ -354,6 +354,9 @@ public final class SlidePart extends JaxbPmlPart<Sld> {
 	}
 	
 	public NotesSlidePart getNotesSlidePart() {
+		if (notesSlidePart==null) {
+			loadDeferredParts(Namespaces.PRESENTATIONML_NOTES_SLIDE);
+		}
 		return notesSlidePart;
 	}
 	public SlideLayoutPart getSlideLayoutPart() {
@@ -364,6 +367,9 @@ public final class SlidePart extends JaxbPmlPart<Sld> {
 	 * @since 3.2.0
 	 */
 	public CommentsPart getCommentsPart() {
+		if (comments==null) {
+			loadDeferredParts(Namespaces.PRESENTATIONML_COMMENTS);
+		}
 		return comments;
 	}
 	
@@ -139,7 +139,7 @@ public class WorkbookPart  extends JaxbSmlPart<Workbook> {
 	
 	public boolean isDate1904() {
 		
-		WorkbookPr workbookPr = this.jaxbElement.getWorkbookPr();
+		WorkbookPr workbookPr = this.getJaxbElement().getWorkbookPr();
 		return workbookPr != null && workbookPr.isDate1904();			
 	}
 
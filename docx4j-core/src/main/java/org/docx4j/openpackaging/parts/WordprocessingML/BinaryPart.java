@@ -28,14 +28,12 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
 
-import org.apache.commons.io.IOUtils;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.InvalidFormatException;
 import org.docx4j.openpackaging.io3.stores.PartStore;
 import org.docx4j.openpackaging.parts.ExternalTarget;
 import org.docx4j.openpackaging.parts.Part;
 import org.docx4j.openpackaging.parts.PartName;
-import org.docx4j.utils.BufferUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,8 +71,25 @@ public class BinaryPart extends Part {
 	}
 	
 	private java.nio.ByteBuffer bb;
+	
+	/**
+	 * Whether bb was loaded from the source PartStore (and so is unchanged)
+	 */
+	private boolean clean = false;
+	
+	/**
+	 * Whether this part's contents are as loaded from the package's source PartStore
+	 * (rather than set with setBinaryData), so a PartStore can reuse the source's bytes.
+	 * 
+	 * @since 8.2.2
+	 */
+	public boolean isContentsClean() {
+		return clean && bb!=null;
+	}
+	
 	public void setBinaryData(InputStream binaryData) {
 		log.debug("reading input stream");
+		clean = false;
 		try {
 			this.bb = org.docx4j.utils.BufferUtil.readInputStream(binaryData);
 			log.debug(".. done" );
@@ -95,10 +110,12 @@ public class BinaryPart extends Part {
 
 	public void setBinaryData(byte[] bytes) {
 		this.bb = java.nio.ByteBuffer.wrap(bytes);
+		clean = false;
 	}
 
 	public void setBinaryData(ByteBuffer bb) {
 		this.bb = bb;
+		clean = false;
 	}
 	
 		
@@ -117,11 +134,22 @@ public class BinaryPart extends Part {
 	 * you'll probably want to invoke this first, since otherwise
 	 * the content may not be located (lazy loading).
 	 * 
+	 * If it was loaded from the package's PartStore, the buffer may be
+	 * read-only (since it shares the store's bytes); to change the 
+	 * contents, use setBinaryData.
+	 * 
 	 * @return
 	 */
 	public ByteBuffer getBuffer() {
 		
 		if (this.bb != null) {
+			if (this.getPackage()!=null
+					&& this.getPackage().isFrozen()) {
+				// other threads may be reading it, so give each caller its own position
+				ByteBuffer duplicate = bb.duplicate();
+				((Buffer)duplicate).rewind();
+				return duplicate;
+			}
 			// use buffer loaded during package load
 			// (if not using Load3)
 			((Buffer)bb).rewind(); // Don't forget this!
@@ -142,7 +170,6 @@ public class BinaryPart extends Part {
 		} 
 		
 		
-		InputStream is=null;
 		try {
 			String name = this.getPartName().getName();
 			
@@ -151,8 +178,9 @@ public class BinaryPart extends Part {
 						partStore.getPartSize( name.substring(1)));
 			} catch (UnsupportedOperationException uoe) {}
 			
-			is = partStore.loadPart( name.substring(1));
-			if (is==null) {
+			// may share the part store's bytes, rather than copying them
+			ByteBuffer loaded = partStore.loadPartBuffer( name.substring(1));
+			if (loaded==null) {
 				log.warn(name + " missing from part store");
 			} else {
 				
@@ -161,16 +189,13 @@ public class BinaryPart extends Part {
 //					log.debug("Lazy loading of binary part " + name, t);
 //				}
 				
-				bb = BufferUtil.readInputStream(is);
+				bb = loaded;
+				clean = true;
 				((Buffer)bb).rewind();
 				return bb;
 			}
 		} catch (Docx4JException e) {
 			log.error(e.getMessage(), e);
-		} catch (IOException e) {
-			log.error(e.getMessage(), e);
-		} finally {
-			IOUtils.closeQuietly(is);
 		}
 		
 		return null;
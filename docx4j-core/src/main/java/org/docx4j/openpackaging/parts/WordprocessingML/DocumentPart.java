@@ -172,14 +172,23 @@ public abstract class DocumentPart<E> extends JaxbXmlPartAltChunkHost<E> {
 	
 
 	public CommentsPart getCommentsPart() {
+		if (commentsPart==null) {
+			loadDeferredParts(Namespaces.COMMENTS);
+		}
 		return commentsPart;
 	}
 
 	public CommentsExtendedPart getCommentsExtendedPart() {
+		if (commentsExtendedPart==null) {
+			loadDeferredParts(Namespaces.COMMENTS_EXTENDED);
+		}
 		return commentsExtendedPart;
 	}
 	
 	public CommentsIdsPart getCommentsIdsPart() {
+		if (commentsIdsPart==null) {
+			loadDeferredParts(Namespaces.COMMENTS_IDS);
+		}
 		return commentsIdsPart;
 	}
 
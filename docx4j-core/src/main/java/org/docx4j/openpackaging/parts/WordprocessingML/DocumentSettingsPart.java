@@ -88,6 +88,17 @@ public final class DocumentSettingsPart extends JaxbXmlPartXPathAware<CTSettings
 				
 	}
 	
+	/**
+	 * The protection methods modify the settings directly, so they are
+	 * never evicted.
+	 * 
+	 * @since 8.2.2
+	 */
+	@Override
+	protected boolean isEvictable() {
+		return false;
+	}
+	
 	@Override
     protected void setMceIgnorable(McIgnorableNamespaceDeclarator namespacePrefixMapper) {
 
@@ -40,6 +40,7 @@ import org.docx4j.fonts.RunFontSelector.RunFontCharacterVisitor;
 import org.docx4j.jaxb.Context;
 import org.docx4j.jaxb.McIgnorableNamespaceDeclarator;
 import org.docx4j.model.PropertyResolver;
+import org.docx4j.model.index.ElementIndex;
 import org.docx4j.model.styles.StyleTree;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.exceptions.InvalidFormatException;
@@ -168,6 +169,35 @@ public class MainDocumentPart extends DocumentPart<org.docx4j.wml.Document> impl
 		return propertyResolver;
 	}
 	
+	private ElementIndex elementIndex;
+	
+	/**
+	 * Get an index of the content controls, bookmarks, fields, tables and 
+	 * paragraph styles in this part.  The index is created (and built) when 
+	 * you first use it, then kept up to date as you edit the document.  
+	 * See ElementIndex for what it can and can't track.  
+	 * 
+	 * @since 8.2.2
+	 */
+	public ElementIndex getElementIndex() {
+		if (elementIndex==null) {
+			elementIndex = new ElementIndex(this);
+		}
+		return elementIndex;
+	}
+	
+	/**
+	 * Stop maintaining the element index (if any); it will be discarded.
+	 * 
+	 * @since 8.2.2
+	 */
+	public void disableElementIndex() {
+		if (elementIndex!=null) {
+			elementIndex.close();
+			elementIndex = null;
+		}
+	}
+	
 	private StyleTree styleTree;
 	public StyleTree getStyleTree() {
 		return getStyleTree(false); // preserve existing behaviour
@@ -847,6 +877,9 @@ public class MainDocumentPart extends DocumentPart<org.docx4j.wml.Document> impl
 	 * @since 3.0.0
 	 */
 	public GlossaryDocumentPart getGlossaryDocumentPart() {
+		if (glossaryDocumentPart==null) {
+			loadDeferredParts(Namespaces.GLOSSARY_DOCUMENT);
+		}
 		return glossaryDocumentPart;
 	}
 
@@ -51,7 +51,10 @@ import org.slf4j.LoggerFactory;
 import javax.xml.bind.JAXBException;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 
 
@@ -95,6 +98,7 @@ public final class NumberingDefinitionsPart extends JaxbXmlPartXPathAware<Number
 	
     HashMap<String, AbstractListNumberingDefinition> abstractListDefinitions; 
 	public HashMap<String, AbstractListNumberingDefinition> getAbstractListDefinitions() {
+		if (isFrozen()) return frozenState().abstractListDefinitions;
 		if (abstractListDefinitions==null) initialiseMaps();
 		return abstractListDefinitions;
 	}
@@ -102,11 +106,48 @@ public final class NumberingDefinitionsPart extends JaxbXmlPartXPathAware<Number
     HashMap<String, ListNumberingDefinition> instanceListDefinitions; 
 	public HashMap<String, ListNumberingDefinition> getInstanceListDefinitions() {
 		
+		if (isFrozen()) return frozenState().instanceListDefinitions;
 		if (instanceListDefinitions==null) initialiseMaps();
 		
 		return instanceListDefinitions;
 	}
 	
+	/**
+	 * The list definitions hold the numbering counters, so once the package
+	 * is frozen, each thread gets its own (and its own Emulator), so threads 
+	 * numbering lists at the same time don't affect each other.
+	 * 
+	 * This is kept here (weakly keyed by thread) rather than in a ThreadLocal,
+	 * so it goes with the package, instead of staying on pooled threads.
+	 */
+	private static class NumberingState {
+		
+		HashMap<String, AbstractListNumberingDefinition> abstractListDefinitions
+			= new HashMap<String, AbstractListNumberingDefinition>();
+		HashMap<String, ListNumberingDefinition> instanceListDefinitions 
+			= new HashMap<String, ListNumberingDefinition>();
+		Emulator em = new Emulator();
+	}
+	
+	private final Map<Thread, NumberingState> frozenStates 
+		= Collections.synchronizedMap(new WeakHashMap<Thread, NumberingState>());
+	
+	private NumberingState frozenState() {
+		
+		NumberingState state = frozenStates.get(Thread.currentThread());
+		if (state==null) {
+			state = new NumberingState();
+			initialiseMaps(getJaxbElement(), state.abstractListDefinitions, state.instanceListDefinitions);
+			frozenStates.put(Thread.currentThread(), state);
+		}
+		return state;
+	}
+	
+	private boolean isFrozen() {
+		return this.getPackage()!=null
+				&& this.getPackage().isFrozen();
+	}
+	
     public void initialiseMaps()
     {
     	Numbering numbering = getJaxbElement();
@@ -125,6 +166,13 @@ public final class NumberingDefinitionsPart extends JaxbXmlPartXPathAware<Number
         // initialize the instance number list
         instanceListDefinitions 
         	= new HashMap<String, ListNumberingDefinition>( numbering.getNum().size() );
+        
+        initialiseMaps(numbering, abstractListDefinitions, instanceListDefinitions);
+    }
+    
+    private static void initialiseMaps(Numbering numbering, 
+    		HashMap<String, AbstractListNumberingDefinition> abstractListDefinitions,
+    		HashMap<String, ListNumberingDefinition> instanceListDefinitions) {
 
         // store the abstract list type definitions
         for (Numbering.AbstractNum abstractNumNode : numbering.getAbstractNum() )
@@ -306,6 +354,13 @@ public final class NumberingDefinitionsPart extends JaxbXmlPartXPathAware<Number
 	 */
 	public Emulator getEmulator(boolean reset) {
 		
+		if (isFrozen()) {
+			if (reset) {
+				frozenStates.remove(Thread.currentThread());
+			}
+			return frozenState().em;
+		}
+		
     	if (em == null 
     			|| reset) { 
     		initialiseMaps();
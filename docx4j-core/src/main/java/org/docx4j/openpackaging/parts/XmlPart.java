@@ -179,6 +179,12 @@ public abstract class XmlPart extends Part {
 			return xpathGetString( xpath, prefixMappings);
 		}
 		
+		if (this.getPackage()!=null
+				&& this.getPackage().isFrozen()) {
+			// the CachedXPathAPI isn't thread-safe; xpathGetString is synchronized
+			return xpathGetString( xpath, prefixMappings);
+		}
+		
 		// eg org.apache.xpath.jaxp.XPathImpl
 		
 		if (cachedXPathAPI==null) {
@@ -223,6 +223,17 @@ public final class RelationshipsPart extends JaxbXmlPart<Relationships> {
 		this.jaxbElement = jaxbElement;
 	}	
 	
+	/**
+	 * Relationships are read directly (and are needed to find
+	 * the parts), so are never evicted.
+	 * 
+	 * @since 8.2.2
+	 */
+	@Override
+	protected boolean isEvictable() {
+		return false;
+	}
+	
 	/**
 	 * Source part for these relationships
 	 */
@@ -334,12 +345,25 @@ public final class RelationshipsPart extends JaxbXmlPart<Relationships> {
 						+ " in a valid relationship URI-> ignored", e);
 			}		
 	    		    	
+	    	Part part;
 	    	try {
-				return getPackage().getParts().get( new PartName(uri, true ));
+				part = getPackage().getParts().get( new PartName(uri, true ));
 			} catch (InvalidFormatException e) {
 				log.error("Couldn't get part using PartName: " + uri, e);
 				return null;
 			}
+	    	
+	    	// Load3 may have deferred loading it
+	    	if (part==null
+	    			&& getPackage().getDeferredPartLoader()!=null
+	    			&& getPackage().getDeferredPartLoader().isDeferred(r)) {
+	    		try {
+					part = getPackage().getDeferredPartLoader().load(r);
+				} catch (Docx4JException e) {
+					log.error("Couldn't load deferred part " + uri, e);
+				}
+	    	}
+	    	return part;
 			
 		} else {
 			// EXTERNAL
@@ -110,6 +110,16 @@ public class CryptoFunctions {
             password = Decryptor.DEFAULT_PASSWORD;
         }
         
+        // docx4j: optional cache of derived keys
+        String cacheKey = null;
+        if (PasswordHashCache.isEnabled()) {
+            cacheKey = PasswordHashCache.key(password, hashAlgorithm, salt, spinCount, iteratorFirst);
+            byte[] cached = PasswordHashCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
         MessageDigest hashAlg = getMessageDigest(hashAlgorithm);
         
         hashAlg.update(salt);
@@ -131,6 +141,9 @@ public class CryptoFunctions {
             throw new EncryptedDocumentException("error in password hashing");
         }
         
+        if (cacheKey != null) {
+            PasswordHashCache.put(cacheKey, hash);
+        }
         return hash;
     }    
 
@@ -0,0 +1,140 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.org.apache.poi.poifs.crypt;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.docx4j.Docx4jProperties;
+import org.docx4j.org.apache.poi.util.LittleEndian;
+import org.docx4j.org.apache.poi.util.StringUtil;
+
+/**
+ * An optional, bounded cache of the results of CryptoFunctions.hashPassword.
+ *
+ * Key derivation for agile encryption typically spins the hash 100,000 times,
+ * which dominates the cost of opening a small password protected document.
+ * Where the same document (so the same salt and spin count) is opened
+ * repeatedly with the same password, the derived hash can be reused.
+ *
+ * The cache is disabled (size 0) unless docx4j property
+ * docx4j.openpackaging.packages.OpcPackage.PasswordHashCache.size
+ * is set, or setMaxSize is invoked (which takes precedence).
+ *
+ * Entries are keyed by a SHA-256 digest of the inputs, so passwords
+ * are not held in the cache.
+ *
+ * @since 8.2.2
+ */
+public class PasswordHashCache {
+
+	private static final String SIZE_PROPERTY = "docx4j.openpackaging.packages.OpcPackage.PasswordHashCache.size";
+
+	/**
+	 * -1 until set, or read from docx4j properties on first use
+	 */
+	private static volatile int maxSize = -1;
+
+	private static final Map<String, byte[]> cache = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+			return size() > maxSize();
+		}
+	};
+
+	/**
+	 * @param size the maximum number of derived hashes to keep; 0 to disable the cache
+	 */
+	public static synchronized void setMaxSize(int size) {
+		maxSize = Math.max(0, size);
+		if (maxSize==0) {
+			cache.clear();
+		} else {
+			while (cache.size() > maxSize) {
+				cache.remove(cache.keySet().iterator().next());
+			}
+		}
+	}
+
+	public static int getMaxSize() {
+		return maxSize();
+	}
+
+	private static int maxSize() {
+		int size = maxSize;
+		if (size < 0) {
+			synchronized (PasswordHashCache.class) {
+				if (maxSize < 0) {
+					maxSize = Math.max(0, Docx4jProperties.getProperty(SIZE_PROPERTY, 0));
+				}
+				size = maxSize;
+			}
+		}
+		return size;
+	}
+
+	public static synchronized void clear() {
+		cache.clear();
+	}
+
+	static boolean isEnabled() {
+		return maxSize() > 0; // get/put are synchronized
+	}
+
+	/**
+	 * @return a copy of the cached hash, or null
+	 */
+	static synchronized byte[] get(String key) {
+		byte[] hash = cache.get(key);
+		return hash==null ? null : hash.clone();
+	}
+
+	static synchronized void put(String key, byte[] hash) {
+		if (maxSize() > 0) {
+			cache.put(key, hash.clone());
+		}
+	}
+
+	static String key(String password, HashAlgorithm hashAlgorithm, byte[] salt, int spinCount, boolean iteratorFirst) {
+
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			md.update(StringUtil.getToUnicodeLE(password));
+			md.update((byte)0);
+			md.update(salt);
+			byte[] spin = new byte[4];
+			LittleEndian.putInt(spin, 0, spinCount);
+			md.update(spin);
+			md.update(hashAlgorithm.name().getBytes());
+			md.update((byte)(iteratorFirst ? 1 : 0));
+			return Arrays.toString(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is required of every Java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
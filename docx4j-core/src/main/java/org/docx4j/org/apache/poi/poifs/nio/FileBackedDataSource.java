@@ -73,7 +73,8 @@ public class FileBackedDataSource extends DataSource {
    @Override
    public ByteBuffer read(int length, long position) throws IOException {
       if(position >= size()) {
-         throw new IllegalArgumentException("Position " + position + " past the end of the file");
+         // docx4j: as in later POI; NPOIFSFileSystem.createBlockIfNeeded relies on this to extend a writable file
+         throw new IndexOutOfBoundsException("Position " + position + " past the end of the file");
       }
       
       // Do we read or map (for read/write?
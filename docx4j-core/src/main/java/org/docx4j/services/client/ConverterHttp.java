@@ -20,21 +20,31 @@
 package org.docx4j.services.client;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.docx4j.Docx4jProperties;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.OpcPackage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,15 +52,25 @@ import org.slf4j.LoggerFactory;
 /**
  * Java client library for Plutext PDF Converter
  * 
+ * Since 8.2.2, requests are made using a single long-lived HttpClient 
+ * (shared by all instances, unless you supply your own), whose pooled 
+ * connections are kept alive between conversions.  The size of the pool
+ * is set by com.plutext.converter.maxConnections and 
+ * com.plutext.converter.maxConnectionsPerRoute
+ * 
  * @since 3.3.0
  */
 public class ConverterHttp implements Converter {
 	
 	private static Logger log = LoggerFactory.getLogger(ConverterHttp.class);	
 	
+	private static final long IDLE_CONNECTION_SECONDS = 30;
+	
+	private static CloseableHttpClient sharedClient = null;
 		
 	private String URL = null;  
 	
+	private CloseableHttpClient httpclient = null;
 
 	public ConverterHttp() {
 	}
@@ -65,6 +85,73 @@ public class ConverterHttp implements Converter {
 		
 	}
 	
+	/**
+	 * @param endpointURL
+	 * @param httpclient the client to use, instead of the shared one.  
+	 * It is not closed by this class.
+	 * @since 8.2.2
+	 */
+	public ConverterHttp(String endpointURL, CloseableHttpClient httpclient) {
+		this(endpointURL);
+		this.httpclient = httpclient;
+	}
+	
+	/**
+	 * @return the client this converter uses
+	 * @since 8.2.2
+	 */
+	protected CloseableHttpClient getHttpClient() {
+		
+		if (httpclient==null) {
+			return getSharedClient();
+		}
+		return httpclient;
+	}
+	
+	/**
+	 * The client used by ConverterHttp instances which weren't given one
+	 * (created on first use).
+	 * 
+	 * @since 8.2.2
+	 */
+	public static synchronized CloseableHttpClient getSharedClient() {
+		
+		if (sharedClient==null) {
+			
+			PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+			connectionManager.setMaxTotal(
+					Docx4jProperties.getProperty("com.plutext.converter.maxConnections", 20));
+			connectionManager.setDefaultMaxPerRoute(
+					Docx4jProperties.getProperty("com.plutext.converter.maxConnectionsPerRoute", 10));
+			
+			sharedClient = HttpClients.custom()
+					.setConnectionManager(connectionManager)
+					.setRetryHandler(new MyRetryHandler() )
+					.evictExpiredConnections()
+					.evictIdleConnections(IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS)
+					.build();
+		}
+		return sharedClient;
+	}
+	
+	/**
+	 * Close the shared client, releasing its pooled connections.  
+	 * A new one will be created if it is needed again.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static synchronized void closeSharedClient() {
+		
+		if (sharedClient!=null) {
+			try {
+				sharedClient.close();
+			} catch (IOException e) {
+				log.warn(e.getMessage(), e);
+			}
+			sharedClient = null;
+		}
+	}
+	
 	
 	
 	/**
@@ -85,24 +172,43 @@ public class ConverterHttp implements Converter {
 		
 		checkParameters(fromFormat, toFormat);
 		
-//        CloseableHttpClient httpclient = HttpClients.createDefault();
-		CloseableHttpClient httpclient = HttpClients.custom()
-		        .setRetryHandler(new MyRetryHandler() )
-		        .build();
+        convert(new FileEntity(f, map(fromFormat) ), toFormat, os);
+    	log.debug("..done");
 		
-        try {
-            HttpPost httppost = getUrlForFormat(toFormat);
-            
-            HttpEntity reqEntity = new FileEntity(f, map(fromFormat) );
-            
-            httppost.setEntity(reqEntity);
-
-            execute(httpclient, httppost, os);
-        	log.debug("..done");
-        } finally {
-            httpclient.close();
-        }
+	}
+	
+	/**
+	 * Convert the package to toFormat, streaming result to OutputStream os.
+	 * 
+	 * The package is saved (as a docx) directly to the request, rather than
+	 * first to a byte array.  (The request entity is repeatable; the package
+	 * is saved again if the request is retried)
+	 * 
+	 * toFormat supported: PDF, TOC, DOCX
+	 * 
+	 * @param pkg
+	 * @param toFormat
+	 * @param os
+	 * @throws IOException
+	 * @throws ConversionException
+	 * @since 8.2.2
+	 */
+	public void convert(OpcPackage pkg, Format toFormat, OutputStream os) throws IOException, ConversionException {
+		
+		checkParameters(Format.DOCX, toFormat);
+		
+		convert(new PackageEntity(pkg, map(Format.DOCX)), toFormat, os);
+	}
+	
+	/**
+	 * Post reqEntity, streaming result to OutputStream os.
+	 */
+	void convert(HttpEntity reqEntity, Format toFormat, OutputStream os) throws IOException, ConversionException {
 		
+        HttpPost httppost = getUrlForFormat(toFormat);
+        httppost.setEntity(reqEntity);
+
+        execute(getHttpClient(), httppost, os);
 	}
 	
 	private HttpPost getUrlForFormat(Format toFormat) {
@@ -144,20 +250,11 @@ public class ConverterHttp implements Converter {
 		
 		checkParameters(fromFormat, toFormat);
 		
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        try {
-            HttpPost httppost = getUrlForFormat(toFormat);
-            
-            BasicHttpEntity reqEntity = new BasicHttpEntity();
-            reqEntity.setContentType( map(fromFormat).getMimeType() ); // messy that API is different to FileEntity
-            reqEntity.setContent(instream);            
-
-            httppost.setEntity(reqEntity);
+        BasicHttpEntity reqEntity = new BasicHttpEntity();
+        reqEntity.setContentType( map(fromFormat).getMimeType() ); // messy that API is different to FileEntity
+        reqEntity.setContent(instream);            
 
-            execute(httpclient, httppost, os);
-        } finally {
-            httpclient.close();
-        }
+        convert(reqEntity, toFormat, os);
 		
 	}
 
@@ -179,19 +276,7 @@ public class ConverterHttp implements Converter {
 		
 		checkParameters(fromFormat, toFormat);
 		
-        CloseableHttpClient httpclient = HttpClients.createDefault();
-        try {
-            HttpPost httppost = getUrlForFormat(toFormat);
-            
-            HttpEntity reqEntity = new ByteArrayEntity(bytesIn, map(fromFormat) ); // messy that API is different to FileEntity
-
-            httppost.setEntity(reqEntity);
-
-            execute(httpclient, httppost, os);
-            
-        } finally {
-            httpclient.close();
-        }
+        convert(new ByteArrayEntity(bytesIn, map(fromFormat) ), toFormat, os); // messy that API is different to FileEntity
 		
 	}
 
@@ -254,13 +339,15 @@ public class ConverterHttp implements Converter {
 		    	if (response==null) {
 		    		log.error("\nLooks like your endpoint URL '" + URL + "' is wrong\n");
 		    	} else {
+		    		// consume any error body, so the connection can be reused
+		    		EntityUtils.consumeQuietly(response.getEntity());
 		    		response.close();
 		    	}
 			} catch (IOException e) {}
 		}
 	}
 
-	private ContentType map(Format f) {
+	ContentType map(Format f) {
 		
 		if (Format.DOCX.equals(f)) {
 			return ContentType.create("application/vnd.openxmlformats-officedocument.wordprocessingml.document");
@@ -270,7 +357,7 @@ public class ConverterHttp implements Converter {
 		return null;
 	}
 	
-	private void checkParameters(Format fromFormat, Format toFormat) throws  ConversionException {
+	void checkParameters(Format fromFormat, Format toFormat) throws  ConversionException {
 
 		if (URL==null) {
 			throw new ConversionException("Endpoint URL not configured.");			
@@ -291,4 +378,55 @@ public class ConverterHttp implements Converter {
 		
 	}
 	
+	/**
+	 * A chunked, repeatable request entity, whose content is the
+	 * package, saved as it is written.
+	 */
+	static class PackageEntity extends AbstractHttpEntity {
+		
+		private final OpcPackage pkg;
+		
+		PackageEntity(OpcPackage pkg, ContentType contentType) {
+			this.pkg = pkg;
+			setContentType(contentType.toString());
+			setChunked(true);
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return true;
+		}
+
+		@Override
+		public long getContentLength() {
+			return -1;
+		}
+
+		/**
+		 * HttpClient itself uses writeTo; this buffers the whole docx,
+		 * for anything else which wants the content.
+		 */
+		@Override
+		public InputStream getContent() throws IOException {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			writeTo(baos);
+			return new ByteArrayInputStream(baos.toByteArray());
+		}
+
+		@Override
+		public void writeTo(OutputStream outstream) throws IOException {
+			try {
+				// the zip is finished, but outstream left open for HttpClient to close
+				pkg.save(new CloseShieldOutputStream(outstream));
+			} catch (Docx4JException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return false;
+		}
+	}
+	
 }
@@ -0,0 +1,260 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.services.client;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
+import org.docx4j.Docx4jProperties;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous client for Plutext PDF Converter.
+ *
+ * Conversions run on a bounded pool of worker threads (which share
+ * ConverterHttp's pooled connections), and each returns a CompletableFuture,
+ * completed when the result has been written to the OutputStream (which
+ * happens on a worker thread), or exceptionally with the ConversionException
+ * or IOException.
+ *
+ * Back pressure: if maxPending conversions are already queued or running,
+ * convert returns a future which has already failed with a
+ * ConversionRateLimitException, so the caller can slow down (rather than
+ * queueing without limit).  If the endpoint responds 429, the request is
+ * retried up to maxRetries times, after the delay given by its Retry-After
+ * header (or an exponential back off), before failing with
+ * ConversionRateLimitException.
+ *
+ * Defaults are set by com.plutext.converter.async.maxConcurrent,
+ * com.plutext.converter.async.maxPending and
+ * com.plutext.converter.async.maxRetries
+ *
+ * @since 8.2.2
+ */
+public class ConverterHttpAsync implements Closeable {
+
+	private static Logger log = LoggerFactory.getLogger(ConverterHttpAsync.class);
+
+	private static final AtomicInteger threadNumber = new AtomicInteger(1);
+
+	private static final long RETRY_DELAY_MILLIS = 1000;
+
+	private final ConverterHttp converter;
+
+	private final ExecutorService executor;
+
+	private final Semaphore pending;
+
+	private final int maxPending;
+
+	private final int maxRetries;
+
+	public ConverterHttpAsync(String endpointURL) {
+		this(new ConverterHttp(endpointURL),
+				Docx4jProperties.getProperty("com.plutext.converter.async.maxConcurrent", 4),
+				Docx4jProperties.getProperty("com.plutext.converter.async.maxPending", 64),
+				Docx4jProperties.getProperty("com.plutext.converter.async.maxRetries", 3));
+	}
+
+	/**
+	 * @param converter used to make the requests
+	 * @param maxConcurrent the number of conversions in progress at once
+	 * @param maxPending the number of conversions which may be in progress or waiting
+	 * @param maxRetries the number of times a request rate limited by the endpoint (429) is retried
+	 */
+	public ConverterHttpAsync(ConverterHttp converter, int maxConcurrent, int maxPending, int maxRetries) {
+
+		this.converter = converter;
+		this.maxPending = Math.max(maxPending, maxConcurrent);
+		this.maxRetries = maxRetries;
+		this.pending = new Semaphore(this.maxPending);
+		this.executor = Executors.newFixedThreadPool(maxConcurrent, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "docx4j-converter-" + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	/**
+	 * Convert the package to toFormat, streaming result to OutputStream os.
+	 * The package is saved directly to the request, so it should not be
+	 * modified until the future completes.
+	 *
+	 * toFormat supported: PDF, TOC, DOCX
+	 */
+	public CompletableFuture<Void> convert(OpcPackage pkg, Format toFormat, OutputStream os) {
+
+		try {
+			converter.checkParameters(Format.DOCX, toFormat);
+		} catch (ConversionException e) {
+			return failed(e);
+		}
+		return submit(new ConverterHttp.PackageEntity(pkg, converter.map(Format.DOCX)), toFormat, os);
+	}
+
+	/**
+	 * Convert File fromFormat to toFormat, streaming result to OutputStream os.
+	 *
+	 * fromFormat supported: DOC, DOCX
+	 *
+	 * toFormat supported: PDF, TOC, DOCX
+	 */
+	public CompletableFuture<Void> convert(File f, Format fromFormat, Format toFormat, OutputStream os) {
+
+		try {
+			converter.checkParameters(fromFormat, toFormat);
+		} catch (ConversionException e) {
+			return failed(e);
+		}
+		return submit(new FileEntity(f, converter.map(fromFormat)), toFormat, os);
+	}
+
+	/**
+	 * Convert byte array fromFormat to toFormat, streaming result to OutputStream os.
+	 *
+	 * fromFormat supported: DOC, DOCX
+	 *
+	 * toFormat supported: PDF, TOC, DOCX
+	 */
+	public CompletableFuture<Void> convert(byte[] bytesIn, Format fromFormat, Format toFormat, OutputStream os) {
+
+		try {
+			converter.checkParameters(fromFormat, toFormat);
+		} catch (ConversionException e) {
+			return failed(e);
+		}
+		return submit(new ByteArrayEntity(bytesIn, converter.map(fromFormat)), toFormat, os);
+	}
+
+	/**
+	 * @return the number of conversions in progress or waiting
+	 */
+	public int getPending() {
+		return maxPending - pending.availablePermits();
+	}
+
+	/**
+	 * Stop accepting conversions; those already submitted still complete.
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+
+	private CompletableFuture<Void> submit(final HttpEntity reqEntity, final Format toFormat, final OutputStream os) {
+
+		if (!pending.tryAcquire()) {
+			return failed(new ConversionRateLimitException(
+					"Too many conversions pending (" + maxPending + ")"));
+		}
+
+		final CompletableFuture<Void> future = new CompletableFuture<Void>();
+		try {
+			executor.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					Throwable failure = null;
+					try {
+						execute(reqEntity, toFormat, os);
+					} catch (Throwable t) {
+						failure = t;
+					}
+					// release first, so the caller can submit again on completion
+					pending.release();
+					if (failure==null) {
+						future.complete(null);
+					} else {
+						future.completeExceptionally(failure);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			pending.release();
+			future.completeExceptionally(new ConversionException("Converter closed", e));
+		}
+		return future;
+	}
+
+	private void execute(HttpEntity reqEntity, Format toFormat, OutputStream os)
+			throws IOException, ConversionException {
+
+		for (int attempt = 0; ; attempt++) {
+			try {
+				converter.convert(reqEntity, toFormat, os);
+				return;
+			} catch (ConversionRateLimitException e) {
+				if (attempt >= maxRetries) {
+					throw e;
+				}
+				long delay = retryDelay(e, attempt);
+				log.debug("Rate limited; retrying in {}ms", delay);
+				try {
+					Thread.sleep(delay);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw e;
+				}
+			}
+		}
+	}
+
+	private long retryDelay(ConversionRateLimitException e, int attempt) {
+
+		if (e.getResponse()!=null) {
+			Header retryAfter = e.getResponse().getFirstHeader("Retry-After");
+			if (retryAfter!=null) {
+				try {
+					return Long.parseLong(retryAfter.getValue().trim()) * 1000;
+				} catch (NumberFormatException nfe) {
+					// an HTTP date; fall through
+				}
+			}
+		}
+		return RETRY_DELAY_MILLIS << attempt;
+	}
+
+	private static CompletableFuture<Void> failed(Exception e) {
+
+		CompletableFuture<Void> future = new CompletableFuture<Void>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
+}
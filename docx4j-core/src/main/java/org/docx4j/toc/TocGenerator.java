@@ -22,17 +22,25 @@ package org.docx4j.toc;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
+import org.apache.commons.io.output.NullOutputStream;
 import org.docx4j.Docx4J;
 import org.docx4j.Docx4jProperties;
 import org.docx4j.TraversalUtil;
@@ -46,6 +54,9 @@ import org.docx4j.model.listnumbering.Emulator;
 import org.docx4j.model.listnumbering.Emulator.ResultTriple;
 import org.docx4j.model.structure.PageDimensions;
 import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
 import org.docx4j.services.client.ConversionException;
 import org.docx4j.services.client.Converter;
@@ -622,6 +633,24 @@ public class TocGenerator {
     
     private boolean foViaXSLT = true;
     
+    /**
+     * The page numbers last calculated for each package, with the 
+     * fingerprint of the package at the time.
+     */
+    private static final Map<WordprocessingMLPackage, PageNumbers> pageNumbersCache 
+    	= Collections.synchronizedMap(new WeakHashMap<WordprocessingMLPackage, PageNumbers>());
+    
+    private static class PageNumbers {
+    	
+    	final byte[] fingerprint;
+    	final Map<String, Integer> map;
+    	
+    	PageNumbers(byte[] fingerprint, Map<String, Integer> map) {
+    		this.fingerprint = fingerprint;
+    		this.map = map;
+    	}
+    }
+    
 
 	/**
      * Calculate page numbers
@@ -651,15 +680,89 @@ public class TocGenerator {
     		throw new TocException("Encountered broken bookmarks; not configured to remediate. \n" + sw.toString());
     	}
     	
+    	// @since 8.2.2, if the document hasn't changed since the page numbers
+    	// were last calculated (eg updateToc called again), reuse them
+    	boolean reuse = Docx4jProperties.getProperty("docx4j.toc.TocGenerator.reusePageNumbers", true);
+    	if (reuse) {
+    		byte[] fingerprint = fingerprint();
+    		PageNumbers cached = pageNumbersCache.get(wordMLPackage);
+    		if (fingerprint!=null && cached!=null
+    				&& Arrays.equals(fingerprint, cached.fingerprint)) {
+    			log.debug("Document unchanged; reusing page numbers");
+    			return new HashMap<String, Integer>(cached.map);
+    		}
+    	}
+    	
+    	Map<String, Integer> pageNumbersMap;
     	if (Docx4J.pdfViaFO()) {
-    		return getPageNumbersMapViaFOP();
+    		pageNumbersMap = getPageNumbersMapViaFOP();
     	} else {
     		try {
-    			return getPageNumbersMapViaService();
+    			pageNumbersMap = getPageNumbersMapViaService();
     		} catch (TocException e) {
     			throw new TocException("Page number service not available; try using docx4j-export-documents4j-local|remote or docx4j-export-fo");
     		}
     	}
+    	
+    	if (reuse) {
+    		// computed afresh, since calculating the page numbers may have
+    		// unmarshalled parts, which changes the fingerprint
+    		byte[] fingerprint = fingerprint();
+    		if (fingerprint!=null) {
+    			pageNumbersCache.put(wordMLPackage, 
+    				new PageNumbers(fingerprint, new HashMap<String, Integer>(pageNumbersMap)));
+    		}
+    	}
+    	return pageNumbersMap;
+    }
+    
+    /**
+     * A digest of the package's parts (the XML ones as they would be saved), 
+     * which is much quicker to compute than the page numbers.
+     * 
+     * XML parts which haven't been unmarshalled are still as loaded, so just 
+     * their names are included (rather than unmarshalling them).  
+     * 
+     * The ToC being generated is included: its length moves the pages 
+     * after it, and it depends on the instruction's switches as well as 
+     * on the rest of the document.  It is fingerprinted as regenerated, 
+     * before its page numbers are filled in, so an unchanged document 
+     * still matches.
+     * 
+     * Nothing is modified, so this is safe on a frozen package.
+     * 
+     * @return the digest, or null if it couldn't be computed
+     */
+    byte[] fingerprint() {
+    	
+    	// in part name order, for a stable digest
+    	Map<String, Part> parts = new TreeMap<String, Part>();
+    	for (Part part : wordMLPackage.getParts().getParts().values()) {
+    		parts.put(part.getPartName().getName(), part);
+    	}
+    	
+    	try {
+    		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    		OutputStream os = new DigestOutputStream(new NullOutputStream(), digest);
+    		for (Part part : parts.values()) {
+    			digest.update(part.getPartName().getName().getBytes("UTF-8"));
+    			if (part instanceof JaxbXmlPart) {
+    				if (((JaxbXmlPart<?>)part).isUnmarshalled()) {
+    					((JaxbXmlPart<?>)part).marshal(os);
+    				} else {
+    					digest.update((byte)0); // as loaded
+    				}
+    			} else if (part instanceof BinaryPart
+    					&& ((BinaryPart)part).getBuffer()!=null) {
+    				// duplicate, so as not to change the buffer's position
+    				digest.update(((BinaryPart)part).getBuffer().duplicate());
+    			}
+    		}
+    		return digest.digest();
+    	} catch (Exception e) {
+    		log.warn("Couldn't fingerprint document, so page numbers won't be reused: " + e.getMessage());
+    		return null;
+    	}
     }
 
     private Map<String, Integer> getPageNumbersMapViaService() throws TocException {
@@ -768,8 +871,12 @@ public class TocGenerator {
     	
         FOSettings foSettings = Docx4J.createFOSettings();
         foSettings.setOpcPackage(wordMLPackage);
-        String MIME_FOP_AREA_TREE   = "application/X-fop-areatree"; // org.apache.fop.apps.MimeConstants
-        foSettings.setApacheFopMime(MIME_FOP_AREA_TREE);
+        foSettings.setApacheFopMime(FOSettings.MIME_FOP_AREA_TREE);
+        
+        // Collect the page numbers as FOP lays out the document, 
+        // rather than from the serialised area tree
+        TocPageNumbersHandler tpnh = new TocPageNumbersHandler();
+        foSettings.setApacheFopAreaTreeHandler(tpnh);
         
         foSettings.getFeatures().add(ConversionFeatures.PP_PDF_APACHEFOP_DISABLE_PAGEBREAK_LIST_ITEM); // in 3.0.1, this is off by default
         
@@ -777,6 +884,7 @@ public class TocGenerator {
         	foSettings.setFoDumpFile(new java.io.File(System.getProperty("user.dir") + "/Toc.fo"));
         }
 
+        // only written to if the renderer doesn't support the handler
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         
         try {
@@ -794,12 +902,13 @@ public class TocGenerator {
                 log.debug("Time taken (AT via non XSLT): " + Math.round(timing) + " sec");
         	}
             
-//            start = System.currentTimeMillis();
-            InputStream is = new ByteArrayInputStream(os.toByteArray());
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            SAXParser saxParser = factory.newSAXParser();
-            TocPageNumbersHandler tpnh = new TocPageNumbersHandler();
-			saxParser.parse(is, tpnh);
+        	if (tpnh.getPageNumbers()==null) {
+        		log.debug("Area tree handler wasn't used; parsing area tree");
+	            InputStream is = new ByteArrayInputStream(os.toByteArray());
+	            SAXParserFactory factory = SAXParserFactory.newInstance();
+	            SAXParser saxParser = factory.newSAXParser();
+				saxParser.parse(is, tpnh);
+        	}
 			
 			// Negligible 
 //            end = System.currentTimeMillis();
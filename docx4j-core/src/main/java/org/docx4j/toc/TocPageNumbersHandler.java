@@ -70,6 +70,9 @@ public class TocPageNumbersHandler extends DefaultHandler {
         pageNumbers.put(pageRef, pageNumber);
     }
 
+    /**
+     * @return page numbers by bookmark name, or null if no area tree has been received
+     */
     public Map<String, Integer> getPageNumbers() {
         return pageNumbers;
     }
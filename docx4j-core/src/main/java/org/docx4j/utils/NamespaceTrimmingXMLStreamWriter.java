@@ -0,0 +1,405 @@
+/*
+ *  Copyright 2020, Plutext Pty Ltd.
+ *
+ *  This file is part of docx4j.
+
+    docx4j is licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+
+ */
+package org.docx4j.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An XMLStreamWriter filter which drops the namespace declarations
+ * the marshaller writes (the JAXB reference implementation declares
+ * every namespace it knows about on the root element), and instead
+ * declares a namespace on an element only where its prefix is used
+ * (by the element or one of its attributes) and isn't already in scope.
+ *
+ * This gives the same result as exclusive canonicalization, but in
+ * a single pass, without a DOM.  As there, the "inclusive" prefixes
+ * (eg those listed in mc:Ignorable, or required by an mc:Choice, which Word
+ * needs to be declared even though they aren't used) are declared on the
+ * root element, provided the marshaller declared them.
+ *
+ * Empty elements are written using empty-element tags.
+ *
+ * @since 8.2.2
+ */
+public class NamespaceTrimmingXMLStreamWriter implements XMLStreamWriter {
+
+	private static Logger log = LoggerFactory.getLogger(NamespaceTrimmingXMLStreamWriter.class);
+
+	private final XMLStreamWriter underlying;
+
+	private final String[] inclusivePrefixes;
+
+	/**
+	 * Namespaces declared by the marshaller; prefix to URI, and URI to prefix
+	 */
+	private final Map<String, String> declaredUris = new HashMap<String, String>();
+	private final Map<String, String> declaredPrefixes = new HashMap<String, String>();
+
+	/**
+	 * Namespaces declared in the output, in scope
+	 */
+	private final List<String> boundPrefixes = new ArrayList<String>();
+	private final List<String> boundUris = new ArrayList<String>();
+	private int[] marks = new int[32];
+	private int depth = 0;
+
+	/**
+	 * The start tag not yet written (since its attributes may follow)
+	 */
+	private boolean pending = false;
+	private String pendingPrefix;
+	private String pendingLocalName;
+	private String pendingNamespaceURI;
+	private final List<String> pendingAttributes = new ArrayList<String>(); // prefix, namespaceURI, localName, value
+
+	/**
+	 * @param underlying the writer to write to, which should not be repairing namespaces
+	 * @param inclusivePrefixes whitespace separated prefixes to declare on the root element, or null
+	 */
+	public NamespaceTrimmingXMLStreamWriter(XMLStreamWriter underlying, String inclusivePrefixes) {
+		this.underlying = underlying;
+		if (inclusivePrefixes==null || inclusivePrefixes.trim().isEmpty()) {
+			this.inclusivePrefixes = new String[0];
+		} else {
+			this.inclusivePrefixes = inclusivePrefixes.trim().split("\\s+");
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("inclusive prefixes: " + Arrays.toString(this.inclusivePrefixes));
+		}
+	}
+
+	@Override
+	public void writeStartElement(String localName) throws XMLStreamException {
+		writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, localName, XMLConstants.NULL_NS_URI);
+	}
+
+	@Override
+	public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+		writeStartElement(prefixFor(namespaceURI), localName, namespaceURI);
+	}
+
+	@Override
+	public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		flushStartElement(false);
+		pending = true;
+		pendingPrefix = (prefix==null ? XMLConstants.DEFAULT_NS_PREFIX : prefix);
+		pendingLocalName = localName;
+		pendingNamespaceURI = (namespaceURI==null ? XMLConstants.NULL_NS_URI : namespaceURI);
+	}
+
+	@Override
+	public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+		writeStartElement(namespaceURI, localName);
+		flushStartElement(true);
+	}
+
+	@Override
+	public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		writeStartElement(prefix, localName, namespaceURI);
+		flushStartElement(true);
+	}
+
+	@Override
+	public void writeEmptyElement(String localName) throws XMLStreamException {
+		writeStartElement(localName);
+		flushStartElement(true);
+	}
+
+	@Override
+	public void writeEndElement() throws XMLStreamException {
+		if (pending) {
+			flushStartElement(true);
+		} else {
+			underlying.writeEndElement();
+			pop();
+		}
+	}
+
+	@Override
+	public void writeEndDocument() throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeEndDocument();
+	}
+
+	@Override
+	public void close() throws XMLStreamException {
+		flushStartElement(false);
+		underlying.close();
+	}
+
+	@Override
+	public void flush() throws XMLStreamException {
+		underlying.flush();
+	}
+
+	@Override
+	public void writeAttribute(String localName, String value) throws XMLStreamException {
+		writeAttribute(XMLConstants.DEFAULT_NS_PREFIX, XMLConstants.NULL_NS_URI, localName, value);
+	}
+
+	@Override
+	public void writeAttribute(String prefix, String namespaceURI, String localName, String value)
+			throws XMLStreamException {
+		if (!pending) {
+			throw new XMLStreamException("Attribute " + localName + " not in a start tag");
+		}
+		pendingAttributes.add(prefix==null ? XMLConstants.DEFAULT_NS_PREFIX : prefix);
+		pendingAttributes.add(namespaceURI==null ? XMLConstants.NULL_NS_URI : namespaceURI);
+		pendingAttributes.add(localName);
+		pendingAttributes.add(value);
+	}
+
+	@Override
+	public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+		writeAttribute(prefixFor(namespaceURI), namespaceURI, localName, value);
+	}
+
+	@Override
+	public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+		// Not written; the namespace will be declared where it is used
+		if (namespaceURI!=null && !namespaceURI.isEmpty()) {
+			setPrefix(prefix==null ? XMLConstants.DEFAULT_NS_PREFIX : prefix, namespaceURI);
+		}
+	}
+
+	@Override
+	public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+		writeNamespace(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+	}
+
+	@Override
+	public void writeComment(String data) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeComment(data);
+	}
+
+	@Override
+	public void writeProcessingInstruction(String target) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeProcessingInstruction(target);
+	}
+
+	@Override
+	public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeProcessingInstruction(target, data);
+	}
+
+	@Override
+	public void writeCData(String data) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeCData(data);
+	}
+
+	@Override
+	public void writeDTD(String dtd) throws XMLStreamException {
+		underlying.writeDTD(dtd);
+	}
+
+	@Override
+	public void writeEntityRef(String name) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeEntityRef(name);
+	}
+
+	@Override
+	public void writeStartDocument() throws XMLStreamException {
+		writeStartDocument("UTF-8", "1.0");
+	}
+
+	@Override
+	public void writeStartDocument(String version) throws XMLStreamException {
+		writeStartDocument("UTF-8", version);
+	}
+
+	@Override
+	public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+		underlying.writeStartDocument(encoding, version);
+	}
+
+	@Override
+	public void writeCharacters(String text) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeCharacters(text);
+	}
+
+	@Override
+	public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+		flushStartElement(false);
+		underlying.writeCharacters(text, start, len);
+	}
+
+	@Override
+	public String getPrefix(String uri) throws XMLStreamException {
+		return declaredPrefixes.get(uri);
+	}
+
+	@Override
+	public void setPrefix(String prefix, String uri) throws XMLStreamException {
+		if (!declaredUris.containsKey(prefix)) {
+			declaredUris.put(prefix, uri);
+		}
+		if (!declaredPrefixes.containsKey(uri)) {
+			declaredPrefixes.put(uri, prefix);
+		}
+	}
+
+	@Override
+	public void setDefaultNamespace(String uri) throws XMLStreamException {
+		setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+	}
+
+	@Override
+	public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+		underlying.setNamespaceContext(context);
+	}
+
+	@Override
+	public NamespaceContext getNamespaceContext() {
+		return underlying.getNamespaceContext();
+	}
+
+	@Override
+	public Object getProperty(String name) throws IllegalArgumentException {
+		return underlying.getProperty(name);
+	}
+
+	private String prefixFor(String namespaceURI) throws XMLStreamException {
+
+		if (namespaceURI==null || namespaceURI.isEmpty()) {
+			return XMLConstants.DEFAULT_NS_PREFIX;
+		}
+		if (XMLConstants.XML_NS_URI.equals(namespaceURI)) {
+			return XMLConstants.XML_NS_PREFIX;
+		}
+		String prefix = declaredPrefixes.get(namespaceURI);
+		if (prefix==null) {
+			throw new XMLStreamException("No prefix for " + namespaceURI);
+		}
+		return prefix;
+	}
+
+	/**
+	 * Write the pending start tag (if any), declaring the namespaces it uses.
+	 *
+	 * @param empty whether to write it as an empty-element tag
+	 */
+	private void flushStartElement(boolean empty) throws XMLStreamException {
+
+		if (!pending) return;
+		pending = false;
+
+		if (empty) {
+			underlying.writeEmptyElement(pendingPrefix, pendingLocalName, pendingNamespaceURI);
+		} else {
+			underlying.writeStartElement(pendingPrefix, pendingLocalName, pendingNamespaceURI);
+		}
+		push();
+
+		declareIfNecessary(pendingPrefix, pendingNamespaceURI);
+
+		if (depth==1) {
+			for (String prefix : inclusivePrefixes) {
+				String uri = declaredUris.get(prefix);
+				if (uri!=null) {
+					declareIfNecessary(prefix, uri);
+				}
+			}
+		}
+
+		for (int i=0; i<pendingAttributes.size(); i+=4) {
+			String prefix = pendingAttributes.get(i);
+			if (!prefix.isEmpty()) {
+				declareIfNecessary(prefix, pendingAttributes.get(i+1));
+			}
+		}
+		for (int i=0; i<pendingAttributes.size(); i+=4) {
+			String prefix = pendingAttributes.get(i);
+			if (prefix.isEmpty()) {
+				underlying.writeAttribute(pendingAttributes.get(i+2), pendingAttributes.get(i+3));
+			} else {
+				underlying.writeAttribute(prefix, pendingAttributes.get(i+1),
+						pendingAttributes.get(i+2), pendingAttributes.get(i+3));
+			}
+		}
+		pendingAttributes.clear();
+
+		if (empty) {
+			pop();
+		}
+	}
+
+	private void declareIfNecessary(String prefix, String namespaceURI) throws XMLStreamException {
+
+		if (XMLConstants.XML_NS_PREFIX.equals(prefix)) return;
+
+		String bound = lookup(prefix);
+		if (namespaceURI.equals(bound)) return;
+		if (bound==null && prefix.isEmpty() && namespaceURI.isEmpty()) return;
+
+		if (prefix.isEmpty()) {
+			underlying.writeDefaultNamespace(namespaceURI);
+		} else {
+			underlying.writeNamespace(prefix, namespaceURI);
+		}
+		boundPrefixes.add(prefix);
+		boundUris.add(namespaceURI);
+	}
+
+	private String lookup(String prefix) {
+
+		for (int i=boundPrefixes.size()-1; i>=0; i--) {
+			if (boundPrefixes.get(i).equals(prefix)) {
+				return boundUris.get(i);
+			}
+		}
+		return null;
+	}
+
+	private void push() {
+
+		if (depth==marks.length) {
+			marks = Arrays.copyOf(marks, depth*2);
+		}
+		marks[depth++] = boundPrefixes.size();
+	}
+
+	private void pop() {
+
+		int mark = marks[--depth];
+		for (int i=boundPrefixes.size()-1; i>=mark; i--) {
+			boundPrefixes.remove(i);
+			boundUris.remove(i);
+		}
+	}
+
+}
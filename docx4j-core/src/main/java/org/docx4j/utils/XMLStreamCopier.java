@@ -0,0 +1,156 @@
+package org.docx4j.utils;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Copy StAX events from an XMLStreamReader to an XMLStreamWriter,
+ * one element at a time, so the XML is never held in memory as a tree.
+ *
+ * Namespace declarations are copied as they occur in the source
+ * (the writer need not be namespace repairing).
+ *
+ * @since 8.2.2
+ */
+public class XMLStreamCopier {
+
+	/**
+	 * Copy the element the reader is positioned on, and its content.
+	 * On return, the reader is positioned on the matching END_ELEMENT.
+	 *
+	 * @param xsr positioned on a START_ELEMENT
+	 * @param xsw
+	 * @param inScopeNamespaces namespaces (prefix to URI, "" for the default namespace)
+	 * declared on ancestors of the element in the source, which must be declared on
+	 * the copied element for it to stand on its own; may be null
+	 * @throws XMLStreamException
+	 */
+	public static void copyElement(XMLStreamReader xsr, XMLStreamWriter xsw,
+			Map<String, String> inScopeNamespaces) throws XMLStreamException {
+
+		xsr.require(XMLStreamConstants.START_ELEMENT, null, null);
+
+		int depth = 0;
+		while (true) {
+			switch (xsr.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				writeStartElement(xsr, xsw, depth==0 ? inScopeNamespaces : null);
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				xsw.writeEndElement();
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+				xsw.writeCharacters(xsr.getTextCharacters(), xsr.getTextStart(), xsr.getTextLength());
+				break;
+			case XMLStreamConstants.CDATA:
+				xsw.writeCData(xsr.getText());
+				break;
+			case XMLStreamConstants.COMMENT:
+				xsw.writeComment(xsr.getText());
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				if (xsr.getPIData()==null) {
+					xsw.writeProcessingInstruction(xsr.getPITarget());
+				} else {
+					xsw.writeProcessingInstruction(xsr.getPITarget(), xsr.getPIData());
+				}
+				break;
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				xsw.writeEntityRef(xsr.getLocalName());
+				break;
+			default:
+				// nothing else can occur inside an element
+			}
+			if (depth==0) {
+				return;
+			}
+			xsr.next();
+		}
+	}
+
+	/**
+	 * Copy the root element of the reader's document (ie without its prolog).
+	 *
+	 * @param xsr positioned at the start of the document
+	 * @param xsw
+	 * @throws XMLStreamException
+	 */
+	public static void copyRootElement(XMLStreamReader xsr, XMLStreamWriter xsw) throws XMLStreamException {
+
+		while (xsr.getEventType()!=XMLStreamConstants.START_ELEMENT) {
+			xsr.next();
+		}
+		copyElement(xsr, xsw, null);
+	}
+
+	/**
+	 * Record the namespaces declared on the element the reader is positioned on.
+	 *
+	 * @param xsr positioned on a START_ELEMENT
+	 * @param namespaces prefix to URI, "" for the default namespace
+	 */
+	public static void addNamespaceDeclarations(XMLStreamReader xsr, Map<String, String> namespaces) {
+
+		for (int i=0; i<xsr.getNamespaceCount(); i++) {
+			String prefix = xsr.getNamespacePrefix(i);
+			namespaces.put(prefix==null ? "" : prefix, xsr.getNamespaceURI(i));
+		}
+	}
+
+	private static void writeStartElement(XMLStreamReader xsr, XMLStreamWriter xsw,
+			Map<String, String> inScopeNamespaces) throws XMLStreamException {
+
+		String namespaceURI = xsr.getNamespaceURI();
+		if (namespaceURI==null || namespaceURI.length()==0) {
+			xsw.writeStartElement(xsr.getLocalName());
+		} else {
+			String prefix = xsr.getPrefix();
+			xsw.writeStartElement(prefix==null ? "" : prefix, xsr.getLocalName(), namespaceURI);
+		}
+
+		Set<String> declared = inScopeNamespaces==null ? null : new HashSet<String>();
+		for (int i=0; i<xsr.getNamespaceCount(); i++) {
+			String prefix = xsr.getNamespacePrefix(i);
+			writeNamespace(xsw, prefix, xsr.getNamespaceURI(i));
+			if (declared!=null) {
+				declared.add(prefix==null ? "" : prefix);
+			}
+		}
+		if (inScopeNamespaces!=null) {
+			for (Map.Entry<String, String> ns : inScopeNamespaces.entrySet()) {
+				if (!declared.contains(ns.getKey())) {
+					writeNamespace(xsw, ns.getKey(), ns.getValue());
+				}
+			}
+		}
+
+		for (int i=0; i<xsr.getAttributeCount(); i++) {
+			String attNamespace = xsr.getAttributeNamespace(i);
+			if (attNamespace==null || attNamespace.length()==0) {
+				xsw.writeAttribute(xsr.getAttributeLocalName(i), xsr.getAttributeValue(i));
+			} else {
+				xsw.writeAttribute(xsr.getAttributePrefix(i), attNamespace,
+						xsr.getAttributeLocalName(i), xsr.getAttributeValue(i));
+			}
+		}
+	}
+
+	private static void writeNamespace(XMLStreamWriter xsw, String prefix, String namespaceURI) throws XMLStreamException {
+
+		if (prefix==null || prefix.length()==0) {
+			xsw.writeDefaultNamespace(namespaceURI==null ? "" : namespaceURI);
+		} else {
+			xsw.writeNamespace(prefix, namespaceURI);
+		}
+	}
+
+}
@@ -46,12 +46,16 @@ public class Context {
 		log.info("java.vendor="+System.getProperty("java.vendor"));
 		log.info("java.version="+System.getProperty("java.version"));
 		
-		org.docx4j.jaxb.Context.searchManifestsForJAXBImplementationInfo( ClassLoader.getSystemClassLoader());
-		if (Thread.currentThread().getContextClassLoader()==null) {
-			log.warn("ContextClassLoader is null for current thread");
-			// Happens with IKVM 
-		} else if (ClassLoader.getSystemClassLoader()!=Thread.currentThread().getContextClassLoader()) {
-			org.docx4j.jaxb.Context.searchManifestsForJAXBImplementationInfo(Thread.currentThread().getContextClassLoader());
+		// Just debugging diagnostics.  Since they initialise org.docx4j.jaxb.Context,
+		// doing them unconditionally would stop ContextWarmUp creating the contexts concurrently.
+		if (log.isDebugEnabled()) {
+			org.docx4j.jaxb.Context.searchManifestsForJAXBImplementationInfo( ClassLoader.getSystemClassLoader());
+			if (Thread.currentThread().getContextClassLoader()==null) {
+				log.warn("ContextClassLoader is null for current thread");
+				// Happens with IKVM 
+			} else if (ClassLoader.getSystemClassLoader()!=Thread.currentThread().getContextClassLoader()) {
+				org.docx4j.jaxb.Context.searchManifestsForJAXBImplementationInfo(Thread.currentThread().getContextClassLoader());
+			}
 		}
 		
 		try {	
@@ -0,0 +1,71 @@
+package com.topologi.diffx.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.topologi.diffx.event.impl.WordEvent;
+import com.topologi.diffx.sequence.EventSequence;
+
+public class DiffXMyersTest {
+
+	@Test
+	public void testSameLCSLengthAsMatrix() throws Exception {
+
+		Random random = new Random(1);
+		for (int t = 0; t < 500; t++) {
+
+			int alphabet = 1 + random.nextInt(5);
+			EventSequence seq1 = randomSequence(random, random.nextInt(40), alphabet);
+			EventSequence seq2 = randomSequence(random, random.nextInt(40), alphabet);
+
+			assertEquals(new DiffXFitopsy(seq1, seq2).length(), new DiffXMyers(seq1, seq2).length());
+		}
+	}
+
+	@Test
+	public void testFactoryChoosesLinearSpaceForLongSequences() throws Exception {
+
+		EventSequence seq1 = new EventSequence(50000);
+		EventSequence seq2 = new EventSequence(50000);
+		for (int i = 0; i < 50000; i++) {
+			seq1.addEvent(new WordEvent("w" + i));
+			seq2.addEvent(new WordEvent((i % 1000 == 0 ? "x" : "w") + i));
+		}
+
+		DiffXAlgorithm algorithm = DiffXFactory.newAlgorithm(seq1, seq2);
+		assertTrue(algorithm instanceof DiffXMyers);
+		assertEquals(50000 - 50, algorithm.length());
+	}
+
+	@Test
+	public void testMaxCost() throws Exception {
+
+		Random random = new Random(2);
+		EventSequence seq1 = randomSequence(random, 2000, 3);
+		EventSequence seq2 = randomSequence(random, 2000, 3);
+
+		DiffXMyers unlimited = new DiffXMyers(seq1, seq2);
+		assertFalse(unlimited.isCostExceeded());
+
+		DiffXMyers limited = new DiffXMyers(seq1, seq2);
+		limited.setMaxCost(1000);
+		assertTrue(limited.isCostExceeded());
+		// what was found is still a common subsequence
+		assertTrue(limited.length() < unlimited.length());
+	}
+
+	private static EventSequence randomSequence(Random random, int size, int alphabet) {
+
+		EventSequence seq = new EventSequence();
+		for (int i = 0; i < size; i++) {
+			seq.addEvent(new WordEvent("w" + random.nextInt(alphabet)));
+		}
+		return seq;
+	}
+
+}
@@ -41,7 +41,8 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
 import com.topologi.diffx.algorithm.DiffXAlgorithm;
-import com.topologi.diffx.algorithm.DiffXFitopsy;
+import com.topologi.diffx.algorithm.DiffXFactory;
+import com.topologi.diffx.algorithm.DiffXMyers;
 import com.topologi.diffx.config.DiffXConfig;
 import com.topologi.diffx.event.DiffXEvent;
 import com.topologi.diffx.event.impl.CommentEvent;
@@ -113,9 +114,13 @@ import com.topologi.diffx.util.Constants;
  *
  * We use the eclipse.compare package for the coarse grained divide+conquer.
  *
- * TODO If any of the diffx sliced event sequence pairs are each > 2000
- * entries long, this will log a warning, and just return
- * left tree deleted, right tree inserted.  Or try to carve them up somehow?
+ * The top level LCS compares a hash of the content of each child, so
+ * only changed children are differenced at the event level.  If a
+ * changed region is too big for a matrix based algorithm, DiffXFactory
+ * chooses the linear space DiffXMyers.  Its time still grows with the
+ * number of differences, so if it exceeds maxDiffCost, the changed region
+ * (less its common start and end) is output as deleted then inserted,
+ * and a warning is logged.  See setMaxDiffCost.
  *
  * The classes in src/diffx do not import any of org.docx4j proper;
  * keep it this way so that this package can be made into a dll
@@ -130,6 +135,37 @@ public class Docx4jDriver {
 	
 	protected static Logger log = LoggerFactory.getLogger(Docx4jDriver.class);
 
+	/**
+	 * The default for maxDiffCost.
+	 * 
+	 * @since 8.2.2
+	 */
+	public static final long DEFAULT_MAX_DIFF_COST = 50000000L;
+
+	private static volatile long maxDiffCost = DEFAULT_MAX_DIFF_COST;
+
+	/**
+	 * The maximum number of steps DiffXMyers may take differencing a 
+	 * changed region, before giving up and treating it as a delete
+	 * then insert.  
+	 * 
+	 * @param maxCost the maximum number of steps, or Long.MAX_VALUE for no limit
+	 * @since 8.2.2
+	 */
+	public static void setMaxDiffCost(long maxCost) {
+		if (maxCost < 1) {
+			throw new IllegalArgumentException("maxCost must be positive");
+		}
+		maxDiffCost = maxCost;
+	}
+
+	/**
+	 * @since 8.2.2
+	 */
+	public static long getMaxDiffCost() {
+		return maxDiffCost;
+	}
+
 
 
   /**
@@ -160,6 +196,20 @@ public class Docx4jDriver {
 	}
 
   public static void mainDiff(EventSequence seq1, EventSequence seq2, SmartXMLFormatter formatter , DiffXConfig config)
+  	throws DiffXException, IOException {
+	    mainDiff(seq1, seq2, formatter, config, maxDiffCost);
+  }
+
+  /**
+   * As mainDiff, but if differencing would take more than maxCost steps, 
+   * what's left after slicing off the common start and end is output
+   * as seq1 deleted, then seq2 inserted.
+   *
+   * @return false if the diff was abandoned in favour of delete/insert
+   * @since 8.2.2
+   */
+  public static boolean mainDiff(EventSequence seq1, EventSequence seq2, SmartXMLFormatter formatter , DiffXConfig config,
+		  long maxCost)
   	throws DiffXException, IOException {
 	    formatter.declarePrefixMapping(seq1.getPrefixMapping());
 	    formatter.declarePrefixMapping(seq2.getPrefixMapping());
@@ -168,9 +218,26 @@ public class Docx4jDriver {
 	    SequenceSlicer slicer = new SequenceSlicer(seq1, seq2);
 	    slicer.slice();
 	    slicer.formatStart(formatter);
-	    DiffXAlgorithm df = new DiffXFitopsy(seq1, seq2);
-	    df.process(formatter);
+	    DiffXAlgorithm df = DiffXFactory.newAlgorithm(seq1, seq2);
+	    boolean diffed = true;
+	    if (df instanceof DiffXMyers) {
+	    	((DiffXMyers)df).setMaxCost(maxCost);
+	    	diffed = !((DiffXMyers)df).isCostExceeded();
+	    }
+	    if (diffed) {
+	    	df.process(formatter);
+	    } else {
+	    	log.warn("Differencing " + seq1.size() + " and " + seq2.size() 
+	    			+ " events exceeded the maximum cost " + maxCost + "; treating as delete/insert");
+			for (int i1=0; i1 < seq1.size(); i1++) {
+				formatter.delete(seq1.getEvent(i1));
+			}
+			for (int i2=0; i2 < seq2.size(); i2++) {
+				formatter.insert(seq2.getEvent(i2));
+			}
+	    }
 	    slicer.formatEnd(formatter);
+	    return diffed;
   }
 
 	public static void diff(Node xml1, Node xml2, Writer out) // swapped,
@@ -351,7 +418,7 @@ public class Docx4jDriver {
 					leftIdx = rdi.leftStart();
 				}
 
-				EventSequence seq1 = new EventSequence();
+				EventSequence seq1 = new EventSequence(eventCount(leftESC, rdi.leftStart(), rdi.leftEnd()));
 				// Evil hack - doesn't work
 				// seq1.mapPrefix("http://schemas.openxmlformats.org/wordprocessingml/2006/main", "w");
 
@@ -378,7 +445,7 @@ public class Docx4jDriver {
 				}
 
 
-				EventSequence seq2 = new EventSequence();
+				EventSequence seq2 = new EventSequence(eventCount(rightESC, rdi.rightStart(), rdi.rightEnd()));
 				// Evil hack - doesn't work
 				//seq2.mapPrefix("http://schemas.openxmlformats.org/wordprocessingml/2006/main", "w");
 				for (int k = rdi.rightStart() ; k< rdi.rightEnd() ; k++) {
@@ -402,16 +469,10 @@ public class Docx4jDriver {
 				addComment("Differencing", formatter);
 
 
-				if (seq1.size() + seq2.size() < 5000) {
-				  mainDiff(seq1, seq2, formatter, diffxConfig);
-				} else {
-					for (int i1=0; i1 < seq1.size(); i1++) {
-						formatter.delete(seq1.getEvent(i1));
-					}
-					for (int i2=0; i2 < seq2.size(); i2++) {
-						formatter.insert(seq2.getEvent(i2));
-					}
-				}
+				// Large changed regions are given to a linear space 
+				// algorithm, but treated as delete/insert if that 
+				// would take too long
+				mainDiff(seq1, seq2, formatter, diffxConfig, maxDiffCost);
 
 				//out.append("\n<!-- .. Differencing done -->");
 				addComment(".. Differencing done", formatter);
@@ -438,6 +499,18 @@ public class Docx4jDriver {
 		}
 	  }
 
+	/**
+	 * The number of events in items [start, end), so that the
+	 * EventSequence can be created with random access storage. 
+	 */
+	private static int eventCount(EventSequenceComparator esc, int start, int end) {
+		int count = 0;
+		for (int k = start ; k < end ; k++) {
+			count += esc.getItem(k).size();
+		}
+		return count;
+	}
+
 	// <w:sdtContent
 	//	<!-- Adding same -->
 	//    >
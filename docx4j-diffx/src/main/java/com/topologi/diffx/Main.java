@@ -27,6 +27,7 @@ import com.topologi.diffx.algorithm.DiffXFitWesyma;
 import com.topologi.diffx.algorithm.DiffXFitopsy;
 import com.topologi.diffx.algorithm.DiffXFitsy;
 import com.topologi.diffx.algorithm.DiffXKumarRangan;
+import com.topologi.diffx.algorithm.DiffXMyers;
 import com.topologi.diffx.algorithm.GuanoAlgorithm;
 import com.topologi.diffx.config.DiffXConfig;
 import com.topologi.diffx.config.TextGranularity;
@@ -364,7 +365,7 @@ public final class Main {
     System.err.println("  -L [loader] Choose a specific loader");
     System.err.println("               sax* | dom | text");
     System.err.println("  -A [algo]   Choose a specific algorithm");
-    System.err.println("               fitsy* | guano | fitopsy | kumar | wesyma");
+    System.err.println("               fitsy* | guano | fitopsy | kumar | wesyma | myers");
     System.err.println("  -F [format] Choose a specific formatter");
     System.err.println("               smart* | basic | convenient | strict | short");
     System.err.println("  -W [wsp]    Define whitespace processing");
@@ -425,6 +426,8 @@ public final class Main {
       return new DiffXKumarRangan(seq1, seq2);
     else if ("wesyma".equals(loaderArg))
       return new DiffXFitWesyma(seq1, seq2);
+    else if ("myers".equals(loaderArg))
+      return new DiffXMyers(seq1, seq2);
     else {
       usage();
     }
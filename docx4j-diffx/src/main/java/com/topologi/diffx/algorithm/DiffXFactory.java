@@ -32,6 +32,55 @@ public final class DiffXFactory {
    */
   private static final Class<?>[] ARGS = new Class<?>[]{EventSequence.class, EventSequence.class};
 
+  /**
+   * The maximum number of cells (length1 x length2) for which
+   * {@link #newAlgorithm(EventSequence, EventSequence)} will choose a matrix based algorithm.
+   */
+  public static final long MAX_MATRIX_CELLS = 4000000L;
+
+  /**
+   * The class name of the algorithm to use by default, or <code>null</code> to choose
+   * according to the size of the sequences.
+   */
+  private static String defaultAlgorithm = null;
+
+  /**
+   * Sets the Diff-X algorithm implementation returned by
+   * {@link #newAlgorithm(EventSequence, EventSequence)}.
+   *
+   * @param className The class name of the Diff-X algorithm implementation to use,
+   *                  or <code>null</code> to choose according to the size of the sequences.
+   */
+  public static void setDefaultAlgorithm(String className) {
+    defaultAlgorithm = className;
+  }
+
+  /**
+   * Creates the default Diff-X instance for the specified event sequences.
+   *
+   * <p>Unless a default has been set, this is {@link DiffXFitopsy} where its matrix would
+   * have at most {@link #MAX_MATRIX_CELLS} cells, and the linear space {@link DiffXMyers}
+   * otherwise.
+   *
+   * @param sequence1 The first sequence to use for the Diff-X constructor.
+   * @param sequence2 The second sequence to use for the Diff-X constructor.
+   *
+   * @return A Diff-X algorithm instance.
+   *
+   * @throws FactoryException Should an error occur when trying to instantiate the class.
+   *
+   * @since 8.2.2
+   */
+  public static DiffXAlgorithm newAlgorithm(EventSequence sequence1, EventSequence sequence2)
+      throws FactoryException {
+    if (defaultAlgorithm != null)
+      return newAlgorithm(defaultAlgorithm, sequence1, sequence2);
+    else if ((long)sequence1.size() * sequence2.size() <= MAX_MATRIX_CELLS)
+      return new DiffXFitopsy(sequence1, sequence2);
+    else
+      return new DiffXMyers(sequence1, sequence2);
+  }
+
   /**
    * Creates a Diff-X instance using the specified class name and event sequences.
    * 
@@ -0,0 +1,382 @@
+/*
+ * This file is part of the DiffX library.
+ *
+ * For licensing information please see the file license.txt included in the release.
+ * A copy of this licence can also be found at
+ *   http://www.opensource.org/licenses/artistic-license-2.0.php
+ */
+package com.topologi.diffx.algorithm;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.topologi.diffx.event.AttributeEvent;
+import com.topologi.diffx.event.DiffXEvent;
+import com.topologi.diffx.format.DiffXFormatter;
+import com.topologi.diffx.sequence.EventSequence;
+
+/**
+ * Performs the diff comparison using the linear space variant of E. Myers' O(ND)
+ * algorithm.
+ *
+ * <p>Unlike the matrix based algorithms ({@link DiffXFitopsy}, {@link DiffXFitsy}),
+ * which need length1 x length2 cells, this algorithm only needs storage proportional
+ * to length1 + length2, and runs in time proportional to (length1 + length2) x D,
+ * where D is the size of the edit script; so it is suited to long sequences which
+ * are mostly the same.
+ *
+ * <p>The LCS is computed first, as a mapping between the positions of the two sequences.
+ * The diff is then written the same way as {@link DiffXFitopsy} walks its matrix (so
+ * that the element state is respected), using the mapping to decide which direction
+ * to take.
+ *
+ * <p>Where the sequences have little in common, D (and so the time taken) approaches
+ * length1 + length2; {@link #setMaxCost(long)} puts a limit on the work done.
+ *
+ * <p>E. Myers. <i>An O(ND) difference algorithm and its variations</i>,
+ * Algorithmica 1 (1986)
+ *
+ * <p>This class is not synchronised.
+ *
+ * @since 8.2.2
+ */
+public final class DiffXMyers extends DiffXAlgorithmBase {
+
+  // state variables ----------------------------------------------------------------------------
+
+  /**
+   * The events of the first sequence (random access).
+   */
+  private final DiffXEvent[] events1;
+
+  /**
+   * The events of the second sequence (random access).
+   */
+  private final DiffXEvent[] events2;
+
+  /**
+   * Hash codes of the events, to avoid calling equals where possible.
+   */
+  private final int[] hash1;
+  private final int[] hash2;
+
+  /**
+   * For each position in the first sequence, the matching position in the second
+   * sequence, or -1.
+   */
+  private int[] match1;
+
+  /**
+   * For each position in the second sequence, the matching position in the first
+   * sequence, or -1.
+   */
+  private int[] match2;
+
+  /**
+   * The state of the elements.
+   */
+  private transient ElementState estate = new ElementState();
+
+  /**
+   * The maximum number of steps to take computing the LCS.
+   */
+  private long maxCost = Long.MAX_VALUE;
+
+  /**
+   * The number of steps taken computing the LCS.
+   */
+  private long cost = 0;
+
+  /**
+   * Whether computing the LCS was abandoned because maxCost was reached.
+   */
+  private boolean costExceeded = false;
+
+  // constructor --------------------------------------------------------------------------------
+
+  /**
+   * Creates a new DiffXMyers.
+   *
+   * @param seq0 The first sequence to compare.
+   * @param seq1 The second sequence to compare.
+   */
+  public DiffXMyers(EventSequence seq0, EventSequence seq1) {
+    super(seq0, seq1);
+    // EventSequence may be backed by a linked list
+    this.events1 = seq0.events().toArray(new DiffXEvent[this.length1]);
+    this.events2 = seq1.events().toArray(new DiffXEvent[this.length2]);
+    this.hash1 = hashes(this.events1);
+    this.hash2 = hashes(this.events2);
+  }
+
+  // methods ------------------------------------------------------------------------------------
+
+  /**
+   * Sets the maximum number of steps (diagonals explored, and events compared along
+   * them) to take computing the LCS.  If it is reached, the LCS found so far is used,
+   * so the diff is still correct, but not minimal; see {@link #isCostExceeded()}.
+   *
+   * @param maxCost The maximum number of steps.
+   */
+  public void setMaxCost(long maxCost) {
+    this.maxCost = maxCost;
+  }
+
+  /**
+   * Returns whether the maximum cost was reached computing the LCS (which this
+   * computes, if it hasn't been already).
+   *
+   * @return <code>true</code> if the LCS found is not necessarily the longest.
+   */
+  public boolean isCostExceeded() {
+    length();
+    return this.costExceeded;
+  }
+
+  /**
+   * Returns the length of the longest common sequence.
+   *
+   * @return the length of the longest common sequence.
+   */
+  public int length() {
+    if (this.length < 0) {
+      this.match1 = new int[this.length1];
+      this.match2 = new int[this.length2];
+      Arrays.fill(this.match1, -1);
+      Arrays.fill(this.match2, -1);
+      this.length = 0;
+      lcs(0, this.length1, 0, this.length2);
+    }
+    return this.length;
+  }
+
+  /**
+   * Writes the diff sequence using the specified formatter.
+   *
+   * @param formatter The formatter that will handle the output.
+   *
+   * @throws IOException If thrown by the formatter.
+   */
+  public void process(DiffXFormatter formatter) throws IOException {
+    // handle the case when one of the two sequences is empty
+    if (this.length1 == 0) {
+      for (int j = 0; j < this.length2; j++) {
+        formatter.delete(this.events2[j]);
+      }
+      return;
+    }
+    if (this.length2 == 0) {
+      for (int i = 0; i < this.length1; i++) {
+        formatter.insert(this.events1[i]);
+      }
+      return;
+    }
+    // calculate the LCS
+    length();
+    int i = 0;
+    int j = 0;
+    while (i < this.length1 && j < this.length2) {
+      DiffXEvent e1 = this.events1[i];
+      DiffXEvent e2 = this.events2[j];
+      int m1 = this.match1[i];
+      int m2 = this.match2[j];
+      if (m1 < j) {
+        // e1 is not (or no longer) part of the LCS: priority to insert
+        if (this.estate.okInsert(e1)) {
+          formatter.insert(e1);
+          this.estate.insert(e1);
+          i++;
+        } else if (e1.equals(e2) && this.estate.okFormat(e1)) {
+          formatter.format(e1);
+          this.estate.format(e1);
+          i++; j++;
+        } else if (this.estate.okDelete(e2)) {
+          formatter.delete(e2);
+          this.estate.delete(e2);
+          j++;
+        } else {
+          break;
+        }
+      } else if (m2 < i) {
+        // e2 is not (or no longer) part of the LCS: priority to delete
+        if (this.estate.okDelete(e2)) {
+          formatter.delete(e2);
+          this.estate.delete(e2);
+          j++;
+        } else if (e1.equals(e2) && this.estate.okFormat(e1)) {
+          formatter.format(e1);
+          this.estate.format(e1);
+          i++; j++;
+        } else if (this.estate.okInsert(e1)) {
+          formatter.insert(e1);
+          this.estate.insert(e1);
+          i++;
+        } else {
+          break;
+        }
+      } else {
+        // on the LCS (or both events match further on)
+        if (e1.equals(e2) && this.estate.okFormat(e1)) {
+          formatter.format(e1);
+          this.estate.format(e1);
+          i++; j++;
+        } else if (this.estate.okInsert(e1)
+            && !(e2 instanceof AttributeEvent && !(e1 instanceof AttributeEvent))) {
+          this.estate.insert(e1);
+          formatter.insert(e1);
+          i++;
+        } else if (this.estate.okDelete(e2)
+            && !(e1 instanceof AttributeEvent && !(e2 instanceof AttributeEvent))) {
+          formatter.delete(e2);
+          this.estate.delete(e2);
+          j++;
+        } else {
+          break;
+        }
+      }
+    }
+    // finish off the events from the first sequence
+    while (i < this.length1) {
+      this.estate.insert(this.events1[i]);
+      formatter.insert(this.events1[i]);
+      i++;
+    }
+    // finish off the events from the second sequence
+    while (j < this.length2) {
+      this.estate.delete(this.events2[j]);
+      formatter.delete(this.events2[j]);
+      j++;
+    }
+  }
+
+  // private helpers ----------------------------------------------------------------------------
+
+  /**
+   * Computes the LCS of events1[x0..x1) and events2[y0..y1), recording the matches.
+   */
+  private void lcs(int x0, int x1, int y0, int y1) {
+    if (this.costExceeded) return;
+    // common prefix
+    while (x0 < x1 && y0 < y1 && same(x0, y0)) {
+      match(x0++, y0++);
+    }
+    // common suffix
+    while (x0 < x1 && y0 < y1 && same(x1 - 1, y1 - 1)) {
+      match(--x1, --y1);
+    }
+    if (x0 == x1 || y0 == y1) return;
+    bisect(x0, x1, y0, y1);
+  }
+
+  /**
+   * Finds the middle of an optimal path through events1[x0..x1) and events2[y0..y1),
+   * searching forwards and backwards at the same time, and recurses on both halves.
+   */
+  private void bisect(int x0, int x1, int y0, int y1) {
+    int n = x1 - x0;
+    int m = y1 - y0;
+    int maxD = (n + m + 1) / 2;
+    int offset = maxD;
+    int size = 2 * maxD + 2;
+    int[] v1 = new int[size];
+    int[] v2 = new int[size];
+    Arrays.fill(v1, -1);
+    Arrays.fill(v2, -1);
+    v1[offset + 1] = 0;
+    v2[offset + 1] = 0;
+    int delta = n - m;
+    // if the total number of events is odd, the front path will collide with the reverse path
+    boolean front = (delta % 2 != 0);
+    int k1start = 0;
+    int k1end = 0;
+    int k2start = 0;
+    int k2end = 0;
+    for (int d = 0; d < maxD; d++) {
+      // walk the front path one step
+      for (int k1 = -d + k1start; k1 <= d - k1end; k1 += 2) {
+        if (++this.cost > this.maxCost) {
+          this.costExceeded = true;
+          return;
+        }
+        int k1Offset = offset + k1;
+        int x = (k1 == -d || (k1 != d && v1[k1Offset - 1] < v1[k1Offset + 1]))
+            ? v1[k1Offset + 1] : v1[k1Offset - 1] + 1;
+        int y = x - k1;
+        while (x < n && y < m && same(x0 + x, y0 + y)) {
+          x++; y++;
+          this.cost++;
+        }
+        v1[k1Offset] = x;
+        if (x > n) {
+          k1end += 2;
+        } else if (y > m) {
+          k1start += 2;
+        } else if (front) {
+          int k2Offset = offset + delta - k1;
+          if (k2Offset >= 0 && k2Offset < size && v2[k2Offset] != -1) {
+            if (x >= n - v2[k2Offset]) {
+              split(x0, x1, y0, y1, x, y);
+              return;
+            }
+          }
+        }
+      }
+      // walk the reverse path one step
+      for (int k2 = -d + k2start; k2 <= d - k2end; k2 += 2) {
+        if (++this.cost > this.maxCost) {
+          this.costExceeded = true;
+          return;
+        }
+        int k2Offset = offset + k2;
+        int x = (k2 == -d || (k2 != d && v2[k2Offset - 1] < v2[k2Offset + 1]))
+            ? v2[k2Offset + 1] : v2[k2Offset - 1] + 1;
+        int y = x - k2;
+        while (x < n && y < m && same(x1 - x - 1, y1 - y - 1)) {
+          x++; y++;
+          this.cost++;
+        }
+        v2[k2Offset] = x;
+        if (x > n) {
+          k2end += 2;
+        } else if (y > m) {
+          k2start += 2;
+        } else if (!front) {
+          int k1Offset = offset + delta - k2;
+          if (k1Offset >= 0 && k1Offset < size && v1[k1Offset] != -1) {
+            int xf = v1[k1Offset];
+            int yf = offset + xf - k1Offset;
+            if (xf >= n - x) {
+              split(x0, x1, y0, y1, xf, yf);
+              return;
+            }
+          }
+        }
+      }
+    }
+    // no commonality
+  }
+
+  private void split(int x0, int x1, int y0, int y1, int x, int y) {
+    lcs(x0, x0 + x, y0, y0 + y);
+    lcs(x0 + x, x1, y0 + y, y1);
+  }
+
+  private boolean same(int i, int j) {
+    return this.hash1[i] == this.hash2[j] && this.events1[i].equals(this.events2[j]);
+  }
+
+  private void match(int i, int j) {
+    this.match1[i] = j;
+    this.match2[j] = i;
+    this.length++;
+  }
+
+  private static int[] hashes(DiffXEvent[] events) {
+    int[] hashes = new int[events.length];
+    for (int i = 0; i < events.length; i++) {
+      hashes[i] = events[i].hashCode();
+    }
+    return hashes;
+  }
+
+}
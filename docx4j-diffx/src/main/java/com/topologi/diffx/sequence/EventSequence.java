@@ -176,13 +176,12 @@ public final class EventSequence {
     if (seq == null) return false;
     if (seq.getClass() != this.getClass()) return false;
     List<DiffXEvent> sequence2 = seq.sequence;
-    if (this.sequence.size() != this.sequence.size()) return false;
-    DiffXEvent x1 = null;
-    DiffXEvent x2 = null;
-    for (int i = 0; i < this.sequence.size(); i++) {
-      x1 = this.sequence.get(i);
-      x2 = sequence2.get(i);
-      if (!x1.equals(x2)) return false;
+    if (this.sequence.size() != sequence2.size()) return false;
+    // iterate, since the sequences may be linked lists
+    Iterator<DiffXEvent> i1 = this.sequence.iterator();
+    Iterator<DiffXEvent> i2 = sequence2.iterator();
+    while (i1.hasNext()) {
+      if (!i1.next().equals(i2.next())) return false;
     }
     return true;
   }
@@ -25,14 +25,33 @@ import java.util.List;
 import org.eclipse.compare.rangedifferencer.IRangeComparator;
 
 import com.topologi.diffx.Docx4jDriver;
+import com.topologi.diffx.event.DiffXEvent;
 import com.topologi.diffx.sequence.EventSequence;
 
 public class EventSequenceComparator implements IRangeComparator {
 
 	List<EventSequence> esList;
 	
+	/**
+	 * A hash of the events in each EventSequence; EventSequence.hashCode 
+	 * is just its size, which isn't enough to anchor unchanged content. 
+	 */
+	private int[] contentHashes;
+	
 	public EventSequenceComparator(List<EventSequence> esList) {
 		this.esList = esList;
+		this.contentHashes = new int[esList.size()];
+		for (int i = 0; i < esList.size(); i++) {
+			contentHashes[i] = contentHash(esList.get(i));
+		}
+	}
+	
+	private static int contentHash(EventSequence es) {
+		int hash = es.size();
+		for (DiffXEvent e : es.events()) {
+			hash = 31 * hash + e.hashCode();
+		}
+		return hash;
 	}
 	
 	/* (non-Javadoc)
@@ -46,9 +65,10 @@ public class EventSequenceComparator implements IRangeComparator {
 	 * @see org.eclipse.compare.rangedifferencer.IRangeComparator#rangesEqual(int, org.eclipse.compare.rangedifferencer.IRangeComparator, int)
 	 */
 	public boolean rangesEqual(int idx, IRangeComparator rc2, int idx2) {
-		//boolean result = this.esList.get(idx).equals(((EventSequenceComparator)rc2).getItem(idx2) );
-		boolean result = (this.esList.get(idx).hashCode() ==
-				((EventSequenceComparator)rc2).getItem(idx2).hashCode() );
+		EventSequenceComparator other = (EventSequenceComparator)rc2;
+		// compare the hashes first, so the events are only compared where they are probably the same
+		boolean result = (this.contentHashes[idx] == other.contentHashes[idx2])
+				&& this.esList.get(idx).equals(other.getItem(idx2));
 		//if (result) { Docx4jDriver.log("matched!");}
 		return result;
 	}
@@ -24,6 +24,7 @@ import java.util.List;
 import org.docx4j.convert.out.FOSettings;
 import org.docx4j.convert.out.common.AbstractVisitorExporterDelegate;
 import org.docx4j.convert.out.common.ConversionSectionWrapper;
+import org.docx4j.convert.out.common.ConversionSectionWrappers;
 import org.docx4j.convert.out.common.XsltCommonFunctions;
 import org.docx4j.model.fields.FormattingSwitchHelper;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
@@ -33,8 +34,17 @@ import org.w3c.dom.Element;
 
 public class FOExporterVisitorDelegate extends AbstractVisitorExporterDelegate<FOSettings, FOConversionContext> {
 	
+	protected static final AbstractVisitorExporterContextFactory<FOSettings, FOConversionContext> CONTEXT_FACTORY = 
+			new AbstractVisitorExporterContextFactory<FOSettings, FOConversionContext>() {
+				@Override
+				public FOConversionContext createInstance(FOSettings conversionSettings,
+						FOConversionContext conversionContext, ConversionSectionWrappers sections) {
+					return new FOConversionContext(conversionSettings, conversionContext.getWmlPackage(), sections);
+				}
+	};
+
 	protected FOExporterVisitorDelegate() {
-		super(FOExporterVisitorGenerator.GENERATOR_FACTORY);
+		super(FOExporterVisitorGenerator.GENERATOR_FACTORY, CONTEXT_FACTORY);
 	}
 
 	private static String XSL_FO = "http://www.w3.org/1999/XSL/Format";
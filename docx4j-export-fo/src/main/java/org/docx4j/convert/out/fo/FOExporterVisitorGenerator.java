@@ -337,8 +337,8 @@ public class FOExporterVisitorGenerator extends AbstractVisitorExporterGenerator
 				
 	        	ResultTriple triple;
 	        	if (pPrDirect!=null && pPrDirect.getNumPr()!=null) {
-	        		triple = org.docx4j.model.listnumbering.Emulator.getNumber(
-	        			conversionContext.getWmlPackage(), pStyleVal, 
+	        		triple = conversionContext.getNumber(
+	        			pPrDirect, pStyleVal, 
 	        			pPrDirect.getNumPr().getNumId().getVal().toString(), 
 	        			pPrDirect.getNumPr().getIlvl().getVal().toString() ); 
 	        	} else {
@@ -348,8 +348,8 @@ public class FOExporterVisitorGenerator extends AbstractVisitorExporterGenerator
 	        		String ilvlString = ilvl == null ? "0" : ilvl.getVal().toString();
 	        		triple = null; 
 	        		if (pPr.getNumPr().getNumId()!=null) {
-		        		triple = org.docx4j.model.listnumbering.Emulator.getNumber(
-		        				conversionContext.getWmlPackage(), pStyleVal, 
+		        		triple = conversionContext.getNumber(
+		        				pPrDirect, pStyleVal, 
 			        			pPr.getNumPr().getNumId().getVal().toString(), 
 			        			ilvlString ); 		        	
 	        		}
@@ -25,7 +25,9 @@ import java.io.OutputStream;
 import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
@@ -42,6 +44,7 @@ import org.apache.fop.apps.FopFactory;
 import org.apache.fop.apps.FormattingResults;
 import org.apache.fop.apps.MimeConstants;
 import org.apache.fop.apps.PageSequenceResults;
+import org.apache.fop.render.xml.XMLRenderer;
 import org.docx4j.XmlUtils;
 import org.docx4j.convert.out.FORenderer;
 import org.docx4j.convert.out.FOSettings;
@@ -56,6 +59,7 @@ import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
 import org.docx4j.utils.XmlSerializerUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.ContentHandler;
 
 /** The Apache FO Renderer uses Apache FOP to render the fo document
  *  and is the default FO Renderer
@@ -70,6 +74,20 @@ public class FORendererApacheFOP extends AbstractFORenderer { //implements FORen
 	private static final String FO_USER_AGENT = "foUserAgent";
 	private static final String FOP_FACTORY = "fopFactory";
 	
+	private static final int FOP_FACTORY_CACHE_SIZE = 4;
+	
+	/**
+	 * FopFactory instances, by configuration, most recently used last
+	 */
+	private static final Map<String, FopFactory> fopFactories 
+		= new LinkedHashMap<String, FopFactory>(8, 0.75f, true) {
+		
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, FopFactory> eldest) {
+				return size() > FOP_FACTORY_CACHE_SIZE;
+			}
+		};
+	
 	
 	protected static class FopPlaceholderLookup extends AbstractPlaceholderLookup {
 		
@@ -178,6 +196,18 @@ public class FORendererApacheFOP extends AbstractFORenderer { //implements FORen
 		startEvent.publish();
 		
 	    FOUserAgent foUserAgent = (FOUserAgent)settings.getSettings().get(FO_USER_AGENT);
+	    ContentHandler areaTreeHandler = settings.getApacheFopAreaTreeHandler();
+	    if (areaTreeHandler!=null
+	    		&& MimeConstants.MIME_FOP_AREA_TREE.equals(apacheFopMime)) {
+	    	// Send the area tree straight to the handler, page by page, 
+	    	// rather than serialising it to the OutputStream
+	    	if (foUserAgent==null) {
+	    		foUserAgent = fopFactory.newFOUserAgent();
+	    	}
+	    	XMLRenderer renderer = new XMLRenderer(foUserAgent);
+	    	renderer.setContentHandler(areaTreeHandler);
+	    	foUserAgent.setRendererOverride(renderer);
+	    }
 		render(fopFactory, foUserAgent, apacheFopMime, foDocumentSrc, placeholderLookup, outputStream);
 		
 		new EventFinished(startEvent).publish();
@@ -303,21 +333,22 @@ public class FORendererApacheFOP extends AbstractFORenderer { //implements FORen
 	
 	protected  static FopFactory getFopFactory(String userConfig) throws FOPException {
 
-		//The current implementation doesn't pass the user config to the fop factory 
-		//if there is only a factory per Thread, all documents rendered in that  
-		//Thread would use the configuration done for the first document.
-		//For this reason disable the reuse of the FopFactories until this issue 
-		//gets resolved.
-		return createFopFactory(userConfig);
-//		FopFactory fopFactory = fopFactories.get(Thread.currentThread().getId());
-//		if (fopFactory == null) {
-//			synchronized(fopFactories) {
-//				fopFactory = createFopFactory(userConfig);
-//				fopFactories.put(Thread.currentThread().getId(), fopFactory);
-//			}
-//		}
-//		fopFactory.setUserConfig(userConfig);
-//		return fopFactory;
+		// A FopFactory is configured when it is created, so we reuse one
+		// only for the same configuration (typically, the same fonts in use).
+		// It is thread safe, and worth reusing, since it caches font metrics.
+		synchronized(fopFactories) {
+			FopFactory fopFactory = fopFactories.get(userConfig);
+			if (fopFactory == null) {
+				fopFactory = createFopFactory(userConfig);
+				if (fopFactory!=null) {
+					fopFactories.put(userConfig, fopFactory);
+				}
+			} else {
+				// but not images, whose URIs may be reused for different content
+				fopFactory.getImageManager().getCache().clearCache();
+			}
+			return fopFactory;
+		}
 	}
 	
 	/**
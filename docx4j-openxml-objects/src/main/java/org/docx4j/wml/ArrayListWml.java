@@ -1,6 +1,7 @@
 package org.docx4j.wml;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import javax.xml.bind.JAXBElement;
@@ -37,6 +38,92 @@ public class ArrayListWml<E> extends ArrayList<E> {
 	private ArrayListWml() {}
 	
 	private Object parent = null;
+	
+	/**
+	 * Notified after the membership of an ArrayListWml it has been added to 
+	 * changes (via add, set, remove, addAll, removeAll, retainAll or clear), 
+	 * so that derived state (eg an element index) can be kept up to date.
+	 * 
+	 * Changes made via an iterator, subList, removeIf, replaceAll or sort
+	 * are not notified.
+	 * 
+	 * A listener is added to individual lists (see TraversalUtil.addChangeListener
+	 * to add it to all the lists in a content tree); lists nested in content 
+	 * added later don't have it, unless you add it to them.
+	 * 
+	 * @since 8.2.2
+	 */
+	public interface ChangeListener {
+		
+		/**
+		 * @param list the list which changed; see getParent() 
+		 */
+		void contentChanged(ArrayListWml<?> list);
+	}
+	
+	/**
+	 * Usually null, so lists no one is listening to pay nothing.  
+	 * Like the list itself, not thread-safe.
+	 */
+	private transient ChangeListener[] changeListeners = null;
+
+	/**
+	 * Notify the listener of changes to this list (if it isn't already).
+	 * @since 8.2.2
+	 */
+	public void addChangeListener(ChangeListener listener) {
+		
+		if (changeListeners==null) {
+			changeListeners = new ChangeListener[] {listener};
+			return;
+		}
+		for (ChangeListener existing : changeListeners) {
+			if (existing==listener) return;
+		}
+		ChangeListener[] listeners = Arrays.copyOf(changeListeners, changeListeners.length+1);
+		listeners[changeListeners.length] = listener;
+		changeListeners = listeners;
+	}
+
+	/**
+	 * @since 8.2.2
+	 */
+	public void removeChangeListener(ChangeListener listener) {
+		
+		if (changeListeners==null) return;
+		for (int i = 0; i < changeListeners.length; i++) {
+			if (changeListeners[i]==listener) {
+				if (changeListeners.length==1) {
+					changeListeners = null;
+				} else {
+					ChangeListener[] listeners = new ChangeListener[changeListeners.length-1];
+					System.arraycopy(changeListeners, 0, listeners, 0, i);
+					System.arraycopy(changeListeners, i+1, listeners, i, listeners.length-i);
+					changeListeners = listeners;
+				}
+				return;
+			}
+		}
+	}
+	
+	private void changed() {
+		ChangeListener[] listeners = changeListeners;
+		if (listeners==null) return; // the usual case
+		for (ChangeListener listener : listeners) {
+			listener.contentChanged(this);
+		}
+	}
+
+	/**
+	 * The copy has no change listeners.
+	 * @since 8.2.2
+	 */
+	@Override
+	public Object clone() {
+		ArrayListWml<?> copy = (ArrayListWml<?>)super.clone();
+		copy.changeListeners = null;
+		return copy;
+	}
 
     /**
      * Returns <tt>true</tt> if this list contains the specified element
@@ -112,7 +199,9 @@ public class ArrayListWml<E> extends ArrayList<E> {
 		} else {
 			setParent(e);
 		}
-		return super.set(index, e);
+		E previous = super.set(index, e);
+		changed();
+		return previous;
     }    
 	
     /**
@@ -136,7 +225,9 @@ public class ArrayListWml<E> extends ArrayList<E> {
 		}
 		
     	
-		return super.add(e);
+		super.add(e);
+		changed();
+		return true;
     }
 
     /**
@@ -159,6 +250,7 @@ public class ArrayListWml<E> extends ArrayList<E> {
 		}
 		
 		super.add(index, e);
+		changed();
     }
 	
     /**
@@ -187,6 +279,31 @@ public class ArrayListWml<E> extends ArrayList<E> {
         }
         return false;
     }
+
+    /**
+     * Removes the element at the specified position in this list.
+     * 
+     * @param index the index of the element to be removed
+     * @return the element that was removed from the list
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+	 * @since 8.2.2
+     */
+    @Override
+    public E remove(int index) {
+    	E removed = super.remove(index);
+		changed();
+    	return removed;
+    }
+
+    /**
+     * Removes all of the elements from this list. 
+	 * @since 8.2.2
+     */
+    @Override
+    public void clear() {
+    	super.clear();
+		changed();
+    }
 	
 
     /**
@@ -209,7 +326,9 @@ public class ArrayListWml<E> extends ArrayList<E> {
 				setParent(o);
 			}
 		}
-		return super.addAll(c);
+		boolean result = super.addAll(c);
+		if (result) changed();
+		return result;
 	}
 	
     /**
@@ -235,20 +354,26 @@ public class ArrayListWml<E> extends ArrayList<E> {
 				setParent(o);
 			}
 		}
-		return super.addAll(index, c);
+		boolean result = super.addAll(index, c);
+		if (result) changed();
+		return result;
 
     }
 	
     public boolean removeAll(Collection<?> c) {
     	// For now, just warn that behaviour is inconsistent with other remove methods
     	log.warn("This method won't remove an object if it is wrapped in a JAXBElement");
-    	return super.removeAll(c);
+    	boolean result = super.removeAll(c);
+		if (result) changed();
+		return result;
     }
 
     public boolean retainAll(Collection<?> c) {
     	// For now, just warn that behaviour is inconsistent with other remove methods
     	log.warn("This method won't retain an object if it is wrapped in a JAXBElement");
-        return super.retainAll(c);
+        boolean result = super.retainAll(c);
+		if (result) changed();
+		return result;
     }
 	
 	